@@ -410,9 +410,20 @@ CHURL_HANDLE
 churl_init_download(const char *url, CHURL_HEADERS headers)
 {
 	churl_context *context = churl_init(url, headers);
+	const char *accept_encoding = getenv(ENV_PXF_RESPONSE_COMPRESSION);
 
 	context->upload = false;
 
+	/*
+	 * let the server compress the data it sends, libcurl sends the
+	 * Accept-Encoding header and decompresses the response transparently
+	 */
+	if (accept_encoding && accept_encoding[0] != '\0')
+	{
+		elog(DEBUG3, "accepting compressed responses with content encoding '%s'", accept_encoding);
+		set_curl_option(context, CURLOPT_ACCEPT_ENCODING, accept_encoding);
+	}
+
 	setup_multi_handle(context);
 	return (CHURL_HANDLE) context;
 }
@@ -188,6 +188,43 @@ test_churl_init_download(void **state)
 	pfree(handle);
 }
 
+static void
+test_churl_init_download_with_compression(void **state)
+{
+	CHURL_HEADERS headers = palloc0(sizeof(CHURL_HEADERS));
+	CURL	   *mock_curl_handle = test_churl_init();
+	CURLM	   *mock_multi_handle = palloc0(1);
+
+	setenv(ENV_PXF_RESPONSE_COMPRESSION, "gzip", 1);
+
+	/* libcurl is asked to negotiate and decode the response compression */
+	curl_easy_setopt_test_helper(mock_curl_handle, CURLOPT_ACCEPT_ENCODING);
+
+	will_return(curl_multi_init, mock_multi_handle);
+
+	expect_value(curl_multi_add_handle, multi_handle, mock_multi_handle);
+	expect_value(curl_multi_add_handle, curl_handle, mock_curl_handle);
+	will_return(curl_multi_add_handle, CURLM_OK);
+
+	expect_value(curl_multi_perform, multi_handle, mock_multi_handle);
+	expect_any(curl_multi_perform, running_handles);
+	will_return(curl_multi_perform, CURLM_OK);
+
+	/* function call */
+	CHURL_HANDLE handle = churl_init_download(uri_param, headers);
+	churl_context *context = (churl_context *) handle;
+
+	/* test assertions */
+	assert_true(context->upload == false);
+
+	/* tear down */
+	unsetenv(ENV_PXF_RESPONSE_COMPRESSION);
+	pfree(mock_curl_handle);
+	pfree(mock_multi_handle);
+	pfree(headers);
+	pfree(handle);
+}
+
 /*  wrapper function to enable sideeffect testing with multiple parameters */
 static void
 #if PG_VERSION_NUM >= 90400
@@ -273,6 +310,7 @@ main(int argc, char *argv[])
 		unit_test(test_set_curl_option),
 		unit_test(test_churl_init_upload),
 		unit_test(test_churl_init_download),
+		unit_test(test_churl_init_download_with_compression),
 		unit_test(test_churl_read)
 	};
 
@@ -106,8 +106,18 @@ void		churl_headers_cleanup(CHURL_HEADERS headers);
  */
 CHURL_HANDLE churl_init_upload(const char *url, CHURL_HEADERS headers);
 
+/*
+ * Environment variable with the content codings (e.g. "gzip" or
+ * "deflate, gzip") that downloads accept from the PXF server. When set,
+ * the server may compress the data it sends and libcurl decompresses it
+ * before it is handed to churl_read.
+ */
+#define ENV_PXF_RESPONSE_COMPRESSION "PXF_RESPONSE_COMPRESSION"
+
 /*
  * Start a download to url
+ * The response is compressed on the wire if the PXF_RESPONSE_COMPRESSION
+ * environment variable is set
  * returns a handle to churl transfer
  */
 CHURL_HANDLE churl_init_download(const char *url, CHURL_HEADERS headers);
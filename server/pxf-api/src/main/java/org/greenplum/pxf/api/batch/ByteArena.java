@@ -0,0 +1,119 @@
+package org.greenplum.pxf.api.batch;
+
+import java.util.Arrays;
+
+/**
+ * A growable byte buffer that holds the values of the variable-length columns
+ * of a {@link ColumnBatch}. Values are appended one after another and are
+ * referenced by their offset and length, so that filling a batch does not
+ * allocate an array per value. The arena is reset together with the batch and
+ * its buffer is reused for the next batch.
+ */
+public class ByteArena {
+
+    private static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private byte[] buffer;
+    private int size;
+
+    /**
+     * Creates an arena with the default initial capacity.
+     */
+    public ByteArena() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an arena with the given initial capacity.
+     *
+     * @param capacity the initial capacity in bytes
+     */
+    public ByteArena(int capacity) {
+        this.buffer = new byte[Math.max(capacity, 16)];
+    }
+
+    /**
+     * Discards all values held by the arena, keeping the allocated buffer.
+     */
+    public void reset() {
+        size = 0;
+    }
+
+    /**
+     * Returns the buffer holding the values. The buffer may be replaced when
+     * values are appended, so it should not be retained across appends.
+     *
+     * @return the buffer holding the values
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Returns the number of bytes held by the arena.
+     *
+     * @return the number of bytes held by the arena
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Appends the given bytes to the arena.
+     *
+     * @param bytes  the source array
+     * @param offset the offset of the first byte in the source array
+     * @param length the number of bytes to append
+     * @return the offset of the appended bytes in the arena
+     */
+    public int append(byte[] bytes, int offset, int length) {
+        ensureCapacity(size + length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        int start = size;
+        size += length;
+        return start;
+    }
+
+    /**
+     * Appends the UTF-8 encoding of the given characters to the arena,
+     * without materializing an intermediate byte array. Unpaired surrogates
+     * are replaced with '?', matching {@link String#getBytes(java.nio.charset.Charset)}.
+     *
+     * @param chars the characters to append
+     * @return the number of bytes appended
+     */
+    public int appendUtf8(CharSequence chars) {
+        int length = chars.length();
+        // a char takes at most 3 bytes in UTF-8, a surrogate pair takes 4 bytes for 2 chars
+        ensureCapacity(size + 3 * length);
+        int start = size;
+        for (int i = 0; i < length; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                buffer[size++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[size++] = (byte) (0xc0 | (c >> 6));
+                buffer[size++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                buffer[size++] = (byte) (0xf0 | (codePoint >> 18));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                buffer[size++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                buffer[size++] = (byte) '?';
+            } else {
+                buffer[size++] = (byte) (0xe0 | (c >> 12));
+                buffer[size++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buffer[size++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        return size - start;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+        }
+    }
+}
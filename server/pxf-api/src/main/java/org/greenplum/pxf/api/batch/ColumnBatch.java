@@ -0,0 +1,114 @@
+package org.greenplum.pxf.api.batch;
+
+import org.greenplum.pxf.api.io.DataType;
+
+/**
+ * A batch of rows stored column by column. A resolver that supports columnar
+ * batches fills one {@link ColumnVector} per column of the Greenplum table,
+ * and the output builder serializes the rows of the batch directly from the
+ * vectors, without creating a {@code OneField} object per value.
+ * <p>
+ * A batch is reused for consecutive batches of the same query: calling
+ * {@link #reset(int)} discards the values of the previous batch while keeping
+ * the allocated arrays and the arena buffer.
+ */
+public class ColumnBatch {
+
+    private final ColumnVector[] columns;
+    private final ByteArena arena;
+    private int capacity;
+    private int size;
+
+    /**
+     * Creates a batch with the given number of columns.
+     *
+     * @param columnCount the number of columns
+     * @param capacity    the initial maximum number of rows
+     */
+    public ColumnBatch(int columnCount, int capacity) {
+        this.columns = new ColumnVector[columnCount];
+        this.arena = new ByteArena();
+        this.capacity = capacity;
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = new ColumnVector(capacity, arena);
+        }
+    }
+
+    /**
+     * Discards the values of the previous batch and prepares the batch to hold
+     * the given number of rows, growing the column vectors when needed. The
+     * caller is expected to {@link ColumnVector#reset(DataType) reset} each
+     * column with its type before filling it.
+     *
+     * @param size the number of rows of the batch
+     */
+    public void reset(int size) {
+        if (size > capacity) {
+            capacity = size;
+            for (ColumnVector column : columns) {
+                column.ensureCapacity(size);
+            }
+        }
+        this.size = size;
+        arena.reset();
+    }
+
+    /**
+     * Sets the number of rows of a batch that was filled with fewer rows than
+     * it was reset to, keeping the values of the rows.
+     *
+     * @param size the number of rows of the batch, at most its capacity
+     */
+    public void setSize(int size) {
+        if (size < 0 || size > capacity) {
+            throw new IllegalArgumentException(String.format("Size %d is out of the range of the batch capacity %d", size, capacity));
+        }
+        this.size = size;
+    }
+
+    /**
+     * Returns the number of rows of the batch.
+     *
+     * @return the number of rows of the batch
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of rows the batch can hold without growing.
+     *
+     * @return the capacity of the batch
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of columns of the batch.
+     *
+     * @return the number of columns
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Returns the vector holding the values of the given column.
+     *
+     * @param index the column index
+     * @return the column vector
+     */
+    public ColumnVector getColumn(int index) {
+        return columns[index];
+    }
+
+    /**
+     * Returns the arena holding the variable-length values of all columns.
+     *
+     * @return the arena
+     */
+    public ByteArena getArena() {
+        return arena;
+    }
+}
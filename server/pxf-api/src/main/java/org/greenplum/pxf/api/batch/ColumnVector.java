@@ -0,0 +1,328 @@
+package org.greenplum.pxf.api.batch;
+
+import org.greenplum.pxf.api.io.DataType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The values of a single column of a {@link ColumnBatch}. Depending on the
+ * Greenplum type of the column, values are stored in a primitive array of
+ * longs ({@code BOOLEAN}, {@code SMALLINT}, {@code INTEGER}, {@code BIGINT}),
+ * of doubles ({@code REAL}, {@code FLOAT8}), or as references into the byte
+ * arena shared by the columns of the batch (all other types, where textual
+ * values are stored UTF-8 encoded in their Greenplum text representation).
+ * Null values are tracked in a bitmap.
+ */
+public class ColumnVector {
+
+    /**
+     * The way the values of a column are stored.
+     */
+    public enum Storage {
+        LONG, DOUBLE, BYTES;
+
+        /**
+         * Returns the storage used for values of the given Greenplum type.
+         *
+         * @param type the Greenplum type
+         * @return the storage for values of the type
+         */
+        public static Storage of(DataType type) {
+            switch (type) {
+                case BOOLEAN:
+                case SMALLINT:
+                case INTEGER:
+                case BIGINT:
+                    return LONG;
+                case REAL:
+                case FLOAT8:
+                    return DOUBLE;
+                default:
+                    return BYTES;
+            }
+        }
+    }
+
+    private final ByteArena arena;
+    private DataType type = DataType.UNSUPPORTED_TYPE;
+    private Storage storage = Storage.BYTES;
+    private int capacity;
+    private long[] longs;
+    private double[] doubles;
+    private int[] offsets;
+    private int[] lengths;
+    private long[] nulls;
+    private boolean noNulls = true;
+
+    /**
+     * Creates a column vector.
+     *
+     * @param capacity the maximum number of values
+     * @param arena    the arena holding variable-length values
+     */
+    ColumnVector(int capacity, ByteArena arena) {
+        this.capacity = capacity;
+        this.arena = arena;
+        this.nulls = new long[bitmapLength(capacity)];
+    }
+
+    /**
+     * Prepares the vector to receive the values of the given type, discarding
+     * the values of the previous batch.
+     *
+     * @param type the Greenplum type of the values
+     */
+    public void reset(DataType type) {
+        reset(type, Storage.of(type));
+    }
+
+    /**
+     * Prepares the vector to receive the values of the given type stored with
+     * the given storage, discarding the values of the previous batch. Writers
+     * use it to hold values already converted to the representation of the
+     * target format, such as dates stored as a number of days.
+     *
+     * @param type    the Greenplum type of the values
+     * @param storage the way the values are stored
+     */
+    public void reset(DataType type, Storage storage) {
+        this.type = type;
+        this.storage = storage;
+        switch (storage) {
+            case LONG:
+                if (longs == null) longs = new long[capacity];
+                break;
+            case DOUBLE:
+                if (doubles == null) doubles = new double[capacity];
+                break;
+            default:
+                if (offsets == null) {
+                    offsets = new int[capacity];
+                    lengths = new int[capacity];
+                }
+        }
+        if (!noNulls) {
+            Arrays.fill(nulls, 0L);
+            noNulls = true;
+        }
+    }
+
+    /**
+     * Returns the Greenplum type of the values.
+     *
+     * @return the Greenplum type of the values
+     */
+    public DataType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the way the values are stored.
+     *
+     * @return the storage of the values
+     */
+    public Storage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Returns whether all values of the vector are non-null.
+     *
+     * @return true if no value has been set to null
+     */
+    public boolean hasNoNulls() {
+        return noNulls;
+    }
+
+    /**
+     * Marks the value at the given row as null.
+     *
+     * @param row the row index
+     */
+    public void setNull(int row) {
+        nulls[row >>> 6] |= 1L << row;
+        noNulls = false;
+    }
+
+    /**
+     * Marks the values of the first {@code size} rows as null.
+     *
+     * @param size the number of rows
+     */
+    public void setAllNull(int size) {
+        Arrays.fill(nulls, 0, size >>> 6, -1L);
+        if ((size & 63) != 0) {
+            nulls[size >>> 6] |= (1L << size) - 1;
+        }
+        noNulls = size == 0 && noNulls;
+    }
+
+    /**
+     * Returns whether the value at the given row is null.
+     *
+     * @param row the row index
+     * @return true if the value is null
+     */
+    public boolean isNull(int row) {
+        return !noNulls && (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Sets the value of a column with {@link Storage#LONG} storage; booleans
+     * are stored as 1 for true and 0 for false.
+     *
+     * @param row   the row index
+     * @param value the value
+     */
+    public void setLong(int row, long value) {
+        longs[row] = value;
+    }
+
+    /**
+     * Returns the value of a column with {@link Storage#LONG} storage.
+     *
+     * @param row the row index
+     * @return the value
+     */
+    public long getLong(int row) {
+        return longs[row];
+    }
+
+    /**
+     * Sets the value of a column with {@link Storage#DOUBLE} storage.
+     *
+     * @param row   the row index
+     * @param value the value
+     */
+    public void setDouble(int row, double value) {
+        doubles[row] = value;
+    }
+
+    /**
+     * Returns the value of a column with {@link Storage#DOUBLE} storage.
+     *
+     * @param row the row index
+     * @return the value
+     */
+    public double getDouble(int row) {
+        return doubles[row];
+    }
+
+    /**
+     * Sets the value of a column with {@link Storage#BYTES} storage by copying
+     * the given bytes into the arena. Textual values must be UTF-8 encoded.
+     *
+     * @param row    the row index
+     * @param bytes  the source array
+     * @param offset the offset of the value in the source array
+     * @param length the length of the value
+     */
+    public void setBytes(int row, byte[] bytes, int offset, int length) {
+        offsets[row] = arena.append(bytes, offset, length);
+        lengths[row] = length;
+    }
+
+    /**
+     * Sets the value of a column with {@link Storage#BYTES} storage to text
+     * read as UTF-8 from the given bytes. ASCII values are copied as they are,
+     * other values are decoded and re-encoded so that malformed input is
+     * replaced the same way {@link String#String(byte[], int, int, java.nio.charset.Charset)}
+     * replaces it.
+     *
+     * @param row    the row index
+     * @param bytes  the source array
+     * @param offset the offset of the value in the source array
+     * @param length the length of the value
+     */
+    public void setUtf8(int row, byte[] bytes, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            if (bytes[i] < 0) {
+                setString(row, new String(bytes, offset, length, StandardCharsets.UTF_8));
+                return;
+            }
+        }
+        setBytes(row, bytes, offset, length);
+    }
+
+    /**
+     * Sets the value of a column with {@link Storage#BYTES} storage to the
+     * UTF-8 encoding of the given characters.
+     *
+     * @param row   the row index
+     * @param value the value
+     */
+    public void setString(int row, CharSequence value) {
+        offsets[row] = arena.getSize();
+        lengths[row] = arena.appendUtf8(value);
+    }
+
+    /**
+     * Makes the value at the given row refer to the same bytes as the value
+     * at another row, without copying them.
+     *
+     * @param row       the row index
+     * @param sourceRow the row index of the value to refer to
+     */
+    public void setSameBytes(int row, int sourceRow) {
+        offsets[row] = offsets[sourceRow];
+        lengths[row] = lengths[sourceRow];
+    }
+
+    /**
+     * Returns the offset of the value of a column with {@link Storage#BYTES}
+     * storage in the arena buffer.
+     *
+     * @param row the row index
+     * @return the offset of the value
+     */
+    public int getOffset(int row) {
+        return offsets[row];
+    }
+
+    /**
+     * Returns the length of the value of a column with {@link Storage#BYTES}
+     * storage.
+     *
+     * @param row the row index
+     * @return the length of the value
+     */
+    public int getLength(int row) {
+        return lengths[row];
+    }
+
+    /**
+     * Returns the arena holding the values of columns with {@link Storage#BYTES} storage.
+     *
+     * @return the arena
+     */
+    public ByteArena getArena() {
+        return arena;
+    }
+
+    /**
+     * Grows the vector so that it can hold the given number of values. The
+     * values are not preserved.
+     *
+     * @param capacity the required capacity
+     */
+    void ensureCapacity(int capacity) {
+        if (capacity <= this.capacity) {
+            return;
+        }
+        this.capacity = capacity;
+        this.nulls = new long[bitmapLength(capacity)];
+        this.noNulls = true;
+        this.longs = longs != null ? new long[capacity] : null;
+        this.doubles = doubles != null ? new double[capacity] : null;
+        if (offsets != null) {
+            this.offsets = new int[capacity];
+            this.lengths = new int[capacity];
+        }
+    }
+
+    private static int bitmapLength(int capacity) {
+        return (capacity + 63) >>> 6;
+    }
+}
@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
 
@@ -15,6 +16,12 @@ public class PxfServerProperties {
 
     public static final String PXF_BASE_PROPERTY = "pxf.base";
 
+    /**
+     * Bean name of the {@link org.springframework.core.task.AsyncTaskExecutor} shared by the helper tasks
+     * of plugins, configured by the plugin task properties.
+     */
+    public static final String PLUGIN_TASK_EXECUTOR = "pxfPluginTaskExecutor";
+
     /**
      * The property prefix for all properties in this group.
      */
@@ -41,6 +48,20 @@ public class PxfServerProperties {
     @Setter
     private TaskExecutionProperties task = new TaskExecutionProperties();
 
+    /**
+     * Configurable task execution properties for helper tasks of plugins (e.g. compressing written data in parallel)
+     */
+    @Getter
+    @Setter
+    private TaskExecutionProperties pluginTask = new TaskExecutionProperties();
+
+    /**
+     * Customizable settings for streaming data to Greenplum segments (i.e Bridge Read)
+     */
+    @Getter
+    @Setter
+    private Read read = new Read();
+
     @Getter
     @Setter
     public static class Tomcat {
@@ -62,6 +83,97 @@ public class PxfServerProperties {
 
     }
 
+    @Getter
+    @Setter
+    public static class Read {
+
+        /**
+         * Configurable task execution properties for helper tasks that run alongside a read request
+         */
+        private TaskExecutionProperties task = new TaskExecutionProperties();
+
+        /**
+         * Settings for the pipelined read mode
+         */
+        private Pipeline pipeline = new Pipeline();
+
+        /**
+         * Number of fragments that are opened ahead of the fragment currently
+         * being streamed, 0 disables the look-ahead
+         */
+        private int fragmentPrefetch = 0;
+
+        /**
+         * Maximum amount of encoded data buffered for each fragment opened ahead
+         */
+        private DataSize fragmentPrefetchBufferSize = DataSize.ofMegabytes(1);
+
+        /**
+         * Settings for reading the fragments of a request in parallel
+         */
+        private Parallel parallel = new Parallel();
+
+        /**
+         * Settings for compressing the data sent to the client
+         */
+        private Compression compression = new Compression();
+
+        @Getter
+        @Setter
+        public static class Pipeline {
+
+            /**
+             * Whether encoded records are handed off to a separate task that writes them to the client
+             */
+            private boolean enabled = false;
+
+            /**
+             * Maximum number of encoded chunks buffered between the encoding and the writing stages
+             */
+            private int queueDepth = 4;
+
+            /**
+             * Size of a single chunk of encoded data handed off to the writing stage
+             */
+            private DataSize chunkSize = DataSize.ofKilobytes(64);
+        }
+
+        @Getter
+        @Setter
+        public static class Parallel {
+
+            /**
+             * Whether the fragments of a request are read by several tasks in parallel
+             */
+            private boolean enabled = false;
+
+            /**
+             * Maximum number of tasks reading the fragments of a single request
+             */
+            private int maxThreadsPerQuery = 4;
+
+            /**
+             * Minimum amount of encoded data a reading task collects before handing it off to the client
+             */
+            private DataSize chunkSize = DataSize.ofKilobytes(64);
+        }
+
+        @Getter
+        @Setter
+        public static class Compression {
+
+            /**
+             * Whether the data is compressed when the client accepts a compressed response
+             */
+            private boolean enabled = true;
+
+            /**
+             * Compression level from 1 (fastest) to 9 (smallest output)
+             */
+            private int level = 1;
+        }
+    }
+
     public void setBase(String base) {
         this.base = base;
         System.setProperty(PXF_BASE_PROPERTY, base);
@@ -0,0 +1,202 @@
+package org.greenplum.pxf.api.io;
+
+import org.greenplum.pxf.api.batch.ByteArena;
+import org.greenplum.pxf.api.batch.ColumnBatch;
+import org.greenplum.pxf.api.batch.ColumnVector;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Serializes a row of a {@link ColumnBatch} in the same form as
+ * {@link GPDBWritable}, reading the values directly from the column vectors.
+ * A single instance is reused for all rows of all batches of a query: the
+ * caller points it to the next row with {@link #setRow(ColumnBatch, int)}
+ * before writing it.
+ * <p>
+ * The column vectors must hold values that can be serialized into the column
+ * types of the schema: columns with fixed-length types of the schema must be
+ * filled with values of the same type, {@code BYTEA} columns with bytes, and
+ * all other columns with UTF-8 encoded text.
+ */
+public class ColumnBatchGPDBWritable implements Writable {
+
+    private static final byte[] PADDING = new byte[8];
+    private static final byte[] EMPTY = new byte[0];
+
+    private final GPDBWritable.DBType[] dbTypes;
+    private final byte[] enumTypes;
+    private final byte[] nullBytes;
+    private final Charset databaseEncoding;
+    private final boolean transcode;
+    private final int alignmentOfEightBytes;
+    // the text values of the current row in the database encoding, when it is not UTF-8
+    private final byte[][] encodedText;
+
+    private ColumnBatch batch;
+    private int row;
+
+    /**
+     * Creates a writable for the given schema.
+     *
+     * @param columnTypes      the type OIDs of the table columns
+     * @param databaseEncoding the encoding of the database
+     */
+    public ColumnBatchGPDBWritable(int[] columnTypes, Charset databaseEncoding) {
+        int numCol = columnTypes.length;
+        this.dbTypes = new GPDBWritable.DBType[numCol];
+        this.enumTypes = new byte[numCol];
+        for (int i = 0; i < numCol; i++) {
+            dbTypes[i] = GPDBWritable.DBType.of(columnTypes[i]);
+            enumTypes[i] = (byte) dbTypes[i].ordinal();
+        }
+        this.nullBytes = new byte[GPDBWritable.getNullByteArraySize(numCol)];
+        this.databaseEncoding = databaseEncoding;
+        this.transcode = !StandardCharsets.UTF_8.equals(databaseEncoding);
+        this.encodedText = transcode ? new byte[numCol][] : null;
+        this.alignmentOfEightBytes = GPDBWritable.getEightByteAlignment();
+    }
+
+    /**
+     * Points the writable to a row of a batch.
+     *
+     * @param batch the batch
+     * @param row   the row index
+     */
+    public void setRow(ColumnBatch batch, int row) {
+        this.batch = batch;
+        this.row = row;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        int numCol = dbTypes.length;
+        if (transcode) {
+            encodeText();
+        }
+
+        /* Compute the total payload and header length, same as GPDBWritable */
+        int datlen = 4 + 2 + 1 + 2 + numCol + nullBytes.length;
+        Arrays.fill(nullBytes, (byte) 0);
+        for (int i = 0; i < numCol; i++) {
+            ColumnVector column = batch.getColumn(i);
+            if (column.isNull(row)) {
+                nullBytes[i >>> 3] |= (byte) (0x80 >>> (i & 7));
+                continue;
+            }
+            GPDBWritable.DBType dbType = dbTypes[i];
+            datlen = GPDBWritable.roundUpAlignment(datlen, dbType.getAlignment(), alignmentOfEightBytes);
+            if (!dbType.isVarLength()) {
+                datlen += dbType.getTypeLength();
+            } else {
+                datlen += 4 + getVarLength(i, column);
+            }
+        }
+        int endpadding = GPDBWritable.roundUpAlignment(datlen, 8, alignmentOfEightBytes) - datlen;
+        datlen += endpadding;
+
+        /* Construct the packet header */
+        out.writeInt(datlen);
+        out.writeShort(GPDBWritable.VERSION);
+        out.writeByte(0);
+        out.writeShort(numCol);
+        out.write(enumTypes);
+        out.write(nullBytes);
+
+        /* Column Value */
+        int offset = 4 + 2 + 1 + 2 + numCol + nullBytes.length;
+        ByteArena arena = batch.getArena();
+        for (int i = 0; i < numCol; i++) {
+            ColumnVector column = batch.getColumn(i);
+            if (column.isNull(row)) {
+                continue;
+            }
+            GPDBWritable.DBType dbType = dbTypes[i];
+            int aligned = GPDBWritable.roundUpAlignment(offset, dbType.getAlignment(), alignmentOfEightBytes);
+            if (aligned > offset) {
+                out.write(PADDING, 0, aligned - offset);
+            }
+            offset = aligned;
+            switch (dbType) {
+                case BIGINT:
+                    out.writeLong(column.getLong(row));
+                    break;
+                case BOOLEAN:
+                    out.writeBoolean(column.getLong(row) != 0);
+                    break;
+                case FLOAT8:
+                    out.writeDouble(column.getDouble(row));
+                    break;
+                case INTEGER:
+                    out.writeInt((int) column.getLong(row));
+                    break;
+                case REAL:
+                    out.writeFloat((float) column.getDouble(row));
+                    break;
+                case SMALLINT:
+                    out.writeShort((short) column.getLong(row));
+                    break;
+                case BYTEA:
+                    out.writeInt(column.getLength(row));
+                    out.write(arena.getBuffer(), column.getOffset(row), column.getLength(row));
+                    break;
+                default: {
+                    /* For text format, add 4byte length header and the '\0' terminator */
+                    int length = getVarLength(i, column);
+                    out.writeInt(length);
+                    if (transcode) {
+                        out.write(encodedText[i]);
+                    } else {
+                        out.write(arena.getBuffer(), column.getOffset(row), column.getLength(row));
+                    }
+                    out.writeByte(0);
+                    break;
+                }
+            }
+            offset += dbType.isVarLength() ? 4 + getVarLength(i, column) : dbType.getTypeLength();
+        }
+
+        /* End padding */
+        out.write(PADDING, 0, endpadding);
+    }
+
+    /**
+     * Returns the serialized length of the value of a variable-length column
+     * in the current row, including the '\0' terminator of text values.
+     */
+    private int getVarLength(int columnIndex, ColumnVector column) {
+        if (dbTypes[columnIndex] == GPDBWritable.DBType.BYTEA) {
+            return column.getLength(row);
+        }
+        if (!transcode) {
+            return column.getLength(row) + 1;
+        }
+        return encodedText[columnIndex].length + 1;
+    }
+
+    /**
+     * Transcodes the text values of the current row into the database
+     * encoding, when it is not UTF-8.
+     */
+    private void encodeText() {
+        ByteArena arena = batch.getArena();
+        for (int i = 0; i < dbTypes.length; i++) {
+            ColumnVector column = batch.getColumn(i);
+            if (dbTypes[i] != GPDBWritable.DBType.TEXT || column.isNull(row)) {
+                encodedText[i] = EMPTY;
+            } else {
+                encodedText[i] = new String(arena.getBuffer(), column.getOffset(row), column.getLength(row), StandardCharsets.UTF_8)
+                        .getBytes(databaseEncoding);
+            }
+        }
+    }
+
+    @Override
+    public void readFields(DataInput in) {
+        throw new UnsupportedOperationException("ColumnBatchGPDBWritable is write-only");
+    }
+}
@@ -55,7 +55,7 @@ public class GPDBWritable implements Writable {
     /*
      * Enum of the Database type
      */
-    private enum DBType {
+    enum DBType {
         BIGINT(8, 8),
         BOOLEAN(1, 1),
         FLOAT8(8, 8),
@@ -85,13 +85,35 @@ public class GPDBWritable implements Writable {
         public int getAlignment() {
             return alignment;
         }
+
+        // return the type used to serialize values of the given type OID
+        static DBType of(int oid) {
+            switch (DataType.get(oid)) {
+                case BIGINT:
+                    return BIGINT;
+                case BOOLEAN:
+                    return BOOLEAN;
+                case FLOAT8:
+                    return FLOAT8;
+                case INTEGER:
+                    return INTEGER;
+                case REAL:
+                    return REAL;
+                case SMALLINT:
+                    return SMALLINT;
+                case BYTEA:
+                    return BYTEA;
+                default:
+                    return TEXT;
+            }
+        }
     }
 
     /*
      * Constants
      */
-    private static final int PREV_VERSION = 1;
-    private static final int VERSION = 2; /* for backward compatibility */
+    static final int PREV_VERSION = 1;
+    static final int VERSION = 2; /* for backward compatibility */
 
     /*
      * Local variables
@@ -352,32 +374,7 @@ public class GPDBWritable implements Writable {
 
         for (int i = 0; i < numCol; i++) {
             /* Get the enum type */
-            DBType coldbtype;
-            switch (DataType.get(colType[i])) {
-                case BIGINT:
-                    coldbtype = DBType.BIGINT;
-                    break;
-                case BOOLEAN:
-                    coldbtype = DBType.BOOLEAN;
-                    break;
-                case FLOAT8:
-                    coldbtype = DBType.FLOAT8;
-                    break;
-                case INTEGER:
-                    coldbtype = DBType.INTEGER;
-                    break;
-                case REAL:
-                    coldbtype = DBType.REAL;
-                    break;
-                case SMALLINT:
-                    coldbtype = DBType.SMALLINT;
-                    break;
-                case BYTEA:
-                    coldbtype = DBType.BYTEA;
-                    break;
-                default:
-                    coldbtype = DBType.TEXT;
-            }
+            DBType coldbtype = DBType.of(colType[i]);
             enumType[i] = (byte) (coldbtype.ordinal());
 
             /* Get the actual value, and set the null bit */
@@ -503,7 +500,7 @@ public class GPDBWritable implements Writable {
     /**
      * Private helper to determine the size of the null byte array
      */
-    private static int getNullByteArraySize(int colCnt) {
+    static int getNullByteArraySize(int colCnt) {
         return (colCnt / 8) + (colCnt % 8 != 0 ? 1 : 0);
     }
 
@@ -526,6 +523,14 @@ public class GPDBWritable implements Writable {
      * Private helper to round up alignment for the given length
      */
     private int roundUpAlignment(int len, int align) {
+        return roundUpAlignment(len, align, alignmentOfEightBytes);
+    }
+
+    /**
+     * Package-private helper to round up alignment for the given length,
+     * using the given alignment for eight-byte types
+     */
+    static int roundUpAlignment(int len, int align, int alignmentOfEightBytes) {
         int commonAlignment = align;
         if (commonAlignment == 8) {
             commonAlignment = alignmentOfEightBytes;
@@ -840,11 +845,19 @@ public class GPDBWritable implements Writable {
      * the C code uses (see gphdfs/src/protocol_formatter/common.c).
      */
     private void initializeEightByteAlignment() {
+        alignmentOfEightBytes = getEightByteAlignment();
+    }
+
+    /**
+     * Package-private helper returning the alignment of eight-byte types,
+     * 8 unless overridden from the command line
+     */
+    static int getEightByteAlignment() {
         String alignment = System.getProperty("greenplum.alignment");
         if (alignment == null) {
-            return;
+            return 8;
         }
-        alignmentOfEightBytes = Integer.parseInt(alignment);
+        return Integer.parseInt(alignment);
     }
 
     /**
@@ -0,0 +1,441 @@
+package org.greenplum.pxf.api.io;
+
+import org.greenplum.pxf.api.batch.ColumnBatch;
+import org.greenplum.pxf.api.batch.ColumnVector;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Deserializes records in the form written by {@link GPDBWritable}, reading
+ * each record into a reusable, growable byte buffer and exposing its values
+ * through typed accessors instead of creating an object per value.
+ * <p>
+ * A single instance is reused for all the records of a request: every call to
+ * {@link #readRecord(DataInput)} reads the next record with a single read of
+ * its whole length, and locates the values of its columns in the buffer. The
+ * decoder is then a view of that record until the next call: primitive values
+ * are read from the buffer on access, and variable-length values are exposed
+ * as a slice of the buffer ({@link #getBuffer()}, {@link #getOffset(int)} and
+ * {@link #getLength(int)}), so that consumers can copy them to their target
+ * without an intermediate array. Neither the buffer nor the arrays describing
+ * the columns are reallocated once the buffer has grown to the size of the
+ * largest record.
+ */
+public class GPDBWritableDecoder {
+
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+    private static final int EOF = -1;
+    private static final GPDBWritable.DBType[] DB_TYPES = GPDBWritable.DBType.values();
+    // the type OIDs of the GPDBWritable.DBType values, by ordinal
+    private static final int[] TYPE_OIDS = {
+            DataType.BIGINT.getOID(),
+            DataType.BOOLEAN.getOID(),
+            DataType.FLOAT8.getOID(),
+            DataType.INTEGER.getOID(),
+            DataType.REAL.getOID(),
+            DataType.SMALLINT.getOID(),
+            DataType.BYTEA.getOID(),
+            DataType.TEXT.getOID()
+    };
+
+    private final Charset databaseEncoding;
+    private final boolean utf8;
+    private final int alignmentOfEightBytes;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int columnCount;
+    private GPDBWritable.DBType[] dbTypes = new GPDBWritable.DBType[0];
+    private int[] columnTypes = new int[0];
+    private int[] offsets = new int[0];
+    private int[] lengths = new int[0];
+    private boolean[] nulls = new boolean[0];
+
+    /**
+     * Creates a decoder for records of the given database encoding.
+     *
+     * @param databaseEncoding the encoding of the database
+     */
+    public GPDBWritableDecoder(Charset databaseEncoding) {
+        this.databaseEncoding = databaseEncoding;
+        this.utf8 = StandardCharsets.UTF_8.equals(databaseEncoding);
+        this.alignmentOfEightBytes = GPDBWritable.getEightByteAlignment();
+    }
+
+    /**
+     * Reads the next record from the input, replacing the current record.
+     *
+     * @param in the input to read the record from
+     * @return true if a record was read, false if the end of the input was reached
+     * @throws IOException if reading the input fails or the record is malformed
+     */
+    public boolean readRecord(DataInput in) throws IOException {
+        int packetLength;
+        try {
+            packetLength = in.readInt();
+        } catch (EOFException e) {
+            return false;
+        }
+        if (packetLength == EOF) {
+            return false;
+        }
+        // the length of the record includes the length field itself
+        if (packetLength < 4 + 2 + 2) {
+            throw new IOException("Invalid GPDBWritable record length " + packetLength);
+        }
+        if (packetLength > buffer.length) {
+            buffer = new byte[Math.max(packetLength, buffer.length * 2)];
+        }
+        in.readFully(buffer, 4, packetLength - 4);
+        parse(packetLength);
+        return true;
+    }
+
+    /**
+     * Returns the number of columns of the current record.
+     *
+     * @return the number of columns
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Returns the type of a column of the current record, which is one of the
+     * types GPDBWritable serializes natively, or {@code TEXT} for all other
+     * types.
+     *
+     * @param columnIndex the column index
+     * @return the type OID of the column
+     */
+    public int getColumnType(int columnIndex) {
+        return columnTypes[columnIndex];
+    }
+
+    /**
+     * Returns whether the value of a column is null.
+     *
+     * @param columnIndex the column index
+     * @return true if the value is null, false otherwise
+     */
+    public boolean isNull(int columnIndex) {
+        return nulls[columnIndex];
+    }
+
+    /**
+     * Returns the value of a {@code BIGINT}, {@code INTEGER}, {@code SMALLINT}
+     * or {@code BOOLEAN} column as a long, booleans being 1 for true and 0
+     * for false.
+     *
+     * @param columnIndex the column index
+     * @return the value of the column
+     */
+    public long getLong(int columnIndex) {
+        int offset = offsets[columnIndex];
+        switch (dbTypes[columnIndex]) {
+            case BIGINT:
+                return readLong(offset);
+            case INTEGER:
+                return readInt(offset);
+            case SMALLINT:
+                return readShort(offset);
+            case BOOLEAN:
+                return buffer[offset] != 0 ? 1 : 0;
+            default:
+                throw new IllegalStateException(String.format("Column %d of type %s has no integral value",
+                        columnIndex, dbTypes[columnIndex]));
+        }
+    }
+
+    /**
+     * Returns the value of an {@code INTEGER} column.
+     *
+     * @param columnIndex the column index
+     * @return the value of the column
+     */
+    public int getInt(int columnIndex) {
+        return (int) getLong(columnIndex);
+    }
+
+    /**
+     * Returns the value of a {@code SMALLINT} column.
+     *
+     * @param columnIndex the column index
+     * @return the value of the column
+     */
+    public short getShort(int columnIndex) {
+        return (short) getLong(columnIndex);
+    }
+
+    /**
+     * Returns the value of a {@code BOOLEAN} column.
+     *
+     * @param columnIndex the column index
+     * @return the value of the column
+     */
+    public boolean getBoolean(int columnIndex) {
+        return getLong(columnIndex) != 0;
+    }
+
+    /**
+     * Returns the value of a {@code FLOAT8} or {@code REAL} column as a double.
+     *
+     * @param columnIndex the column index
+     * @return the value of the column
+     */
+    public double getDouble(int columnIndex) {
+        int offset = offsets[columnIndex];
+        switch (dbTypes[columnIndex]) {
+            case FLOAT8:
+                return Double.longBitsToDouble(readLong(offset));
+            case REAL:
+                return Float.intBitsToFloat(readInt(offset));
+            default:
+                throw new IllegalStateException(String.format("Column %d of type %s has no floating point value",
+                        columnIndex, dbTypes[columnIndex]));
+        }
+    }
+
+    /**
+     * Returns the value of a {@code REAL} column.
+     *
+     * @param columnIndex the column index
+     * @return the value of the column
+     */
+    public float getFloat(int columnIndex) {
+        return (float) getDouble(columnIndex);
+    }
+
+    /**
+     * Returns the buffer holding the current record. The values of
+     * variable-length columns are found at {@link #getOffset(int)} and are
+     * {@link #getLength(int)} bytes long. The buffer is overwritten by the
+     * next record.
+     *
+     * @return the buffer of the current record
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Returns the offset in the buffer of the value of a column. The value of
+     * a {@code TEXT} column is in the database encoding.
+     *
+     * @param columnIndex the column index
+     * @return the offset of the value
+     */
+    public int getOffset(int columnIndex) {
+        return offsets[columnIndex];
+    }
+
+    /**
+     * Returns the length of the value of a {@code BYTEA} or {@code TEXT}
+     * column, not including the terminating null character of text values.
+     *
+     * @param columnIndex the column index
+     * @return the length of the value
+     */
+    public int getLength(int columnIndex) {
+        return lengths[columnIndex];
+    }
+
+    /**
+     * Returns a copy of the value of a {@code BYTEA} column.
+     *
+     * @param columnIndex the column index
+     * @return the value of the column
+     */
+    public byte[] getBytes(int columnIndex) {
+        int offset = offsets[columnIndex];
+        return Arrays.copyOfRange(buffer, offset, offset + lengths[columnIndex]);
+    }
+
+    /**
+     * Returns the value of a {@code TEXT} column decoded from the database encoding.
+     *
+     * @param columnIndex the column index
+     * @return the value of the column
+     */
+    public String getString(int columnIndex) {
+        return new String(buffer, offsets[columnIndex], lengths[columnIndex], databaseEncoding);
+    }
+
+    /**
+     * Returns the value of a column as the object {@link GPDBWritable} returns
+     * for its type, or null if the value is null.
+     *
+     * @param columnIndex the column index
+     * @return the value of the column
+     */
+    public Object getObject(int columnIndex) {
+        if (nulls[columnIndex]) {
+            return null;
+        }
+        switch (dbTypes[columnIndex]) {
+            case BIGINT:
+                return getLong(columnIndex);
+            case BOOLEAN:
+                return getBoolean(columnIndex);
+            case FLOAT8:
+                return getDouble(columnIndex);
+            case INTEGER:
+                return getInt(columnIndex);
+            case REAL:
+                return getFloat(columnIndex);
+            case SMALLINT:
+                return getShort(columnIndex);
+            case BYTEA:
+                return getBytes(columnIndex);
+            default:
+                return getString(columnIndex);
+        }
+    }
+
+    /**
+     * Copies the values of the current record into a row of a column batch.
+     * The column vectors must have been reset to the types of the columns of
+     * the record, see {@link #resetColumns(ColumnBatch)}. Text values are
+     * stored UTF-8 encoded; they are copied without decoding when the
+     * database encoding is UTF-8.
+     *
+     * @param batch the batch
+     * @param row   the row index
+     */
+    public void copyTo(ColumnBatch batch, int row) {
+        for (int i = 0; i < columnCount; i++) {
+            ColumnVector column = batch.getColumn(i);
+            if (nulls[i]) {
+                column.setNull(row);
+                continue;
+            }
+            switch (dbTypes[i]) {
+                case BIGINT:
+                case INTEGER:
+                case SMALLINT:
+                case BOOLEAN:
+                    column.setLong(row, getLong(i));
+                    break;
+                case FLOAT8:
+                case REAL:
+                    column.setDouble(row, getDouble(i));
+                    break;
+                case BYTEA:
+                    column.setBytes(row, buffer, offsets[i], lengths[i]);
+                    break;
+                default:
+                    if (utf8) {
+                        column.setUtf8(row, buffer, offsets[i], lengths[i]);
+                    } else {
+                        column.setString(row, getString(i));
+                    }
+            }
+        }
+    }
+
+    /**
+     * Resets the column vectors of a batch to the types of the columns of the
+     * current record.
+     *
+     * @param batch the batch
+     */
+    public void resetColumns(ColumnBatch batch) {
+        for (int i = 0; i < columnCount; i++) {
+            batch.getColumn(i).reset(DataType.get(columnTypes[i]));
+        }
+    }
+
+    private void parse(int packetLength) throws IOException {
+        int offset = 4;
+        int version = readShort(offset);
+        offset += 2;
+        if (version != GPDBWritable.VERSION && version != GPDBWritable.PREV_VERSION) {
+            throw new IOException("Current GPDBWritable version(" +
+                    GPDBWritable.VERSION + ") does not match input version(" +
+                    version + ")");
+        }
+        byte errorFlag = 0;
+        if (version == GPDBWritable.VERSION) {
+            errorFlag = buffer[offset++];
+        }
+        int numCol = readShort(offset);
+        offset += 2;
+        ensureColumns(numCol);
+
+        checkBounds(offset + numCol + GPDBWritable.getNullByteArraySize(numCol), packetLength);
+        for (int i = 0; i < numCol; i++) {
+            int enumType = buffer[offset++];
+            if (enumType < 0 || enumType >= DB_TYPES.length) {
+                throw new IOException("Unknown GPDBWritable.DBType ordinal value");
+            }
+            dbTypes[i] = DB_TYPES[enumType];
+            columnTypes[i] = TYPE_OIDS[enumType];
+        }
+
+        int nullBytesOffset = offset;
+        offset += GPDBWritable.getNullByteArraySize(numCol);
+        for (int i = 0; i < numCol; i++) {
+            nulls[i] = ((buffer[nullBytesOffset + (i >> 3)] >> (7 - (i & 7))) & 0x01) == 1;
+            if (nulls[i]) {
+                continue;
+            }
+            // the offsets are relative to the start of the record, as the alignment is
+            offset = GPDBWritable.roundUpAlignment(offset, dbTypes[i].getAlignment(), alignmentOfEightBytes);
+            if (dbTypes[i].isVarLength()) {
+                checkBounds(offset + 4, packetLength);
+                int length = readInt(offset);
+                offset += 4;
+                checkBounds(offset + length, packetLength);
+                offsets[i] = offset;
+                // text values are always null terminated
+                lengths[i] = dbTypes[i] == GPDBWritable.DBType.TEXT ? length - 1 : length;
+                offset += length;
+            } else {
+                checkBounds(offset + dbTypes[i].getTypeLength(), packetLength);
+                offsets[i] = offset;
+                lengths[i] = dbTypes[i].getTypeLength();
+                offset += dbTypes[i].getTypeLength();
+            }
+        }
+        columnCount = numCol;
+
+        if (errorFlag != 0) {
+            throw new IOException("Received error value " + errorFlag + " from format");
+        }
+    }
+
+    private void ensureColumns(int numCol) {
+        if (numCol > dbTypes.length) {
+            dbTypes = new GPDBWritable.DBType[numCol];
+            columnTypes = new int[numCol];
+            offsets = new int[numCol];
+            lengths = new int[numCol];
+            nulls = new boolean[numCol];
+        }
+    }
+
+    private void checkBounds(int end, int packetLength) throws IOException {
+        if (end > packetLength) {
+            throw new IOException("GPDBWritable record of length " + packetLength + " is truncated");
+        }
+    }
+
+    private short readShort(int offset) {
+        return (short) ((buffer[offset] << 8) | (buffer[offset + 1] & 0xff));
+    }
+
+    private int readInt(int offset) {
+        return (buffer[offset] << 24)
+                | ((buffer[offset + 1] & 0xff) << 16)
+                | ((buffer[offset + 2] & 0xff) << 8)
+                | (buffer[offset + 3] & 0xff);
+    }
+
+    private long readLong(int offset) {
+        return ((long) readInt(offset) << 32) | (readInt(offset + 4) & 0xffffffffL);
+    }
+}
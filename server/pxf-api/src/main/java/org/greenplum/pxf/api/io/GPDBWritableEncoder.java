@@ -0,0 +1,415 @@
+package org.greenplum.pxf.api.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Serializes records in the same form as {@link GPDBWritable}, writing the
+ * values of each record straight into a reusable, growable byte buffer
+ * instead of collecting them as objects first.
+ * <p>
+ * The record header, the column type bytes and the alignment of every column
+ * are computed once per schema. The values of a record are written in column
+ * order between {@link #beginRecord()} and {@link #endRecord()}: primitive
+ * values are written without boxing and text values are encoded into the
+ * buffer with a {@link CharsetEncoder} that is created once for the database
+ * encoding. Several records can be encoded into the buffer one after the
+ * other; the {@link Writable} returned for each of them stays valid until the
+ * next call to {@link #reset()}. Neither the buffer nor the returned
+ * writables are reallocated once the buffer has grown to the size of the
+ * records of a batch.
+ */
+public class GPDBWritableEncoder {
+
+    // total length (4 byte), version (2 byte), error flag (1 byte), number of columns (2 byte)
+    private static final int FIXED_HEADER_LENGTH = 4 + 2 + 1 + 2;
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    private final int[] columnTypes;
+    private final GPDBWritable.DBType[] dbTypes;
+    private final int[] alignments;
+    private final byte[] header;
+    private final int nullBytesOffset;
+    private final int alignmentOfEightBytes;
+    private final CharsetEncoder charsetEncoder;
+    private final List<Record> records = new ArrayList<>();
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+    private char[] chars = new char[256];
+    private CharBuffer charBuffer = CharBuffer.wrap(chars);
+    private int size;
+    private int recordCount;
+    private int recordStart = -1;
+    private int nextColumn;
+
+    /**
+     * Creates an encoder for the given schema.
+     *
+     * @param columnTypes      the type OIDs of the table columns
+     * @param databaseEncoding the encoding of the database
+     */
+    public GPDBWritableEncoder(int[] columnTypes, Charset databaseEncoding) {
+        int numCol = columnTypes.length;
+        this.columnTypes = columnTypes;
+        this.dbTypes = new GPDBWritable.DBType[numCol];
+        this.alignments = new int[numCol];
+        this.alignmentOfEightBytes = GPDBWritable.getEightByteAlignment();
+        this.nullBytesOffset = FIXED_HEADER_LENGTH + numCol;
+        this.header = new byte[nullBytesOffset + GPDBWritable.getNullByteArraySize(numCol)];
+
+        header[4] = (byte) (GPDBWritable.VERSION >>> 8);
+        header[5] = (byte) GPDBWritable.VERSION;
+        header[7] = (byte) (numCol >>> 8);
+        header[8] = (byte) numCol;
+        for (int i = 0; i < numCol; i++) {
+            dbTypes[i] = GPDBWritable.DBType.of(columnTypes[i]);
+            alignments[i] = dbTypes[i].getAlignment() == 8 ? alignmentOfEightBytes : dbTypes[i].getAlignment();
+            header[FIXED_HEADER_LENGTH + i] = (byte) dbTypes[i].ordinal();
+        }
+
+        // replace malformed and unmappable characters the same way String.getBytes does
+        this.charsetEncoder = databaseEncoding.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Discards all records encoded so far. The writables returned by
+     * {@link #endRecord()} must not be used after this call.
+     */
+    public void reset() {
+        size = 0;
+        recordCount = 0;
+        recordStart = -1;
+    }
+
+    /**
+     * Starts a new record. A record that was started but not ended is
+     * discarded.
+     */
+    public void beginRecord() {
+        if (recordStart >= 0) {
+            size = recordStart;
+        }
+        recordStart = size;
+        nextColumn = 0;
+        ensureCapacity(header.length);
+        System.arraycopy(header, 0, buffer, size, header.length);
+        size += header.length;
+    }
+
+    /**
+     * Writes a null value for the next column of the record.
+     *
+     * @param columnIndex the column index
+     */
+    public void writeNull(int columnIndex) {
+        checkColumn(columnIndex);
+        markNull(columnIndex);
+    }
+
+    /**
+     * Writes a null value for the next column of the record, verifying that
+     * a value of the given type could be written to the column.
+     *
+     * @param columnIndex the column index
+     * @param type        the type of the value
+     * @throws GPDBWritable.TypeMismatchException the column type does not match
+     */
+    public void writeNull(int columnIndex, DataType type) throws GPDBWritable.TypeMismatchException {
+        GPDBWritable.DBType dbType = GPDBWritable.DBType.of(type.getOID());
+        checkType(columnIndex, dbType, dbType == GPDBWritable.DBType.TEXT ? DataType.TEXT : type);
+        markNull(columnIndex);
+    }
+
+    /**
+     * Writes a value for the next column of the record, which must be a
+     * {@code BIGINT} column.
+     *
+     * @param columnIndex the column index
+     * @param value       the value
+     * @throws GPDBWritable.TypeMismatchException the column type does not match
+     */
+    public void writeLong(int columnIndex, long value) throws GPDBWritable.TypeMismatchException {
+        checkType(columnIndex, GPDBWritable.DBType.BIGINT, DataType.BIGINT);
+        beginValue(columnIndex);
+        putLong(value);
+    }
+
+    /**
+     * Writes a value for the next column of the record, which must be a
+     * {@code BOOLEAN} column.
+     *
+     * @param columnIndex the column index
+     * @param value       the value
+     * @throws GPDBWritable.TypeMismatchException the column type does not match
+     */
+    public void writeBoolean(int columnIndex, boolean value) throws GPDBWritable.TypeMismatchException {
+        checkType(columnIndex, GPDBWritable.DBType.BOOLEAN, DataType.BOOLEAN);
+        beginValue(columnIndex);
+        buffer[size++] = (byte) (value ? 1 : 0);
+    }
+
+    /**
+     * Writes a value for the next column of the record, which must be a
+     * {@code FLOAT8} column.
+     *
+     * @param columnIndex the column index
+     * @param value       the value
+     * @throws GPDBWritable.TypeMismatchException the column type does not match
+     */
+    public void writeDouble(int columnIndex, double value) throws GPDBWritable.TypeMismatchException {
+        checkType(columnIndex, GPDBWritable.DBType.FLOAT8, DataType.FLOAT8);
+        beginValue(columnIndex);
+        putLong(Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Writes a value for the next column of the record, which must be an
+     * {@code INTEGER} column.
+     *
+     * @param columnIndex the column index
+     * @param value       the value
+     * @throws GPDBWritable.TypeMismatchException the column type does not match
+     */
+    public void writeInt(int columnIndex, int value) throws GPDBWritable.TypeMismatchException {
+        checkType(columnIndex, GPDBWritable.DBType.INTEGER, DataType.INTEGER);
+        beginValue(columnIndex);
+        putInt(value);
+    }
+
+    /**
+     * Writes a value for the next column of the record, which must be a
+     * {@code REAL} column.
+     *
+     * @param columnIndex the column index
+     * @param value       the value
+     * @throws GPDBWritable.TypeMismatchException the column type does not match
+     */
+    public void writeFloat(int columnIndex, float value) throws GPDBWritable.TypeMismatchException {
+        checkType(columnIndex, GPDBWritable.DBType.REAL, DataType.REAL);
+        beginValue(columnIndex);
+        putInt(Float.floatToIntBits(value));
+    }
+
+    /**
+     * Writes a value for the next column of the record, which must be a
+     * {@code SMALLINT} column.
+     *
+     * @param columnIndex the column index
+     * @param value       the value
+     * @throws GPDBWritable.TypeMismatchException the column type does not match
+     */
+    public void writeShort(int columnIndex, short value) throws GPDBWritable.TypeMismatchException {
+        checkType(columnIndex, GPDBWritable.DBType.SMALLINT, DataType.SMALLINT);
+        beginValue(columnIndex);
+        buffer[size++] = (byte) (value >>> 8);
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * Writes a value for the next column of the record, which must be a
+     * {@code BYTEA} column.
+     *
+     * @param columnIndex the column index
+     * @param value       the array holding the value
+     * @param offset      the offset of the value in the array
+     * @param length      the length of the value
+     * @throws GPDBWritable.TypeMismatchException the column type does not match
+     */
+    public void writeBytes(int columnIndex, byte[] value, int offset, int length) throws GPDBWritable.TypeMismatchException {
+        checkType(columnIndex, GPDBWritable.DBType.BYTEA, DataType.BYTEA);
+        beginValue(columnIndex);
+        ensureCapacity(4 + length);
+        putInt(length);
+        System.arraycopy(value, offset, buffer, size, length);
+        size += length;
+    }
+
+    /**
+     * Writes a value for the next column of the record, which must be a
+     * column serialized as text. The value is encoded in the database
+     * encoding and terminated with '\0'.
+     *
+     * @param columnIndex the column index
+     * @param value       the value, or null
+     * @throws GPDBWritable.TypeMismatchException the column type does not match
+     */
+    public void writeString(int columnIndex, CharSequence value) throws GPDBWritable.TypeMismatchException {
+        checkType(columnIndex, GPDBWritable.DBType.TEXT, DataType.TEXT);
+        if (value == null) {
+            markNull(columnIndex);
+            return;
+        }
+        beginValue(columnIndex);
+        int lengthOffset = size;
+        size += 4;
+        encode(value);
+        ensureCapacity(1);
+        buffer[size++] = 0;
+        int length = size - lengthOffset - 4;
+        putInt(lengthOffset, length);
+    }
+
+    /**
+     * Ends the current record, writing its total length and its end padding.
+     *
+     * @return a writable holding the serialized record, valid until the next
+     * call to {@link #reset()}
+     */
+    public Writable endRecord() {
+        if (nextColumn != dbTypes.length) {
+            throw new IllegalStateException(String.format("Record has %d values but the schema size is %d", nextColumn, dbTypes.length));
+        }
+        int length = roundUpAlignment(size - recordStart, alignmentOfEightBytes);
+        ensureCapacity(length - (size - recordStart));
+        while (size - recordStart < length) {
+            buffer[size++] = 0;
+        }
+        putInt(recordStart, length);
+
+        Record record;
+        if (recordCount < records.size()) {
+            record = records.get(recordCount);
+        } else {
+            record = new Record();
+            records.add(record);
+        }
+        recordCount++;
+        record.offset = recordStart;
+        record.length = length;
+        recordStart = -1;
+        return record;
+    }
+
+    /**
+     * Verifies that the value is written for the next column and that the
+     * column type allows it, the same way {@link GPDBWritable} does.
+     */
+    private void checkType(int columnIndex, GPDBWritable.DBType dbType, DataType inType) throws GPDBWritable.TypeMismatchException {
+        checkColumn(columnIndex);
+        if (dbTypes[columnIndex] != dbType) {
+            int expected = dbTypes[columnIndex] == GPDBWritable.DBType.TEXT ? DataType.TEXT.getOID() : columnTypes[columnIndex];
+            throw new GPDBWritable.TypeMismatchException("Cannot set " + GPDBWritable.getTypeName(inType.getOID())
+                    + " to a " + GPDBWritable.getTypeName(expected) + " column");
+        }
+    }
+
+    /**
+     * Writes the alignment padding of the value of the given column.
+     */
+    private void beginValue(int columnIndex) {
+        int aligned = recordStart + roundUpAlignment(size - recordStart, alignments[columnIndex]);
+        // fixed-length values are written without further capacity checks
+        ensureCapacity(aligned - size + 8);
+        while (size < aligned) {
+            buffer[size++] = 0;
+        }
+        nextColumn++;
+    }
+
+    private void markNull(int columnIndex) {
+        buffer[recordStart + nullBytesOffset + (columnIndex >>> 3)] |= (byte) (0x80 >>> (columnIndex & 7));
+        nextColumn++;
+    }
+
+    private void checkColumn(int columnIndex) {
+        if (recordStart < 0) {
+            throw new IllegalStateException("No record has been started");
+        }
+        if (columnIndex != nextColumn) {
+            throw new IllegalStateException(String.format("Expected a value for column %d but got column %d", nextColumn, columnIndex));
+        }
+    }
+
+    private int roundUpAlignment(int length, int alignment) {
+        return (length + alignment - 1) & ~(alignment - 1);
+    }
+
+    /**
+     * Encodes a text value into the buffer, with the reusable char buffer as
+     * the source so that no intermediate objects are created.
+     */
+    private void encode(CharSequence value) {
+        int length = value.length();
+        if (length > chars.length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+            charBuffer = CharBuffer.wrap(chars);
+        }
+        if (value instanceof String) {
+            ((String) value).getChars(0, length, chars, 0);
+        } else {
+            for (int i = 0; i < length; i++) {
+                chars[i] = value.charAt(i);
+            }
+        }
+        charBuffer.clear().limit(length);
+
+        // the buffer has room for the largest possible encoding, so encoding never overflows
+        ensureCapacity((int) Math.ceil(length * charsetEncoder.maxBytesPerChar()) + 16);
+        charsetEncoder.reset();
+        byteBuffer.limit(buffer.length).position(size);
+        CoderResult result = charsetEncoder.encode(charBuffer, byteBuffer, true);
+        if (!result.isOverflow()) {
+            result = charsetEncoder.flush(byteBuffer);
+        }
+        if (result.isOverflow()) {
+            throw new IllegalStateException("Encoding a text value of " + length + " characters overflowed the buffer");
+        }
+        size = byteBuffer.position();
+    }
+
+    private void putInt(int value) {
+        putInt(size, value);
+        size += 4;
+    }
+
+    private void putInt(int offset, int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+
+    private void putLong(long value) {
+        putInt((int) (value >>> 32));
+        putInt((int) value);
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(size + additional, buffer.length * 2));
+            byteBuffer = ByteBuffer.wrap(buffer);
+        }
+    }
+
+    /**
+     * A record serialized into the buffer of the encoder.
+     */
+    private class Record implements Writable {
+
+        private int offset;
+        private int length;
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            out.write(buffer, offset, length);
+        }
+
+        @Override
+        public void readFields(DataInput in) {
+            throw new UnsupportedOperationException("GPDBWritableEncoder records are write-only");
+        }
+    }
+}
@@ -72,4 +72,14 @@ public interface Accessor extends Plugin {
      * @throws Exception if closing the resource failed
      */
     void closeForWrite() throws Exception;
+
+    /**
+     * Returns statistics about the rows fetched for the current fragment, if
+     * the accessor gathers them. Called once the resource is closed for read.
+     *
+     * @return the fetch statistics, or null if they are not gathered
+     */
+    default FetchStats getFetchStats() {
+        return null;
+    }
 }
@@ -1,5 +1,7 @@
 package org.greenplum.pxf.api.model;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
@@ -16,6 +18,12 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.apache.hadoop.fs.CommonConfigurationKeysPublic.HADOOP_SECURITY_AUTH_TO_LOCAL;
@@ -25,8 +33,15 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
 
     protected final Logger LOG = LoggerFactory.getLogger(this.getClass());
 
+    // the number of server and user combinations whose configuration templates are kept
+    private static final int MAX_CONFIGURATION_TEMPLATES = 1000;
+
     private final File serversConfigDirectory;
 
+    private final Cache<List<String>, ConfigurationTemplate> configurationTemplates = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CONFIGURATION_TEMPLATES)
+            .build();
+
     @Autowired
     public BaseConfigurationFactory(PxfServerProperties pxfServerProperties) {
         this(new File(String.format("%s%sservers", pxfServerProperties.getBase(), File.separator)));
@@ -38,29 +53,59 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The site files of the server directory and the user file are parsed
+     * once for each server and user into a template, and every request gets
+     * a copy of the template with the additional properties applied. The
+     * template is rebuilt when a file of the server directory is added,
+     * removed or modified.
      */
     @Override
     public Configuration initConfiguration(String configDirectory, String serverName, String userName, Map<String, String> additionalProperties) {
-        // start with built-in Hadoop configuration that loads core-site.xml
         LOG.debug("Initializing configuration for server {}", serverName);
-        Configuration configuration = new Configuration();
-        // while implementing multiple kerberized support we noticed that non-kerberized hadoop
-        // access was trying to use SASL-client authentication. Setting the fallback to simple auth
-        // allows us to still access non-kerberized hadoop clusters when there exists at least one
-        // kerberized hadoop cluster. The root cause is that UGI has static fields and many hadoop
-        // libraries depend on the state of the UGI
-        // allow using SIMPLE auth for non-Kerberized HCFS access by SASL-enabled IPC client
-        // that is created due to the fact that it uses UGI.isSecurityEnabled
-        // and will try to use SASL if there is at least one Kerberized Hadoop cluster
-        configuration.set(CommonConfigurationKeys.IPC_CLIENT_FALLBACK_TO_SIMPLE_AUTH_ALLOWED_KEY, "true");
+        File serverDirectory = getServerDirectory(configDirectory, serverName);
+        List<String> templateKey = Arrays.asList(configDirectory, serverName, userName);
+        String version = getServerDirectoryVersion(serverDirectory, serverName, userName);
 
-        // set synthetic property pxf.session.user so that is can be used in config files for interpolation in other properties
-        // for example in JDBC when setting session authorization from a proxy user to the end-user
-        configuration.set(PXF_SESSION_USER_PROPERTY, userName);
+        ConfigurationTemplate template = configurationTemplates.getIfPresent(templateKey);
+        if (template == null || !template.version.equals(version)) {
+            template = createConfigurationTemplate(serverDirectory, serverName, userName, version);
+            configurationTemplates.put(templateKey, template);
+        }
 
-        // add the server name itself as a configuration property
-        configuration.set(PXF_SERVER_NAME_PROPERTY, serverName);
+        // copying the template copies its properties, without parsing the site files again
+        Configuration configuration = new Configuration(template.configuration);
+
+        // add additional properties, if provided
+        if (additionalProperties != null) {
+            LOG.debug("Adding {} additional properties to configuration for server {}", additionalProperties.size(), serverName);
+            additionalProperties.forEach(configuration::set);
+        }
+
+        // add user configuration
+        template.userProperties.forEach(configuration::set);
+
+        try {
+            // We need to set the restrict system properties to false so
+            // variables in the configuration get replaced by system property
+            // values
+            configuration.setRestrictSystemProps(false);
+        } catch (NoSuchMethodError e) {
+            // Expected exception for MapR
+        }
+
+        // Starting with Hadoop 2.10.0, the "DEFAULT" rule will throw an
+        // exception when no rules are applied while getting the principal
+        // name translation into operating system user name. See
+        // org.apache.hadoop.security.authentication.util.KerberosName#getShortName
+        // We add a default rule that will return the service name as the
+        // short name, i.e. gpadmin/_HOST@REALM will map to gpadmin
+        configuration.set(HADOOP_SECURITY_AUTH_TO_LOCAL, "RULE:[1:$1] RULE:[2:$1] DEFAULT");
 
+        return configuration;
+    }
+
+    private File getServerDirectory(String configDirectory, String serverName) {
         File[] serverDirectories = null;
         Path p = Paths.get(configDirectory);
 
@@ -80,45 +125,81 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
         if (ArrayUtils.isEmpty(serverDirectories)) {
             LOG.debug("Directory {}{}{} does not exist or cannot be read by PXF, no configuration resources are added for server {}",
                     serversConfigDirectory, File.separator, configDirectory, serverName);
+            return null;
         } else if (serverDirectories.length > 1) {
             throw new IllegalStateException(String.format(
                     "Multiple directories found for server %s. Server directories are expected to be case-insensitive.", serverName
             ));
-        } else {
-            // add all site files as URL resources to the configuration, no resources will be added from the classpath
-            LOG.debug("Using directory {} for server {} configuration", serverDirectories[0], serverName);
-            processServerResources(configuration, serverName, serverDirectories[0]);
         }
+        return serverDirectories[0];
+    }
 
-        // add additional properties, if provided
-        if (additionalProperties != null) {
-            LOG.debug("Adding {} additional properties to configuration for server {}", additionalProperties.size(), serverName);
-            additionalProperties.forEach(configuration::set);
+    /**
+     * Returns a version of the configuration files of the server directory
+     * for the user, made of the names, sizes and modification times of the
+     * site files and of the user file.
+     */
+    private String getServerDirectoryVersion(File directory, String serverName, String userName) {
+        if (directory == null) {
+            return "";
         }
+        try {
+            List<Path> paths = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory.toPath(), "*-site.xml")) {
+                stream.forEach(paths::add);
+            }
+            Path userPath = getUserResourcePath(directory, userName);
+            if (Files.exists(userPath)) {
+                paths.add(userPath);
+            }
+            Collections.sort(paths);
 
-        // add user configuration
-        if (!ArrayUtils.isEmpty(serverDirectories)) {
-            processUserResource(configuration, serverName, userName, serverDirectories[0]);
+            StringBuilder version = new StringBuilder(directory.getCanonicalPath());
+            for (Path path : paths) {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                version.append(':').append(path.getFileName())
+                        .append(':').append(attributes.size())
+                        .append(':').append(attributes.lastModifiedTime());
+            }
+            return version.toString();
+        } catch (Exception e) {
+            throw new RuntimeException(String.format("Unable to read configuration for server %s from %s",
+                    serverName, directory.getAbsolutePath()), e);
         }
+    }
 
-        try {
-            // We need to set the restrict system properties to false so
-            // variables in the configuration get replaced by system property
-            // values
-            configuration.setRestrictSystemProps(false);
-        } catch (NoSuchMethodError e) {
-            // Expected exception for MapR
-        }
+    private ConfigurationTemplate createConfigurationTemplate(File serverDirectory, String serverName, String userName, String version) {
+        LOG.debug("Creating configuration template for server {} and user {}", serverName, userName);
+        // start with built-in Hadoop configuration that loads core-site.xml
+        Configuration configuration = new Configuration();
+        // while implementing multiple kerberized support we noticed that non-kerberized hadoop
+        // access was trying to use SASL-client authentication. Setting the fallback to simple auth
+        // allows us to still access non-kerberized hadoop clusters when there exists at least one
+        // kerberized hadoop cluster. The root cause is that UGI has static fields and many hadoop
+        // libraries depend on the state of the UGI
+        // allow using SIMPLE auth for non-Kerberized HCFS access by SASL-enabled IPC client
+        // that is created due to the fact that it uses UGI.isSecurityEnabled
+        // and will try to use SASL if there is at least one Kerberized Hadoop cluster
+        configuration.set(CommonConfigurationKeys.IPC_CLIENT_FALLBACK_TO_SIMPLE_AUTH_ALLOWED_KEY, "true");
 
-        // Starting with Hadoop 2.10.0, the "DEFAULT" rule will throw an
-        // exception when no rules are applied while getting the principal
-        // name translation into operating system user name. See
-        // org.apache.hadoop.security.authentication.util.KerberosName#getShortName
-        // We add a default rule that will return the service name as the
-        // short name, i.e. gpadmin/_HOST@REALM will map to gpadmin
-        configuration.set(HADOOP_SECURITY_AUTH_TO_LOCAL, "RULE:[1:$1] RULE:[2:$1] DEFAULT");
+        // set synthetic property pxf.session.user so that is can be used in config files for interpolation in other properties
+        // for example in JDBC when setting session authorization from a proxy user to the end-user
+        configuration.set(PXF_SESSION_USER_PROPERTY, userName);
 
-        return configuration;
+        // add the server name itself as a configuration property
+        configuration.set(PXF_SERVER_NAME_PROPERTY, serverName);
+
+        Map<String, String> userProperties = new LinkedHashMap<>();
+        if (serverDirectory != null) {
+            // add all site files as URL resources to the configuration, no resources will be added from the classpath
+            LOG.debug("Using directory {} for server {} configuration", serverDirectory, serverName);
+            processServerResources(configuration, serverName, serverDirectory);
+            processUserResource(userProperties, serverName, userName, serverDirectory);
+        }
+
+        // parse the resources now, so that copies of the template do not parse them again
+        configuration.size();
+        return new ConfigurationTemplate(version, configuration, userProperties);
     }
 
     private void processServerResources(Configuration configuration, String serverName, File directory) {
@@ -140,21 +221,42 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
         }
     }
 
-    private void processUserResource(Configuration configuration, String serverName, String userName, File directory) {
-        // add user config file as configuration resource
+    private void processUserResource(Map<String, String> userProperties, String serverName, String userName, File directory) {
+        // read user config file properties, they are added to the configuration after the additional properties
         try {
-            Path path = Paths.get(String.format("%s/%s-user.xml", directory.toPath(), userName));
+            Path path = getUserResourcePath(directory, userName);
             if (Files.exists(path)) {
                 Configuration userConfiguration = new Configuration(false);
                 URL resourceURL = path.toUri().toURL();
                 userConfiguration.addResource(resourceURL);
                 LOG.debug("Adding user properties for server {} from {}", serverName, resourceURL);
-                userConfiguration.forEach(entry -> configuration.set(entry.getKey(), entry.getValue()));
-                configuration.set(String.format("%s.%s", PXF_CONFIG_RESOURCE_PATH_PROPERTY, path.getFileName().toString()), resourceURL.toString());
+                userConfiguration.forEach(entry -> userProperties.put(entry.getKey(), entry.getValue()));
+                userProperties.put(String.format("%s.%s", PXF_CONFIG_RESOURCE_PATH_PROPERTY, path.getFileName().toString()), resourceURL.toString());
             }
         } catch (Exception e) {
             throw new RuntimeException(String.format("Unable to read user configuration for user %s using server %s from %s",
                     userName, serverName, directory.getAbsolutePath()), e);
         }
     }
+
+    private Path getUserResourcePath(File directory, String userName) {
+        return Paths.get(String.format("%s/%s-user.xml", directory.toPath(), userName));
+    }
+
+    /**
+     * The configuration of a server for a user, before any additional
+     * properties of a request are applied.
+     */
+    private static class ConfigurationTemplate {
+
+        private final String version;
+        private final Configuration configuration;
+        private final Map<String, String> userProperties;
+
+        ConfigurationTemplate(String version, Configuration configuration, Map<String, String> userProperties) {
+            this.version = version;
+            this.configuration = configuration;
+            this.userProperties = userProperties;
+        }
+    }
 }
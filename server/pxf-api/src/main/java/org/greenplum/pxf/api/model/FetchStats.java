@@ -0,0 +1,55 @@
+package org.greenplum.pxf.api.model;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Statistics about the rows an {@link Accessor} fetched from the external
+ * system for a fragment, reported as metrics once the fragment is read.
+ */
+@Getter
+public class FetchStats {
+
+    /**
+     * Number of round trips made to the external system
+     */
+    private final long fetchCount;
+
+    /**
+     * Number of rows fetched
+     */
+    private final long rowCount;
+
+    /**
+     * Estimated number of bytes of the rows fetched
+     */
+    private final long byteCount;
+
+    /**
+     * Time spent waiting for the external system to return rows
+     */
+    private final Duration fetchTime;
+
+    /**
+     * Number of rows requested per round trip when the fragment was complete
+     */
+    private final int fetchSize;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param fetchCount number of round trips made to the external system
+     * @param rowCount   number of rows fetched
+     * @param byteCount  estimated number of bytes of the rows fetched
+     * @param fetchTime  time spent waiting for the external system to return rows
+     * @param fetchSize  number of rows requested per round trip when the fragment was complete
+     */
+    public FetchStats(long fetchCount, long rowCount, long byteCount, Duration fetchTime, int fetchSize) {
+        this.fetchCount = fetchCount;
+        this.rowCount = rowCount;
+        this.byteCount = byteCount;
+        this.fetchTime = fetchTime;
+        this.fetchSize = fetchSize;
+    }
+}
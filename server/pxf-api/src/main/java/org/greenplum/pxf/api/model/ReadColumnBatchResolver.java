@@ -0,0 +1,25 @@
+package org.greenplum.pxf.api.model;
+
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.batch.ColumnBatch;
+
+/**
+ * Interface that defines deserialization of a batch of records at once into a
+ * {@link ColumnBatch}, without creating a {@code OneField} object per value.
+ * When the resolver of a query implements this interface, the read bridge
+ * serializes the rows to Greenplum directly from the column vectors.
+ */
+public interface ReadColumnBatchResolver extends ReadVectorizedResolver {
+
+    /**
+     * Resolves a batch of records into the given column batch. Implementations
+     * must {@link ColumnBatch#reset(int) reset} the column batch to the number
+     * of records of the batch, and {@link org.greenplum.pxf.api.batch.ColumnVector#reset(org.greenplum.pxf.api.io.DataType) reset}
+     * and fill one column vector for every column of the Greenplum table, in
+     * the order of the tuple description.
+     *
+     * @param batch       unresolved batch
+     * @param columnBatch the column batch to fill, reused across calls
+     */
+    void resolveColumnBatch(OneRow batch, ColumnBatch columnBatch);
+}
@@ -43,7 +43,7 @@ import java.util.TreeMap;
  */
 @Getter
 @Setter
-public class RequestContext {
+public class RequestContext implements Cloneable {
 
     /**
      * The request type can be used to later determine whether we
@@ -564,6 +564,27 @@ public class RequestContext {
         throw new IllegalArgumentException(errorMessage);
     }
 
+    /**
+     * Creates a copy of this context that can be modified independently for
+     * processing a different fragment of the same request, possibly on
+     * another thread. Options and the tuple description are copied, other
+     * values are shared with this context.
+     *
+     * @return a copy of this context
+     */
+    public RequestContext copy() {
+        RequestContext copy;
+        try {
+            copy = (RequestContext) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        copy.options = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        copy.options.putAll(options);
+        copy.tupleDescription = new ArrayList<>(tupleDescription);
+        return copy;
+    }
+
     public String getProtocol() {
         return StringUtils.isNotBlank(protocol) ? protocol : inferProtocolName();
     }
@@ -0,0 +1,22 @@
+package org.greenplum.pxf.api.model;
+
+/**
+ * A {@link Fragmenter} that can tell whether the fragments it returned for an
+ * earlier request are still valid, so that they can be reused across
+ * transactions instead of fragmenting the data source again.
+ */
+public interface VersionedFragmenter extends Fragmenter {
+
+    /**
+     * Returns a version of the data source that changes whenever the list of
+     * fragments {@link #getFragments()} returns would change, for example a
+     * digest of the names, lengths and modification times of the files of the
+     * data source. Computing the version must be cheaper than fragmenting the
+     * data source.
+     *
+     * @return the version of the data source, or null if the fragments of the
+     * data source cannot be reused
+     * @throws Exception if the version cannot be computed
+     */
+    String getFragmentsVersion() throws Exception;
+}
@@ -0,0 +1,30 @@
+package org.greenplum.pxf.api.model;
+
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.batch.ColumnBatch;
+
+/**
+ * Interface that defines the serialization of a batch of records received
+ * from Greenplum as a {@link ColumnBatch}, without creating a {@code OneField}
+ * object per value. When the resolver of a query implements this interface,
+ * the write bridge decodes the records sent by Greenplum in the GPDBWritable
+ * format straight into the column vectors of the batch.
+ */
+public interface WriteColumnBatchResolver extends WriteVectorizedResolver {
+
+    /**
+     * Constructs a batch of records represented by {@link OneRow} from the
+     * given column batch. The batch has one column vector per column of the
+     * Greenplum table, in the order of the tuple description. The type of a
+     * column vector is the type the column is serialized with by Greenplum:
+     * {@code BIGINT}, {@code INTEGER}, {@code SMALLINT} and {@code BOOLEAN}
+     * values are stored as longs, {@code FLOAT8} and {@code REAL} values as
+     * doubles, {@code BYTEA} values as bytes, and the values of all other
+     * types as UTF-8 encoded {@code TEXT}.
+     *
+     * @param columnBatch the records, which are overwritten by the next batch
+     * @return the constructed {@link OneRow} which is a batch, or null if the batch is empty
+     * @throws Exception if constructing of a row batch from the column batch failed
+     */
+    OneRow setFieldsForColumnBatch(ColumnBatch columnBatch) throws Exception;
+}
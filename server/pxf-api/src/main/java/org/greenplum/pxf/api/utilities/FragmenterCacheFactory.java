@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -23,10 +24,15 @@ public class FragmenterCacheFactory {
 
     private final Cache<String, List<Fragment>> fragmenterCache;
 
+    private final Cache<String, VersionedFragments> sharedFragmenterCache;
+
     /**
      * Constructs the FragmenterCacheFactory class
      */
-    public FragmenterCacheFactory(@Value("${pxf.fragmenter-cache.expiration:10s}") Duration expiration) {
+    public FragmenterCacheFactory(@Value("${pxf.fragmenter-cache.expiration:10s}") Duration expiration,
+                                  @Value("${pxf.fragmenter-cache.shared.enabled:false}") boolean sharedEnabled,
+                                  @Value("${pxf.fragmenter-cache.shared.max-fragments:100000}") long sharedMaxFragments,
+                                  @Value("${pxf.fragmenter-cache.shared.expiration:1h}") Duration sharedExpiration) {
         long expirationMillis = expiration.toMillis();
         LOG.info("Creating Fragmenter Cache with entry expiration of {} ms", expirationMillis);
         fragmenterCache = CacheBuilder.newBuilder()
@@ -37,6 +43,24 @@ public class FragmenterCacheFactory {
                                 (notification.getValue() != null ? notification.getValue().size() : 0),
                                 notification.getCause().toString()))
                 .build();
+
+        if (sharedEnabled) {
+            LOG.info("Creating Shared Fragmenter Cache for up to {} fragments with entry expiration of {} ms",
+                    sharedMaxFragments, sharedExpiration.toMillis());
+            sharedFragmenterCache = CacheBuilder.newBuilder()
+                    .maximumWeight(sharedMaxFragments)
+                    .weigher((String key, VersionedFragments value) -> Math.max(1, value.getFragments().size()))
+                    .expireAfterWrite(sharedExpiration.toMillis(), TimeUnit.MILLISECONDS)
+                    .recordStats()
+                    .removalListener((RemovalListener<String, VersionedFragments>) notification ->
+                            LOG.debug("Removed sharedFragmenterCache entry for {} with {} fragments with cause {}",
+                                    notification.getKey(),
+                                    (notification.getValue() != null ? notification.getValue().getFragments().size() : 0),
+                                    notification.getCause().toString()))
+                    .build();
+        } else {
+            sharedFragmenterCache = null;
+        }
     }
 
     /**
@@ -45,4 +69,39 @@ public class FragmenterCacheFactory {
     public Cache<String, List<Fragment>> getCache() {
         return fragmenterCache;
     }
+
+    /**
+     * Returns the cache that keeps the fragments of a data source across
+     * transactions, along with the version of the data source they were
+     * computed for. The cache is bounded by the total number of fragments
+     * of its entries.
+     *
+     * @return the shared cache for the fragmenter, or null when it is disabled
+     */
+    public Cache<String, VersionedFragments> getSharedCache() {
+        return sharedFragmenterCache;
+    }
+
+    /**
+     * The list of fragments of a data source, and the version of the data
+     * source they were computed for.
+     */
+    public static class VersionedFragments {
+
+        private final String version;
+        private final List<Fragment> fragments;
+
+        public VersionedFragments(String version, List<Fragment> fragments) {
+            this.version = version;
+            this.fragments = Collections.unmodifiableList(fragments);
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public List<Fragment> getFragments() {
+            return fragments;
+        }
+    }
 }
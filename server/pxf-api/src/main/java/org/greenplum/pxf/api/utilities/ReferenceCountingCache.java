@@ -0,0 +1,283 @@
+package org.greenplum.pxf.api.utilities;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * A cache of resources that are shared by the concurrent requests using them,
+ * such as connections to an external system or the identities requests run
+ * as. Each entry counts the requests using its resource, and the resource is
+ * only closed once no request uses it and it has not been used for the
+ * expiration time, or when it is evicted to make room in a full cache. The
+ * expired entries are removed when resources are added or released, and
+ * should also be removed periodically with {@link #evictExpiredEntries()}, so
+ * that idle resources are closed when no request comes in.
+ * <p>
+ * The cache does not create resources itself, so that every user can create
+ * them outside of the lock on the cache in the way that suits the resource.
+ * When the cache is disabled, every resource is used by a single request and
+ * closed when released.
+ *
+ * @param <K> the type of the keys identifying the resources
+ * @param <V> the type of the resources
+ */
+public class ReferenceCountingCache<K, V> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReferenceCountingCache.class);
+
+    private final String name;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long expirationNanos;
+    private final Predicate<V> usable;
+    private final Closer<V> closer;
+    private final LongSupplier nanoTime;
+
+    // in access order, so that the least recently used entries are evicted first
+    private final Map<K, Entry<V>> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Closes a resource that is no longer cached or used.
+     *
+     * @param <V> the type of the resources
+     */
+    @FunctionalInterface
+    public interface Closer<V> {
+        void close(V value) throws Exception;
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param name       the name of the resources, used in log messages
+     * @param enabled    true if the resources are cached, false otherwise
+     * @param maxSize    the maximum number of cached resources
+     * @param expiration the time after which a resource that is not used is closed
+     * @param usable     tells whether a cached resource can still be used, e.g. that a connection is still open
+     * @param closer     closes the resources that are no longer cached or used
+     * @param nanoTime   the source of the current time in nanoseconds
+     */
+    public ReferenceCountingCache(String name, boolean enabled, int maxSize, Duration expiration,
+                                  Predicate<V> usable, Closer<V> closer, LongSupplier nanoTime) {
+        this.name = name;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.expirationNanos = expiration.toNanos();
+        this.usable = usable;
+        this.closer = closer;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @return true if the resources are cached, false otherwise
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cached resource for the given key, if any. A cached resource
+     * that is no longer usable is removed from the cache, and closed once the
+     * requests using it release it. Every entry returned must be released with
+     * {@link #release(Entry)} once the resource is no longer used by the request.
+     *
+     * @param key the key of the resource
+     * @return the cache entry holding the resource, or null if no usable resource is cached for the key
+     */
+    public Entry<V> acquire(K key) {
+        if (!enabled) {
+            return null;
+        }
+        List<Entry<V>> evicted = new ArrayList<>();
+        try {
+            synchronized (cache) {
+                return acquireCached(key, evicted);
+            }
+        } finally {
+            close(evicted);
+        }
+    }
+
+    /**
+     * Adds the resource created for the given key to the cache, and returns
+     * the entry holding it for the request that created it. When a usable
+     * resource has been cached for the key in the meantime, e.g. by a
+     * concurrent request, that resource is returned instead and the given one
+     * is closed. When the cache is full and every cached resource is in use,
+     * the resource is not cached and is closed when released.
+     *
+     * @param key   the key of the resource
+     * @param value the resource created for the key
+     * @return the cache entry holding the resource to use
+     */
+    public Entry<V> add(K key, V value) {
+        if (!enabled) {
+            Entry<V> entry = new Entry<>(null, value);
+            entry.references++;
+            return entry;
+        }
+        List<Entry<V>> evicted = new ArrayList<>();
+        try {
+            synchronized (cache) {
+                Entry<V> entry = acquireCached(key, evicted);
+                if (entry != null) {
+                    // another request cached a resource for the key in the meantime
+                    evicted.add(new Entry<>(null, value));
+                    return entry;
+                }
+                evictIdleEntries(evicted, true);
+                entry = new Entry<>(key, value);
+                if (cache.size() < maxSize) {
+                    cache.put(key, entry);
+                } else {
+                    // every cached resource is in use, the resource is closed with the request
+                    LOG.debug("{} cache is full, not caching {} for {}", name, name, key);
+                    entry = new Entry<>(null, value);
+                }
+                entry.references++;
+                return entry;
+            }
+        } finally {
+            close(evicted);
+        }
+    }
+
+    /**
+     * Releases a resource acquired with {@link #acquire(Object)} or
+     * {@link #add(Object, Object)}. The resource is closed right away when it
+     * is not cached.
+     *
+     * @param entry the cache entry holding the resource
+     */
+    public void release(Entry<V> entry) {
+        List<Entry<V>> evicted = new ArrayList<>();
+        if (entry.key == null) {
+            evicted.add(entry);
+        } else {
+            synchronized (cache) {
+                entry.references--;
+                entry.lastReleasedNanos = nanoTime.getAsLong();
+                if (entry.removed && entry.references == 0) {
+                    evicted.add(entry);
+                }
+                evictIdleEntries(evicted, false);
+            }
+        }
+        close(evicted);
+    }
+
+    /**
+     * Removes the cached resources that have not been used for the
+     * expiration time and closes them.
+     */
+    public void evictExpiredEntries() {
+        if (!enabled) {
+            return;
+        }
+        List<Entry<V>> evicted = new ArrayList<>();
+        synchronized (cache) {
+            evictIdleEntries(evicted, false);
+        }
+        close(evicted);
+    }
+
+    /**
+     * @return the number of cached resources
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Returns the usable cached entry for the given key with its reference
+     * count incremented, discarding the entry when it is no longer usable.
+     * Must be called while holding the lock on the cache.
+     */
+    private Entry<V> acquireCached(K key, List<Entry<V>> evicted) {
+        Entry<V> entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!usable.test(entry.value)) {
+            LOG.debug("Discarding {} for {} that is no longer usable", name, key);
+            cache.remove(key);
+            entry.removed = true;
+            if (entry.references == 0) {
+                evicted.add(entry);
+            }
+            return null;
+        }
+        LOG.debug("Reusing cached {} for {}", name, key);
+        entry.references++;
+        return entry;
+    }
+
+    /**
+     * Removes the entries that are not in use and have expired and, when
+     * making room for a new entry in a full cache, the least recently used
+     * entry that is not in use. Must be called while holding the lock on the
+     * cache.
+     */
+    private void evictIdleEntries(List<Entry<V>> evicted, boolean makeRoom) {
+        long now = nanoTime.getAsLong();
+        boolean full = makeRoom && cache.size() >= maxSize;
+        Iterator<Entry<V>> iterator = cache.values().iterator();
+        while (iterator.hasNext()) {
+            Entry<V> entry = iterator.next();
+            if (entry.references == 0 && (full || now - entry.lastReleasedNanos >= expirationNanos)) {
+                iterator.remove();
+                evicted.add(entry);
+                full = false;
+            }
+        }
+    }
+
+    private void close(List<Entry<V>> entries) {
+        for (Entry<V> entry : entries) {
+            LOG.debug("Closing {} for {}", name, entry.key);
+            try {
+                closer.close(entry.value);
+            } catch (Throwable t) {
+                LOG.warn(String.format("Error closing %s, ignored.", name), t);
+            }
+        }
+    }
+
+    /**
+     * A resource and the number of requests using it.
+     *
+     * @param <V> the type of the resource
+     */
+    public static class Entry<V> {
+
+        // null when the resource is not cached
+        private final Object key;
+        private final V value;
+        private int references;
+        private long lastReleasedNanos;
+        private boolean removed;
+
+        private Entry(Object key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        /**
+         * @return the resource
+         */
+        public V getValue() {
+            return value;
+        }
+    }
+}
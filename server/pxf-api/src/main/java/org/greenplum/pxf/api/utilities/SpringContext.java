@@ -26,6 +26,18 @@ public class SpringContext implements ApplicationContextAware {
         return context.getBean(requiredType);
     }
 
+    /**
+     * Returns the Spring managed bean instance with the given name, which
+     * must match the given class type.
+     *
+     * @param name         the name of the bean
+     * @param requiredType type the bean must match; can be an interface or superclass
+     * @return an instance of the bean
+     */
+    public static <T extends Object> T getBean(String name, Class<T> requiredType) {
+        return context.getBean(name, requiredType);
+    }
+
     @Override
     public void setApplicationContext(ApplicationContext context) throws BeansException {
 
@@ -0,0 +1,181 @@
+package org.greenplum.pxf.api.batch;
+
+import org.greenplum.pxf.api.io.DataType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ColumnBatchTest {
+
+    @Test
+    public void testStorage() {
+        assertEquals(ColumnVector.Storage.LONG, ColumnVector.Storage.of(DataType.BOOLEAN));
+        assertEquals(ColumnVector.Storage.LONG, ColumnVector.Storage.of(DataType.SMALLINT));
+        assertEquals(ColumnVector.Storage.LONG, ColumnVector.Storage.of(DataType.INTEGER));
+        assertEquals(ColumnVector.Storage.LONG, ColumnVector.Storage.of(DataType.BIGINT));
+        assertEquals(ColumnVector.Storage.DOUBLE, ColumnVector.Storage.of(DataType.REAL));
+        assertEquals(ColumnVector.Storage.DOUBLE, ColumnVector.Storage.of(DataType.FLOAT8));
+        assertEquals(ColumnVector.Storage.BYTES, ColumnVector.Storage.of(DataType.TEXT));
+        assertEquals(ColumnVector.Storage.BYTES, ColumnVector.Storage.of(DataType.BYTEA));
+        assertEquals(ColumnVector.Storage.BYTES, ColumnVector.Storage.of(DataType.NUMERIC));
+        assertEquals(ColumnVector.Storage.BYTES, ColumnVector.Storage.of(DataType.INT4ARRAY));
+    }
+
+    @Test
+    public void testResetWithStorage() {
+        ColumnBatch batch = new ColumnBatch(1, 4);
+        ColumnVector column = batch.getColumn(0);
+        batch.reset(2);
+        column.reset(DataType.DATE, ColumnVector.Storage.LONG);
+        column.setLong(0, 18000);
+        column.setLong(1, -1);
+
+        assertEquals(DataType.DATE, column.getType());
+        assertEquals(ColumnVector.Storage.LONG, column.getStorage());
+        assertEquals(18000, column.getLong(0));
+        assertEquals(-1, column.getLong(1));
+    }
+
+    @Test
+    public void testNulls() {
+        ColumnBatch batch = new ColumnBatch(1, 130);
+        batch.reset(130);
+        ColumnVector column = batch.getColumn(0);
+        column.reset(DataType.INTEGER);
+        assertTrue(column.hasNoNulls());
+
+        column.setNull(0);
+        column.setNull(64);
+        column.setNull(129);
+        for (int row = 0; row < 130; row++) {
+            assertEquals(row == 0 || row == 64 || row == 129, column.isNull(row), "row " + row);
+        }
+
+        // nulls are cleared for the next batch
+        batch.reset(130);
+        column.reset(DataType.INTEGER);
+        assertTrue(column.hasNoNulls());
+        for (int row = 0; row < 130; row++) {
+            assertFalse(column.isNull(row));
+        }
+
+        column.setAllNull(65);
+        assertFalse(column.hasNoNulls());
+        for (int row = 0; row < 130; row++) {
+            assertEquals(row < 65, column.isNull(row), "row " + row);
+        }
+
+        column.reset(DataType.INTEGER);
+        column.setAllNull(64);
+        for (int row = 0; row < 130; row++) {
+            assertEquals(row < 64, column.isNull(row), "row " + row);
+        }
+    }
+
+    @Test
+    public void testResetGrowsCapacity() {
+        ColumnBatch batch = new ColumnBatch(2, 4);
+        batch.reset(10);
+        assertEquals(10, batch.getSize());
+        assertEquals(10, batch.getCapacity());
+
+        ColumnVector longs = batch.getColumn(0);
+        longs.reset(DataType.BIGINT);
+        ColumnVector doubles = batch.getColumn(1);
+        doubles.reset(DataType.FLOAT8);
+        for (int row = 0; row < 10; row++) {
+            longs.setLong(row, row);
+            doubles.setDouble(row, row / 2.0);
+        }
+        longs.setNull(9);
+        assertEquals(8, longs.getLong(8));
+        assertEquals(4.5, doubles.getDouble(9));
+        assertTrue(longs.isNull(9));
+
+        batch.reset(3);
+        assertEquals(3, batch.getSize());
+        assertEquals(10, batch.getCapacity());
+    }
+
+    @Test
+    public void testSetSizeKeepsValues() {
+        ColumnBatch batch = new ColumnBatch(1, 4);
+        batch.reset(4);
+        ColumnVector text = batch.getColumn(0);
+        text.reset(DataType.TEXT);
+        text.setString(0, "abc");
+        text.setString(1, "def");
+
+        batch.setSize(2);
+        assertEquals(2, batch.getSize());
+        assertEquals(4, batch.getCapacity());
+        assertEquals("def", getString(text, 1));
+        assertThrows(IllegalArgumentException.class, () -> batch.setSize(5));
+    }
+
+    @Test
+    public void testBytesShareTheArena() {
+        ColumnBatch batch = new ColumnBatch(2, 4);
+        batch.reset(2);
+        ColumnVector text = batch.getColumn(0);
+        text.reset(DataType.TEXT);
+        ColumnVector bytes = batch.getColumn(1);
+        bytes.reset(DataType.BYTEA);
+        assertSame(batch.getArena(), text.getArena());
+
+        text.setString(0, "abc");
+        bytes.setBytes(0, new byte[]{1, 2, 3, 4}, 1, 2);
+        text.setString(1, "é€😀");
+        bytes.setBytes(1, new byte[0], 0, 0);
+
+        assertEquals("abc", getString(text, 0));
+        assertEquals("é€😀", getString(text, 1));
+        assertEquals(9, text.getLength(1));
+        assertEquals(3, bytes.getOffset(0));
+        assertEquals(2, bytes.getLength(0));
+        assertEquals(0, bytes.getLength(1));
+        assertEquals(14, batch.getArena().getSize());
+
+        batch.reset(1);
+        assertEquals(0, batch.getArena().getSize());
+    }
+
+    @Test
+    public void testSetUtf8ReplacesMalformedInput() {
+        ColumnBatch batch = new ColumnBatch(1, 2);
+        batch.reset(2);
+        ColumnVector text = batch.getColumn(0);
+        text.reset(DataType.TEXT);
+
+        byte[] malformed = {'a', (byte) 0xc3, 'b'};
+        text.setUtf8(0, malformed, 0, 3);
+        text.setUtf8(1, "plain".getBytes(StandardCharsets.UTF_8), 0, 5);
+
+        assertEquals(new String(malformed, StandardCharsets.UTF_8), getString(text, 0));
+        assertEquals("plain", getString(text, 1));
+    }
+
+    @Test
+    public void testArenaGrows() {
+        ByteArena arena = new ByteArena(1);
+        byte[] value = new byte[100];
+        Arrays.fill(value, (byte) 'x');
+        assertEquals(0, arena.append(value, 0, 100));
+        assertEquals(100, arena.append(value, 0, 50));
+        assertEquals(150, arena.getSize());
+        assertEquals(3, arena.appendUtf8("abc"));
+        assertEquals(153, arena.getSize());
+        assertEquals('c', arena.getBuffer()[152]);
+    }
+
+    private String getString(ColumnVector column, int row) {
+        return new String(column.getArena().getBuffer(), column.getOffset(row), column.getLength(row), StandardCharsets.UTF_8);
+    }
+}
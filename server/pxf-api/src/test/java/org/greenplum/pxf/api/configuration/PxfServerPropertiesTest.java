@@ -5,9 +5,11 @@ import org.springframework.boot.context.properties.bind.Bindable;
 import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.context.properties.source.ConfigurationPropertySource;
 import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -23,6 +25,15 @@ class PxfServerPropertiesTest {
         assertThat(properties.getTomcat().getMaxHeaderCount()).isEqualTo(30000);
         assertThat(properties.getTomcat().isDisableUploadTimeout()).isTrue();
         assertThat(properties.getTomcat().getConnectionUploadTimeout()).isEqualTo(Duration.ofMinutes(5));
+        assertThat(properties.getRead()).isNotNull();
+        assertThat(properties.getRead().getPipeline().isEnabled()).isFalse();
+        assertThat(properties.getRead().getPipeline().getQueueDepth()).isEqualTo(4);
+        assertThat(properties.getRead().getPipeline().getChunkSize()).isEqualTo(DataSize.ofKilobytes(64));
+        assertThat(properties.getRead().getFragmentPrefetch()).isEqualTo(0);
+        assertThat(properties.getRead().getFragmentPrefetchBufferSize()).isEqualTo(DataSize.ofMegabytes(1));
+        assertThat(properties.getRead().getParallel().isEnabled()).isFalse();
+        assertThat(properties.getRead().getParallel().getMaxThreadsPerQuery()).isEqualTo(4);
+        assertThat(properties.getRead().getParallel().getChunkSize()).isEqualTo(DataSize.ofKilobytes(64));
     }
 
     @Test
@@ -97,6 +108,46 @@ class PxfServerPropertiesTest {
         assertThat(properties.getTask().getShutdown().isAwaitTermination()).isEqualTo(true);
     }
 
+    @Test
+    public void testReadTaskExecutionPoolMaxSizeBinding() {
+        bind("pxf.read.task.pool.max-size", "20");
+        assertThat(properties.getRead().getTask().getPool().getMaxSize()).isEqualTo(20);
+    }
+
+    @Test
+    public void testReadPipelineBinding() {
+        Map<String, String> map = new HashMap<>();
+        map.put("pxf.read.pipeline.enabled", "true");
+        map.put("pxf.read.pipeline.queue-depth", "16");
+        map.put("pxf.read.pipeline.chunk-size", "1MB");
+        bind(map);
+        assertThat(properties.getRead().getPipeline().isEnabled()).isTrue();
+        assertThat(properties.getRead().getPipeline().getQueueDepth()).isEqualTo(16);
+        assertThat(properties.getRead().getPipeline().getChunkSize()).isEqualTo(DataSize.ofMegabytes(1));
+    }
+
+    @Test
+    public void testReadFragmentPrefetchBinding() {
+        Map<String, String> map = new HashMap<>();
+        map.put("pxf.read.fragment-prefetch", "2");
+        map.put("pxf.read.fragment-prefetch-buffer-size", "256KB");
+        bind(map);
+        assertThat(properties.getRead().getFragmentPrefetch()).isEqualTo(2);
+        assertThat(properties.getRead().getFragmentPrefetchBufferSize()).isEqualTo(DataSize.ofKilobytes(256));
+    }
+
+    @Test
+    public void testReadParallelBinding() {
+        Map<String, String> map = new HashMap<>();
+        map.put("pxf.read.parallel.enabled", "true");
+        map.put("pxf.read.parallel.max-threads-per-query", "8");
+        map.put("pxf.read.parallel.chunk-size", "1MB");
+        bind(map);
+        assertThat(properties.getRead().getParallel().isEnabled()).isTrue();
+        assertThat(properties.getRead().getParallel().getMaxThreadsPerQuery()).isEqualTo(8);
+        assertThat(properties.getRead().getParallel().getChunkSize()).isEqualTo(DataSize.ofMegabytes(1));
+    }
+
     private void bind(String name, String value) {
         bind(Collections.singletonMap(name, value));
     }
@@ -0,0 +1,127 @@
+package org.greenplum.pxf.api.io;
+
+import org.greenplum.pxf.api.batch.ColumnBatch;
+import org.greenplum.pxf.api.batch.ColumnVector;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ColumnBatchGPDBWritableTest {
+
+    private static final int[] SCHEMA = {
+            DataType.BOOLEAN.getOID(),
+            DataType.TEXT.getOID(),
+            DataType.BIGINT.getOID(),
+            DataType.SMALLINT.getOID(),
+            DataType.FLOAT8.getOID(),
+            DataType.INTEGER.getOID(),
+            DataType.REAL.getOID(),
+            DataType.BYTEA.getOID(),
+            DataType.DATE.getOID(),
+            DataType.NUMERIC.getOID(),
+    };
+
+    @Test
+    public void testWriteMatchesGPDBWritable() throws IOException {
+        assertRowsMatchGPDBWritable(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testWriteMatchesGPDBWritableWithDatabaseEncoding() throws IOException {
+        assertRowsMatchGPDBWritable(StandardCharsets.ISO_8859_1);
+    }
+
+    private void assertRowsMatchGPDBWritable(Charset encoding) throws IOException {
+        ColumnBatch batch = new ColumnBatch(SCHEMA.length, 2);
+        batch.reset(3);
+        for (int i = 0; i < SCHEMA.length; i++) {
+            batch.getColumn(i).reset(DataType.get(SCHEMA[i]));
+        }
+
+        // row 0: all values set
+        batch.getColumn(0).setLong(0, 1);
+        batch.getColumn(1).setString(0, "héllo");
+        batch.getColumn(2).setLong(0, Long.MIN_VALUE);
+        batch.getColumn(3).setLong(0, (short) -7);
+        batch.getColumn(4).setDouble(0, 3.14159);
+        batch.getColumn(5).setLong(0, 42);
+        batch.getColumn(6).setDouble(0, 2.5f);
+        batch.getColumn(7).setBytes(0, new byte[]{9, 0, -1}, 0, 3);
+        batch.getColumn(8).setString(0, "2021-03-04");
+        batch.getColumn(9).setString(0, "123.456");
+
+        // row 1: every other value null
+        for (int i = 0; i < SCHEMA.length; i += 2) {
+            batch.getColumn(i).setNull(1);
+        }
+        batch.getColumn(1).setString(1, "");
+        batch.getColumn(3).setLong(1, 1);
+        batch.getColumn(5).setLong(1, -1);
+        batch.getColumn(7).setBytes(1, new byte[0], 0, 0);
+        batch.getColumn(9).setString(1, "0");
+
+        // row 2: all values null
+        for (int i = 0; i < SCHEMA.length; i++) {
+            batch.getColumn(i).setNull(2);
+        }
+
+        GPDBWritable[] expected = new GPDBWritable[3];
+        expected[0] = new GPDBWritable(SCHEMA, encoding);
+        expected[0].setBoolean(0, true);
+        expected[0].setString(1, "héllo");
+        expected[0].setLong(2, Long.MIN_VALUE);
+        expected[0].setShort(3, (short) -7);
+        expected[0].setDouble(4, 3.14159);
+        expected[0].setInt(5, 42);
+        expected[0].setFloat(6, 2.5f);
+        expected[0].setBytes(7, new byte[]{9, 0, -1});
+        expected[0].setString(8, "2021-03-04");
+        expected[0].setString(9, "123.456");
+        expected[1] = new GPDBWritable(SCHEMA, encoding);
+        expected[1].setString(1, "");
+        expected[1].setShort(3, (short) 1);
+        expected[1].setInt(5, -1);
+        expected[1].setBytes(7, new byte[0]);
+        expected[1].setString(9, "0");
+        expected[2] = new GPDBWritable(SCHEMA, encoding);
+
+        ColumnBatchGPDBWritable writable = new ColumnBatchGPDBWritable(SCHEMA, encoding);
+        for (int row = 0; row < 3; row++) {
+            writable.setRow(batch, row);
+            assertArrayEquals(serialize(expected[row]), serialize(writable), "row " + row);
+        }
+    }
+
+    @Test
+    public void testWriteRepeatedBytes() throws IOException {
+        int[] schema = {DataType.VARCHAR.getOID()};
+        ColumnBatch batch = new ColumnBatch(1, 4);
+        batch.reset(2);
+        ColumnVector column = batch.getColumn(0);
+        column.reset(DataType.VARCHAR);
+        column.setUtf8(0, "xabcx".getBytes(StandardCharsets.UTF_8), 1, 3);
+        column.setSameBytes(1, 0);
+        assertEquals(3, batch.getArena().getSize());
+
+        GPDBWritable expected = new GPDBWritable(schema, StandardCharsets.UTF_8);
+        expected.setString(0, "abc");
+        ColumnBatchGPDBWritable writable = new ColumnBatchGPDBWritable(schema, StandardCharsets.UTF_8);
+        for (int row = 0; row < 2; row++) {
+            writable.setRow(batch, row);
+            assertArrayEquals(serialize(expected), serialize(writable));
+        }
+    }
+
+    private byte[] serialize(Writable writable) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writable.write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+}
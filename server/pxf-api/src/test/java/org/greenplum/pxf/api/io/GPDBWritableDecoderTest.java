@@ -0,0 +1,252 @@
+package org.greenplum.pxf.api.io;
+
+import org.greenplum.pxf.api.batch.ColumnBatch;
+import org.greenplum.pxf.api.batch.ColumnVector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GPDBWritableDecoderTest {
+
+    private static final int[] SCHEMA = {
+            DataType.BOOLEAN.getOID(),
+            DataType.TEXT.getOID(),
+            DataType.BIGINT.getOID(),
+            DataType.SMALLINT.getOID(),
+            DataType.FLOAT8.getOID(),
+            DataType.INTEGER.getOID(),
+            DataType.REAL.getOID(),
+            DataType.BYTEA.getOID(),
+            DataType.DATE.getOID(),
+            DataType.NUMERIC.getOID(),
+    };
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty("greenplum.alignment");
+    }
+
+    @Test
+    public void testDecodeMatchesGPDBWritable() throws IOException {
+        assertRecordsMatchGPDBWritable(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testDecodeMatchesGPDBWritableWithDatabaseEncoding() throws IOException {
+        assertRecordsMatchGPDBWritable(Charset.forName("windows-1251"));
+    }
+
+    @Test
+    public void testDecodeMatchesGPDBWritableWithFourByteAlignment() throws IOException {
+        System.setProperty("greenplum.alignment", "4");
+        assertRecordsMatchGPDBWritable(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testTypedAccessors() throws IOException {
+        GPDBWritableDecoder decoder = new GPDBWritableDecoder(StandardCharsets.UTF_8);
+        assertTrue(decoder.readRecord(input(fullRecord(StandardCharsets.UTF_8))));
+
+        assertEquals(SCHEMA.length, decoder.getColumnCount());
+        assertTrue(decoder.getBoolean(0));
+        assertEquals(1, decoder.getLong(0));
+        assertEquals("abc ж", decoder.getString(1));
+        assertEquals(6, decoder.getLength(1));
+        assertEquals(Long.MIN_VALUE, decoder.getLong(2));
+        assertEquals((short) -7, decoder.getShort(3));
+        assertEquals(-7, decoder.getLong(3));
+        assertEquals(Math.PI, decoder.getDouble(4));
+        assertEquals(42, decoder.getInt(5));
+        assertEquals(1.5f, decoder.getFloat(6));
+        assertArrayEquals(new byte[]{1, 2, 3}, decoder.getBytes(7));
+        assertArrayEquals(new byte[]{1, 2, 3}, Arrays.copyOfRange(decoder.getBuffer(),
+                decoder.getOffset(7), decoder.getOffset(7) + decoder.getLength(7)));
+        // types without a binary form are sent as text
+        assertEquals(DataType.TEXT.getOID(), decoder.getColumnType(8));
+        assertEquals("2021-01-01", decoder.getString(8));
+        assertThrows(IllegalStateException.class, () -> decoder.getLong(1));
+        assertThrows(IllegalStateException.class, () -> decoder.getDouble(5));
+    }
+
+    @Test
+    public void testBufferGrowsAndEndOfStream() throws IOException {
+        int[] schema = {DataType.VARCHAR.getOID(), DataType.BYTEA.getOID()};
+        char[] chars = new char[10000];
+        Arrays.fill(chars, 'é');
+        String longValue = new String(chars);
+        byte[] longBytes = new byte[20000];
+        Arrays.fill(longBytes, (byte) 7);
+
+        GPDBWritable small = new GPDBWritable(schema, StandardCharsets.UTF_8);
+        small.setString(0, "a");
+        GPDBWritable large = new GPDBWritable(schema, StandardCharsets.UTF_8);
+        large.setString(0, longValue);
+        large.setBytes(1, longBytes);
+
+        GPDBWritableDecoder decoder = new GPDBWritableDecoder(StandardCharsets.UTF_8);
+        DataInputStream in = input(serialize(small), serialize(large), serialize(small));
+        assertTrue(decoder.readRecord(in));
+        assertEquals("a", decoder.getString(0));
+        assertTrue(decoder.isNull(1));
+        assertTrue(decoder.readRecord(in));
+        assertEquals(longValue, decoder.getString(0));
+        assertArrayEquals(longBytes, decoder.getBytes(1));
+        assertTrue(decoder.readRecord(in));
+        assertEquals("a", decoder.getString(0));
+        assertFalse(decoder.readRecord(in));
+    }
+
+    @Test
+    public void testCopyToColumnBatch() throws IOException {
+        Charset encoding = Charset.forName("windows-1251");
+        GPDBWritableDecoder decoder = new GPDBWritableDecoder(encoding);
+        DataInputStream in = input(fullRecord(encoding), emptyRecord(encoding));
+        ColumnBatch batch = new ColumnBatch(SCHEMA.length, 2);
+        batch.reset(2);
+
+        assertTrue(decoder.readRecord(in));
+        decoder.resetColumns(batch);
+        decoder.copyTo(batch, 0);
+        assertTrue(decoder.readRecord(in));
+        decoder.copyTo(batch, 1);
+
+        assertEquals(DataType.BOOLEAN, batch.getColumn(0).getType());
+        assertEquals(1, batch.getColumn(0).getLong(0));
+        assertEquals("abc ж", getString(batch.getColumn(1), 0));
+        assertEquals(Long.MIN_VALUE, batch.getColumn(2).getLong(0));
+        assertEquals(-7, batch.getColumn(3).getLong(0));
+        assertEquals(Math.PI, batch.getColumn(4).getDouble(0));
+        assertEquals(42, batch.getColumn(5).getLong(0));
+        assertEquals(1.5, batch.getColumn(6).getDouble(0));
+        assertEquals(ColumnVector.Storage.BYTES, batch.getColumn(7).getStorage());
+        assertEquals(3, batch.getColumn(7).getLength(0));
+        assertEquals(DataType.TEXT, batch.getColumn(9).getType());
+        assertEquals("-12.345", getString(batch.getColumn(9), 0));
+        for (int i = 0; i < SCHEMA.length; i++) {
+            assertFalse(batch.getColumn(i).isNull(0));
+            assertTrue(batch.getColumn(i).isNull(1));
+        }
+    }
+
+    @Test
+    public void testErrorFlag() throws IOException {
+        GPDBWritable writable = new GPDBWritable(new int[]{DataType.INTEGER.getOID()}, StandardCharsets.UTF_8);
+        writable.setError(true);
+        GPDBWritableDecoder decoder = new GPDBWritableDecoder(StandardCharsets.UTF_8);
+        Exception e = assertThrows(IOException.class, () -> decoder.readRecord(input(serialize(writable))));
+        assertEquals("Received error value 1 from format", e.getMessage());
+    }
+
+    @Test
+    public void testTruncatedRecord() throws IOException {
+        byte[] record = serialize(fullRecord(StandardCharsets.UTF_8));
+        // a record whose length is too short for its values
+        record[3] = 24;
+        GPDBWritableDecoder decoder = new GPDBWritableDecoder(StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> decoder.readRecord(input(record)));
+    }
+
+    private void assertRecordsMatchGPDBWritable(Charset encoding) throws IOException {
+        GPDBWritableDecoder decoder = new GPDBWritableDecoder(encoding);
+        DataInputStream in = input(fullRecord(encoding), emptyRecord(encoding), fullRecord(encoding));
+        DataInputStream expectedIn = input(fullRecord(encoding), emptyRecord(encoding), fullRecord(encoding));
+        for (int r = 0; r < 3; r++) {
+            GPDBWritable expected = new GPDBWritable(encoding);
+            expected.readFields(expectedIn);
+            assertTrue(decoder.readRecord(in));
+            int[] columnTypes = expected.getColType();
+            assertEquals(columnTypes.length, decoder.getColumnCount());
+            for (int i = 0; i < columnTypes.length; i++) {
+                assertEquals(columnTypes[i], decoder.getColumnType(i));
+                Object expectedValue = getValue(expected, columnTypes[i], i);
+                if (expectedValue instanceof byte[]) {
+                    assertArrayEquals((byte[]) expectedValue, (byte[]) decoder.getObject(i));
+                } else {
+                    assertEquals(expectedValue, decoder.getObject(i));
+                }
+                assertEquals(expectedValue == null, decoder.isNull(i));
+            }
+        }
+        assertFalse(decoder.readRecord(in));
+    }
+
+    private Object getValue(GPDBWritable writable, int type, int index) throws IOException {
+        switch (DataType.get(type)) {
+            case BOOLEAN:
+                return writable.getBoolean(index);
+            case BIGINT:
+                return writable.getLong(index);
+            case SMALLINT:
+                return writable.getShort(index);
+            case FLOAT8:
+                return writable.getDouble(index);
+            case INTEGER:
+                return writable.getInt(index);
+            case REAL:
+                return writable.getFloat(index);
+            case BYTEA:
+                return writable.getBytes(index);
+            default:
+                return writable.getString(index);
+        }
+    }
+
+    private GPDBWritable fullRecord(Charset encoding) throws IOException {
+        GPDBWritable writable = new GPDBWritable(SCHEMA, encoding);
+        writable.setBoolean(0, true);
+        writable.setString(1, "abc ж");
+        writable.setLong(2, Long.MIN_VALUE);
+        writable.setShort(3, (short) -7);
+        writable.setDouble(4, Math.PI);
+        writable.setInt(5, 42);
+        writable.setFloat(6, 1.5f);
+        writable.setBytes(7, new byte[]{1, 2, 3});
+        writable.setString(8, "2021-01-01");
+        writable.setString(9, "-12.345");
+        return writable;
+    }
+
+    private GPDBWritable emptyRecord(Charset encoding) {
+        return new GPDBWritable(SCHEMA, encoding);
+    }
+
+    private DataInputStream input(GPDBWritable... records) throws IOException {
+        byte[][] serialized = new byte[records.length][];
+        for (int i = 0; i < records.length; i++) {
+            serialized[i] = serialize(records[i]);
+        }
+        return input(serialized);
+    }
+
+    private DataInputStream input(byte[]... records) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] record : records) {
+            out.write(record);
+        }
+        return new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private byte[] serialize(Writable writable) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writable.write(new DataOutputStream(out));
+        return out.toByteArray();
+    }
+
+    private String getString(ColumnVector vector, int row) {
+        return new String(vector.getArena().getBuffer(), vector.getOffset(row), vector.getLength(row), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,206 @@
+package org.greenplum.pxf.api.io;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GPDBWritableEncoderTest {
+
+    private static final int[] SCHEMA = {
+            DataType.BOOLEAN.getOID(),
+            DataType.TEXT.getOID(),
+            DataType.BIGINT.getOID(),
+            DataType.SMALLINT.getOID(),
+            DataType.FLOAT8.getOID(),
+            DataType.INTEGER.getOID(),
+            DataType.REAL.getOID(),
+            DataType.BYTEA.getOID(),
+            DataType.DATE.getOID(),
+            DataType.NUMERIC.getOID(),
+    };
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty("greenplum.alignment");
+    }
+
+    @Test
+    public void testEncodeMatchesGPDBWritable() throws IOException {
+        assertRecordsMatchGPDBWritable(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testEncodeMatchesGPDBWritableWithDatabaseEncoding() throws IOException {
+        assertRecordsMatchGPDBWritable(StandardCharsets.ISO_8859_1);
+        assertRecordsMatchGPDBWritable(Charset.forName("windows-1251"));
+    }
+
+    @Test
+    public void testEncodeMatchesGPDBWritableWithFourByteAlignment() throws IOException {
+        System.setProperty("greenplum.alignment", "4");
+        assertRecordsMatchGPDBWritable(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testBufferGrowsAndRecordsAreReused() throws IOException {
+        int[] schema = {DataType.VARCHAR.getOID(), DataType.BYTEA.getOID()};
+        char[] chars = new char[10000];
+        Arrays.fill(chars, 'é');
+        String longValue = new String(chars);
+        byte[] longBytes = new byte[20000];
+        Arrays.fill(longBytes, (byte) 7);
+
+        GPDBWritable expected = new GPDBWritable(schema, StandardCharsets.UTF_8);
+        expected.setString(0, longValue);
+        expected.setBytes(1, longBytes);
+
+        GPDBWritableEncoder encoder = new GPDBWritableEncoder(schema, StandardCharsets.UTF_8);
+        List<Writable> records = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            encoder.beginRecord();
+            encoder.writeString(0, new StringBuilder(longValue));
+            encoder.writeBytes(1, longBytes, 0, longBytes.length);
+            records.add(encoder.endRecord());
+        }
+        // records encoded before the buffer grew are still valid
+        for (Writable record : records) {
+            assertArrayEquals(serialize(expected), serialize(record));
+        }
+
+        encoder.reset();
+        encoder.beginRecord();
+        encoder.writeNull(0);
+        encoder.writeNull(1);
+        assertSame(records.get(0), encoder.endRecord());
+    }
+
+    @Test
+    public void testUnfinishedRecordIsDiscarded() throws IOException {
+        int[] schema = {DataType.INTEGER.getOID(), DataType.TEXT.getOID()};
+        GPDBWritableEncoder encoder = new GPDBWritableEncoder(schema, StandardCharsets.UTF_8);
+        encoder.beginRecord();
+        encoder.writeInt(0, 1);
+        encoder.beginRecord();
+        encoder.writeInt(0, 2);
+        encoder.writeString(1, "two");
+        Writable record = encoder.endRecord();
+
+        GPDBWritable expected = new GPDBWritable(schema, StandardCharsets.UTF_8);
+        expected.setInt(0, 2);
+        expected.setString(1, "two");
+        assertArrayEquals(serialize(expected), serialize(record));
+    }
+
+    @Test
+    public void testTypeMismatch() throws Exception {
+        int[] schema = {DataType.INTEGER.getOID(), -1};
+        GPDBWritableEncoder encoder = new GPDBWritableEncoder(schema, StandardCharsets.UTF_8);
+        encoder.beginRecord();
+
+        Exception e = assertThrows(GPDBWritable.TypeMismatchException.class, () -> encoder.writeLong(0, 1L));
+        assertEquals("Cannot set BIGINT to a INTEGER column", e.getMessage());
+        e = assertThrows(GPDBWritable.TypeMismatchException.class, () -> encoder.writeString(0, null));
+        assertEquals("Cannot set TEXT to a INTEGER column", e.getMessage());
+
+        encoder.writeNull(0, DataType.INTEGER);
+        e = assertThrows(GPDBWritable.TypeMismatchException.class, () -> encoder.writeNull(1, DataType.REAL));
+        assertEquals("Cannot set REAL to a TEXT column", e.getMessage());
+    }
+
+    @Test
+    public void testValuesMustBeWrittenInColumnOrder() {
+        int[] schema = {DataType.INTEGER.getOID(), DataType.INTEGER.getOID()};
+        GPDBWritableEncoder encoder = new GPDBWritableEncoder(schema, StandardCharsets.UTF_8);
+        assertThrows(IllegalStateException.class, () -> encoder.writeInt(0, 1));
+
+        encoder.beginRecord();
+        Exception e = assertThrows(IllegalStateException.class, () -> encoder.writeInt(1, 1));
+        assertEquals("Expected a value for column 0 but got column 1", e.getMessage());
+
+        encoder.writeNull(0);
+        e = assertThrows(IllegalStateException.class, encoder::endRecord);
+        assertEquals("Record has 1 values but the schema size is 2", e.getMessage());
+    }
+
+    private void assertRecordsMatchGPDBWritable(Charset encoding) throws IOException {
+        GPDBWritable[] expected = new GPDBWritable[3];
+        GPDBWritableEncoder encoder = new GPDBWritableEncoder(SCHEMA, encoding);
+        List<Writable> records = new ArrayList<>();
+
+        // record 0: all values set, with characters that do not exist in every encoding
+        expected[0] = new GPDBWritable(SCHEMA, encoding);
+        expected[0].setBoolean(0, true);
+        expected[0].setString(1, "héllo € 😀");
+        expected[0].setLong(2, Long.MIN_VALUE);
+        expected[0].setShort(3, (short) -7);
+        expected[0].setDouble(4, 3.14159);
+        expected[0].setInt(5, 42);
+        expected[0].setFloat(6, 2.5f);
+        expected[0].setBytes(7, new byte[]{9, 0, -1});
+        expected[0].setString(8, "2021-03-04");
+        expected[0].setString(9, "123.456");
+        encoder.beginRecord();
+        encoder.writeBoolean(0, true);
+        encoder.writeString(1, "héllo € 😀");
+        encoder.writeLong(2, Long.MIN_VALUE);
+        encoder.writeShort(3, (short) -7);
+        encoder.writeDouble(4, 3.14159);
+        encoder.writeInt(5, 42);
+        encoder.writeFloat(6, 2.5f);
+        encoder.writeBytes(7, new byte[]{1, 9, 0, -1}, 1, 3);
+        encoder.writeString(8, "2021-03-04");
+        encoder.writeString(9, "123.456");
+        records.add(encoder.endRecord());
+
+        // record 1: every other value null
+        expected[1] = new GPDBWritable(SCHEMA, encoding);
+        expected[1].setString(1, "");
+        expected[1].setShort(3, (short) 1);
+        expected[1].setInt(5, -1);
+        expected[1].setBytes(7, new byte[0]);
+        expected[1].setString(9, "0");
+        encoder.beginRecord();
+        encoder.writeNull(0);
+        encoder.writeString(1, "");
+        encoder.writeNull(2);
+        encoder.writeShort(3, (short) 1);
+        encoder.writeNull(4);
+        encoder.writeInt(5, -1);
+        encoder.writeNull(6);
+        encoder.writeBytes(7, new byte[0], 0, 0);
+        encoder.writeString(8, null);
+        encoder.writeString(9, "0");
+        records.add(encoder.endRecord());
+
+        // record 2: all values null
+        expected[2] = new GPDBWritable(SCHEMA, encoding);
+        encoder.beginRecord();
+        for (int i = 0; i < SCHEMA.length; i++) {
+            encoder.writeNull(i);
+        }
+        records.add(encoder.endRecord());
+
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(serialize(expected[i]), serialize(records.get(i)), "record " + i);
+        }
+    }
+
+    private byte[] serialize(Writable writable) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writable.write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+}
@@ -3,12 +3,15 @@ package org.greenplum.pxf.api.model;
 import org.apache.hadoop.conf.Configuration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -18,6 +21,7 @@ import static org.greenplum.pxf.api.model.ConfigurationFactory.PXF_SESSION_USER_
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -198,4 +202,53 @@ public class BaseConfigurationFactoryTest {
         assertEquals("dummy", configuration.get(PXF_SESSION_USER_PROPERTY));
     }
 
+    @Test
+    public void testConfigurationsDoNotShareRequestProperties() {
+        additionalProperties.put("test.red", "purple");
+        Configuration configuration1 = factory.initConfiguration("default", "default", "dummy", additionalProperties);
+        configuration1.set("test.blue", "changed");
+        Configuration configuration2 = factory.initConfiguration("default", "default", "dummy", null);
+
+        assertEquals("purple", configuration1.get("test.red"));
+        assertEquals("changed", configuration1.get("test.blue"));
+        assertEquals("red", configuration2.get("test.red"));
+        assertEquals("blue", configuration2.get("test.blue"));
+        assertEquals("redvaluefromuser", configuration2.get("test.red.key"));
+
+        // a different user does not get the properties of the user file
+        Configuration configuration3 = factory.initConfiguration("default", "default", "other", null);
+        assertEquals("other", configuration3.get(PXF_SESSION_USER_PROPERTY));
+        assertEquals("other-blue", configuration3.get("test.blue.interpolated.key"));
+        assertNull(configuration3.get("test.user.key"));
+    }
+
+    @Test
+    public void testConfigurationReloadedWhenServerDirectoryChanges(@TempDir File tempServersDirectory) throws IOException {
+        File serverDirectory = new File(tempServersDirectory, "s1");
+        assertTrue(serverDirectory.mkdir());
+        writeProperty(new File(serverDirectory, "a-site.xml"), "test.a", "1");
+        factory = new BaseConfigurationFactory(tempServersDirectory);
+
+        assertEquals("1", factory.initConfiguration("s1", "s1", "dummy", null).get("test.a"));
+
+        // a site file is modified
+        writeProperty(new File(serverDirectory, "a-site.xml"), "test.a", "22");
+        assertEquals("22", factory.initConfiguration("s1", "s1", "dummy", null).get("test.a"));
+
+        // site and user files are added
+        writeProperty(new File(serverDirectory, "b-site.xml"), "test.b", "3");
+        writeProperty(new File(serverDirectory, "dummy-user.xml"), "test.a", "4");
+        Configuration configuration = factory.initConfiguration("s1", "s1", "dummy", null);
+        assertEquals("3", configuration.get("test.b"));
+        assertEquals("4", configuration.get("test.a"));
+
+        // a site file is removed
+        assertTrue(new File(serverDirectory, "b-site.xml").delete());
+        assertNull(factory.initConfiguration("s1", "s1", "dummy", null).get("test.b"));
+    }
+
+    private void writeProperty(File file, String name, String value) throws IOException {
+        String xml = String.format("<?xml version=\"1.0\"?>%n<configuration>%n<property><name>%s</name><value>%s</value></property>%n</configuration>%n", name, value);
+        Files.write(file.toPath(), xml.getBytes(StandardCharsets.UTF_8));
+    }
 }
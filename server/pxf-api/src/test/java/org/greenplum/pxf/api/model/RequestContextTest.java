@@ -7,6 +7,7 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -26,6 +27,28 @@ public class RequestContextTest {
         assertEquals(0, context.getStatsSampleRatio(), 0.1);
     }
 
+    @Test
+    public void testCopy() {
+        context.setServerName("s3");
+        context.setDataSource("/path/to/file1");
+        context.setFragmentIndex(1);
+        context.addOption("FOO", "bar");
+
+        RequestContext copy = context.copy();
+        copy.setDataSource("/path/to/file2");
+        copy.setFragmentIndex(2);
+        copy.addOption("BAZ", "qux");
+
+        assertNotSame(context, copy);
+        assertEquals("s3", copy.getServerName());
+        assertEquals("bar", copy.getOption("foo"));
+        assertEquals("qux", copy.getOption("baz"));
+        assertEquals("/path/to/file1", context.getDataSource());
+        assertEquals(1, context.getFragmentIndex());
+        assertFalse(context.getOptions().containsKey("BAZ"));
+        assertNotSame(context.getTupleDescription(), copy.getTupleDescription());
+    }
+
     @Test
     public void testSettingBlankToDefaultServerName() {
         context.setServerName("      ");
@@ -0,0 +1,85 @@
+package org.greenplum.pxf.api.filter;
+
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing the filter string sent by Greenplum, and pruning and
+ * serializing the resulting tree the way the plugins that push down
+ * predicates do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterParserBenchmark {
+
+    /*
+     * (col0 = 'bar' AND col1 <> 999 AND NOT col2 < 123 OR col3 IN (1, 2, 3))
+     * AND col4 >= '2020-01-01' AND col5 = 'ab' AND col1 IS NOT NULL
+     * AND col0 LIKE 'b%'
+     */
+    private static final String FILTER = "a0c25s3dbaro5" +
+            "a1c23s3d999o6l0" +
+            "a2c1700s3d123o1l2l0" +
+            "a3m1007s1d1s1d2s1d3o10l1" +
+            "a4c1082s10d2020-01-01o4l0" +
+            "a5c17s2dabo5l0" +
+            "a1o9l0" +
+            "a0c25s2db%o7l0";
+
+    private static final EnumSet<DataType> SUPPORTED_DATA_TYPES = EnumSet.of(
+            DataType.INTEGER, DataType.NUMERIC, DataType.TEXT, DataType.DATE);
+
+    private static final EnumSet<Operator> SUPPORTED_OPERATORS = EnumSet.complementOf(EnumSet.of(Operator.LIKE));
+
+    private static final TreeTraverser TRAVERSER = new TreeTraverser();
+
+    private List<ColumnDescriptor> columnDescriptors;
+    private SupportedDataTypePruner dataTypePruner;
+    private SupportedOperatorPruner operatorPruner;
+    private ToStringTreeVisitor toStringTreeVisitor;
+
+    @Setup
+    public void setup() {
+        DataType[] types = {DataType.TEXT, DataType.INTEGER, DataType.NUMERIC, DataType.INTEGER, DataType.DATE, DataType.BYTEA};
+        columnDescriptors = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) {
+            columnDescriptors.add(new ColumnDescriptor("col" + i, types[i].getOID(), i, types[i].toString(), null));
+        }
+        dataTypePruner = new SupportedDataTypePruner(columnDescriptors, SUPPORTED_DATA_TYPES);
+        operatorPruner = new SupportedOperatorPruner(SUPPORTED_OPERATORS);
+        toStringTreeVisitor = new ToStringTreeVisitor();
+    }
+
+    @Benchmark
+    public Node parse() throws Exception {
+        return new FilterParser().parse(FILTER);
+    }
+
+    @Benchmark
+    public String parseAndPrune() throws Exception {
+        // pruning modifies the tree, so it is parsed on every invocation
+        Node root = new FilterParser().parse(FILTER);
+        toStringTreeVisitor.reset();
+        TRAVERSER.traverse(root, dataTypePruner, operatorPruner, toStringTreeVisitor);
+        return toStringTreeVisitor.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package org.greenplum.pxf.api.io;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serializing and deserializing {@link GPDBWritable} records of a
+ * schema mixing fixed-length and text columns.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GPDBWritableBenchmark {
+
+    private static final int ROWS = 1024;
+    private static final int[] SCHEMA = {
+            DataType.BIGINT.getOID(), DataType.INTEGER.getOID(), DataType.SMALLINT.getOID(),
+            DataType.FLOAT8.getOID(), DataType.REAL.getOID(), DataType.BOOLEAN.getOID(),
+            DataType.TEXT.getOID(), DataType.VARCHAR.getOID(), DataType.NUMERIC.getOID(),
+            DataType.DATE.getOID(), DataType.BYTEA.getOID()
+    };
+
+    private GPDBWritable[] records;
+    private byte[] serialized;
+    private ByteArrayOutputStream bytes;
+    private DataOutputStream out;
+
+    @Setup
+    public void setup() throws IOException {
+        records = new GPDBWritable[ROWS];
+        bytes = new ByteArrayOutputStream(ROWS * 256);
+        out = new DataOutputStream(bytes);
+        for (int row = 0; row < ROWS; row++) {
+            GPDBWritable record = new GPDBWritable(SCHEMA, StandardCharsets.UTF_8);
+            record.setLong(0, row * 1_000_003L);
+            record.setInt(1, row);
+            record.setShort(2, (short) row);
+            record.setDouble(3, row / 7.0);
+            // one record in eight has a null value
+            record.setFloat(4, row % 8 == 0 ? null : row / 3.0f);
+            record.setBoolean(5, row % 2 == 0);
+            record.setString(6, "text value of row " + row);
+            record.setString(7, "välue " + row);
+            record.setString(8, row + ".25");
+            record.setString(9, "2021-03-04");
+            record.setBytes(10, new byte[]{(byte) row, 0, -1, 42});
+            records[row] = record;
+            record.write(out);
+        }
+        serialized = bytes.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void write(Blackhole blackhole) throws IOException {
+        bytes.reset();
+        for (GPDBWritable record : records) {
+            record.write(out);
+        }
+        blackhole.consume(bytes.size());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void readFields(Blackhole blackhole) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(serialized));
+        for (int row = 0; row < ROWS; row++) {
+            GPDBWritable record = new GPDBWritable(StandardCharsets.UTF_8);
+            record.readFields(in);
+            blackhole.consume(record);
+        }
+    }
+}
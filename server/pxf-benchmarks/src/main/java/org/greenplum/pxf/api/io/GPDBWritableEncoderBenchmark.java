@@ -0,0 +1,207 @@
+package org.greenplum.pxf.api.io;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares serializing records with {@link GPDBWritable}, the way
+ * {@code BridgeOutputBuilder} used to, against {@link GPDBWritableEncoder}
+ * for a 50-column schema mixing all the types of the GPDBWritable format.
+ * Records are written to a stream that discards them, so that only the cost
+ * of encoding is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GPDBWritableEncoderBenchmark {
+
+    private static final int COLUMNS = 50;
+    private static final int ROWS = 1024;
+    private static final DataType[] TYPES = {
+            DataType.BIGINT, DataType.INTEGER, DataType.SMALLINT, DataType.FLOAT8, DataType.REAL,
+            DataType.BOOLEAN, DataType.TEXT, DataType.VARCHAR, DataType.NUMERIC, DataType.BYTEA
+    };
+
+    @Param({"UTF-8", "ISO-8859-1"})
+    public String databaseEncoding;
+
+    private int[] schema;
+    private Object[][] rows;
+    private GPDBWritable writable;
+    private GPDBWritableEncoder encoder;
+    private CountingOutputStream sink;
+    private DataOutputStream out;
+
+    @Setup
+    public void setup() {
+        Charset charset = Charset.forName(databaseEncoding);
+        Random random = new Random(42);
+        schema = new int[COLUMNS];
+        for (int i = 0; i < COLUMNS; i++) {
+            schema[i] = TYPES[i % TYPES.length].getOID();
+        }
+        rows = new Object[ROWS][COLUMNS];
+        for (Object[] row : rows) {
+            for (int i = 0; i < COLUMNS; i++) {
+                // about one value in ten is null
+                row[i] = random.nextInt(10) == 0 ? null : makeValue(TYPES[i % TYPES.length], random);
+            }
+        }
+        writable = new GPDBWritable(schema, charset);
+        encoder = new GPDBWritableEncoder(schema, charset);
+        sink = new CountingOutputStream();
+        out = new DataOutputStream(sink);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void gpdbWritable(Blackhole blackhole) throws IOException {
+        for (Object[] row : rows) {
+            for (int i = 0; i < COLUMNS; i++) {
+                Object value = row[i];
+                switch (TYPES[i % TYPES.length]) {
+                    case BIGINT:
+                        writable.setLong(i, (Long) value);
+                        break;
+                    case INTEGER:
+                        writable.setInt(i, (Integer) value);
+                        break;
+                    case SMALLINT:
+                        writable.setShort(i, (Short) value);
+                        break;
+                    case FLOAT8:
+                        writable.setDouble(i, (Double) value);
+                        break;
+                    case REAL:
+                        writable.setFloat(i, (Float) value);
+                        break;
+                    case BOOLEAN:
+                        writable.setBoolean(i, (Boolean) value);
+                        break;
+                    case BYTEA:
+                        writable.setBytes(i, (byte[]) value);
+                        break;
+                    default:
+                        writable.setString(i, value == null ? null : value.toString());
+                }
+            }
+            writable.write(out);
+        }
+        blackhole.consume(sink.count);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void gpdbWritableEncoder(Blackhole blackhole) throws IOException {
+        for (Object[] row : rows) {
+            encoder.reset();
+            encoder.beginRecord();
+            for (int i = 0; i < COLUMNS; i++) {
+                Object value = row[i];
+                if (value == null) {
+                    encoder.writeNull(i);
+                    continue;
+                }
+                switch (TYPES[i % TYPES.length]) {
+                    case BIGINT:
+                        encoder.writeLong(i, (Long) value);
+                        break;
+                    case INTEGER:
+                        encoder.writeInt(i, (Integer) value);
+                        break;
+                    case SMALLINT:
+                        encoder.writeShort(i, (Short) value);
+                        break;
+                    case FLOAT8:
+                        encoder.writeDouble(i, (Double) value);
+                        break;
+                    case REAL:
+                        encoder.writeFloat(i, (Float) value);
+                        break;
+                    case BOOLEAN:
+                        encoder.writeBoolean(i, (Boolean) value);
+                        break;
+                    case BYTEA:
+                        byte[] bytes = (byte[]) value;
+                        encoder.writeBytes(i, bytes, 0, bytes.length);
+                        break;
+                    default:
+                        encoder.writeString(i, value.toString());
+                }
+            }
+            encoder.endRecord().write(out);
+        }
+        blackhole.consume(sink.count);
+    }
+
+    private static Object makeValue(DataType type, Random random) {
+        switch (type) {
+            case BIGINT:
+                return random.nextLong();
+            case INTEGER:
+                return random.nextInt();
+            case SMALLINT:
+                return (short) random.nextInt();
+            case FLOAT8:
+                return random.nextDouble();
+            case REAL:
+                return random.nextFloat();
+            case BOOLEAN:
+                return random.nextBoolean();
+            case NUMERIC:
+                return BigDecimal.valueOf(random.nextLong(), 4);
+            case BYTEA:
+                byte[] bytes = new byte[16 + random.nextInt(48)];
+                random.nextBytes(bytes);
+                return bytes;
+            default:
+                StringBuilder text = new StringBuilder();
+                int length = 8 + random.nextInt(56);
+                for (int i = 0; i < length; i++) {
+                    // mostly ASCII, with some Latin-1 characters
+                    text.append(random.nextInt(8) == 0 ? (char) (0xC0 + random.nextInt(0x3F)) : (char) ('a' + random.nextInt(26)));
+                }
+                return text.toString();
+        }
+    }
+
+    /**
+     * An output stream that only counts the bytes written to it.
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.hadoop.conf.Configuration;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading a 64 MB CSV file line by line with {@link LineBreakAccessor},
+ * and splitting it into lines and chunks with {@link ChunkReader}.
+ * <p>
+ * {@link ChunkRecordReader} only works on top of HDFS input streams, so the
+ * {@link ChunkReader} it delegates to is measured directly over a local file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LineBreakAccessorBenchmark {
+
+    private static final long FILE_SIZE = 64L * 1024 * 1024;
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    private File file;
+
+    @Setup
+    public void setup() throws IOException {
+        file = File.createTempFile("pxf-line-break-accessor", ".csv");
+        long size = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (int row = 0; size < FILE_SIZE; row++) {
+                String line = row + ",name " + row + "," + (row * 31 % 1000) / 10.0 + ",2020-01-01 10:00:00,\"quoted, text\"\n";
+                writer.write(line);
+                size += line.length();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    public void lineBreakAccessor(Blackhole blackhole) throws Exception {
+        RequestContext context = new RequestContext();
+        context.setConfig("default");
+        context.setProfileScheme("localfile");
+        context.setUser("benchmark");
+        context.setConfiguration(new Configuration());
+        context.setDataSource(file.toURI().toString());
+        context.setFragmentMetadata(new HcfsFragmentMetadata(0, file.length()));
+
+        LineBreakAccessor accessor = new LineBreakAccessor();
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        accessor.openForRead();
+        try {
+            OneRow row;
+            while ((row = accessor.readNextObject()) != null) {
+                blackhole.consume(row.getData());
+            }
+        } finally {
+            accessor.closeForRead();
+        }
+    }
+
+    @Benchmark
+    public void chunkReaderReadLine(Blackhole blackhole) throws IOException {
+        try (ChunkReader reader = new ChunkReader(new FileInputStream(file))) {
+            ChunkWritable line = new ChunkWritable();
+            while (reader.readLine(line, Integer.MAX_VALUE) > 0) {
+                blackhole.consume(line.box);
+            }
+        }
+    }
+
+    @Benchmark
+    public void chunkReaderReadChunk(Blackhole blackhole) throws IOException {
+        try (ChunkReader reader = new ChunkReader(new FileInputStream(file))) {
+            ChunkWritable chunk = new ChunkWritable();
+            while (reader.readChunk(chunk, CHUNK_SIZE) > 0) {
+                blackhole.consume(chunk.box);
+            }
+        }
+    }
+}
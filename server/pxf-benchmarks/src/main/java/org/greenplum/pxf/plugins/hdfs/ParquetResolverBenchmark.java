@@ -0,0 +1,104 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.apache.parquet.schema.Type;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetTypeConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ParquetResolver#getFields(OneRow)} for records already
+ * read into memory, so that the cost of reading the file is not included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParquetResolverBenchmark {
+
+    private static final int ROWS = 1024;
+    private static final String SCHEMA = "message benchmark {\n" +
+            "  optional int32 id;\n" +
+            "  optional binary name (UTF8);\n" +
+            "  optional double amount;\n" +
+            "  optional float ratio;\n" +
+            "  optional int64 total;\n" +
+            "  optional boolean active;\n" +
+            "  optional int96 created;\n" +
+            "  optional int32 day (DATE);\n" +
+            "  optional int32 small (INT_16);\n" +
+            "  optional binary payload;\n" +
+            "}";
+
+    private ParquetResolver resolver;
+    private OneRow[] rows;
+
+    @Setup
+    public void setup() {
+        MessageType schema = MessageTypeParser.parseMessageType(SCHEMA);
+        List<ColumnDescriptor> columnDescriptors = new ArrayList<>();
+        for (Type field : schema.getFields()) {
+            int typeCode = ParquetTypeConverter.from(field.asPrimitiveType()).getDataType(field).getOID();
+            columnDescriptors.add(new ColumnDescriptor(field.getName(), typeCode, columnDescriptors.size(), "", null));
+        }
+        RequestContext context = new RequestContext();
+        context.setConfig("default");
+        context.setUser("benchmark");
+        context.setMetadata(schema);
+        context.setTupleDescription(columnDescriptors);
+        resolver = new ParquetResolver();
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+        String timestamp = "2019-03-14 14:10:28.123456";
+        rows = new OneRow[ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            Group group = factory.newGroup()
+                    .append("id", row)
+                    .append("name", "name " + row)
+                    .append("amount", row / 7.0)
+                    .append("ratio", row / 3.0f)
+                    .append("total", row * 1_000_003L)
+                    .append("active", row % 2 == 0)
+                    .append("created", ParquetTypeConverter.getBinaryFromTimestamp(timestamp))
+                    .append("day", row)
+                    .append("small", row % Short.MAX_VALUE);
+            // one record in eight has a null payload
+            if (row % 8 != 0) {
+                group.append("payload", "payload " + row);
+            }
+            rows[row] = new OneRow(null, group);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void getFields(Blackhole blackhole) {
+        for (OneRow row : rows) {
+            blackhole.consume(resolver.getFields(row));
+        }
+    }
+}
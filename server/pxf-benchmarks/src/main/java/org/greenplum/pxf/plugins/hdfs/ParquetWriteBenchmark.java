@@ -0,0 +1,213 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.example.GroupWriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.batch.ColumnBatch;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.plugins.hdfs.parquet.ColumnBatchWriteSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing Parquet records one {@link Group} at a time through
+ * {@link ParquetResolver#setFields(List)} with writing batches of records
+ * through {@link ParquetResolver#setFieldsForBatch(List)}. The records are
+ * written to a Parquet writer that discards the file, so that the cost of the
+ * filesystem is not included, while encoding the pages still is.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParquetWriteBenchmark {
+
+    private static final int ROWS = 1024;
+    private static final String SCHEMA = "message benchmark {\n" +
+            "  optional int32 id;\n" +
+            "  optional binary name (UTF8);\n" +
+            "  optional double amount;\n" +
+            "  optional float ratio;\n" +
+            "  optional int64 total;\n" +
+            "  optional boolean active;\n" +
+            "  optional int96 created;\n" +
+            "  optional int32 day (DATE);\n" +
+            "  optional int32 small (INT_16);\n" +
+            "  optional binary payload;\n" +
+            "}";
+
+    private ParquetResolver resolver;
+    private List<List<OneField>> records;
+    private ParquetWriter<Group> groupWriter;
+    private ParquetWriter<ColumnBatch> batchWriter;
+    private ColumnBatchWriteSupport batchWriteSupport;
+
+    @Setup
+    public void setup() throws IOException {
+        MessageType schema = MessageTypeParser.parseMessageType(SCHEMA);
+        List<ColumnDescriptor> columnDescriptors = new ArrayList<>();
+        columnDescriptors.add(new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null));
+        columnDescriptors.add(new ColumnDescriptor("name", DataType.TEXT.getOID(), 1, "text", null));
+        columnDescriptors.add(new ColumnDescriptor("amount", DataType.FLOAT8.getOID(), 2, "float8", null));
+        columnDescriptors.add(new ColumnDescriptor("ratio", DataType.REAL.getOID(), 3, "float4", null));
+        columnDescriptors.add(new ColumnDescriptor("total", DataType.BIGINT.getOID(), 4, "int8", null));
+        columnDescriptors.add(new ColumnDescriptor("active", DataType.BOOLEAN.getOID(), 5, "bool", null));
+        columnDescriptors.add(new ColumnDescriptor("created", DataType.TIMESTAMP.getOID(), 6, "timestamp", null));
+        columnDescriptors.add(new ColumnDescriptor("day", DataType.DATE.getOID(), 7, "date", null));
+        columnDescriptors.add(new ColumnDescriptor("small", DataType.SMALLINT.getOID(), 8, "int2", null));
+        columnDescriptors.add(new ColumnDescriptor("payload", DataType.BYTEA.getOID(), 9, "bytea", null));
+
+        RequestContext context = new RequestContext();
+        context.setConfig("default");
+        context.setUser("benchmark");
+        context.setMetadata(schema);
+        context.setTupleDescription(columnDescriptors);
+        resolver = new ParquetResolver();
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        records = new ArrayList<>(ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            List<OneField> record = new ArrayList<>();
+            record.add(new OneField(DataType.INTEGER.getOID(), row));
+            record.add(new OneField(DataType.TEXT.getOID(), "name " + row));
+            record.add(new OneField(DataType.FLOAT8.getOID(), row / 7.0));
+            record.add(new OneField(DataType.REAL.getOID(), row / 3.0f));
+            record.add(new OneField(DataType.BIGINT.getOID(), row * 1_000_003L));
+            record.add(new OneField(DataType.BOOLEAN.getOID(), row % 2 == 0));
+            record.add(new OneField(DataType.TIMESTAMP.getOID(), "2019-03-14 14:10:28.123456"));
+            record.add(new OneField(DataType.DATE.getOID(), "2019-03-14"));
+            record.add(new OneField(DataType.SMALLINT.getOID(), (short) (row % Short.MAX_VALUE)));
+            // one record in eight has a null payload
+            record.add(new OneField(DataType.BYTEA.getOID(), row % 8 == 0 ? null : ("payload " + row).getBytes()));
+            records.add(record);
+        }
+
+        Configuration configuration = new Configuration();
+        GroupWriteSupport.setSchema(schema, configuration);
+        groupWriter = new DiscardingWriterBuilder<>(new GroupWriteSupport())
+                .withConf(configuration)
+                .withCompressionCodec(CompressionCodecName.UNCOMPRESSED)
+                .build();
+        batchWriteSupport = new ColumnBatchWriteSupport(schema);
+        batchWriter = new DiscardingWriterBuilder<>(batchWriteSupport)
+                .withConf(configuration)
+                .withCompressionCodec(CompressionCodecName.UNCOMPRESSED)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        groupWriter.close();
+        batchWriter.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void writeRecords() throws IOException {
+        for (List<OneField> record : records) {
+            groupWriter.write((Group) resolver.setFields(record).getData());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void writeBatch() throws IOException {
+        ColumnBatch batch = (ColumnBatch) resolver.setFieldsForBatch(records).getData();
+        for (int row = 0; row < batch.getSize(); row++) {
+            batchWriteSupport.setRow(row);
+            batchWriter.write(batch);
+        }
+    }
+
+    /**
+     * Builds Parquet writers with the given write support for a file that
+     * discards the data written to it.
+     */
+    private static class DiscardingWriterBuilder<T> extends ParquetWriter.Builder<T, DiscardingWriterBuilder<T>> {
+
+        private final WriteSupport<T> writeSupport;
+
+        DiscardingWriterBuilder(WriteSupport<T> writeSupport) {
+            super(new DiscardingOutputFile());
+            this.writeSupport = writeSupport;
+        }
+
+        @Override
+        protected DiscardingWriterBuilder<T> self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<T> getWriteSupport(Configuration conf) {
+            return writeSupport;
+        }
+    }
+
+    private static class DiscardingOutputFile implements OutputFile {
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) {
+            return new PositionOutputStream() {
+                private long position;
+
+                @Override
+                public long getPos() {
+                    return position;
+                }
+
+                @Override
+                public void write(int b) {
+                    position++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    position += len;
+                }
+            };
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+            return create(blockSizeHint);
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return false;
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return 0;
+        }
+    }
+}
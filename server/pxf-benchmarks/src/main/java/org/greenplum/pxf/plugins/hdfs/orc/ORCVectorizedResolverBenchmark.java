@@ -0,0 +1,115 @@
+package org.greenplum.pxf.plugins.hdfs.orc;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.common.type.HiveDecimal;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DecimalColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.TimestampColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.orc.TypeDescription;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.batch.ColumnBatch;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures resolving a batch of ORC rows already read into memory, both into
+ * lists of fields with {@link ORCVectorizedResolver#getFieldsForBatch(OneRow)}
+ * and into a {@link ColumnBatch}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ORCVectorizedResolverBenchmark {
+
+    private static final String SCHEMA = "struct<id:int,name:string,amount:double,ratio:float,total:bigint," +
+            "active:boolean,created:timestamp,day:date,small:smallint,price:decimal(38,18)>";
+    private static final DataType[] TYPES = {
+            DataType.INTEGER, DataType.TEXT, DataType.FLOAT8, DataType.REAL, DataType.BIGINT,
+            DataType.BOOLEAN, DataType.TIMESTAMP, DataType.DATE, DataType.SMALLINT, DataType.NUMERIC
+    };
+
+    private ORCVectorizedResolver resolver;
+    private OneRow batch;
+    private ColumnBatch columnBatch;
+
+    @Setup
+    public void setup() {
+        TypeDescription schema = TypeDescription.fromString(SCHEMA);
+        List<ColumnDescriptor> columnDescriptors = new ArrayList<>();
+        for (int i = 0; i < TYPES.length; i++) {
+            Integer[] typeModifiers = TYPES[i] == DataType.NUMERIC ? new Integer[]{38, 18} : null;
+            columnDescriptors.add(new ColumnDescriptor(schema.getFieldNames().get(i), TYPES[i].getOID(), i, TYPES[i].toString(), typeModifiers));
+        }
+
+        RequestContext context = new RequestContext();
+        context.setConfig("default");
+        context.setUser("benchmark");
+        context.setTupleDescription(columnDescriptors);
+        context.setRequestType(RequestContext.RequestType.READ_BRIDGE);
+        context.setConfiguration(new Configuration());
+        context.setMetadata(schema);
+        resolver = new ORCVectorizedResolver();
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        VectorizedRowBatch rowBatch = schema.createRowBatch();
+        for (int row = 0; row < rowBatch.getMaxSize(); row++) {
+            ((LongColumnVector) rowBatch.cols[0]).vector[row] = row;
+            ((BytesColumnVector) rowBatch.cols[1]).setVal(row, ("name " + row).getBytes(StandardCharsets.UTF_8));
+            ((DoubleColumnVector) rowBatch.cols[2]).vector[row] = row / 7.0;
+            ((DoubleColumnVector) rowBatch.cols[3]).vector[row] = row / 3.0f;
+            ((LongColumnVector) rowBatch.cols[4]).vector[row] = row * 1_000_003L;
+            ((LongColumnVector) rowBatch.cols[5]).vector[row] = row % 2;
+            ((TimestampColumnVector) rowBatch.cols[6]).set(row, new Timestamp(1_552_572_628_000L + row * 1000L));
+            ((LongColumnVector) rowBatch.cols[7]).vector[row] = 18_000 + row;
+            ((LongColumnVector) rowBatch.cols[8]).vector[row] = (short) row;
+            ((DecimalColumnVector) rowBatch.cols[9]).set(row, HiveDecimal.create(row + ".123456789"));
+            // one record in eight has a null name
+            if (row % 8 == 0) {
+                rowBatch.cols[1].noNulls = false;
+                rowBatch.cols[1].isNull[row] = true;
+            }
+        }
+        rowBatch.size = rowBatch.getMaxSize();
+        batch = new OneRow(rowBatch);
+        columnBatch = new ColumnBatch(TYPES.length, rowBatch.size);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VectorizedRowBatch.DEFAULT_SIZE)
+    public void getFieldsForBatch(Blackhole blackhole) {
+        blackhole.consume(resolver.getFieldsForBatch(batch));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VectorizedRowBatch.DEFAULT_SIZE)
+    public void resolveColumnBatch(Blackhole blackhole) {
+        resolver.resolveColumnBatch(batch, columnBatch);
+        blackhole.consume(columnBatch);
+    }
+}
@@ -0,0 +1,104 @@
+package org.greenplum.pxf.plugins.json;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures extracting the records of a 32 MB multi-line JSON file with
+ * {@link JsonRecordReader}, reading the file as one split or as several
+ * splits whose boundaries fall in the middle of records.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JsonRecordReaderBenchmark {
+
+    private static final long FILE_SIZE = 32L * 1024 * 1024;
+
+    @Param({"1", "8"})
+    public int splits;
+
+    private File file;
+    private JobConf jobConf;
+
+    @Setup
+    public void setup() throws IOException {
+        file = File.createTempFile("pxf-json-record-reader", ".json");
+        long size = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("{\"records\": [\n");
+            for (int row = 0; size < FILE_SIZE; row++) {
+                String record = (row == 0 ? "" : ",\n") +
+                        "  {\n" +
+                        "    \"record\": {\n" +
+                        "      \"id\": " + row + ",\n" +
+                        "      \"name\": \"name \\\"" + row + "\\\" with {braces}\",\n" +
+                        "      \"amount\": " + row / 7.0 + ",\n" +
+                        "      \"active\": " + (row % 2 == 0) + ",\n" +
+                        "      \"tags\": [\"a\", \"b\", \"c\"],\n" +
+                        "      \"address\": {\"street\": \"" + row + " Main St\", \"zip\": null}\n" +
+                        "    }\n" +
+                        "  }";
+                writer.write(record);
+                size += record.length();
+            }
+            writer.write("\n]}\n");
+        }
+        jobConf = new JobConf(new Configuration());
+        jobConf.set(JsonRecordReader.RECORD_MEMBER_IDENTIFIER, "record");
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    public void readRecords(Blackhole blackhole) throws IOException {
+        Path path = new Path(file.toURI());
+        long length = file.length();
+        long splitSize = (length + splits - 1) / splits;
+        for (long start = 0; start < length; start += splitSize) {
+            FileSplit split = new FileSplit(path, start, Math.min(splitSize, length - start), (String[]) null);
+            JsonRecordReader reader = new JsonRecordReader(jobConf, split);
+            try {
+                LongWritable key = reader.createKey();
+                Text value = reader.createValue();
+                while (reader.next(key, value)) {
+                    blackhole.consume(value.getLength());
+                }
+            } finally {
+                reader.close();
+            }
+        }
+    }
+}
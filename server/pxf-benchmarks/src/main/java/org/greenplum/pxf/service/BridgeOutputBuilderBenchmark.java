@@ -0,0 +1,127 @@
+package org.greenplum.pxf.service;
+
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.api.model.OutputFormat;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.DataOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures translating the fields returned by resolvers into the records
+ * sent to Greenplum, for the TEXT, CSV and GPDBWritable formats, one record
+ * at a time and in batches the way vectorized resolvers return them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BridgeOutputBuilderBenchmark {
+
+    private static final int ROWS = 1024;
+    private static final DataType[] TYPES = {
+            DataType.INTEGER, DataType.BIGINT, DataType.SMALLINT, DataType.FLOAT8, DataType.REAL,
+            DataType.BOOLEAN, DataType.TEXT, DataType.VARCHAR, DataType.BPCHAR, DataType.NUMERIC,
+            DataType.DATE, DataType.TIMESTAMP, DataType.BYTEA
+    };
+
+    @Param({"TEXT", "CSV", "GPDBWritable"})
+    public String format;
+
+    private List<List<OneField>> records;
+    private BridgeOutputBuilder builder;
+    private DataOutputStream out;
+
+    @Setup
+    public void setup() {
+        RequestContext context = new RequestContext();
+        context.setDatabaseEncoding(StandardCharsets.UTF_8);
+        if ("GPDBWritable".equals(format)) {
+            context.setOutputFormat(OutputFormat.GPDBWritable);
+            context.setFormat("GPDBWritable");
+        } else {
+            context.setOutputFormat(OutputFormat.TEXT);
+            context.setFormat(format);
+            if ("TEXT".equals(format)) {
+                context.getGreenplumCSV().withDelimiter('\t').withValueOfNull("\\N");
+            }
+        }
+        for (int i = 0; i < TYPES.length; i++) {
+            context.getTupleDescription().add(new ColumnDescriptor("col" + i, TYPES[i].getOID(), i, TYPES[i].toString(), null));
+        }
+
+        records = new ArrayList<>(ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            records.add(Arrays.asList(
+                    new OneField(DataType.INTEGER.getOID(), row),
+                    new OneField(DataType.BIGINT.getOID(), row * 1_000_003L),
+                    new OneField(DataType.SMALLINT.getOID(), (short) row),
+                    new OneField(DataType.FLOAT8.getOID(), row / 7.0),
+                    // one record in eight has a null value
+                    new OneField(DataType.REAL.getOID(), row % 8 == 0 ? null : row / 3.0f),
+                    new OneField(DataType.BOOLEAN.getOID(), row % 2 == 0),
+                    new OneField(DataType.TEXT.getOID(), "text, with \"quotes\" " + row),
+                    new OneField(DataType.VARCHAR.getOID(), "välue " + row),
+                    new OneField(DataType.BPCHAR.getOID(), "c" + row % 10),
+                    new OneField(DataType.NUMERIC.getOID(), row + ".25"),
+                    new OneField(DataType.DATE.getOID(), new Date(row * 86_400_000L)),
+                    new OneField(DataType.TIMESTAMP.getOID(), new Timestamp(row * 1_000_123L)),
+                    new OneField(DataType.BYTEA.getOID(), new byte[]{(byte) row, 0, -1, 42})));
+        }
+        builder = new BridgeOutputBuilder(context);
+        out = new DataOutputStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void makeOutput(Blackhole blackhole) throws Exception {
+        for (List<OneField> record : records) {
+            for (Writable output : builder.makeOutput(record)) {
+                output.write(out);
+            }
+        }
+        blackhole.consume(out.size());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void makeVectorizedOutput(Blackhole blackhole) throws Exception {
+        for (Writable output : builder.makeVectorizedOutput(records)) {
+            output.write(out);
+        }
+        blackhole.consume(out.size());
+    }
+}
@@ -20,6 +20,7 @@ package org.greenplum.pxf.plugins.hbase;
  */
 
 
+import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.TableName;
@@ -41,12 +42,20 @@ import org.greenplum.pxf.api.filter.TreeVisitor;
 import org.greenplum.pxf.api.model.Accessor;
 import org.greenplum.pxf.api.model.BasePlugin;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ReferenceCountingCache.Entry;
+import org.greenplum.pxf.api.utilities.SpringContext;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseColumnDescriptor;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseTupleDescription;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseUtilities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 
 /**
  * Accessor for HBase.
@@ -58,9 +67,16 @@ import java.util.EnumSet;
  * <p>
  * The class supports filters using the {@link HBaseFilterBuilder}.
  * Regions can be filtered out according to input from {@link HBaseFilterBuilder}.
+ * <p>
+ * The number of rows fetched per RPC and the maximum number of cells per row
+ * returned at a time can be set with the <b>SCAN_CACHING</b> and <b>SCAN_BATCH</b>
+ * options of the table.
  */
 public class HBaseAccessor extends BasePlugin implements Accessor {
 
+    public static final String SCAN_CACHING_OPTION = "SCAN_CACHING";
+    public static final String SCAN_BATCH_OPTION = "SCAN_BATCH";
+
     static final EnumSet<Operator> SUPPORTED_OPERATORS =
             EnumSet.of(
                     Operator.LESS_THAN,
@@ -75,16 +91,20 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
                     Operator.OR
             );
 
+    private static final Logger LOG = LoggerFactory.getLogger(HBaseAccessor.class);
     private static final TreeVisitor PRUNER = new SupportedOperatorPruner(SUPPORTED_OPERATORS);
     private static final TreeTraverser TRAVERSER = new TreeTraverser();
     private static final String UNSUPPORTED_ERR_MESSAGE = "HBase accessor does not support write operation.";
 
+    private final HBaseConnectionCache connectionCache;
+    private Entry<Connection> connectionEntry;
     private HBaseTupleDescription tupleDescription;
     private Connection connection;
     private Table table;
     private SplitBoundary split;
     private Scan scanDetails;
     private ResultScanner currentScanner;
+    private Result nextResult;
     private byte[] scanStartKey;
     private byte[] scanEndKey;
 
@@ -110,6 +130,14 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
         }
     }
 
+    public HBaseAccessor() {
+        this(SpringContext.getBean(HBaseConnectionCache.class));
+    }
+
+    HBaseAccessor(HBaseConnectionCache connectionCache) {
+        this.connectionCache = connectionCache;
+    }
+
     /**
      * Initializes HBaseAccessor based on GPDB table description and
      * initializes the scan start and end keys of the HBase table to default values.
@@ -143,7 +171,11 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
     @Override
     public void closeForRead() throws Exception {
         table.close();
-        HBaseUtilities.closeConnection(null, connection);
+        if (connectionEntry != null) {
+            connectionCache.release(connectionEntry);
+        } else {
+            HBaseUtilities.closeConnection(null, connection);
+        }
     }
 
     /**
@@ -183,19 +215,55 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
         Result result;
 
         // while currentScanner can't return a new result
-        if ((result = currentScanner.next()) == null) {
+        if ((result = nextResult()) == null) {
             currentScanner.close(); // close it
             return null; // no more rows on the split
         }
 
+        if (scanDetails.getBatch() > 0) {
+            result = readWholeRow(result);
+        }
         return new OneRow(null, result);
     }
 
+    private Result nextResult() throws IOException {
+        if (nextResult == null) {
+            return currentScanner.next();
+        }
+        Result result = nextResult;
+        nextResult = null;
+        return result;
+    }
+
+    /**
+     * With a batch size, the cells of a wide row are returned in several
+     * results, which are joined back into a single row.
+     */
+    private Result readWholeRow(Result result) throws IOException {
+        List<Cell> cells = null;
+        Result next;
+        while ((next = currentScanner.next()) != null && Bytes.equals(next.getRow(), result.getRow())) {
+            if (cells == null) {
+                cells = new ArrayList<>(Arrays.asList(result.rawCells()));
+            }
+            Collections.addAll(cells, next.rawCells());
+        }
+        nextResult = next;
+        return cells == null ? result : Result.create(cells);
+    }
+
     /**
-     * Load hbase table object using ConnectionFactory
+     * Load hbase table object using ConnectionFactory, or using the cached
+     * connection of the server when the connections are cached
      */
     private void openTable() throws IOException {
-        connection = ConnectionFactory.createConnection(HBaseConfiguration.create(configuration));
+        if (connectionCache != null) {
+            connectionEntry = connectionCache.acquire(context,
+                    () -> ConnectionFactory.createConnection(HBaseConfiguration.create(configuration)));
+            connection = connectionEntry.getValue();
+        } else {
+            connection = ConnectionFactory.createConnection(HBaseConfiguration.create(configuration));
+        }
         table = connection.getTable(TableName.valueOf(context.getDataSource()));
     }
 
@@ -257,6 +325,28 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
 
         addColumns();
         addFilters();
+        setScanSizes();
+    }
+
+    /**
+     * Sets the scan caching and batch size of the table, when given.
+     * The batch size is ignored when a filter needs whole rows.
+     */
+    private void setScanSizes() {
+        int caching = context.getOption(SCAN_CACHING_OPTION, 0, true);
+        if (caching > 0) {
+            scanDetails.setCaching(caching);
+        }
+
+        int batch = context.getOption(SCAN_BATCH_OPTION, 0, true);
+        if (batch > 0) {
+            Filter filter = scanDetails.getFilter();
+            if (filter == null || !filter.hasFilterRow()) {
+                scanDetails.setBatch(batch);
+            } else {
+                LOG.debug("Ignoring {} as the filter of the scan needs whole rows", SCAN_BATCH_OPTION);
+            }
+        }
     }
 
     /**
@@ -0,0 +1,244 @@
+package org.greenplum.pxf.plugins.hbase;
+
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ReferenceCountingCache;
+import org.greenplum.pxf.api.utilities.ReferenceCountingCache.Entry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the HBase {@link Connection} of every server and user, so that the
+ * fragments of a query, and later queries, share one connection along with
+ * its ZooKeeper session, RPC clients and cache of region locations, instead
+ * of opening a connection per fragment.
+ * <p>
+ * A connection is shared by all the concurrent requests that acquire it, and
+ * is only closed once it has not been used for the expiration time, or when
+ * it is evicted because the cache is full. Expired connections are also
+ * closed periodically, so that idle connections do not keep their ZooKeeper
+ * sessions and RPC threads once HBase is no longer queried. A cached
+ * connection that has been closed or aborted is replaced by a new one on the
+ * next request, so the health of a cached connection is checked without
+ * contacting ZooKeeper.
+ * <p>
+ * Connections are created outside of the lock on the cache. The requests
+ * for a connection that is being created wait for it, while the requests
+ * for other connections go ahead. The connections are kept, counted and
+ * evicted by a {@link ReferenceCountingCache}.
+ */
+@Component
+class HBaseConnectionCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HBaseConnectionCache.class);
+
+    private final ReferenceCountingCache<Key, Connection> cache;
+    // the connections being created, guarded by the lock on the map
+    private final Map<Key, CompletableFuture<Void>> pendingCreations = new HashMap<>();
+
+    /**
+     * Creates a new connection, throwing an {@link IOException} when the
+     * connection cannot be established.
+     */
+    @FunctionalInterface
+    interface ConnectionCreator {
+        Connection create() throws IOException;
+    }
+
+    @Autowired
+    HBaseConnectionCache(@Value("${pxf.hbase.connection-cache.enabled:false}") boolean enabled,
+                         @Value("${pxf.hbase.connection-cache.max-size:100}") int maxSize,
+                         @Value("${pxf.hbase.connection-cache.expiration:5m}") Duration expiration) {
+        this(enabled, maxSize, expiration, System::nanoTime);
+    }
+
+    HBaseConnectionCache(boolean enabled, int maxSize, Duration expiration, LongSupplier nanoTime) {
+        this.cache = new ReferenceCountingCache<>("HBase connection", enabled, maxSize, expiration,
+                HBaseConnectionCache::isUsable, Connection::close, nanoTime);
+        if (enabled) {
+            LOG.info("Caching up to {} HBase connections with entry expiration of {} ms", maxSize, expiration.toMillis());
+        }
+    }
+
+    /**
+     * @return true if the connections are cached, false otherwise
+     */
+    boolean isEnabled() {
+        return cache.isEnabled();
+    }
+
+    /**
+     * Returns the connection of the server of the request and the current
+     * user, creating it when it is not cached.
+     *
+     * @param context the request context
+     * @param creator creates the connection when it is not cached
+     * @return the cache entry holding the connection
+     * @throws IOException when the connection cannot be created
+     */
+    Entry<Connection> acquire(RequestContext context, ConnectionCreator creator) throws IOException {
+        return acquire(new Key(context.getConfig(), context.getServerName(),
+                UserGroupInformation.getCurrentUser().getUserName()), creator);
+    }
+
+    /**
+     * Returns the connection for the given key, creating it when no usable
+     * connection is cached for the key. Every call must be followed by a call
+     * to {@link #release(Entry)} once the connection is no longer used by the
+     * request.
+     *
+     * @param key     the key of the connection
+     * @param creator creates the connection when it is not cached
+     * @return the cache entry holding the connection
+     * @throws IOException when the connection cannot be created
+     */
+    Entry<Connection> acquire(Key key, ConnectionCreator creator) throws IOException {
+        if (!cache.isEnabled()) {
+            return cache.add(key, creator.create());
+        }
+        while (true) {
+            CompletableFuture<Void> creation;
+            synchronized (pendingCreations) {
+                Entry<Connection> entry = cache.acquire(key);
+                if (entry != null) {
+                    return entry;
+                }
+                creation = pendingCreations.get(key);
+                if (creation == null) {
+                    creation = new CompletableFuture<>();
+                    pendingCreations.put(key, creation);
+                    break;
+                }
+            }
+            // concurrent fragments of a query wait for the connection instead of each creating its own
+            awaitCreation(key, creation);
+        }
+        return create(key, creator);
+    }
+
+    /**
+     * Creates the connection for the given key outside of the lock on the
+     * cache, so that connecting to one server does not hold up the requests
+     * to the others, and caches it when there is room for it.
+     */
+    private Entry<Connection> create(Key key, ConnectionCreator creator) throws IOException {
+        Entry<Connection> entry;
+        try {
+            entry = cache.add(key, creator.create());
+        } catch (IOException | RuntimeException e) {
+            removePendingCreation(key).completeExceptionally(e);
+            throw e;
+        }
+        removePendingCreation(key).complete(null);
+        return entry;
+    }
+
+    private CompletableFuture<Void> removePendingCreation(Key key) {
+        synchronized (pendingCreations) {
+            return pendingCreations.remove(key);
+        }
+    }
+
+    /**
+     * Waits for the connection for the given key to be created by another
+     * request, failing like that request when it cannot be created.
+     */
+    private void awaitCreation(Key key, CompletableFuture<Void> creation) throws IOException {
+        LOG.debug("Waiting for HBase connection for {} created by another request", key);
+        try {
+            creation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Interrupted while waiting for HBase connection for %s", key));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(String.format("Failed to create HBase connection for %s", key), cause);
+        }
+    }
+
+    /**
+     * Releases a connection acquired with {@link #acquire(Key, ConnectionCreator)}.
+     * The connection is closed right away when it is not cached.
+     *
+     * @param entry the cache entry holding the connection
+     */
+    void release(Entry<Connection> entry) {
+        cache.release(entry);
+    }
+
+    /**
+     * Closes the cached connections that have not been used for the
+     * expiration time, so that their ZooKeeper sessions and RPC threads are
+     * not kept open once HBase is no longer queried.
+     */
+    @Scheduled(fixedDelayString = "${pxf.hbase.connection-cache.cleanup-interval:PT1M}")
+    void evictExpiredEntries() {
+        cache.evictExpiredEntries();
+    }
+
+    /**
+     * @return the number of cached connections
+     */
+    int size() {
+        return cache.size();
+    }
+
+    private static boolean isUsable(Connection connection) {
+        return !connection.isClosed() && !connection.isAborted();
+    }
+
+    /**
+     * Identifies a connection by the server and the user the connection
+     * authenticates as.
+     */
+    static class Key {
+
+        private final String configDirectory;
+        private final String serverName;
+        private final String user;
+
+        Key(String configDirectory, String serverName, String user) {
+            this.configDirectory = configDirectory;
+            this.serverName = serverName;
+            this.user = user;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key that = (Key) o;
+            return Objects.equals(configDirectory, that.configDirectory) &&
+                    Objects.equals(serverName, that.serverName) &&
+                    Objects.equals(user, that.user);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(configDirectory, serverName, user);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("server=%s, config=%s, user=%s", serverName, configDirectory, user);
+        }
+    }
+}
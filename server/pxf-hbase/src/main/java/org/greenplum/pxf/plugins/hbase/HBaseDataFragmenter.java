@@ -19,6 +19,8 @@ package org.greenplum.pxf.plugins.hbase;
  * under the License.
  */
 
+import com.google.protobuf.ServiceException;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.HRegionInfo;
 import org.apache.hadoop.hbase.HRegionLocation;
@@ -30,13 +32,24 @@ import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.HBaseAdmin;
 import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.greenplum.pxf.api.model.BaseFragmenter;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.FragmentStats;
+import org.greenplum.pxf.api.utilities.ReferenceCountingCache.Entry;
+import org.greenplum.pxf.api.utilities.SpringContext;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseLookupTable;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseUtilities;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -49,13 +62,30 @@ import java.util.Map;
  * <p>
  * This class also puts HBase lookup table information for the given
  * table (if exists) in each fragment's user data field.
+ * <p>
+ * When the <b>REGION_SPLITS</b> option is greater than 1, every region is
+ * split into that number of fragments over evenly spaced sub-ranges of its
+ * keys, so that a few large regions are scanned by several segments.
  */
 public class HBaseDataFragmenter extends BaseFragmenter {
 
+    public static final String REGION_SPLITS_OPTION = "REGION_SPLITS";
+
+    private final HBaseConnectionCache connectionCache;
+    private Configuration hbaseConfiguration;
     private Connection connection;
 
+    public HBaseDataFragmenter() {
+        this(SpringContext.getBean(HBaseConnectionCache.class));
+    }
+
+    HBaseDataFragmenter(HBaseConnectionCache connectionCache) {
+        this.connectionCache = connectionCache;
+    }
+
     @Override
     public void afterPropertiesSet() {
+        hbaseConfiguration = HBaseConfiguration.create(configuration);
         configuration = HBaseConfiguration.create(configuration);
         configuration.set("hbase.client.retries.number", "3");
     }
@@ -79,20 +109,47 @@ public class HBaseDataFragmenter extends BaseFragmenter {
      */
     @Override
     public List<Fragment> getFragments() throws Exception {
+        if (connectionCache == null || !connectionCache.isEnabled()) {
+            // check that Zookeeper and HBase master are available
+            HBaseAdmin.checkHBaseAvailable(configuration);
+            connection = ConnectionFactory.createConnection(configuration);
+            try {
+                return getFragments(false);
+            } finally {
+                HBaseUtilities.closeConnection(null, connection);
+            }
+        }
 
-        // check that Zookeeper and HBase master are available
-        HBaseAdmin.checkHBaseAvailable(configuration);
-        connection = ConnectionFactory.createConnection(configuration);
-        Admin hbaseAdmin = connection.getAdmin();
-        if (!HBaseUtilities.isTableAvailable(hbaseAdmin, context.getDataSource())) {
-            HBaseUtilities.closeConnection(hbaseAdmin, connection);
-            throw new TableNotFoundException(context.getDataSource());
+        // the availability of Zookeeper and HBase master is only checked when a connection is created,
+        // the cached connection is shared with the accessors, so it is created without the reduced retries
+        Entry<Connection> entry = connectionCache.acquire(context, () -> {
+            try {
+                HBaseAdmin.checkHBaseAvailable(configuration);
+            } catch (ServiceException e) {
+                throw new IOException(e);
+            }
+            return ConnectionFactory.createConnection(hbaseConfiguration);
+        });
+        try {
+            connection = entry.getValue();
+            return getFragments(true);
+        } finally {
+            connectionCache.release(entry);
         }
+    }
 
-        Map<String, byte[]> userData = prepareUserData();
-        addTableFragments(userData);
+    private List<Fragment> getFragments(boolean cachedConnection) throws Exception {
+        try (Admin hbaseAdmin = connection.getAdmin()) {
+            if (!HBaseUtilities.isTableAvailable(hbaseAdmin, context.getDataSource())) {
+                throw new TableNotFoundException(context.getDataSource());
+            }
+        }
 
-        HBaseUtilities.closeConnection(hbaseAdmin, connection);
+        HBaseLookupTable lookupTable = cachedConnection
+                ? new HBaseLookupTable(connection)
+                : new HBaseLookupTable(configuration);
+        Map<String, byte[]> userData = prepareUserData(lookupTable);
+        addTableFragments(userData);
 
         return fragments;
     }
@@ -100,31 +157,120 @@ public class HBaseDataFragmenter extends BaseFragmenter {
     /**
      * Serializes lookup table mapping into byte array.
      *
+     * @param lookupTable the lookup table, closed once the mapping is read
      * @return serialized lookup table mapping
      * @throws IOException when connection to lookup table fails
      *                     or serialization fails
      */
-    private Map<String, byte[]> prepareUserData() throws Exception {
-        HBaseLookupTable lookupTable = new HBaseLookupTable(configuration);
+    private Map<String, byte[]> prepareUserData(HBaseLookupTable lookupTable) throws Exception {
         Map<String, byte[]> mappings = lookupTable.getMappings(context.getDataSource());
         lookupTable.close();
         return mappings;
     }
 
     private void addTableFragments(Map<String, byte[]> userData) throws IOException {
-        RegionLocator regionLocator = connection.getRegionLocator(TableName.valueOf(context.getDataSource()));
-        List<HRegionLocation> locations = regionLocator.getAllRegionLocations();
+        TableName tableName = TableName.valueOf(context.getDataSource());
+        int regionSplits = context.getOption(REGION_SPLITS_OPTION, 1, true);
+
+        try (RegionLocator regionLocator = connection.getRegionLocator(tableName);
+             Table table = regionSplits > 1 ? connection.getTable(tableName) : null) {
+            List<HRegionLocation> locations = regionLocator.getAllRegionLocations();
+
+            for (HRegionLocation location : locations) {
+                HRegionInfo region = location.getRegionInfo();
+                if (regionSplits > 1) {
+                    addRegionFragments(table, region, regionSplits, userData);
+                } else {
+                    addFragment(region.getStartKey(), region.getEndKey(), userData);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a fragment for each key sub-range of the region. The first and
+     * the last regions of the table are unbounded, their first and last rows
+     * are used as their bounds instead.
+     */
+    private void addRegionFragments(Table table, HRegionInfo region, int regionSplits, Map<String, byte[]> userData) throws IOException {
+        byte[] startKey = region.getStartKey();
+        byte[] endKey = region.getEndKey();
+        byte[] lowerBound = startKey.length > 0 ? startKey : getBoundaryRow(table, region, false);
+        byte[] upperBound = endKey.length > 0 ? endKey : getBoundaryRow(table, region, true);
 
-        for (HRegionLocation location : locations) {
-            addFragment(location, userData);
+        List<byte[]> keys = splitKeyRange(startKey, endKey, lowerBound, upperBound, regionSplits);
+        for (int i = 0; i < keys.size() - 1; i++) {
+            addFragment(keys.get(i), keys.get(i + 1), userData);
         }
+    }
 
-        regionLocator.close();
+    /**
+     * Splits the keys of a region into sub-ranges evenly spaced between the
+     * given bounds. The sub-ranges are fewer when the bounds are too close to
+     * be split in the requested number of sub-ranges.
+     *
+     * @param startKey     the start key of the region
+     * @param endKey       the end key of the region
+     * @param lowerBound   the lowest key of the region, null if the region is empty
+     * @param upperBound   the key following the highest key of the region, null if the region is empty
+     * @param regionSplits the number of sub-ranges
+     * @return the boundaries of the sub-ranges, from the start key to the end key of the region
+     */
+    static List<byte[]> splitKeyRange(byte[] startKey, byte[] endKey, byte[] lowerBound, byte[] upperBound, int regionSplits) {
+        List<byte[]> keys = new ArrayList<>(regionSplits + 1);
+        keys.add(startKey);
+        if (lowerBound != null && upperBound != null && comparePadded(lowerBound, upperBound) < 0) {
+            // the first and the last keys are the bounds, padded to the same length
+            byte[][] splits = Bytes.split(lowerBound, upperBound, regionSplits - 1);
+            if (splits != null) {
+                for (int i = 1; i < splits.length - 1; i++) {
+                    if (Bytes.compareTo(splits[i], keys.get(keys.size() - 1)) > 0) {
+                        keys.add(splits[i]);
+                    }
+                }
+            }
+        }
+        keys.add(endKey);
+        return keys;
+    }
+
+    /**
+     * Compares the keys padded with zeros to the same length, as they are
+     * by {@link Bytes#split(byte[], byte[], int)}.
+     */
+    private static int comparePadded(byte[] a, byte[] b) {
+        int length = Math.max(a.length, b.length);
+        return Bytes.compareTo(Bytes.padTail(a, length - a.length), Bytes.padTail(b, length - b.length));
+    }
+
+    /**
+     * Returns the first row of the region, or the key following the last row
+     * of the region, reading only the row key of a single row.
+     */
+    private byte[] getBoundaryRow(Table table, HRegionInfo region, boolean last) throws IOException {
+        Scan scan = new Scan();
+        if (last) {
+            scan.setReversed(true);
+            scan.setStartRow(region.getEndKey());
+            scan.setStopRow(region.getStartKey());
+        } else {
+            scan.setStartRow(region.getStartKey());
+            scan.setStopRow(region.getEndKey());
+        }
+        scan.setFilter(new FilterList(new FirstKeyOnlyFilter(), new KeyOnlyFilter()));
+        scan.setCaching(1);
+
+        try (ResultScanner scanner = table.getScanner(scan)) {
+            Result result = scanner.next();
+            if (result == null) {
+                return null;
+            }
+            return last ? Bytes.add(result.getRow(), new byte[1]) : result.getRow();
+        }
     }
 
-    private void addFragment(HRegionLocation location, Map<String, byte[]> userData) throws IOException {
-        HRegionInfo region = location.getRegionInfo();
-        HBaseFragmentMetadata metadata = new HBaseFragmentMetadata(region, userData);
+    private void addFragment(byte[] startKey, byte[] endKey, Map<String, byte[]> userData) {
+        HBaseFragmentMetadata metadata = new HBaseFragmentMetadata(startKey, endKey, userData);
         Fragment fragment = new Fragment(context.getDataSource(), metadata);
         fragments.add(fragment);
     }
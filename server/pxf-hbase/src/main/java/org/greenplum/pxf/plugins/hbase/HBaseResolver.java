@@ -21,7 +21,6 @@ package org.greenplum.pxf.plugins.hbase;
 
 
 import org.apache.hadoop.hbase.Cell;
-import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.greenplum.pxf.api.OneField;
@@ -35,8 +34,11 @@ import org.greenplum.pxf.plugins.hbase.utilities.HBaseColumnDescriptor;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseTupleDescription;
 
 import java.sql.Timestamp;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Record resolver for HBase.
@@ -45,44 +47,80 @@ import java.util.List;
  * into a List of {@link OneField} objects.
  * That also includes the conversion process of each HBase column's value into its GPDB assigned type.
  *
- * Currently, the class assumes all HBase values are stored as String object Bytes encoded.
+ * By default, the class assumes all HBase values are stored as String object Bytes encoded. The columns listed in the
+ * <b>BINARY_COLUMNS</b> option are instead assumed to be encoded with the {@link Bytes} toBytes methods of their Java
+ * type, e.g. {@link Bytes#toBytes(long)} for a bigint column.
+ * <p>
+ * Values are converted straight from the arrays backing the cells of the {@link Result}, without copying them, and
+ * the fields of a row are returned in a list that is reused for every row.
  */
 public class HBaseResolver extends BasePlugin implements Resolver {
+
+    public static final String BINARY_COLUMNS_OPTION = "BINARY_COLUMNS";
+
     private HBaseTupleDescription tupleDescription;
+    private boolean[] binaryColumns;
+    private List<OneField> fields;
 
     @Override
     public void afterPropertiesSet() {
         tupleDescription = new HBaseTupleDescription(context);
+
+        Set<String> binaryColumnNames = new HashSet<>();
+        String binaryColumnsOption = context.getOption(BINARY_COLUMNS_OPTION);
+        if (binaryColumnsOption != null) {
+            for (String name : binaryColumnsOption.split(",")) {
+                binaryColumnNames.add(name.trim());
+            }
+        }
+
+        binaryColumns = new boolean[tupleDescription.columns()];
+        fields = new ArrayList<>(tupleDescription.columns());
+        for (int i = 0; i < tupleDescription.columns(); ++i) {
+            HBaseColumnDescriptor column = tupleDescription.getColumn(i);
+            binaryColumns[i] = binaryColumnNames.contains(column.columnName());
+            fields.add(new OneField(column.columnTypeCode(), null));
+        }
     }
 
     /**
      * Splits an HBase {@link Result} object into a list of {@link OneField},
      * based on the table's tuple description.
      * Each field is converted from HBase bytes into its column description type.
+     * The returned list is only valid until the next call.
      *
      * @return list of fields
      */
     @Override
     public List<OneField> getFields(OneRow onerow) throws Exception {
         Result result = (Result) onerow.getData();
-        List<OneField> fields = new LinkedList<>();
+        Cell[] cells = result.rawCells();
 
         for (int i = 0; i < tupleDescription.columns(); ++i) {
             HBaseColumnDescriptor column = tupleDescription.getColumn(i);
-            byte[] value;
+            OneField oneField = fields.get(i);
+            oneField.type = column.columnTypeCode();
 
             if (column.isKeyColumn()) // if a row column is requested
             {
-                value = result.getRow(); // just return the row key
+                // just return the row key, all the cells have the row key of the row
+                if (cells != null && cells.length > 0) {
+                    oneField.val = convertToJavaObject(oneField.type, column.columnTypeName(), binaryColumns[i],
+                            cells[0].getRowArray(), cells[0].getRowOffset(), cells[0].getRowLength());
+                } else {
+                    byte[] row = result.getRow();
+                    oneField.val = row == null
+                            ? null
+                            : convertToJavaObject(oneField.type, column.columnTypeName(), binaryColumns[i], row, 0, row.length);
+                }
             } else // else, return column value
             {
-                value = getColumnValue(result, column);
+                Cell cell = result.getColumnLatestCell(column.columnFamilyBytes(), column.qualifierBytes());
+                oneField.val = cell == null
+                        ? null
+                        : convertToJavaObject(oneField.type, column.columnTypeName(), binaryColumns[i],
+                        cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
             }
-
-            OneField oneField = new OneField();
-            oneField.type = column.columnTypeCode();
-            oneField.val = convertToJavaObject(oneField.type, column.columnTypeName(), value);
-            fields.add(oneField);
         }
         return fields;
     }
@@ -113,64 +151,168 @@ public class HBaseResolver extends BasePlugin implements Resolver {
         if (val == null) {
             return null;
         }
+        return convertToJavaObject(typeCode, typeName, false, val, 0, val.length);
+    }
+
+    /**
+     * Converts the value in the given range of a byte array to the matching java object, according to the given
+     * type code.
+     *
+     * @param typeCode ColumnDescriptor type id
+     * @param typeName type name. Used for error messages
+     * @param binary   true if the value is encoded with the {@link Bytes} toBytes method of the type, false if it is
+     *                 encoded as a String
+     * @param val      the array holding the value to be converted
+     * @param offset   the offset of the value in the array
+     * @param length   the length of the value
+     * @return value converted to matching object type
+     * @throws Exception when conversion fails or type code is not supported
+     */
+    Object convertToJavaObject(int typeCode, String typeName, boolean binary, byte[] val, int offset, int length) throws Exception {
+        DataType type = DataType.get(typeCode);
+        if (binary) {
+            return convertBinaryToJavaObject(type, typeName, val, offset, length);
+        }
         try {
-            switch (DataType.get(typeCode)) {
+            long number;
+            switch (type) {
                 case TEXT:
                 case VARCHAR:
                 case BPCHAR:
                 case NUMERIC:
-                    return Bytes.toString(val);
+                    return Bytes.toString(val, offset, length);
 
                 case INTEGER:
-                    return Integer.parseInt(Bytes.toString(val));
+                    number = parseDecimal(val, offset, length, 9);
+                    return number != Long.MIN_VALUE ? (int) number : Integer.parseInt(Bytes.toString(val, offset, length));
 
                 case BIGINT:
-                    return Long.parseLong(Bytes.toString(val));
+                    number = parseDecimal(val, offset, length, 18);
+                    return number != Long.MIN_VALUE ? number : Long.parseLong(Bytes.toString(val, offset, length));
 
                 case SMALLINT:
-                    return Short.parseShort(Bytes.toString(val));
+                    number = parseDecimal(val, offset, length, 4);
+                    return number != Long.MIN_VALUE ? (short) number : Short.parseShort(Bytes.toString(val, offset, length));
 
                 case REAL:
-                    return Float.parseFloat(Bytes.toString(val));
+                    return Float.parseFloat(Bytes.toString(val, offset, length));
 
                 case FLOAT8:
-                    return Double.parseDouble(Bytes.toString(val));
+                    return Double.parseDouble(Bytes.toString(val, offset, length));
 
                 case BYTEA:
-                    return val;
+                    return Arrays.copyOfRange(val, offset, offset + length);
 
                 case BOOLEAN:
-                    return Boolean.valueOf(Bytes.toString(val));
+                    return isTrue(val, offset, length);
 
                 case TIMESTAMP:
-                    return Timestamp.valueOf(Bytes.toString(val));
+                    return Timestamp.valueOf(Bytes.toString(val, offset, length));
 
                 default:
                     throw new UnsupportedTypeException("Unsupported data type " + typeName);
             }
         } catch (NumberFormatException e) {
-            throw new BadRecordException("Error converting value '" + Bytes.toString(val) + "' " +
+            throw new BadRecordException("Error converting value '" + Bytes.toString(val, offset, length) + "' " +
                     "to type " + typeName + ". " +
                     "(original error: " + e.getMessage() + ")");
         }
     }
 
     /**
-     * Returns the value of a column from a Result object.
+     * Converts a value encoded with the {@link Bytes} toBytes method of the type
+     */
+    private Object convertBinaryToJavaObject(DataType type, String typeName, byte[] val, int offset, int length) throws Exception {
+        switch (type) {
+            case TEXT:
+            case VARCHAR:
+            case BPCHAR:
+                return Bytes.toString(val, offset, length);
+
+            case NUMERIC:
+                return Bytes.toBigDecimal(val, offset, length).toPlainString();
+
+            case INTEGER:
+                checkBinaryLength(typeName, val, offset, length, Bytes.SIZEOF_INT);
+                return Bytes.toInt(val, offset);
+
+            case BIGINT:
+                checkBinaryLength(typeName, val, offset, length, Bytes.SIZEOF_LONG);
+                return Bytes.toLong(val, offset);
+
+            case SMALLINT:
+                checkBinaryLength(typeName, val, offset, length, Bytes.SIZEOF_SHORT);
+                return Bytes.toShort(val, offset);
+
+            case REAL:
+                checkBinaryLength(typeName, val, offset, length, Bytes.SIZEOF_FLOAT);
+                return Bytes.toFloat(val, offset);
+
+            case FLOAT8:
+                checkBinaryLength(typeName, val, offset, length, Bytes.SIZEOF_DOUBLE);
+                return Bytes.toDouble(val, offset);
+
+            case BYTEA:
+                return Arrays.copyOfRange(val, offset, offset + length);
+
+            case BOOLEAN:
+                checkBinaryLength(typeName, val, offset, length, Bytes.SIZEOF_BOOLEAN);
+                return val[offset] != 0;
+
+            case TIMESTAMP:
+                // milliseconds since the epoch
+                checkBinaryLength(typeName, val, offset, length, Bytes.SIZEOF_LONG);
+                return new Timestamp(Bytes.toLong(val, offset));
+
+            default:
+                throw new UnsupportedTypeException("Unsupported data type " + typeName);
+        }
+    }
+
+    private static void checkBinaryLength(String typeName, byte[] val, int offset, int length, int expectedLength) throws BadRecordException {
+        if (length != expectedLength) {
+            throw new BadRecordException("Error converting binary value '" + Bytes.toStringBinary(val, offset, length) + "' " +
+                    "to type " + typeName + ". " +
+                    "(original error: expected " + expectedLength + " bytes but got " + length + ")");
+        }
+    }
+
+    /**
+     * Parses a decimal number of at most maxDigits ASCII digits, with an optional sign, so that it fits in a long
+     * without overflow.
      *
-     * @param result HBase table row
-     * @param column HBase column to be retrieved
-     * @return HBase column value
+     * @return the number, or Long.MIN_VALUE if the value is not such a number and must be parsed as a String
      */
-    byte[] getColumnValue(Result result, HBaseColumnDescriptor column) {
-        // if column does not contain a value, return null
-        if (!result.containsColumn(column.columnFamilyBytes(),
-                column.qualifierBytes())) {
-            return null;
+    private static long parseDecimal(byte[] val, int offset, int length, int maxDigits) {
+        int i = offset;
+        int end = offset + length;
+        boolean negative = false;
+        if (i < end && (val[i] == '-' || val[i] == '+')) {
+            negative = val[i] == '-';
+            i++;
         }
+        if (i == end || end - i > maxDigits) {
+            return Long.MIN_VALUE;
+        }
+        long number = 0;
+        for (; i < end; i++) {
+            int digit = val[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            number = number * 10 + digit;
+        }
+        return negative ? -number : number;
+    }
 
-        // else, get the latest version of the requested column
-        Cell cell = result.getColumnLatestCell(column.columnFamilyBytes(), column.qualifierBytes());
-        return CellUtil.cloneValue(cell);
+    /**
+     * @return true if the value is "true" ignoring case, the same as {@link Boolean#valueOf(String)}
+     */
+    private static boolean isTrue(byte[] val, int offset, int length) {
+        return length == 4 &&
+                (val[offset] | 0x20) == 't' &&
+                (val[offset + 1] | 0x20) == 'r' &&
+                (val[offset + 2] | 0x20) == 'u' &&
+                (val[offset + 3] | 0x20) == 'e';
     }
 }
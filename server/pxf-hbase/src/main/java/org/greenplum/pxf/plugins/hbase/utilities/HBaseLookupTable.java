@@ -68,6 +68,7 @@ public class HBaseLookupTable implements Closeable {
     private static final Log LOG = LogFactory.getLog(HBaseLookupTable.class);
 
     private Connection connection;
+    private boolean closeConnection;
     private Configuration hbaseConfiguration;
     private Admin admin;
     private Map<byte[], byte[]> rawTableMapping;
@@ -83,10 +84,31 @@ public class HBaseLookupTable implements Closeable {
     public HBaseLookupTable(Configuration conf) throws Exception {
         hbaseConfiguration = conf;
         connection = ConnectionFactory.createConnection(hbaseConfiguration);
+        closeConnection = true;
+        init();
+    }
+
+    /**
+     * Constructs a connector to HBase lookup table using an existing
+     * connection, that is left open when this class is closed. Requires
+     * calling {@link #close()} to close {@link HBaseAdmin} instance.
+     *
+     * @param connection HBase connection
+     * @throws IOException when initializing HBaseAdmin fails
+     */
+    public HBaseLookupTable(Connection connection) throws Exception {
+        this.connection = connection;
+        hbaseConfiguration = connection.getConfiguration();
+        init();
+    }
+
+    private void init() throws IOException {
         admin = connection.getAdmin();
-        ClusterStatus cs = admin.getClusterStatus();
-        LOG.debug("HBase cluster has " + cs.getServersSize()
-                + " region servers " + "(" + cs.getDeadServers() + " dead)");
+        if (LOG.isDebugEnabled()) {
+            ClusterStatus cs = admin.getClusterStatus();
+            LOG.debug("HBase cluster has " + cs.getServersSize()
+                    + " region servers " + "(" + cs.getDeadServers() + " dead)");
+        }
     }
 
     /**
@@ -204,7 +226,7 @@ public class HBaseLookupTable implements Closeable {
 
     private void closeLookupTable() throws IOException {
         lookupTable.close();
-        HBaseUtilities.closeConnection(admin, connection);
+        HBaseUtilities.closeConnection(admin, closeConnection ? connection : null);
     }
 
     private String lowerCase(byte[] key) {
@@ -21,24 +21,42 @@ package org.greenplum.pxf.plugins.hbase;
 
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.OngoingStubbing;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -79,7 +97,7 @@ public class HBaseAccessorTest {
     @Test
     public void construction() {
         prepareConstruction();
-        HBaseAccessor accessor = new HBaseAccessor();
+        HBaseAccessor accessor = new HBaseAccessor(null);
         accessor.setRequestContext(context);
         accessor.afterPropertiesSet();
     }
@@ -98,7 +116,7 @@ public class HBaseAccessorTest {
         prepareTableOpen();
         prepareEmptyScanner();
 
-        accessor = new HBaseAccessor();
+        accessor = new HBaseAccessor(null);
         accessor.setRequestContext(context);
         accessor.afterPropertiesSet();
 
@@ -109,6 +127,129 @@ public class HBaseAccessorTest {
         verifyScannerDidNothing();
     }
 
+    /*
+     * Test that the cells of a wide row returned in several batches are
+     * joined back into a single row, and that the first batch of the next
+     * row, read while looking for the end of the previous one, is returned
+     * as the next row
+     */
+    @Test
+    public void wideRowSplitAcrossBatches() throws Exception {
+        prepareConstruction();
+        context.addOption(HBaseAccessor.SCAN_BATCH_OPTION, "2");
+        context.addOption(HBaseAccessor.SCAN_CACHING_OPTION, "100");
+        ResultScanner scanner = prepareScanner(
+                result("row1", "q1", "q2"),
+                result("row1", "q3", "q4"),
+                result("row1", "q5"),
+                result("row2", "q1", "q2"),
+                result("row3", "q1", "q2"),
+                result("row3", "q3"));
+
+        assertTrue(accessor.openForRead());
+        assertEquals(2, scanDetails.getBatch());
+        assertEquals(100, scanDetails.getCaching());
+
+        assertRow(accessor.readNextObject(), "row1", "q1", "q2", "q3", "q4", "q5");
+        assertRow(accessor.readNextObject(), "row2", "q1", "q2");
+        // the last row of the split ends with the scanner
+        assertRow(accessor.readNextObject(), "row3", "q1", "q2", "q3");
+        assertNull(accessor.readNextObject());
+        verify(scanner).close();
+    }
+
+    /*
+     * Test that without a batch size every result is a whole row and is
+     * returned without reading ahead
+     */
+    @Test
+    public void rowsAreNotJoinedWithoutBatch() throws Exception {
+        prepareConstruction();
+        ResultScanner scanner = prepareScanner(
+                result("row1", "q1", "q2"),
+                result("row2", "q1"));
+
+        assertTrue(accessor.openForRead());
+        // the batch size of the scan is left unset
+        assertEquals(-1, scanDetails.getBatch());
+
+        assertRow(accessor.readNextObject(), "row1", "q1", "q2");
+        verify(scanner, times(1)).next();
+        assertRow(accessor.readNextObject(), "row2", "q1");
+        assertNull(accessor.readNextObject());
+    }
+
+    /*
+     * Test that the batch size is ignored when the filter of the scan needs
+     * whole rows, HBase refuses to scan with both
+     */
+    @Test
+    public void batchIsIgnoredWithRowFilter() throws Exception {
+        prepareConstruction();
+        context.addOption(HBaseAccessor.SCAN_BATCH_OPTION, "2");
+        context.setFilterString("a1c25s2d10o5");
+        prepareScanner(result("row1", "q1"));
+
+        assertTrue(accessor.openForRead());
+        assertTrue(scanDetails.getFilter().hasFilterRow());
+        assertEquals(-1, scanDetails.getBatch());
+        assertRow(accessor.readNextObject(), "row1", "q1");
+    }
+
+    /*
+     * Helper for test setup.
+     * Opens the accessor on a cached connection to a table whose scanner
+     * returns the given results, and captures the scan
+     */
+    private ResultScanner prepareScanner(Result... results) throws Exception {
+        context.setDataSource(tableName);
+        context.setConfiguration(new Configuration());
+        context.setTupleDescription(Arrays.asList(
+                new ColumnDescriptor("recordkey", DataType.TEXT.getOID(), 0, "text", null),
+                new ColumnDescriptor("cf1:q1", DataType.TEXT.getOID(), 1, "text", null)));
+
+        hbaseConnection = mock(Connection.class);
+        table = mock(Table.class);
+        when(hbaseConnection.getTable(TableName.valueOf(tableName))).thenReturn(table);
+        ResultScanner scanner = mock(ResultScanner.class);
+        OngoingStubbing<Result> next = when(scanner.next());
+        for (Result result : results) {
+            next = next.thenReturn(result);
+        }
+        next.thenReturn(null);
+        when(table.getScanner(any(Scan.class))).thenAnswer(invocation -> {
+            scanDetails = invocation.getArgument(0);
+            return scanner;
+        });
+
+        // the accessor finds the connection in the cache
+        HBaseConnectionCache connectionCache = new HBaseConnectionCache(true, 1, Duration.ofMinutes(5), System::nanoTime);
+        connectionCache.release(connectionCache.acquire(context, () -> hbaseConnection));
+
+        accessor = new HBaseAccessor(connectionCache);
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        return scanner;
+    }
+
+    private static Result result(String row, String... qualifiers) {
+        List<Cell> cells = new ArrayList<>();
+        for (String qualifier : qualifiers) {
+            cells.add(new KeyValue(Bytes.toBytes(row), Bytes.toBytes("cf1"), Bytes.toBytes(qualifier), Bytes.toBytes("value")));
+        }
+        return Result.create(cells);
+    }
+
+    private static void assertRow(OneRow row, String key, String... qualifiers) {
+        assertNotNull(row);
+        Result result = (Result) row.getData();
+        assertEquals(key, Bytes.toString(result.getRow()));
+        assertEquals(qualifiers.length, result.rawCells().length);
+        for (int i = 0; i < qualifiers.length; i++) {
+            assertEquals(qualifiers[i], Bytes.toString(CellUtil.cloneQualifier(result.rawCells()[i])));
+        }
+    }
+
     /*
      * Helper for test setup.
      * Creates a mock for HBaseTupleDescription and RequestContext
@@ -0,0 +1,221 @@
+package org.greenplum.pxf.plugins.hbase;
+
+import org.apache.hadoop.hbase.client.Connection;
+import org.greenplum.pxf.api.utilities.ReferenceCountingCache.Entry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HBaseConnectionCacheTest {
+
+    private long nanos;
+    private HBaseConnectionCache cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new HBaseConnectionCache(true, 2, Duration.ofMinutes(5), () -> nanos);
+    }
+
+    @Test
+    public void testConnectionIsSharedForTheSameKey() throws IOException {
+        Connection connection = mock(Connection.class);
+        Entry<Connection> first = cache.acquire(key("server", "alice"), () -> connection);
+        Entry<Connection> second = cache.acquire(key("server", "alice"), () -> mock(Connection.class));
+
+        assertSame(connection, first.getValue());
+        assertSame(connection, second.getValue());
+        cache.release(first);
+        cache.release(second);
+        assertEquals(1, cache.size());
+        verify(connection, never()).close();
+    }
+
+    @Test
+    public void testConnectionIsNotSharedForDifferentKeys() throws IOException {
+        Entry<Connection> alice = cache.acquire(key("server", "alice"), () -> mock(Connection.class));
+        Entry<Connection> bob = cache.acquire(key("server", "bob"), () -> mock(Connection.class));
+
+        assertNotSame(alice.getValue(), bob.getValue());
+    }
+
+    @Test
+    public void testIdleConnectionIsClosedAfterExpiration() throws IOException {
+        Entry<Connection> entry = cache.acquire(key("server", "alice"), () -> mock(Connection.class));
+        cache.release(entry);
+
+        nanos += TimeUnit.MINUTES.toNanos(4);
+        cache.release(cache.acquire(key("server", "bob"), () -> mock(Connection.class)));
+        verify(entry.getValue(), never()).close();
+
+        nanos += TimeUnit.MINUTES.toNanos(1);
+        cache.release(cache.acquire(key("server", "bob"), () -> mock(Connection.class)));
+        verify(entry.getValue()).close();
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testExpiredConnectionIsClosedWithoutFurtherRequests() throws IOException {
+        Entry<Connection> entry = cache.acquire(key("server", "alice"), () -> mock(Connection.class));
+        cache.release(entry);
+
+        nanos += TimeUnit.MINUTES.toNanos(4);
+        cache.evictExpiredEntries();
+        verify(entry.getValue(), never()).close();
+
+        nanos += TimeUnit.MINUTES.toNanos(1);
+        cache.evictExpiredEntries();
+        verify(entry.getValue()).close();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testConnectionInUseIsNotClosed() throws IOException {
+        Entry<Connection> entry = cache.acquire(key("server", "alice"), () -> mock(Connection.class));
+
+        nanos += TimeUnit.MINUTES.toNanos(10);
+        cache.release(cache.acquire(key("server", "bob"), () -> mock(Connection.class)));
+        cache.release(cache.acquire(key("server", "carol"), () -> mock(Connection.class)));
+
+        verify(entry.getValue(), never()).close();
+        cache.release(entry);
+    }
+
+    @Test
+    public void testAbortedConnectionIsReplaced() throws IOException {
+        Connection aborted = mock(Connection.class);
+        Entry<Connection> first = cache.acquire(key("server", "alice"), () -> aborted);
+        when(aborted.isAborted()).thenReturn(true);
+
+        Connection connection = mock(Connection.class);
+        Entry<Connection> second = cache.acquire(key("server", "alice"), () -> connection);
+        assertSame(connection, second.getValue());
+
+        // the aborted connection is closed once released by the request using it
+        verify(aborted, never()).close();
+        cache.release(first);
+        verify(aborted).close();
+        cache.release(second);
+        verify(connection, never()).close();
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testConnectionIsClosedWhenCacheIsFull() throws IOException {
+        Entry<Connection> alice = cache.acquire(key("server", "alice"), () -> mock(Connection.class));
+        Entry<Connection> bob = cache.acquire(key("server", "bob"), () -> mock(Connection.class));
+        Entry<Connection> carol = cache.acquire(key("server", "carol"), () -> mock(Connection.class));
+
+        cache.release(carol);
+        verify(carol.getValue()).close();
+        assertEquals(2, cache.size());
+        cache.release(alice);
+        cache.release(bob);
+    }
+
+    @Test
+    public void testConnectionIsClosedWhenCacheIsDisabled() throws IOException {
+        cache = new HBaseConnectionCache(false, 2, Duration.ofMinutes(5), () -> nanos);
+        Entry<Connection> entry = cache.acquire(key("server", "alice"), () -> mock(Connection.class));
+
+        cache.release(entry);
+        verify(entry.getValue()).close();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testConnectionIsCreatedOutsideOfTheLock() throws Exception {
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Connection connection = mock(Connection.class);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Entry<Connection>> first = executor.submit(() -> cache.acquire(key("server", "alice"), () -> {
+                creating.countDown();
+                awaitUninterruptibly(release);
+                return connection;
+            }));
+            assertTrue(creating.await(10, TimeUnit.SECONDS));
+
+            // a request for another connection does not wait for the connection being created
+            Entry<Connection> bob = cache.acquire(key("server", "bob"), () -> mock(Connection.class));
+            cache.release(bob);
+
+            // a request for the same connection waits for it instead of creating its own
+            Future<Entry<Connection>> second = executor.submit(() -> cache.acquire(key("server", "alice"), () -> {
+                throw new AssertionError("the connection is created once");
+            }));
+            release.countDown();
+
+            assertSame(connection, first.get(10, TimeUnit.SECONDS).getValue());
+            assertSame(connection, second.get(10, TimeUnit.SECONDS).getValue());
+            assertEquals(2, cache.size());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailureToCreateConnectionIsSharedWithWaitingRequests() throws Exception {
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Entry<Connection>> first = executor.submit(() -> cache.acquire(key("server", "alice"), () -> {
+                creating.countDown();
+                awaitUninterruptibly(release);
+                throw new IOException("ZooKeeper is not available");
+            }));
+            assertTrue(creating.await(10, TimeUnit.SECONDS));
+            Future<Entry<Connection>> second = executor.submit(() -> cache.acquire(key("server", "alice"), () -> mock(Connection.class)));
+            release.countDown();
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> first.get(10, TimeUnit.SECONDS));
+            assertEquals("ZooKeeper is not available", e.getCause().getMessage());
+            // the second request either waited for the failed creation or came after it and created the connection
+            try {
+                assertNotNull(second.get(10, TimeUnit.SECONDS).getValue());
+            } catch (ExecutionException waited) {
+                assertSame(e.getCause(), waited.getCause());
+            }
+
+            // the failure is not cached
+            Connection connection = mock(Connection.class);
+            assertNotNull(cache.acquire(key("server", "alice"), () -> connection).getValue());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HBaseConnectionCache.Key key(String server, String user) {
+        return new HBaseConnectionCache.Key("config", server, user);
+    }
+}
@@ -0,0 +1,68 @@
+package org.greenplum.pxf.plugins.hbase;
+
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HBaseDataFragmenterTest {
+
+    @Test
+    public void testSplitKeyRange() {
+        byte[] startKey = Bytes.toBytes("a");
+        byte[] endKey = Bytes.toBytes("e");
+
+        List<byte[]> keys = HBaseDataFragmenter.splitKeyRange(startKey, endKey, startKey, endKey, 4);
+
+        assertEquals(5, keys.size());
+        assertArrayEquals(startKey, keys.get(0));
+        assertArrayEquals(Bytes.toBytes("b"), keys.get(1));
+        assertArrayEquals(Bytes.toBytes("c"), keys.get(2));
+        assertArrayEquals(Bytes.toBytes("d"), keys.get(3));
+        assertArrayEquals(endKey, keys.get(4));
+    }
+
+    @Test
+    public void testSplitUnboundedKeyRange() {
+        // the first and last rows of a table with a single region
+        byte[] firstRow = Bytes.toBytes("row100");
+        byte[] afterLastRow = Bytes.add(Bytes.toBytes("row900"), new byte[1]);
+
+        List<byte[]> keys = HBaseDataFragmenter.splitKeyRange(HConstants.EMPTY_START_ROW, HConstants.EMPTY_END_ROW,
+                firstRow, afterLastRow, 3);
+
+        assertEquals(4, keys.size());
+        assertArrayEquals(HConstants.EMPTY_START_ROW, keys.get(0));
+        assertArrayEquals(HConstants.EMPTY_END_ROW, keys.get(3));
+        for (int i = 1; i < 3; i++) {
+            assertTrue(Bytes.compareTo(keys.get(i), firstRow) > 0);
+            assertTrue(Bytes.compareTo(keys.get(i), afterLastRow) < 0);
+            assertTrue(Bytes.compareTo(keys.get(i), keys.get(i - 1)) > 0);
+        }
+    }
+
+    @Test
+    public void testRangeThatCannotBeSplit() {
+        byte[] startKey = Bytes.toBytes("a");
+        byte[] endKey = Bytes.toBytes("a\0");
+
+        List<byte[]> keys = HBaseDataFragmenter.splitKeyRange(startKey, endKey, startKey, endKey, 4);
+
+        assertEquals(2, keys.size());
+        assertArrayEquals(startKey, keys.get(0));
+        assertArrayEquals(endKey, keys.get(1));
+    }
+
+    @Test
+    public void testEmptyRegionIsNotSplit() {
+        List<byte[]> keys = HBaseDataFragmenter.splitKeyRange(HConstants.EMPTY_START_ROW, HConstants.EMPTY_END_ROW,
+                null, null, 4);
+
+        assertEquals(2, keys.size());
+    }
+}
@@ -19,15 +19,31 @@ package org.greenplum.pxf.plugins.hbase;
  * under the License.
  */
 
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.error.BadRecordException;
+import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class HBaseResolverTest {
     private RequestContext context;
@@ -99,6 +115,132 @@ public class HBaseResolverTest {
         assertEquals("Unsupported data type point", e.getMessage());
     }
 
+    @Test
+    public void testConvertStringValueInArray() throws Exception {
+        HBaseResolver resolver = resolver();
+        byte[] val = Bytes.toBytes("xx-1234|+42|123456789012345678|true|abc");
+
+        assertEquals(-1234, resolver.convertToJavaObject(DataType.INTEGER.getOID(), "int4", false, val, 2, 5));
+        assertEquals((short) 42, resolver.convertToJavaObject(DataType.SMALLINT.getOID(), "int2", false, val, 8, 3));
+        assertEquals(123456789012345678L, resolver.convertToJavaObject(DataType.BIGINT.getOID(), "int8", false, val, 12, 18));
+        assertEquals(true, resolver.convertToJavaObject(DataType.BOOLEAN.getOID(), "bool", false, val, 31, 4));
+        assertEquals(false, resolver.convertToJavaObject(DataType.BOOLEAN.getOID(), "bool", false, val, 36, 3));
+        assertEquals("abc", resolver.convertToJavaObject(DataType.TEXT.getOID(), "text", false, val, 36, 3));
+        assertArrayEquals(Bytes.toBytes("abc"), (byte[]) resolver.convertToJavaObject(DataType.BYTEA.getOID(), "bytea", false, val, 36, 3));
+
+        // values that are not plain decimals of a few digits are parsed as Strings
+        assertEquals(Integer.MIN_VALUE, resolver.convertToJavaObject(DataType.INTEGER.getOID(), "int4", Bytes.toBytes("-2147483648")));
+        assertEquals(Long.MAX_VALUE, resolver.convertToJavaObject(DataType.BIGINT.getOID(), "int8", Bytes.toBytes(Long.toString(Long.MAX_VALUE))));
+        Exception e = assertThrows(BadRecordException.class,
+                () -> resolver.convertToJavaObject(DataType.INTEGER.getOID(), "int4", Bytes.toBytes("2147483648")));
+        assertEquals("Error converting value '2147483648' to type int4. (original error: For input string: \"2147483648\")", e.getMessage());
+        e = assertThrows(BadRecordException.class,
+                () -> resolver.convertToJavaObject(DataType.SMALLINT.getOID(), "int2", Bytes.toBytes("-")));
+        assertEquals("Error converting value '-' to type int2. (original error: For input string: \"-\")", e.getMessage());
+    }
+
+    @Test
+    public void testConvertBinaryValue() throws Exception {
+        HBaseResolver resolver = resolver();
+
+        assertEquals(-7, convertBinary(resolver, DataType.INTEGER, Bytes.toBytes(-7)));
+        assertEquals(1L << 40, convertBinary(resolver, DataType.BIGINT, Bytes.toBytes(1L << 40)));
+        assertEquals((short) 300, convertBinary(resolver, DataType.SMALLINT, Bytes.toBytes((short) 300)));
+        assertEquals(1.5f, convertBinary(resolver, DataType.REAL, Bytes.toBytes(1.5f)));
+        assertEquals(2.25d, convertBinary(resolver, DataType.FLOAT8, Bytes.toBytes(2.25d)));
+        assertEquals(true, convertBinary(resolver, DataType.BOOLEAN, Bytes.toBytes(true)));
+        assertEquals("12.340", convertBinary(resolver, DataType.NUMERIC, Bytes.toBytes(new BigDecimal("12.340"))));
+        assertEquals(new Timestamp(1600000000000L), convertBinary(resolver, DataType.TIMESTAMP, Bytes.toBytes(1600000000000L)));
+        assertEquals("text", convertBinary(resolver, DataType.TEXT, Bytes.toBytes("text")));
+
+        Exception e = assertThrows(BadRecordException.class,
+                () -> convertBinary(resolver, DataType.BIGINT, Bytes.toBytes(7)));
+        assertEquals("Error converting binary value '\\x00\\x00\\x00\\x07' to type BIGINT. (original error: expected 8 bytes but got 4)", e.getMessage());
+    }
+
+    @Test
+    public void testGetFieldsWithBinaryColumns() throws Exception {
+        context = new RequestContext();
+        context.setConfig("default");
+        context.setUser("test-user");
+        context.setFragmentMetadata(new HBaseFragmentMetadata(new byte[0], new byte[0], new HashMap<>()));
+        context.getTupleDescription().add(new ColumnDescriptor("recordkey", DataType.TEXT.getOID(), 0, "text", null));
+        context.getTupleDescription().add(new ColumnDescriptor("cf1:count", DataType.BIGINT.getOID(), 1, "int8", null));
+        context.getTupleDescription().add(new ColumnDescriptor("cf1:name", DataType.TEXT.getOID(), 2, "text", null));
+        context.getTupleDescription().add(new ColumnDescriptor("cf1:size", DataType.INTEGER.getOID(), 3, "int4", null));
+        context.addOption(HBaseResolver.BINARY_COLUMNS_OPTION, "cf1:count, cf1:missing");
+
+        HBaseResolver resolver = new HBaseResolver();
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        List<OneField> first = resolver.getFields(new OneRow(null, Result.create(Arrays.asList(
+                cell("row1", "count", Bytes.toBytes(10L)),
+                cell("row1", "name", Bytes.toBytes("alice")),
+                cell("row1", "size", Bytes.toBytes("123"))))));
+        assertEquals(4, first.size());
+        assertEquals("row1", first.get(0).val);
+        assertEquals(10L, first.get(1).val);
+        assertEquals("alice", first.get(2).val);
+        assertEquals(123, first.get(3).val);
+        assertEquals(DataType.INTEGER.getOID(), first.get(3).type);
+
+        // the fields are reused for the next row
+        List<OneField> second = resolver.getFields(new OneRow(null, Result.create(Arrays.asList(
+                cell("row2", "count", Bytes.toBytes(20L))))));
+        assertSame(first, second);
+        assertEquals("row2", second.get(0).val);
+        assertEquals(20L, second.get(1).val);
+        assertNull(second.get(2).val);
+        assertNull(second.get(3).val);
+    }
+
+    @Test
+    public void testGetFieldsWithBinaryRowKeyAndNoCells() throws Exception {
+        context = new RequestContext();
+        context.setConfig("default");
+        context.setUser("test-user");
+        context.setFragmentMetadata(new HBaseFragmentMetadata(new byte[0], new byte[0], new HashMap<>()));
+        context.getTupleDescription().add(new ColumnDescriptor("recordkey", DataType.BIGINT.getOID(), 0, "int8", null));
+        context.getTupleDescription().add(new ColumnDescriptor("cf1:name", DataType.TEXT.getOID(), 1, "text", null));
+        context.addOption(HBaseResolver.BINARY_COLUMNS_OPTION, "recordkey");
+
+        HBaseResolver resolver = new HBaseResolver();
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        Result result = mock(Result.class);
+        when(result.rawCells()).thenReturn(new Cell[0]);
+        when(result.getRow()).thenReturn(Bytes.toBytes(42L));
+        List<OneField> fields = resolver.getFields(new OneRow(null, result));
+        assertEquals(42L, fields.get(0).val);
+        assertNull(fields.get(1).val);
+
+        // a result without cells nor row key has no row key value
+        fields = resolver.getFields(new OneRow(null, Result.create(new Cell[0])));
+        assertNull(fields.get(0).val);
+    }
+
+    private HBaseResolver resolver() {
+        context = new RequestContext();
+        context.setConfig("default");
+        context.setUser("test-user");
+        context.setFragmentMetadata(new HBaseFragmentMetadata(new byte[0], new byte[0], new HashMap<>()));
+
+        HBaseResolver resolver = new HBaseResolver();
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+        return resolver;
+    }
+
+    private Object convertBinary(HBaseResolver resolver, DataType type, byte[] val) throws Exception {
+        return resolver.convertToJavaObject(type.getOID(), type.name(), true, val, 0, val.length);
+    }
+
+    private Cell cell(String row, String qualifier, byte[] value) {
+        return new KeyValue(Bytes.toBytes(row), Bytes.toBytes("cf1"), Bytes.toBytes(qualifier), value);
+    }
+
     @Test
     public void testSetFieldsIsUnsupported() {
         Exception e = assertThrows(UnsupportedOperationException.class,
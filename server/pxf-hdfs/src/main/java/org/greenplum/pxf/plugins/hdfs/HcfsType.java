@@ -142,11 +142,34 @@ public enum HcfsType {
      * @return an absolute data path for write
      */
     public String getUriForWrite(RequestContext context, CompressionCodec compressionCodec) {
+        return getUriForWrite(context, compressionCodec, 0);
+    }
+
+    /**
+     * Returns a unique fully resolved URI including the protocol for write.
+     * The filename is generated with the transaction and segment IDs resulting
+     * in <TRANSACTION-ID>_<SEGMENT-ID>. When the segment writes its data to
+     * more than one file, the index of the file is appended to the names of
+     * all the files but the first one, resulting in
+     * <TRANSACTION-ID>_<SEGMENT-ID>_<FILE-INDEX>. If a compressionCodec is
+     * provided, the default codec extension will be appended to the name of
+     * the file.
+     *
+     * @param context          the input data parameters
+     * @param compressionCodec the compression coded used for the extension
+     * @param fileIndex        the index of the file written by the segment
+     * @return an absolute data path for write
+     */
+    public String getUriForWrite(RequestContext context, CompressionCodec compressionCodec, int fileIndex) {
         String fileName = String.format("%s/%s_%d",
                 StringUtils.removeEnd(getDataUri(context), "/"),
                 context.getTransactionId(),
                 context.getSegmentId());
 
+        if (fileIndex > 0) {
+            fileName += "_" + fileIndex;
+        }
+
         if (compressionCodec != null) {
             String extension = compressionCodec.getDefaultExtension();
             // append codec extension to the filename
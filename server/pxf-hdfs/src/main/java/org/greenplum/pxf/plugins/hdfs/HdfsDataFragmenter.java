@@ -21,7 +21,10 @@ package org.greenplum.pxf.plugins.hdfs;
 
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.FileInputFormat;
 import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.InvalidInputException;
@@ -29,10 +32,16 @@ import org.apache.hadoop.mapred.JobConf;
 import org.greenplum.pxf.api.model.BaseFragmenter;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.FragmentStats;
+import org.greenplum.pxf.api.model.VersionedFragmenter;
 import org.greenplum.pxf.plugins.hdfs.utilities.PxfInputFormat;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -41,8 +50,12 @@ import java.util.List;
  * Given an HDFS data source (a file, directory, or wild card pattern) divide
  * the data into fragments and return a list of them along with a list of
  * host:port locations for each.
+ * <p>
+ * The version of the data source is a digest of the names, lengths and
+ * modification times of its files, obtained by listing the data source
+ * without fetching block locations or computing splits.
  */
-public class HdfsDataFragmenter extends BaseFragmenter {
+public class HdfsDataFragmenter extends BaseFragmenter implements VersionedFragmenter {
 
     protected static final String IGNORE_MISSING_PATH_OPTION = "IGNORE_MISSING_PATH";
 
@@ -107,6 +120,43 @@ public class HdfsDataFragmenter extends BaseFragmenter {
         return new FragmentStats(splits.size(), firstSplit.getLength(), totalSize);
     }
 
+    /**
+     * Returns a digest of the names, lengths and modification times of the
+     * files and directories the data source matches, descending into
+     * subdirectories when the input format would. Returns null when the data
+     * source does not exist, so that its fragments are not reused.
+     */
+    @Override
+    public String getFragmentsVersion() throws Exception {
+        Path path = new Path(hcfsType.getDataUri(context));
+        FileSystem fs = path.getFileSystem(getJobConf());
+        FileStatus[] matches = fs.globStatus(path);
+        if (matches == null || matches.length == 0) {
+            return null;
+        }
+
+        boolean recursive = getJobConf().getBoolean(FileInputFormat.INPUT_DIR_RECURSIVE, false);
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        for (FileStatus match : matches) {
+            updateDigest(digest, fs, match, true, recursive);
+        }
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    private void updateDigest(MessageDigest digest, FileSystem fs, FileStatus status, boolean list, boolean recursive) throws IOException {
+        String entry = String.format("%s:%d:%d:%b\n",
+                status.getPath(), status.getLen(), status.getModificationTime(), status.isDirectory());
+        digest.update(entry.getBytes(StandardCharsets.UTF_8));
+        if (status.isDirectory() && list) {
+            FileStatus[] children = fs.listStatus(status.getPath());
+            // the order of a listing is not guaranteed on every file system
+            Arrays.sort(children, Comparator.comparing(child -> child.getPath().toString()));
+            for (FileStatus child : children) {
+                updateDigest(digest, fs, child, recursive, recursive);
+            }
+        }
+    }
+
     protected List<InputSplit> getSplits(Path path) throws IOException {
         JobConf jobConf = getJobConf();
         PxfInputFormat pxfInputFormat = new PxfInputFormat();
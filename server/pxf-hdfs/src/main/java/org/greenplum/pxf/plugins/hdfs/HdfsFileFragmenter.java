@@ -53,4 +53,13 @@ public class HdfsFileFragmenter extends HdfsDataFragmenter {
 
         return fragments;
     }
+
+    /**
+     * Returns null, the fragments are the listing of the data source, so
+     * checking whether they are still valid costs as much as fragmenting.
+     */
+    @Override
+    public String getFragmentsVersion() {
+        return null;
+    }
 }
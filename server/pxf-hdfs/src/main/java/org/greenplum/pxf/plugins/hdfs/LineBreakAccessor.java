@@ -20,18 +20,23 @@ package org.greenplum.pxf.plugins.hdfs;
  */
 
 
-import org.apache.commons.io.IOUtils;
 import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
 import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.LineRecordReader;
 import org.apache.hadoop.mapred.TextInputFormat;
+import org.apache.hadoop.util.StringUtils.TraditionalBinaryPrefix;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.configuration.PxfServerProperties;
+import org.greenplum.pxf.api.model.GreenplumCSV;
+import org.greenplum.pxf.api.utilities.SpringContext;
 import org.greenplum.pxf.plugins.hdfs.utilities.HdfsUtilities;
+import org.springframework.core.task.AsyncTaskExecutor;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -47,18 +52,43 @@ public class LineBreakAccessor extends HdfsSplittableDataAccessor {
     private static final int DEFAULT_BUFFER_SIZE = 8192;
     public static final String PXF_CHUNK_RECORD_READER_ENABLED = "pxf.reader.chunk-record-reader.enabled";
     public static final boolean PXF_CHUNK_RECORD_READER_DEFAULT = false;
+    public static final String PXF_WRITER_COMPRESSION_THREADS = "pxf.writer.compression.threads";
+    public static final int PXF_WRITER_COMPRESSION_THREADS_DEFAULT = 1;
+    public static final String PXF_WRITER_COMPRESSION_BLOCK_SIZE = "pxf.writer.compression.block-size";
+    public static final long PXF_WRITER_COMPRESSION_BLOCK_SIZE_DEFAULT = 4 * 1024 * 1024;
 
     private int skipHeaderCount;
     private DataOutputStream dos;
+    private CompressionOutputStream compressionStream;
     private FSDataOutputStream fsdos;
     private FileSystem fs;
     private Path file;
+    private CompressionCodec codec;
+    private AsyncTaskExecutor compressionExecutor;
+    private boolean parallelCompression;
+    private int compressionThreads;
+    private int compressionBlockSize;
+    private long maxFileSize;
+    private long fileBytesWritten;
+    private int fileIndex;
+    private RecordBoundaryScanner recordBoundaryScanner;
 
     /**
      * Constructs a LineBreakAccessor.
      */
     public LineBreakAccessor() {
+        this(null);
+    }
+
+    /**
+     * Constructs a LineBreakAccessor that compresses written data in
+     * parallel on the given executor.
+     *
+     * @param compressionExecutor the executor, or null to use the executor shared by plugins
+     */
+    LineBreakAccessor(AsyncTaskExecutor compressionExecutor) {
         super(new TextInputFormat());
+        this.compressionExecutor = compressionExecutor;
     }
 
     @Override
@@ -105,16 +135,34 @@ public class LineBreakAccessor extends HdfsSplittableDataAccessor {
     public boolean openForWrite() throws IOException {
         String compressCodec = context.getOption("COMPRESSION_CODEC");
         // get compression codec
-        CompressionCodec codec = compressCodec != null ?
+        codec = compressCodec != null ?
                 getCodec(compressCodec) : null;
-        String fileName = hcfsType.getUriForWrite(context, codec);
+        maxFileSize = getMaxFileSize();
+        if (maxFileSize > 0) {
+            recordBoundaryScanner = new RecordBoundaryScanner(context.getGreenplumCSV(),
+                    "csv".equalsIgnoreCase(context.getFormat()));
+        }
 
-        file = new Path(fileName);
-        fs = FileSystem.get(URI.create(fileName), configuration);
-        HdfsUtilities.validateFile(file, fs);
+        // compress blocks of data in parallel when the codec supports concatenated streams
+        compressionThreads = context.getOption("COMPRESSION_THREADS",
+                configuration.getInt(PXF_WRITER_COMPRESSION_THREADS, PXF_WRITER_COMPRESSION_THREADS_DEFAULT), true);
+        if (codec != null && compressionThreads > 1) {
+            if (ParallelCompressionOutputStream.isSupported(codec)) {
+                compressionBlockSize = (int) configuration.getLongBytes(PXF_WRITER_COMPRESSION_BLOCK_SIZE,
+                        PXF_WRITER_COMPRESSION_BLOCK_SIZE_DEFAULT);
+                if (compressionExecutor == null) {
+                    compressionExecutor = SpringContext.getBean(PxfServerProperties.PLUGIN_TASK_EXECUTOR, AsyncTaskExecutor.class);
+                }
+                parallelCompression = true;
+                LOG.debug("Compressing blocks of {} bytes with {} threads", compressionBlockSize, compressionThreads);
+            } else {
+                LOG.debug("Codec {} does not support parallel compression, compressing with a single thread",
+                        codec.getClass().getSimpleName());
+            }
+        }
 
         // create output stream - do not allow overwriting existing file
-        createOutputStream(file, codec);
+        openFile();
         return true;
     }
 
@@ -129,11 +177,19 @@ public class LineBreakAccessor extends HdfsSplittableDataAccessor {
             // match same buffer size to read data from the input stream. The
             // buffer size can be configured externally.
             int bufferSize = configuration.getInt("io.file.buffer.size", DEFAULT_BUFFER_SIZE);
-            long count = IOUtils.copyLarge((InputStream) onerow.getData(), dos, new byte[bufferSize]);
+            InputStream inputStream = (InputStream) onerow.getData();
+            byte[] buffer = new byte[bufferSize];
+            long count = 0;
+            int n;
+            while ((n = inputStream.read(buffer)) != -1) {
+                write(buffer, 0, n);
+                count += n;
+            }
             LOG.debug("Wrote {} bytes to outputStream using a buffer of size {}", count, bufferSize);
             return count > 0;
         } else {
-            dos.write((byte[]) onerow.getData());
+            byte[] data = (byte[]) onerow.getData();
+            write(data, 0, data.length);
         }
         return true;
     }
@@ -144,32 +200,166 @@ public class LineBreakAccessor extends HdfsSplittableDataAccessor {
     @Override
     public void closeForWrite() throws IOException {
         if ((dos != null) && (fsdos != null)) {
-            LOG.debug("Closing writing stream for path {}", file);
-            dos.flush();
-            /*
-             * From release 0.21.0 sync() is deprecated in favor of hflush(),
-             * which only guarantees that new readers will see all data written
-             * to that point, and hsync(), which makes a stronger guarantee that
-             * the operating system has flushed the data to disk (like POSIX
-             * fsync), although data may still be in the disk cache.
-             */
-            fsdos.hsync();
-            dos.close();
+            closeFile();
         }
     }
 
     /*
-     * Creates output stream from given file. If compression codec is provided,
-     * wrap it around stream.
+     * Writes the data to the current file. When a maximum file size is set,
+     * the data is written to a new file once the current file has reached the
+     * maximum size, at the end of a record, so that no record is split
+     * across files.
      */
-    private void createOutputStream(Path file, CompressionCodec codec)
-            throws IOException {
+    private void write(byte[] data, int off, int len) throws IOException {
+        if (maxFileSize <= 0) {
+            dos.write(data, off, len);
+            return;
+        }
+        int end = off + len;
+        while (off < end) {
+            if (fileBytesWritten >= maxFileSize && recordBoundaryScanner.isAtRecordEnd()) {
+                closeFile();
+                fileIndex++;
+                openFile();
+            }
+            // only look for the end of a record when the file is about to reach the maximum size
+            boolean stopAtRecordEnd = fileBytesWritten + (end - off) >= maxFileSize;
+            int next = recordBoundaryScanner.scan(data, off, end, stopAtRecordEnd);
+            dos.write(data, off, next - off);
+            fileBytesWritten += next - off;
+            off = next;
+        }
+    }
+
+    /*
+     * Creates the output stream for the current file index. If compression
+     * codec is provided, wrap it around stream.
+     */
+    private void openFile() throws IOException {
+        String fileName = hcfsType.getUriForWrite(context, codec, fileIndex);
+
+        file = new Path(fileName);
+        fs = FileSystem.get(URI.create(fileName), configuration);
+        HdfsUtilities.validateFile(file, fs);
+
         fsdos = fs.create(file, false);
         if (codec != null) {
-            dos = new DataOutputStream(codec.createOutputStream(fsdos));
+            compressionStream = parallelCompression
+                    ? new ParallelCompressionOutputStream(fsdos, codec, compressionExecutor,
+                    compressionBlockSize, compressionThreads)
+                    : codec.createOutputStream(fsdos);
+            dos = new DataOutputStream(compressionStream);
         } else {
+            compressionStream = null;
             dos = fsdos;
         }
+        fileBytesWritten = 0;
+    }
+
+    private void closeFile() throws IOException {
+        LOG.debug("Closing writing stream for path {}", file);
+        if (compressionStream != null) {
+            // write the remaining compressed data before syncing the file
+            compressionStream.finish();
+        }
+        dos.flush();
+        /*
+         * From release 0.21.0 sync() is deprecated in favor of hflush(),
+         * which only guarantees that new readers will see all data written
+         * to that point, and hsync(), which makes a stronger guarantee that
+         * the operating system has flushed the data to disk (like POSIX
+         * fsync), although data may still be in the disk cache.
+         */
+        fsdos.hsync();
+        dos.close();
+    }
+
+    private long getMaxFileSize() {
+        String value = context.getOption("MAX_FILE_SIZE");
+        if (value == null) {
+            return 0;
+        }
+        long result;
+        try {
+            result = TraditionalBinaryPrefix.string2long(value.trim());
+        } catch (IllegalArgumentException e) {
+            result = -1;
+        }
+        if (result < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Property MAX_FILE_SIZE has incorrect value %s : must be a non-negative size in bytes", value));
+        }
+        return result;
+    }
 
+    /**
+     * Finds the ends of the records written by Greenplum, which are the
+     * newlines that are not part of a quoted CSV value. In the TEXT format,
+     * newlines in values are escaped, so every newline ends a record.
+     */
+    private static class RecordBoundaryScanner {
+
+        private final byte newline;
+        private final boolean csv;
+        private final byte quote;
+        private final boolean hasEscape;
+        private final byte escape;
+        private boolean quoted;
+        private boolean escaped;
+        private boolean atRecordEnd = true;
+
+        RecordBoundaryScanner(GreenplumCSV greenplumCSV, boolean csv) {
+            String newlineString = greenplumCSV.getNewline();
+            // the last character of CRLF ends the record
+            this.newline = (byte) newlineString.charAt(newlineString.length() - 1);
+            this.csv = csv;
+            this.quote = (byte) greenplumCSV.getQuote();
+            // when the escape is the quote character, doubled quotes toggle the state twice
+            Character escapeChar = greenplumCSV.getEscape();
+            this.hasEscape = escapeChar != null && escapeChar != greenplumCSV.getQuote();
+            this.escape = hasEscape ? (byte) escapeChar.charValue() : 0;
+        }
+
+        /**
+         * Scans the data from the given offset, stopping after the first end
+         * of a record when requested.
+         *
+         * @param data            the data
+         * @param from            the offset of the first byte to scan
+         * @param to              the offset after the last byte to scan
+         * @param stopAtRecordEnd whether to stop after the first end of a record
+         * @return the offset after the last byte scanned
+         */
+        int scan(byte[] data, int from, int to, boolean stopAtRecordEnd) {
+            for (int i = from; i < to; i++) {
+                byte b = data[i];
+                boolean recordEnd = false;
+                if (escaped) {
+                    escaped = false;
+                } else if (quoted) {
+                    if (hasEscape && b == escape) {
+                        escaped = true;
+                    } else if (b == quote) {
+                        quoted = false;
+                    }
+                } else if (csv && b == quote) {
+                    quoted = true;
+                } else {
+                    recordEnd = b == newline;
+                }
+                atRecordEnd = recordEnd;
+                if (recordEnd && stopAtRecordEnd) {
+                    return i + 1;
+                }
+            }
+            return to;
+        }
+
+        /**
+         * @return true if the last byte scanned ended a record
+         */
+        boolean isAtRecordEnd() {
+            return atRecordEnd;
+        }
     }
 }
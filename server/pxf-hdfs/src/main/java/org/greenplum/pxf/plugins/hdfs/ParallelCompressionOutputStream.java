@@ -0,0 +1,226 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.io.compress.GzipCodec;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A compression output stream that splits the data written to it into
+ * fixed-size blocks, and compresses every block as a separate compressed
+ * stream on the given executor. The compressed blocks are written to the
+ * underlying stream in the order the data was written, so the output is a
+ * concatenation of compressed streams, which is a valid file for the codecs
+ * that support concatenated streams (see {@link #isSupported(CompressionCodec)}).
+ * <p>
+ * At most {@code maxPendingBlocks} blocks are held in memory while being
+ * compressed or waiting to be written, which bounds the memory used by the
+ * stream and the number of threads compressing its blocks, and blocks the
+ * writer when compression falls behind. The executor is shared with other
+ * requests, a block that the executor rejects because all its threads are
+ * busy is compressed by the writing thread. The stream is not thread-safe.
+ */
+class ParallelCompressionOutputStream extends CompressionOutputStream {
+
+    private final CompressionCodec codec;
+    private final AsyncTaskExecutor executor;
+    private final int blockSize;
+    private final int maxPendingBlocks;
+    private final Deque<Block> pendingBlocks = new ArrayDeque<>();
+    private final Deque<byte[]> freeBuffers = new ArrayDeque<>();
+
+    private byte[] buffer;
+    private int count;
+    private long blockCount;
+    private boolean finished;
+
+    /**
+     * Creates a new instance of the stream.
+     *
+     * @param out              the stream to write the compressed data to
+     * @param codec            the codec used to compress the blocks
+     * @param executor         the executor that compresses the blocks
+     * @param blockSize        the size of the uncompressed blocks
+     * @param maxPendingBlocks the maximum number of blocks being compressed or waiting to be written
+     */
+    ParallelCompressionOutputStream(OutputStream out, CompressionCodec codec, AsyncTaskExecutor executor,
+                                    int blockSize, int maxPendingBlocks) {
+        super(out);
+        this.codec = codec;
+        this.executor = executor;
+        this.blockSize = blockSize;
+        this.maxPendingBlocks = Math.max(maxPendingBlocks, 1);
+    }
+
+    /**
+     * Returns whether the files written by the given codec can be made of
+     * concatenated compressed streams that are read back as a single stream.
+     *
+     * @param codec the compression codec
+     * @return true if the codec supports concatenated streams, false otherwise
+     */
+    static boolean isSupported(CompressionCodec codec) {
+        // a gzip file can be made of several members, while Hadoop does not read
+        // concatenated bzip2 streams, and bzip2 blocks are not byte-aligned
+        return codec instanceof GzipCodec;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureBuffer();
+        buffer[count++] = (byte) b;
+        if (count == blockSize) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            ensureBuffer();
+            int n = Math.min(len, blockSize - count);
+            System.arraycopy(b, off, buffer, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            if (count == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Writes the compressed blocks that are ready to the underlying stream and
+     * flushes it. The block being filled is not compressed until it is full or
+     * the stream is finished.
+     */
+    @Override
+    public void flush() throws IOException {
+        writeCompletedBlocks(false);
+        out.flush();
+    }
+
+    /**
+     * Compresses the remaining data and writes all the compressed blocks to
+     * the underlying stream, without closing it.
+     */
+    @Override
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        // an empty stream still has to be a valid compressed stream
+        if (count > 0 || blockCount == 0) {
+            ensureBuffer();
+            submitBlock();
+        }
+        writeCompletedBlocks(true);
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            // do not leave blocks being compressed after a failure
+            for (Block block : pendingBlocks) {
+                block.result.cancel(true);
+            }
+            pendingBlocks.clear();
+        }
+    }
+
+    @Override
+    public void resetState() {
+        // every block is compressed independently, there is no state to reset
+    }
+
+    private void ensureBuffer() {
+        if (buffer == null) {
+            buffer = freeBuffers.isEmpty() ? new byte[blockSize] : freeBuffers.pop();
+            count = 0;
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        final byte[] data = buffer;
+        final int length = count;
+        Future<ByteArrayOutputStream> result;
+        try {
+            result = executor.submit(() -> compress(data, length));
+        } catch (TaskRejectedException e) {
+            FutureTask<ByteArrayOutputStream> task = new FutureTask<>(() -> compress(data, length));
+            task.run();
+            result = task;
+        }
+        pendingBlocks.add(new Block(data, result));
+        buffer = null;
+        count = 0;
+        blockCount++;
+        // wait for the oldest block to be compressed when too many blocks are pending
+        writeCompletedBlocks(false);
+        while (pendingBlocks.size() >= maxPendingBlocks) {
+            writeBlock(pendingBlocks.poll());
+        }
+    }
+
+    private void writeCompletedBlocks(boolean waitForAll) throws IOException {
+        while (!pendingBlocks.isEmpty() && (waitForAll || pendingBlocks.peek().result.isDone())) {
+            writeBlock(pendingBlocks.poll());
+        }
+    }
+
+    private void writeBlock(Block block) throws IOException {
+        ByteArrayOutputStream compressed;
+        try {
+            compressed = block.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing data");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to compress data", cause);
+        }
+        compressed.writeTo(out);
+        freeBuffers.push(block.data);
+    }
+
+    private ByteArrayOutputStream compress(byte[] data, int length) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(length / 2, 64));
+        // the codec borrows its compressor from the codec pool and returns it on close
+        try (CompressionOutputStream compressionStream = codec.createOutputStream(compressed)) {
+            compressionStream.write(data, 0, length);
+            compressionStream.finish();
+        }
+        return compressed;
+    }
+
+    /**
+     * A block of uncompressed data and the result of its compression.
+     */
+    private static class Block {
+
+        private final byte[] data;
+        private final Future<ByteArrayOutputStream> result;
+
+        private Block(byte[] data, Future<ByteArrayOutputStream> result) {
+            this.data = data;
+            this.result = result;
+        }
+    }
+}
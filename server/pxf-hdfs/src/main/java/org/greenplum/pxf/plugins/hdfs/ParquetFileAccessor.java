@@ -48,6 +48,7 @@ import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 import org.apache.parquet.schema.Type;
 import org.apache.parquet.schema.Types;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.batch.ColumnBatch;
 import org.greenplum.pxf.api.error.UnsupportedTypeException;
 import org.greenplum.pxf.api.filter.FilterParser;
 import org.greenplum.pxf.api.filter.InOperatorTransformer;
@@ -58,8 +59,11 @@ import org.greenplum.pxf.api.filter.TreeVisitor;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.model.Accessor;
 import org.greenplum.pxf.api.model.BasePlugin;
+import org.greenplum.pxf.api.model.WriteVectorizedResolver;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.api.utilities.Utilities;
 import org.greenplum.pxf.plugins.hdfs.filter.BPCharOperatorTransformer;
+import org.greenplum.pxf.plugins.hdfs.parquet.ColumnBatchWriteSupport;
 import org.greenplum.pxf.plugins.hdfs.parquet.ParquetOperatorPruner;
 import org.greenplum.pxf.plugins.hdfs.parquet.ParquetRecordFilterBuilder;
 import org.greenplum.pxf.plugins.hdfs.utilities.HdfsUtilities;
@@ -93,7 +97,7 @@ import static org.apache.parquet.schema.LogicalTypeAnnotation.stringType;
 
 /**
  * Parquet file accessor.
- * Unit of operation is record.
+ * Unit of operation is record for read, and record or batch of records for write.
  */
 public class ParquetFileAccessor extends BasePlugin implements Accessor {
 
@@ -134,6 +138,8 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
     private CompressionCodecName codecName;
     private RecordWriter<Void, Group> recordWriter;
     private GroupWriteSupport groupWriteSupport;
+    private RecordWriter<Void, ColumnBatch> batchRecordWriter;
+    private ColumnBatchWriteSupport columnBatchWriteSupport;
     private FileSystem fs;
     private Path file;
     private String filePrefix;
@@ -245,8 +251,15 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
                 generateParquetSchema(context.getTupleDescription());
         LOG.debug("{}-{}: Schema fields = {}", context.getTransactionId(),
                 context.getSegmentId(), schema.getFields());
-        GroupWriteSupport.setSchema(schema, configuration);
-        groupWriteSupport = new GroupWriteSupport();
+        // a vectorized resolver produces batches of rows that are written
+        // without creating a Group per row
+        String resolverName = context.getResolver();
+        if (resolverName != null && Utilities.implementsInterface(resolverName, WriteVectorizedResolver.class)) {
+            columnBatchWriteSupport = new ColumnBatchWriteSupport(schema);
+        } else {
+            GroupWriteSupport.setSchema(schema, configuration);
+            groupWriteSupport = new GroupWriteSupport();
+        }
 
         // We get the parquet schema and set it to the metadata in the request context
         // to avoid computing the schema again in the Resolver
@@ -264,8 +277,17 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
      */
     @Override
     public boolean writeNextObject(OneRow onerow) throws IOException, InterruptedException {
-        recordWriter.write(null, (Group) onerow.getData());
-        totalRowsWritten++;
+        if (onerow.getData() instanceof ColumnBatch) {
+            ColumnBatch batch = (ColumnBatch) onerow.getData();
+            for (int row = 0; row < batch.getSize(); row++) {
+                columnBatchWriteSupport.setRow(row);
+                batchRecordWriter.write(null, batch);
+            }
+            totalRowsWritten += batch.getSize();
+        } else {
+            recordWriter.write(null, (Group) onerow.getData());
+            totalRowsWritten++;
+        }
         return true;
     }
 
@@ -280,6 +302,9 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
         if (recordWriter != null) {
             recordWriter.close(null);
         }
+        if (batchRecordWriter != null) {
+            batchRecordWriter.close(null);
+        }
         LOG.debug("{}-{}: writer closed, wrote a TOTAL of {} rows to {} on server {}",
                 context.getTransactionId(),
                 context.getSegmentId(),
@@ -422,8 +447,13 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
         configuration.set(WRITER_VERSION, parquetVersion.toString());
         configuration.setLong(BLOCK_SIZE, rowGroupSize);
 
-        recordWriter = new ParquetOutputFormat<>(groupWriteSupport)
-                .getRecordWriter(configuration, file, codecName, ParquetFileWriter.Mode.CREATE);
+        if (columnBatchWriteSupport != null) {
+            batchRecordWriter = new ParquetOutputFormat<>(columnBatchWriteSupport)
+                    .getRecordWriter(configuration, file, codecName, ParquetFileWriter.Mode.CREATE);
+        } else {
+            recordWriter = new ParquetOutputFormat<>(groupWriteSupport)
+                    .getRecordWriter(configuration, file, codecName, ParquetFileWriter.Mode.CREATE);
+        }
     }
 
     /**
@@ -29,14 +29,18 @@ import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.Type;
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.batch.ColumnBatch;
+import org.greenplum.pxf.api.batch.ColumnVector;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.model.BasePlugin;
 import org.greenplum.pxf.api.model.Resolver;
+import org.greenplum.pxf.api.model.WriteColumnBatchResolver;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.greenplum.pxf.api.utilities.Utilities;
 import org.greenplum.pxf.plugins.hdfs.parquet.ParquetTypeConverter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -47,7 +51,9 @@ import static org.apache.parquet.schema.LogicalTypeAnnotation.IntLogicalTypeAnno
 import static org.apache.parquet.schema.LogicalTypeAnnotation.StringLogicalTypeAnnotation;
 import static org.apache.parquet.schema.Type.Repetition.REPEATED;
 
-public class ParquetResolver extends BasePlugin implements Resolver {
+public class ParquetResolver extends BasePlugin implements Resolver, WriteColumnBatchResolver {
+
+    private static final int BATCH_SIZE = 1024;
 
     // used to distinguish string pattern between type "timestamp" ("2019-03-14 14:10:28")
     // and type "timestamp with time zone" ("2019-03-14 14:10:28+07:30")
@@ -58,6 +64,26 @@ public class ParquetResolver extends BasePlugin implements Resolver {
     private List<ColumnDescriptor> columnDescriptors;
     private final ObjectMapper mapper = new ObjectMapper();
 
+    /**
+     * An array of functions that convert the values of a column of a batch
+     * decoded from Greenplum to their Parquet representation, for the WRITE
+     * use case with batches.
+     */
+    private ColumnConverter[] columnConverters;
+
+    /**
+     * The storage of the converted values of each column of the batch.
+     */
+    private ColumnVector.Storage[] writeStorages;
+
+    private ColumnBatch columnBatch;
+
+    /**
+     * The values of a batch of records, as they are decoded from Greenplum,
+     * see {@link #setFieldsForBatch(List)}.
+     */
+    private ColumnBatch recordBatch;
+
     @Override
     public void afterPropertiesSet() {
         super.afterPropertiesSet();
@@ -117,6 +143,101 @@ public class ParquetResolver extends BasePlugin implements Resolver {
         return new OneRow(null, group);
     }
 
+    @Override
+    public int getBatchSize() {
+        return BATCH_SIZE;
+    }
+
+    /**
+     * Converts a batch of records into a {@link ColumnBatch} holding the
+     * values of each column in their Parquet representation, which the
+     * {@link ParquetFileAccessor} writes without creating a {@link Group}
+     * per record. The values are first stored the way they are decoded from
+     * Greenplum, so that they are converted by the same functions as in
+     * {@link #setFieldsForColumnBatch(ColumnBatch)}.
+     *
+     * @param records list of records, each record is a list of {@link OneField} objects
+     * @return the {@link OneRow} holding the batch, or null if there are no records
+     * @throws IOException if a column has a type that is not supported
+     */
+    @Override
+    public OneRow setFieldsForBatch(List<List<OneField>> records) throws IOException {
+        if (records == null || records.isEmpty()) {
+            return null; // this will end bridge iterations
+        }
+        int columnCount = columnDescriptors.size();
+        int size = records.size();
+        if (recordBatch == null) {
+            recordBatch = new ColumnBatch(columnCount, Math.max(size, BATCH_SIZE));
+        }
+        recordBatch.reset(size);
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            ColumnVector columnVector = recordBatch.getColumn(columnIndex);
+            columnVector.reset(columnDescriptors.get(columnIndex).getDataType());
+            int rowIndex = 0;
+            for (List<OneField> record : records) {
+                setValue(columnVector, rowIndex++, record.get(columnIndex).val);
+            }
+        }
+        return setFieldsForColumnBatch(recordBatch);
+    }
+
+    /**
+     * Converts a batch of records decoded from Greenplum into a
+     * {@link ColumnBatch} holding the values of each column in their Parquet
+     * representation, column by column. Text values are copied as UTF-8 bytes
+     * without creating a {@link String}, except for the values that have to be
+     * parsed, such as dates, timestamps and numerics.
+     *
+     * @param records the records decoded from Greenplum
+     * @return the {@link OneRow} holding the batch, or null if there are no records
+     * @throws IOException if a column has a type that is not supported
+     */
+    @Override
+    public OneRow setFieldsForColumnBatch(ColumnBatch records) throws IOException {
+        if (records.getSize() == 0) {
+            return null; // this will end bridge iterations
+        }
+        validateSchema();
+        ensureColumnConvertersAreInitialized();
+        int columnCount = columnConverters.length;
+        int size = records.getSize();
+        resetColumnBatch(size);
+
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            ColumnVector source = records.getColumn(columnIndex);
+            ColumnVector target = columnBatch.getColumn(columnIndex);
+            ColumnConverter converter = columnConverters[columnIndex];
+            boolean hasNoNulls = source.hasNoNulls();
+            for (int rowIndex = 0; rowIndex < size; rowIndex++) {
+                if (!hasNoNulls && source.isNull(rowIndex)) {
+                    target.setNull(rowIndex);
+                } else {
+                    converter.convert(source, rowIndex, target);
+                }
+            }
+        }
+        return new OneRow(null, columnBatch);
+    }
+
+    /**
+     * Resets the batch of converted values for the given number of records,
+     * creating it the first time. The batch is reused between iterations and
+     * grows if a batch has more records.
+     *
+     * @param size the number of records
+     */
+    private void resetColumnBatch(int size) {
+        int columnCount = writeStorages.length;
+        if (columnBatch == null) {
+            columnBatch = new ColumnBatch(columnCount, Math.max(size, BATCH_SIZE));
+        }
+        columnBatch.reset(size);
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            columnBatch.getColumn(columnIndex).reset(columnDescriptors.get(columnIndex).getDataType(), writeStorages[columnIndex]);
+        }
+    }
+
     private void fillGroup(int index, OneField field, Group group, Type type) throws IOException {
         if (field.val == null)
             return;
@@ -148,55 +269,14 @@ public class ParquetResolver extends BasePlugin implements Resolver {
                 group.add(index, (Float) field.val);
                 break;
             case FIXED_LEN_BYTE_ARRAY:
-                // From org.apache.hadoop.hive.ql.io.parquet.write.DataWritableWriter.DecimalDataWriter#decimalToBinary
-                String value = (String) field.val;
-                DecimalLogicalTypeAnnotation typeAnnotation = (DecimalLogicalTypeAnnotation) type.getLogicalTypeAnnotation();
-                int precision = Math.min(HiveDecimal.MAX_PRECISION, typeAnnotation.getPrecision());
-                int scale = Math.min(HiveDecimal.MAX_SCALE, typeAnnotation.getScale());
-                HiveDecimal hiveDecimal = HiveDecimal.enforcePrecisionScale(
-                        HiveDecimal.create(value),
-                        precision,
-                        scale);
-
-                if (hiveDecimal == null) {
-                    // When precision is higher than HiveDecimal.MAX_PRECISION
-                    // and enforcePrecisionScale returns null, it means we
-                    // cannot store the value in Parquet because we have
-                    // exceeded the precision. To make the behavior consistent
-                    // with Hive's behavior when storing on a Parquet-backed
-                    // table, we store the value as null.
-                    return;
-                }
-
-                byte[] decimalBytes = hiveDecimal.bigIntegerBytesScaled(scale);
-
-                // Estimated number of bytes needed.
-                int precToBytes = ParquetFileAccessor.PRECISION_TO_BYTE_COUNT[precision - 1];
-                if (precToBytes == decimalBytes.length) {
-                    // No padding needed.
+                byte[] decimalBytes = decimalToBinary((String) field.val,
+                        (DecimalLogicalTypeAnnotation) type.getLogicalTypeAnnotation());
+                if (decimalBytes != null) {
                     group.add(index, Binary.fromReusedByteArray(decimalBytes));
-                } else {
-                    byte[] tgt = new byte[precToBytes];
-                    if (hiveDecimal.signum() == -1) {
-                        // For negative number, initializing bits to 1
-                        for (int i = 0; i < precToBytes; i++) {
-                            tgt[i] |= 0xFF;
-                        }
-                    }
-                    System.arraycopy(decimalBytes, 0, tgt, precToBytes - decimalBytes.length, decimalBytes.length); // Padding leading zeroes/ones.
-                    group.add(index, Binary.fromReusedByteArray(tgt));
                 }
-                // end -- org.apache.hadoop.hive.ql.io.parquet.write.DataWritableWriter.DecimalDataWriter#decimalToBinary
                 break;
-            case INT96:  // SQL standard timestamp string value with or without time zone literals: https://www.postgresql.org/docs/9.4/datatype-datetime.html
-                String timestamp = (String) field.val;
-                if (TIMESTAMP_PATTERN.matcher(timestamp).find()) {
-                    // Note: this conversion convert type "timestamp with time zone" will lose timezone information
-                    // while preserving the correct value. (as Parquet doesn't support timestamp with time zone.
-                    group.add(index, ParquetTypeConverter.getBinaryFromTimestampWithTimeZone(timestamp));
-                } else {
-                    group.add(index, ParquetTypeConverter.getBinaryFromTimestamp(timestamp));
-                }
+            case INT96:
+                group.add(index, timestampToBinary((String) field.val));
                 break;
             case BOOLEAN:
                 group.add(index, (Boolean) field.val);
@@ -206,6 +286,199 @@ public class ParquetResolver extends BasePlugin implements Resolver {
         }
     }
 
+    /**
+     * Stores a value of a {@link OneField} into a column vector the way it is
+     * decoded from Greenplum, see {@link ColumnVector.Storage#of(DataType)}.
+     */
+    private static void setValue(ColumnVector vector, int row, Object value) {
+        if (value == null) {
+            vector.setNull(row);
+        } else if (value instanceof String) {
+            vector.setString(row, (String) value);
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            vector.setBytes(row, bytes, 0, bytes.length);
+        } else if (value instanceof Boolean) {
+            vector.setLong(row, (Boolean) value ? 1 : 0);
+        } else if (value instanceof Float || value instanceof Double) {
+            vector.setDouble(row, ((Number) value).doubleValue());
+        } else {
+            vector.setLong(row, ((Number) value).longValue());
+        }
+    }
+
+    /**
+     * Initializes the functions that convert the values of each column into
+     * the batch, based on the Parquet type of the column, mirroring {@link #fillGroup}.
+     *
+     * @throws IOException if a column has a type that is not supported
+     */
+    private void ensureColumnConvertersAreInitialized() throws IOException {
+        if (columnConverters != null) {
+            return;
+        }
+        int columnCount = columnDescriptors.size();
+        columnConverters = new ColumnConverter[columnCount];
+        writeStorages = new ColumnVector.Storage[columnCount];
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            Type type = schema.getType(columnIndex);
+            boolean rightTrim = columnDescriptors.get(columnIndex).getDataType() == DataType.BPCHAR;
+            switch (type.asPrimitiveType().getPrimitiveTypeName()) {
+                case BINARY:
+                    writeStorages[columnIndex] = ColumnVector.Storage.BYTES;
+                    if (type.getLogicalTypeAnnotation() instanceof StringLogicalTypeAnnotation) {
+                        columnConverters[columnIndex] = rightTrim ? ParquetResolver::copyRightTrimmedBytes : ParquetResolver::copyBytes;
+                    } else {
+                        columnConverters[columnIndex] = ParquetResolver::copyBytes;
+                    }
+                    break;
+                case INT32:
+                    writeStorages[columnIndex] = ColumnVector.Storage.LONG;
+                    if (type.getLogicalTypeAnnotation() instanceof DateLogicalTypeAnnotation) {
+                        columnConverters[columnIndex] = (source, row, target) ->
+                                target.setLong(row, ParquetTypeConverter.getDaysFromEpochFromDateString(getString(source, row)));
+                    } else if (type.getLogicalTypeAnnotation() instanceof IntLogicalTypeAnnotation &&
+                            ((IntLogicalTypeAnnotation) type.getLogicalTypeAnnotation()).getBitWidth() == 16) {
+                        columnConverters[columnIndex] = ParquetResolver::copyLong;
+                    } else {
+                        columnConverters[columnIndex] = ParquetResolver::copyLong;
+                    }
+                    break;
+                case INT64:
+                    writeStorages[columnIndex] = ColumnVector.Storage.LONG;
+                    columnConverters[columnIndex] = ParquetResolver::copyLong;
+                    break;
+                case DOUBLE:
+                    writeStorages[columnIndex] = ColumnVector.Storage.DOUBLE;
+                    columnConverters[columnIndex] = ParquetResolver::copyDouble;
+                    break;
+                case FLOAT:
+                    writeStorages[columnIndex] = ColumnVector.Storage.DOUBLE;
+                    columnConverters[columnIndex] = ParquetResolver::copyDouble;
+                    break;
+                case FIXED_LEN_BYTE_ARRAY:
+                    writeStorages[columnIndex] = ColumnVector.Storage.BYTES;
+                    DecimalLogicalTypeAnnotation decimalType = (DecimalLogicalTypeAnnotation) type.getLogicalTypeAnnotation();
+                    columnConverters[columnIndex] = (source, row, target) ->
+                            setDecimal(target, row, getString(source, row), decimalType);
+                    break;
+                case INT96:
+                    writeStorages[columnIndex] = ColumnVector.Storage.BYTES;
+                    columnConverters[columnIndex] = (source, row, target) -> setTimestamp(target, row, getString(source, row));
+                    break;
+                case BOOLEAN:
+                    writeStorages[columnIndex] = ColumnVector.Storage.LONG;
+                    columnConverters[columnIndex] = ParquetResolver::copyLong;
+                    break;
+                default:
+                    columnConverters = null;
+                    throw new IOException("Not supported type " + type.asPrimitiveType().getPrimitiveTypeName());
+            }
+        }
+    }
+
+    private static void setDecimal(ColumnVector vector, int row, String value, DecimalLogicalTypeAnnotation decimalType) {
+        byte[] decimalBytes = decimalToBinary(value, decimalType);
+        if (decimalBytes == null) {
+            vector.setNull(row);
+        } else {
+            vector.setBytes(row, decimalBytes, 0, decimalBytes.length);
+        }
+    }
+
+    private static void setTimestamp(ColumnVector vector, int row, String value) {
+        Binary timestamp = timestampToBinary(value);
+        vector.setBytes(row, timestamp.getBytesUnsafe(), 0, timestamp.length());
+    }
+
+    private static void copyLong(ColumnVector source, int row, ColumnVector target) {
+        target.setLong(row, source.getLong(row));
+    }
+
+    private static void copyDouble(ColumnVector source, int row, ColumnVector target) {
+        target.setDouble(row, source.getDouble(row));
+    }
+
+    private static void copyBytes(ColumnVector source, int row, ColumnVector target) {
+        target.setBytes(row, source.getArena().getBuffer(), source.getOffset(row), source.getLength(row));
+    }
+
+    private static void copyRightTrimmedBytes(ColumnVector source, int row, ColumnVector target) {
+        byte[] buffer = source.getArena().getBuffer();
+        int offset = source.getOffset(row);
+        int length = source.getLength(row);
+        // the values are UTF-8 encoded, a trailing space byte is always a space character
+        while (length > 0 && buffer[offset + length - 1] == ' ') length--;
+        target.setBytes(row, buffer, offset, length);
+    }
+
+    private static String getString(ColumnVector vector, int row) {
+        return new String(vector.getArena().getBuffer(), vector.getOffset(row), vector.getLength(row), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts a numeric value to the bytes of a Parquet decimal of the given
+     * precision and scale, from
+     * org.apache.hadoop.hive.ql.io.parquet.write.DataWritableWriter.DecimalDataWriter#decimalToBinary
+     *
+     * @param value       the numeric value
+     * @param decimalType the Parquet decimal type
+     * @return the bytes of the decimal, or null if the value exceeds the precision of the type
+     */
+    private static byte[] decimalToBinary(String value, DecimalLogicalTypeAnnotation decimalType) {
+        int precision = Math.min(HiveDecimal.MAX_PRECISION, decimalType.getPrecision());
+        int scale = Math.min(HiveDecimal.MAX_SCALE, decimalType.getScale());
+        HiveDecimal hiveDecimal = HiveDecimal.enforcePrecisionScale(
+                HiveDecimal.create(value),
+                precision,
+                scale);
+
+        if (hiveDecimal == null) {
+            // When precision is higher than HiveDecimal.MAX_PRECISION
+            // and enforcePrecisionScale returns null, it means we
+            // cannot store the value in Parquet because we have
+            // exceeded the precision. To make the behavior consistent
+            // with Hive's behavior when storing on a Parquet-backed
+            // table, we store the value as null.
+            return null;
+        }
+
+        byte[] decimalBytes = hiveDecimal.bigIntegerBytesScaled(scale);
+
+        // Estimated number of bytes needed.
+        int precToBytes = ParquetFileAccessor.PRECISION_TO_BYTE_COUNT[precision - 1];
+        if (precToBytes == decimalBytes.length) {
+            // No padding needed.
+            return decimalBytes;
+        }
+        byte[] tgt = new byte[precToBytes];
+        if (hiveDecimal.signum() == -1) {
+            // For negative number, initializing bits to 1
+            for (int i = 0; i < precToBytes; i++) {
+                tgt[i] |= 0xFF;
+            }
+        }
+        System.arraycopy(decimalBytes, 0, tgt, precToBytes - decimalBytes.length, decimalBytes.length); // Padding leading zeroes/ones.
+        return tgt;
+    }
+
+    /**
+     * Converts an SQL standard timestamp string value with or without time
+     * zone literals (https://www.postgresql.org/docs/9.4/datatype-datetime.html)
+     * to a Parquet INT96 timestamp.
+     *
+     * @param timestamp the timestamp
+     * @return the INT96 timestamp
+     */
+    private static Binary timestampToBinary(String timestamp) {
+        if (TIMESTAMP_PATTERN.matcher(timestamp).find()) {
+            // Note: this conversion convert type "timestamp with time zone" will lose timezone information
+            // while preserving the correct value. (as Parquet doesn't support timestamp with time zone.
+            return ParquetTypeConverter.getBinaryFromTimestampWithTimeZone(timestamp);
+        }
+        return ParquetTypeConverter.getBinaryFromTimestamp(timestamp);
+    }
+
     // Set schema from context if null
     // TODO: Fix the bridge interface so the schema is set before get/setFields is called
     //       Then validateSchema can be done during initialize phase
@@ -256,4 +529,12 @@ public class ParquetResolver extends BasePlugin implements Resolver {
         return field;
     }
 
+    /**
+     * Converts the value at a row of a column decoded from Greenplum and sets
+     * it at the same row of the column of converted values.
+     */
+    @FunctionalInterface
+    private interface ColumnConverter {
+        void convert(ColumnVector source, int row, ColumnVector target);
+    }
 }
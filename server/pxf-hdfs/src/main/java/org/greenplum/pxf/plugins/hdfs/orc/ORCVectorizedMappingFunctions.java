@@ -15,6 +15,7 @@ import org.apache.hadoop.hive.serde2.io.HiveDecimalWritable;
 import org.apache.orc.TypeDescription;
 import org.greenplum.pxf.api.GreenplumDateTime;
 import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.batch.ColumnBatch;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.function.TriConsumer;
 import org.greenplum.pxf.api.io.DataType;
@@ -478,6 +479,270 @@ class ORCVectorizedMappingFunctions {
         return result;
     }
 
+    /**
+     * A function that resolves a ColumnVector of the ORC batch into a column of a ColumnBatch.
+     */
+    @FunctionalInterface
+    interface ColumnReader {
+        void read(VectorizedRowBatch batch, ColumnVector columnVector, ColumnBatch columnBatch, int columnIndex);
+    }
+
+    /*
+     * The functions below resolve a ColumnVector of the ORC batch into a column
+     * of a ColumnBatch, with the same values the readers above produce. A null
+     * ColumnVector (a column that is not read from the file) fills the column
+     * with nulls. Repeating vectors only hold a value at row 0.
+     */
+
+    public static void booleanColumnReader(VectorizedRowBatch batch, ColumnVector columnVector, ColumnBatch columnBatch, int columnIndex) {
+        LongColumnVector lcv = (LongColumnVector) columnVector;
+        org.greenplum.pxf.api.batch.ColumnVector target = columnBatch.getColumn(columnIndex);
+        if (lcv == null) {
+            target.setAllNull(batch.size);
+            return;
+        }
+        int m = lcv.isRepeating ? 0 : 1;
+        int rowId;
+        for (int rowIndex = 0; rowIndex < batch.size; rowIndex++) {
+            rowId = m * rowIndex;
+            if (lcv.noNulls || !lcv.isNull[rowId]) {
+                target.setLong(rowIndex, lcv.vector[rowId] == 1 ? 1 : 0);
+            } else {
+                target.setNull(rowIndex);
+            }
+        }
+    }
+
+    public static void shortColumnReader(VectorizedRowBatch batch, ColumnVector columnVector, ColumnBatch columnBatch, int columnIndex) {
+        LongColumnVector lcv = (LongColumnVector) columnVector;
+        org.greenplum.pxf.api.batch.ColumnVector target = columnBatch.getColumn(columnIndex);
+        if (lcv == null) {
+            target.setAllNull(batch.size);
+            return;
+        }
+        int m = lcv.isRepeating ? 0 : 1;
+        int rowId;
+        for (int rowIndex = 0; rowIndex < batch.size; rowIndex++) {
+            rowId = m * rowIndex;
+            if (lcv.noNulls || !lcv.isNull[rowId]) {
+                target.setLong(rowIndex, (short) lcv.vector[rowId]);
+            } else {
+                target.setNull(rowIndex);
+            }
+        }
+    }
+
+    public static void integerColumnReader(VectorizedRowBatch batch, ColumnVector columnVector, ColumnBatch columnBatch, int columnIndex) {
+        LongColumnVector lcv = (LongColumnVector) columnVector;
+        org.greenplum.pxf.api.batch.ColumnVector target = columnBatch.getColumn(columnIndex);
+        if (lcv == null) {
+            target.setAllNull(batch.size);
+            return;
+        }
+        int m = lcv.isRepeating ? 0 : 1;
+        int rowId;
+        for (int rowIndex = 0; rowIndex < batch.size; rowIndex++) {
+            rowId = m * rowIndex;
+            if (lcv.noNulls || !lcv.isNull[rowId]) {
+                target.setLong(rowIndex, (int) lcv.vector[rowId]);
+            } else {
+                target.setNull(rowIndex);
+            }
+        }
+    }
+
+    public static void longColumnReader(VectorizedRowBatch batch, ColumnVector columnVector, ColumnBatch columnBatch, int columnIndex) {
+        LongColumnVector lcv = (LongColumnVector) columnVector;
+        org.greenplum.pxf.api.batch.ColumnVector target = columnBatch.getColumn(columnIndex);
+        if (lcv == null) {
+            target.setAllNull(batch.size);
+            return;
+        }
+        int m = lcv.isRepeating ? 0 : 1;
+        int rowId;
+        for (int rowIndex = 0; rowIndex < batch.size; rowIndex++) {
+            rowId = m * rowIndex;
+            if (lcv.noNulls || !lcv.isNull[rowId]) {
+                target.setLong(rowIndex, lcv.vector[rowId]);
+            } else {
+                target.setNull(rowIndex);
+            }
+        }
+    }
+
+    public static void floatColumnReader(VectorizedRowBatch batch, ColumnVector columnVector, ColumnBatch columnBatch, int columnIndex) {
+        DoubleColumnVector dcv = (DoubleColumnVector) columnVector;
+        org.greenplum.pxf.api.batch.ColumnVector target = columnBatch.getColumn(columnIndex);
+        if (dcv == null) {
+            target.setAllNull(batch.size);
+            return;
+        }
+        int m = dcv.isRepeating ? 0 : 1;
+        int rowId;
+        for (int rowIndex = 0; rowIndex < batch.size; rowIndex++) {
+            rowId = m * rowIndex;
+            if (dcv.noNulls || !dcv.isNull[rowId]) {
+                target.setDouble(rowIndex, (float) dcv.vector[rowId]);
+            } else {
+                target.setNull(rowIndex);
+            }
+        }
+    }
+
+    public static void doubleColumnReader(VectorizedRowBatch batch, ColumnVector columnVector, ColumnBatch columnBatch, int columnIndex) {
+        DoubleColumnVector dcv = (DoubleColumnVector) columnVector;
+        org.greenplum.pxf.api.batch.ColumnVector target = columnBatch.getColumn(columnIndex);
+        if (dcv == null) {
+            target.setAllNull(batch.size);
+            return;
+        }
+        int m = dcv.isRepeating ? 0 : 1;
+        int rowId;
+        for (int rowIndex = 0; rowIndex < batch.size; rowIndex++) {
+            rowId = m * rowIndex;
+            if (dcv.noNulls || !dcv.isNull[rowId]) {
+                target.setDouble(rowIndex, dcv.vector[rowId]);
+            } else {
+                target.setNull(rowIndex);
+            }
+        }
+    }
+
+    public static void textColumnReader(VectorizedRowBatch batch, ColumnVector columnVector, ColumnBatch columnBatch, int columnIndex) {
+        bytesColumnReader(batch, columnVector, columnBatch.getColumn(columnIndex), true);
+    }
+
+    public static void binaryColumnReader(VectorizedRowBatch batch, ColumnVector columnVector, ColumnBatch columnBatch, int columnIndex) {
+        bytesColumnReader(batch, columnVector, columnBatch.getColumn(columnIndex), false);
+    }
+
+    private static void bytesColumnReader(VectorizedRowBatch batch, ColumnVector columnVector, org.greenplum.pxf.api.batch.ColumnVector target, boolean text) {
+        BytesColumnVector bcv = (BytesColumnVector) columnVector;
+        if (bcv == null) {
+            target.setAllNull(batch.size);
+            return;
+        }
+        int rows = bcv.isRepeating ? Math.min(batch.size, 1) : batch.size;
+        for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
+            if (bcv.noNulls || !bcv.isNull[rowIndex]) {
+                if (text) {
+                    target.setUtf8(rowIndex, bcv.vector[rowIndex], bcv.start[rowIndex], bcv.length[rowIndex]);
+                } else {
+                    target.setBytes(rowIndex, bcv.vector[rowIndex], bcv.start[rowIndex], bcv.length[rowIndex]);
+                }
+            } else {
+                target.setNull(rowIndex);
+            }
+        }
+        if (bcv.isRepeating) {
+            // refer to the value of the first row instead of copying it again
+            for (int rowIndex = 1; rowIndex < batch.size; rowIndex++) {
+                if (target.isNull(0)) {
+                    target.setNull(rowIndex);
+                } else {
+                    target.setSameBytes(rowIndex, 0);
+                }
+            }
+        }
+    }
+
+    public static void decimalColumnReader(VectorizedRowBatch batch, ColumnVector columnVector, ColumnBatch columnBatch, int columnIndex) {
+        DecimalColumnVector dcv = (DecimalColumnVector) columnVector;
+        org.greenplum.pxf.api.batch.ColumnVector target = columnBatch.getColumn(columnIndex);
+        if (dcv == null) {
+            target.setAllNull(batch.size);
+            return;
+        }
+        int m = dcv.isRepeating ? 0 : 1;
+        int rowId;
+        for (int rowIndex = 0; rowIndex < batch.size; rowIndex++) {
+            rowId = m * rowIndex;
+            if (dcv.noNulls || !dcv.isNull[rowId]) {
+                target.setString(rowIndex, dcv.vector[rowId].toString());
+            } else {
+                target.setNull(rowIndex);
+            }
+        }
+    }
+
+    public static void dateColumnReader(VectorizedRowBatch batch, ColumnVector columnVector, ColumnBatch columnBatch, int columnIndex) {
+        LongColumnVector lcv = (LongColumnVector) columnVector;
+        org.greenplum.pxf.api.batch.ColumnVector target = columnBatch.getColumn(columnIndex);
+        if (lcv == null) {
+            target.setAllNull(batch.size);
+            return;
+        }
+        int m = lcv.isRepeating ? 0 : 1;
+        int rowId;
+        for (int rowIndex = 0; rowIndex < batch.size; rowIndex++) {
+            rowId = m * rowIndex;
+            if (lcv.noNulls || !lcv.isNull[rowId]) {
+                LocalDate date = LocalDate.ofEpochDay(lcv.vector[rowId]);
+                // java.sql.Date prints the same digits as LocalDate for 4-digit years
+                target.setString(rowIndex, date.getYear() >= 1 && date.getYear() <= 9999
+                        ? date.toString()
+                        : Date.valueOf(date).toString());
+            } else {
+                target.setNull(rowIndex);
+            }
+        }
+    }
+
+    public static void timestampColumnReader(VectorizedRowBatch batch, ColumnVector columnVector, ColumnBatch columnBatch, int columnIndex) {
+        timestampColumnReaderHelper(batch, columnVector, columnBatch.getColumn(columnIndex), GreenplumDateTime.DATETIME_FORMATTER);
+    }
+
+    public static void timestampWithTimezoneColumnReader(VectorizedRowBatch batch, ColumnVector columnVector, ColumnBatch columnBatch, int columnIndex) {
+        timestampColumnReaderHelper(batch, columnVector, columnBatch.getColumn(columnIndex), GreenplumDateTime.DATETIME_WITH_TIMEZONE_FORMATTER);
+    }
+
+    private static void timestampColumnReaderHelper(VectorizedRowBatch batch, ColumnVector columnVector, org.greenplum.pxf.api.batch.ColumnVector target, DateTimeFormatter formatter) {
+        TimestampColumnVector tcv = (TimestampColumnVector) columnVector;
+        if (tcv == null) {
+            target.setAllNull(batch.size);
+            return;
+        }
+        int m = tcv.isRepeating ? 0 : 1;
+        int rowId;
+        for (int rowIndex = 0; rowIndex < batch.size; rowIndex++) {
+            rowId = m * rowIndex;
+            if (tcv.noNulls || !tcv.isNull[rowId]) {
+                target.setString(rowIndex, timestampToString(tcv.asScratchTimestamp(rowId), formatter));
+            } else {
+                target.setNull(rowIndex);
+            }
+        }
+    }
+
+    public static void listColumnReader(VectorizedRowBatch batch, ColumnVector columnVector, ColumnBatch columnBatch, int columnIndex) {
+        ListColumnVector listColumnVector = (ListColumnVector) columnVector;
+        org.greenplum.pxf.api.batch.ColumnVector target = columnBatch.getColumn(columnIndex);
+        if (listColumnVector == null) {
+            target.setAllNull(batch.size);
+            return;
+        }
+        int oid = target.getType().getOID();
+        // if the row is repeated, then we only need to serialize the row once.
+        int rows = listColumnVector.isRepeating ? Math.min(batch.size, 1) : batch.size;
+        for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
+            String value = serializeListRow(listColumnVector, rowIndex, oid);
+            if (value != null) {
+                target.setString(rowIndex, value);
+            } else {
+                target.setNull(rowIndex);
+            }
+        }
+        if (listColumnVector.isRepeating) {
+            for (int rowIndex = 1; rowIndex < batch.size; rowIndex++) {
+                if (target.isNull(0)) {
+                    target.setNull(rowIndex);
+                } else {
+                    target.setSameBytes(rowIndex, 0);
+                }
+            }
+        }
+    }
+
     public static TriConsumer<ColumnVector, Integer, Object> getColumnWriter(TypeDescription typeDescription, boolean timestampsInUTC) {
         TypeDescription.Category columnTypeCategory = typeDescription.getCategory();
         TriConsumer<ColumnVector, Integer, Object> writeFunction = null;
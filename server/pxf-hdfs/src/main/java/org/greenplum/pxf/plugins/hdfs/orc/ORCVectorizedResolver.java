@@ -6,8 +6,9 @@ import org.apache.orc.OrcFile;
 import org.apache.orc.TypeDescription;
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.batch.ColumnBatch;
 import org.greenplum.pxf.api.function.TriConsumer;
-import org.greenplum.pxf.api.model.ReadVectorizedResolver;
+import org.greenplum.pxf.api.model.ReadColumnBatchResolver;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.error.UnsupportedTypeException;
 import org.greenplum.pxf.api.function.TriFunction;
@@ -98,7 +99,7 @@ import static org.greenplum.pxf.plugins.hdfs.orc.ORCVectorizedAccessor.MAP_BY_PO
  * | array<binary>     | BYTEA[]        | 1001          |
  * ------------------------------------------------------
  */
-public class ORCVectorizedResolver extends BasePlugin implements ReadVectorizedResolver, WriteVectorizedResolver, Resolver {
+public class ORCVectorizedResolver extends BasePlugin implements ReadColumnBatchResolver, WriteVectorizedResolver, Resolver {
 
     private static final String UNSUPPORTED_ERR_MESSAGE = "Current operation is not supported";
     /**
@@ -112,6 +113,12 @@ public class ORCVectorizedResolver extends BasePlugin implements ReadVectorizedR
      */
     private TriFunction<VectorizedRowBatch, ColumnVector, Integer, OneField[]>[] readFunctions;
 
+    /**
+     * An array of functions that resolve ColumnVectors into columns of a ColumnBatch for READ use case.
+     * The array has the same size as the readSchema, and the functions depend on the type of the elements in the schema.
+     */
+    private ORCVectorizedMappingFunctions.ColumnReader[] columnReaders;
+
     /**
      * An array of functions that resolve Lists of OneFields into ColumnVectors for WRITE use case.
      * The array has the same size as the writeSchema, and the functions depend on the type of the elements in the schema.
@@ -211,6 +218,48 @@ public class ORCVectorizedResolver extends BasePlugin implements ReadVectorizedR
         return resolvedBatch;
     }
 
+    /**
+     * Resolves the given VectorizedRowBatch into the column batch, with the
+     * same values {@link #getFieldsForBatch(OneRow)} returns for it.
+     *
+     * @param batch       unresolved batch
+     * @param columnBatch the column batch to fill
+     */
+    @Override
+    public void resolveColumnBatch(OneRow batch, ColumnBatch columnBatch) {
+        ensureReadFunctionsAreInitialized();
+        VectorizedRowBatch vectorizedBatch = (VectorizedRowBatch) batch.getData();
+        int batchSize = vectorizedBatch.size;
+        columnBatch.reset(batchSize);
+
+        // index to the projected columns
+        int columnIndex = 0;
+        for (int i = 0; i < columnDescriptors.size(); i++) {
+            ColumnDescriptor columnDescriptor = columnDescriptors.get(i);
+            if (!columnDescriptor.isProjected()) {
+                columnBatch.getColumn(i).reset(columnDescriptor.getDataType());
+                columnBatch.getColumn(i).setAllNull(batchSize);
+                continue;
+            }
+            TypeDescription orcColumn = positionalAccess
+                    ? columnIndex < orcSchema.getChildren().size() ? orcSchema.getChildren().get(columnIndex) : null
+                    : readFields.get(columnDescriptor.columnName());
+            if (orcColumn == null) {
+                // this column is missing in the underlying ORC file, see getFieldsForBatch
+                columnBatch.getColumn(i).reset(columnDescriptor.getDataType());
+                columnBatch.getColumn(i).setAllNull(batchSize);
+            } else if (orcColumn.getCategory().isPrimitive() || orcColumn.getCategory() == TypeDescription.Category.LIST) {
+                columnBatch.getColumn(i).reset(DataType.get(typeOidMappings[columnIndex]));
+                columnReaders[columnIndex].read(vectorizedBatch, vectorizedBatch.cols[columnIndex], columnBatch, i);
+                columnIndex++;
+            } else {
+                throw new UnsupportedTypeException(
+                        String.format("Unable to resolve column '%s' with category '%s'. Only primitive and lists of primitive types are supported.",
+                                orcSchema.getFieldNames().get(columnIndex), orcColumn.getCategory()));
+            }
+        }
+    }
+
     @Override
     public int getBatchSize() {
         return VectorizedRowBatch.DEFAULT_SIZE;
@@ -292,6 +341,7 @@ public class ORCVectorizedResolver extends BasePlugin implements ReadVectorizedR
         int schemaSize = orcSchema.getChildren().size();
 
         readFunctions = new TriFunction[schemaSize];
+        columnReaders = new ORCVectorizedMappingFunctions.ColumnReader[schemaSize];
         typeOidMappings = new int[schemaSize];
 
         readFields = new HashMap<>(schemaSize);
@@ -308,63 +358,78 @@ public class ORCVectorizedResolver extends BasePlugin implements ReadVectorizedR
             switch (t.getCategory()) {
                 case BOOLEAN:
                     readFunctions[i] = ORCVectorizedMappingFunctions::booleanReader;
+                    columnReaders[i] = ORCVectorizedMappingFunctions::booleanColumnReader;
                     typeOidMappings[i] = BOOLEAN.getOID();
                     break;
                 case BYTE:
                 case SHORT:
                     readFunctions[i] = ORCVectorizedMappingFunctions::shortReader;
+                    columnReaders[i] = ORCVectorizedMappingFunctions::shortColumnReader;
                     typeOidMappings[i] = SMALLINT.getOID();
                     break;
                 case INT:
                     readFunctions[i] = ORCVectorizedMappingFunctions::integerReader;
+                    columnReaders[i] = ORCVectorizedMappingFunctions::integerColumnReader;
                     typeOidMappings[i] = INTEGER.getOID();
                     break;
                 case LONG:
                     readFunctions[i] = ORCVectorizedMappingFunctions::longReader;
+                    columnReaders[i] = ORCVectorizedMappingFunctions::longColumnReader;
                     typeOidMappings[i] = BIGINT.getOID();
                     break;
                 case FLOAT:
                     readFunctions[i] = ORCVectorizedMappingFunctions::floatReader;
+                    columnReaders[i] = ORCVectorizedMappingFunctions::floatColumnReader;
                     typeOidMappings[i] = REAL.getOID();
                     break;
                 case DOUBLE:
                     readFunctions[i] = ORCVectorizedMappingFunctions::doubleReader;
+                    columnReaders[i] = ORCVectorizedMappingFunctions::doubleColumnReader;
                     typeOidMappings[i] = FLOAT8.getOID();
                     break;
                 case STRING:
                     readFunctions[i] = ORCVectorizedMappingFunctions::textReader;
+                    columnReaders[i] = ORCVectorizedMappingFunctions::textColumnReader;
                     typeOidMappings[i] = TEXT.getOID();
                     break;
                 case DATE:
                     readFunctions[i] = ORCVectorizedMappingFunctions::dateReader;
+                    columnReaders[i] = ORCVectorizedMappingFunctions::dateColumnReader;
                     typeOidMappings[i] = DATE.getOID();
                     break;
                 case TIMESTAMP:
                     readFunctions[i] = ORCVectorizedMappingFunctions::timestampReader;
+                    columnReaders[i] = ORCVectorizedMappingFunctions::timestampColumnReader;
                     typeOidMappings[i] = TIMESTAMP.getOID();
                     break;
                 case TIMESTAMP_INSTANT:
                     readFunctions[i] = ORCVectorizedMappingFunctions::timestampWithTimezoneReader;
+                    columnReaders[i] = ORCVectorizedMappingFunctions::timestampWithTimezoneColumnReader;
                     typeOidMappings[i] = TIMESTAMP_WITH_TIME_ZONE.getOID();
                     break;
                 case BINARY:
                     readFunctions[i] = ORCVectorizedMappingFunctions::binaryReader;
+                    columnReaders[i] = ORCVectorizedMappingFunctions::binaryColumnReader;
                     typeOidMappings[i] = BYTEA.getOID();
                     break;
                 case DECIMAL:
                     readFunctions[i] = ORCVectorizedMappingFunctions::decimalReader;
+                    columnReaders[i] = ORCVectorizedMappingFunctions::decimalColumnReader;
                     typeOidMappings[i] = NUMERIC.getOID();
                     break;
                 case VARCHAR:
                     readFunctions[i] = ORCVectorizedMappingFunctions::textReader;
+                    columnReaders[i] = ORCVectorizedMappingFunctions::textColumnReader;
                     typeOidMappings[i] = VARCHAR.getOID();
                     break;
                 case CHAR:
                     readFunctions[i] = ORCVectorizedMappingFunctions::textReader;
+                    columnReaders[i] = ORCVectorizedMappingFunctions::textColumnReader;
                     typeOidMappings[i] = BPCHAR.getOID();
                     break;
                 case LIST:
                     readFunctions[i] = ORCVectorizedMappingFunctions::listReader;
+                    columnReaders[i] = ORCVectorizedMappingFunctions::listColumnReader;
                     typeOidMappings[i] = getArrayDataType(t.getChildren().get(0)).getOID();
                     break;
                 default:
@@ -0,0 +1,105 @@
+package org.greenplum.pxf.plugins.hdfs.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.greenplum.pxf.api.batch.ColumnBatch;
+import org.greenplum.pxf.api.batch.ColumnVector;
+
+import java.util.HashMap;
+
+/**
+ * Writes the rows of a {@link ColumnBatch} filled by the
+ * {@link org.greenplum.pxf.plugins.hdfs.ParquetResolver} straight to the
+ * Parquet record consumer, without creating a
+ * {@link org.apache.parquet.example.data.Group} per row. The values of the
+ * batch are already converted to the physical type of their column: booleans
+ * and integers are stored as longs, floats and doubles as doubles, and all
+ * other values as bytes.
+ * <p>
+ * Parquet writers count the records they are given to size the row groups,
+ * so the batch is passed to the writer once per row, after setting the row
+ * to write with {@link #setRow(int)}.
+ */
+public class ColumnBatchWriteSupport extends WriteSupport<ColumnBatch> {
+
+    private final MessageType schema;
+    private final String[] fieldNames;
+    private final PrimitiveTypeName[] typeNames;
+    private RecordConsumer recordConsumer;
+    private int row;
+
+    /**
+     * Creates a write support for files with the given flat schema.
+     *
+     * @param schema the schema of the file, made of primitive fields
+     */
+    public ColumnBatchWriteSupport(MessageType schema) {
+        this.schema = schema;
+        int fieldCount = schema.getFieldCount();
+        this.fieldNames = new String[fieldCount];
+        this.typeNames = new PrimitiveTypeName[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            fieldNames[i] = schema.getFieldName(i);
+            typeNames[i] = schema.getType(i).asPrimitiveType().getPrimitiveTypeName();
+        }
+    }
+
+    @Override
+    public WriteContext init(Configuration configuration) {
+        return new WriteContext(schema, new HashMap<>());
+    }
+
+    @Override
+    public void prepareForWrite(RecordConsumer recordConsumer) {
+        this.recordConsumer = recordConsumer;
+    }
+
+    /**
+     * Sets the row of the batch written by the next call to {@link #write(ColumnBatch)}.
+     *
+     * @param row the row index
+     */
+    public void setRow(int row) {
+        this.row = row;
+    }
+
+    @Override
+    public void write(ColumnBatch batch) {
+        byte[] buffer = batch.getArena().getBuffer();
+        recordConsumer.startMessage();
+        for (int i = 0; i < fieldNames.length; i++) {
+            ColumnVector column = batch.getColumn(i);
+            if (column.isNull(row)) {
+                continue;
+            }
+            recordConsumer.startField(fieldNames[i], i);
+            switch (typeNames[i]) {
+                case BOOLEAN:
+                    recordConsumer.addBoolean(column.getLong(row) != 0);
+                    break;
+                case INT32:
+                    recordConsumer.addInteger((int) column.getLong(row));
+                    break;
+                case INT64:
+                    recordConsumer.addLong(column.getLong(row));
+                    break;
+                case FLOAT:
+                    recordConsumer.addFloat((float) column.getDouble(row));
+                    break;
+                case DOUBLE:
+                    recordConsumer.addDouble(column.getDouble(row));
+                    break;
+                default:
+                    // the writer copies the bytes it keeps, such as dictionary entries and statistics
+                    recordConsumer.addBinary(Binary.fromReusedByteArray(buffer,
+                            column.getOffset(row), column.getLength(row)));
+            }
+            recordConsumer.endField(fieldNames[i], i);
+        }
+        recordConsumer.endMessage();
+    }
+}
@@ -189,6 +189,19 @@ public class HcfsTypeTest {
         assertEquals("xyz://abc/foo/bar/XID-XYZ-123456_3.gz", type.getUriForWrite(context, new GzipCodec()));
     }
 
+    @Test
+    public void testUriForWriteWithFileIndex() {
+        configuration.set("fs.defaultFS", "xyz://abc");
+        context.setDataSource("foo/bar");
+        context.setTransactionId("XID-XYZ-123456");
+        context.setSegmentId(3);
+
+        HcfsType type = HcfsType.getHcfsType(context);
+        assertEquals("xyz://abc/foo/bar/XID-XYZ-123456_3.gz", type.getUriForWrite(context, new GzipCodec(), 0));
+        assertEquals("xyz://abc/foo/bar/XID-XYZ-123456_3_2.gz", type.getUriForWrite(context, new GzipCodec(), 2));
+        assertEquals("xyz://abc/foo/bar/XID-XYZ-123456_3_1", type.getUriForWrite(context, null, 1));
+    }
+
     @Test
     public void testUriForWriteWithLzoCodec() {
         configuration.set("fs.defaultFS", "xyz://abc");
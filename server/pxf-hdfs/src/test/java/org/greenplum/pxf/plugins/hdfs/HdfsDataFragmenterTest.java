@@ -7,11 +7,18 @@ import org.greenplum.pxf.api.model.Fragmenter;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class HdfsDataFragmenterTest {
@@ -83,7 +90,39 @@ public class HdfsDataFragmenterTest {
         assertEquals(0, fragmentList.size());
     }
 
-    private Fragmenter getFragmenter(RequestContext context) {
+    @Test
+    public void testFragmentsVersionChangesWithFiles(@TempDir File directory) throws Exception {
+        File file = new File(directory, "a.csv");
+        Files.write(file.toPath(), "1,2\n".getBytes(StandardCharsets.UTF_8));
+
+        context.setConfig("default");
+        context.setUser("test-user");
+        context.setDataSource(directory.getPath());
+
+        String version = getFragmenter(context).getFragmentsVersion();
+        assertNotNull(version);
+        assertEquals(version, getFragmenter(context).getFragmentsVersion());
+
+        // a file is appended to
+        Files.write(file.toPath(), "3,4\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        String appendedVersion = getFragmenter(context).getFragmentsVersion();
+        assertNotEquals(version, appendedVersion);
+
+        // a file is added
+        Files.write(new File(directory, "b.csv").toPath(), "5,6\n".getBytes(StandardCharsets.UTF_8));
+        assertNotEquals(appendedVersion, getFragmenter(context).getFragmentsVersion());
+    }
+
+    @Test
+    public void testFragmentsVersionOfMissingPath() throws Exception {
+        context.setConfig("default");
+        context.setUser("test-user");
+        context.setDataSource("/tmp/non-existent-path-on-disk/*.csv");
+
+        assertNull(getFragmenter(context).getFragmentsVersion());
+    }
+
+    private HdfsDataFragmenter getFragmenter(RequestContext context) {
         HdfsDataFragmenter fragmenter = new HdfsDataFragmenter();
         fragmenter.setRequestContext(context);
         fragmenter.afterPropertiesSet();
@@ -1,26 +1,43 @@
 package org.greenplum.pxf.plugins.hdfs;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.GzipCodec;
+import org.apache.hadoop.util.ReflectionUtils;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.model.Accessor;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class LineBreakAccessorTest {
 
     private Accessor accessor;
     private RequestContext context;
 
+    @TempDir
+    File temp; // must be non-private
+
     @BeforeEach
     public void setup() {
         accessor = new LineBreakAccessor();
@@ -271,6 +288,118 @@ public class LineBreakAccessorTest {
         accessor.closeForRead();
     }
 
+    @Test
+    public void testWriteWithParallelGzipCompression() throws Exception {
+        accessor = new LineBreakAccessor(new SimpleAsyncTaskExecutor());
+        prepareWriteTest();
+        context.addOption("COMPRESSION_CODEC", "gzip");
+        context.addOption("COMPRESSION_THREADS", "4");
+        context.getConfiguration().set("pxf.writer.compression.block-size", "1k");
+        String data = generateRows(2000);
+
+        write(data);
+
+        File file = new File(temp, "out/XID-XYZ-123456_3.gz");
+        GzipCodec codec = ReflectionUtils.newInstance(GzipCodec.class, context.getConfiguration());
+        try (InputStream in = codec.createInputStream(new FileInputStream(file))) {
+            assertEquals(data, IOUtils.toString(in, StandardCharsets.UTF_8));
+        }
+        assertEquals(1, countDataFiles());
+    }
+
+    @Test
+    public void testWriteRollsFilesAtEndOfRecord() throws Exception {
+        prepareWriteTest();
+        context.setFormat("csv");
+        context.addOption("MAX_FILE_SIZE", "1000");
+        // quoted values with newlines must not be split across files
+        String data = IntStream.range(0, 200)
+                .mapToObj(i -> i + ",\"value\n" + i + "\"\n")
+                .collect(Collectors.joining());
+
+        write(data);
+
+        StringBuilder written = new StringBuilder();
+        for (int i = 0; ; i++) {
+            File file = new File(temp, i == 0 ? "out/XID-XYZ-123456_3" : "out/XID-XYZ-123456_3_" + i);
+            if (!file.exists()) {
+                assertTrue(i > 1);
+                break;
+            }
+            String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            assertTrue(content.length() >= 1000 || !new File(temp, "out/XID-XYZ-123456_3_" + (i + 1)).exists());
+            assertTrue(content.matches("(\\d+,\"value\\n\\d+\"\\n)+"), content);
+            written.append(content);
+        }
+        assertEquals(data, written.toString());
+    }
+
+    @Test
+    public void testWriteRollsCompressedFiles() throws Exception {
+        accessor = new LineBreakAccessor(new SimpleAsyncTaskExecutor());
+        prepareWriteTest();
+        context.addOption("COMPRESSION_CODEC", "gzip");
+        context.addOption("COMPRESSION_THREADS", "2");
+        context.addOption("MAX_FILE_SIZE", "10k");
+        context.getConfiguration().set("pxf.writer.compression.block-size", "4k");
+        String data = generateRows(2000);
+
+        write(data);
+
+        GzipCodec codec = ReflectionUtils.newInstance(GzipCodec.class, context.getConfiguration());
+        StringBuilder written = new StringBuilder();
+        int files = countDataFiles();
+        assertTrue(files > 1);
+        for (int i = 0; i < files; i++) {
+            File file = new File(temp, i == 0 ? "out/XID-XYZ-123456_3.gz" : "out/XID-XYZ-123456_3_" + i + ".gz");
+            try (InputStream in = codec.createInputStream(new FileInputStream(file))) {
+                String content = IOUtils.toString(in, StandardCharsets.UTF_8);
+                assertTrue(content.endsWith("\n"));
+                written.append(content);
+            }
+        }
+        assertEquals(data, written.toString());
+    }
+
+    @Test
+    public void testMaxFileSizeIsInvalid() {
+        prepareWriteTest();
+        context.addOption("MAX_FILE_SIZE", "foo");
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        Exception e = assertThrows(IllegalArgumentException.class, accessor::openForWrite);
+        assertEquals("Property MAX_FILE_SIZE has incorrect value foo : must be a non-negative size in bytes", e.getMessage());
+    }
+
+    private void prepareWriteTest() {
+        context.setProfileScheme("file");
+        context.getConfiguration().set("pxf.fs.basePath", "/");
+        context.setDataSource(temp + "/out/");
+        context.setTransactionId("XID-XYZ-123456");
+        context.setSegmentId(3);
+        context.setRequestType(RequestContext.RequestType.WRITE_BRIDGE);
+    }
+
+    private void write(String data) throws Exception {
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        assertTrue(accessor.openForWrite());
+        assertTrue(accessor.writeNextObject(new OneRow(null,
+                new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)))));
+        accessor.closeForWrite();
+    }
+
+    private int countDataFiles() {
+        // skip the checksum files of the local filesystem
+        return new File(temp, "out").list((dir, name) -> !name.startsWith(".")).length;
+    }
+
+    private String generateRows(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> i + "\tsome text for row " + i + "\n")
+                .collect(Collectors.joining());
+    }
+
     private void prepareTest(String resourceName) throws IOException, URISyntaxException {
         String filepath = this.getClass().getClassLoader()
                 .getResource(resourceName).toURI().toString();
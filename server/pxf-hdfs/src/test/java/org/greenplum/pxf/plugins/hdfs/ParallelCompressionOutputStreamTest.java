@@ -0,0 +1,134 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.compress.BZip2Codec;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.DefaultCodec;
+import org.apache.hadoop.io.compress.GzipCodec;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ParallelCompressionOutputStreamTest {
+
+    private Configuration configuration;
+    private ExecutorService executorService;
+    private AsyncTaskExecutor executor;
+
+    @BeforeEach
+    public void setup() {
+        configuration = new Configuration();
+        executorService = Executors.newFixedThreadPool(4);
+        executor = new TaskExecutorAdapter(executorService);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testIsSupported() {
+        assertTrue(ParallelCompressionOutputStream.isSupported(new GzipCodec()));
+        assertFalse(ParallelCompressionOutputStream.isSupported(new BZip2Codec()));
+        assertFalse(ParallelCompressionOutputStream.isSupported(new DefaultCodec()));
+    }
+
+    @Test
+    public void testGzipBlocksAreWrittenInOrder() throws IOException {
+        assertRoundTrip(ReflectionUtils.newInstance(GzipCodec.class, configuration), generateData(100_000));
+    }
+
+    @Test
+    public void testEmptyStreamIsValid() throws IOException {
+        assertRoundTrip(ReflectionUtils.newInstance(GzipCodec.class, configuration), new byte[0]);
+    }
+
+    @Test
+    public void testSingleByteWrites() throws IOException {
+        CompressionCodec codec = ReflectionUtils.newInstance(GzipCodec.class, configuration);
+        byte[] data = generateData(5000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream stream = new ParallelCompressionOutputStream(out, codec, executor, 1024, 2)) {
+            for (byte b : data) {
+                stream.write(b);
+            }
+        }
+        assertArrayEquals(data, decompress(codec, out.toByteArray()));
+    }
+
+    @Test
+    public void testBlocksRejectedByBusyExecutorAreCompressedByTheWriter() throws IOException {
+        executor = mock(AsyncTaskExecutor.class);
+        when(executor.submit(ArgumentMatchers.<Callable<ByteArrayOutputStream>>any())).thenThrow(new TaskRejectedException("all threads are busy"));
+
+        assertRoundTrip(ReflectionUtils.newInstance(GzipCodec.class, configuration), generateData(100_000));
+        verify(executor, atLeastOnce()).submit(ArgumentMatchers.<Callable<ByteArrayOutputStream>>any());
+    }
+
+    @Test
+    public void testCompressionErrorIsReported() throws IOException {
+        CompressionCodec codec = mock(CompressionCodec.class);
+        when(codec.createOutputStream(any(OutputStream.class))).thenThrow(new IOException("codec failed"));
+        ParallelCompressionOutputStream stream =
+                new ParallelCompressionOutputStream(new ByteArrayOutputStream(), codec, executor, 1024, 2);
+
+        stream.write(generateData(100));
+        Exception e = assertThrows(IOException.class, stream::finish);
+        assertEquals("codec failed", e.getMessage());
+    }
+
+    private void assertRoundTrip(CompressionCodec codec, byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream stream = new ParallelCompressionOutputStream(out, codec, executor, 4096, 8)) {
+            // write in chunks that do not line up with the blocks
+            for (int off = 0; off < data.length; off += 3000) {
+                stream.write(data, off, Math.min(3000, data.length - off));
+            }
+        }
+        assertArrayEquals(data, decompress(codec, out.toByteArray()));
+    }
+
+    private byte[] decompress(CompressionCodec codec, byte[] compressed) throws IOException {
+        try (InputStream in = codec.createInputStream(new ByteArrayInputStream(compressed))) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    private byte[] generateData(int length) {
+        // compressible data with some randomness
+        Random random = new Random(42);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return data;
+    }
+}
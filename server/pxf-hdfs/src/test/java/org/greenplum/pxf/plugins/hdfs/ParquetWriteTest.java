@@ -21,7 +21,10 @@ import org.apache.parquet.schema.PrimitiveType;
 import org.apache.parquet.schema.Type;
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.batch.ColumnBatch;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.io.GPDBWritable;
+import org.greenplum.pxf.api.io.GPDBWritableDecoder;
 import org.greenplum.pxf.api.model.Accessor;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.model.Resolver;
@@ -30,10 +33,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -1006,6 +1014,160 @@ public class ParquetWriteTest {
         fileReader.close();
     }
 
+    @Test
+    public void testWriteBatchesMatchesWriteRecords() throws Exception {
+        columnDescriptors.add(new ColumnDescriptor("b", DataType.BOOLEAN.getOID(), 0, "bool", null));
+        columnDescriptors.add(new ColumnDescriptor("bin", DataType.BYTEA.getOID(), 1, "bytea", null));
+        columnDescriptors.add(new ColumnDescriptor("big", DataType.BIGINT.getOID(), 2, "int8", null));
+        columnDescriptors.add(new ColumnDescriptor("small", DataType.SMALLINT.getOID(), 3, "int2", null));
+        columnDescriptors.add(new ColumnDescriptor("int", DataType.INTEGER.getOID(), 4, "int4", null));
+        columnDescriptors.add(new ColumnDescriptor("real", DataType.REAL.getOID(), 5, "float4", null));
+        columnDescriptors.add(new ColumnDescriptor("double", DataType.FLOAT8.getOID(), 6, "float8", null));
+        columnDescriptors.add(new ColumnDescriptor("dec", DataType.NUMERIC.getOID(), 7, "numeric", new Integer[]{5, 2}));
+        columnDescriptors.add(new ColumnDescriptor("tm", DataType.TIMESTAMP.getOID(), 8, "timestamp", null));
+        columnDescriptors.add(new ColumnDescriptor("tmz", DataType.TIMESTAMP_WITH_TIME_ZONE.getOID(), 9, "timestamptz", null));
+        columnDescriptors.add(new ColumnDescriptor("day", DataType.DATE.getOID(), 10, "date", null));
+        columnDescriptors.add(new ColumnDescriptor("c", DataType.BPCHAR.getOID(), 11, "char", new Integer[]{5}));
+        columnDescriptors.add(new ColumnDescriptor("name", DataType.TEXT.getOID(), 12, "text", null));
+
+        List<List<OneField>> records = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            List<OneField> record = new ArrayList<>();
+            record.add(new OneField(DataType.BOOLEAN.getOID(), i % 2 == 0));
+            record.add(new OneField(DataType.BYTEA.getOID(), new byte[]{(byte) i, (byte) (i >> 8)}));
+            record.add(new OneField(DataType.BIGINT.getOID(), i * 1_000_003L));
+            record.add(new OneField(DataType.SMALLINT.getOID(), (short) i));
+            record.add(new OneField(DataType.INTEGER.getOID(), -i));
+            record.add(new OneField(DataType.REAL.getOID(), i / 3.0f));
+            record.add(new OneField(DataType.FLOAT8.getOID(), i / 7.0));
+            // values that exceed the precision are written as null
+            record.add(new OneField(DataType.NUMERIC.getOID(), i % 100 == 0 ? "12345.6" : String.format("%d.%02d", -i % 1000, i % 100)));
+            record.add(new OneField(DataType.TIMESTAMP.getOID(), String.format("2020-08-%02d 04:00:05.123456", i % 28 + 1)));
+            record.add(new OneField(DataType.TIMESTAMP_WITH_TIME_ZONE.getOID(), String.format("2020-08-%02d 04:00:05+07:30", i % 28 + 1)));
+            record.add(new OneField(DataType.DATE.getOID(), String.format("2020-08-%02d", i % 28 + 1)));
+            record.add(new OneField(DataType.BPCHAR.getOID(), i % 3 == 0 ? "ab   " : "abcde"));
+            // one value in five is null, text values repeat to exercise the dictionary
+            record.add(new OneField(DataType.TEXT.getOID(), i % 5 == 0 ? null : "name \u00e9 " + (i % 50)));
+            records.add(record);
+        }
+
+        Path recordFile = writeParquet("records", "XID-XYZ-123480", records, WriteMode.RECORDS);
+        Path batchFile = writeParquet("batches", "XID-XYZ-123481", records, WriteMode.BATCHES);
+        Path columnBatchFile = writeParquet("column-batches", "XID-XYZ-123482", records, WriteMode.COLUMN_BATCHES);
+
+        validateFooter(batchFile, columnDescriptors.size(), records.size());
+        validateFooter(columnBatchFile, columnDescriptors.size(), records.size());
+        try (ParquetReader<Group> recordReader = ParquetReader.builder(new GroupReadSupport(), recordFile).withConf(configuration).build();
+             ParquetReader<Group> batchReader = ParquetReader.builder(new GroupReadSupport(), batchFile).withConf(configuration).build();
+             ParquetReader<Group> columnBatchReader = ParquetReader.builder(new GroupReadSupport(), columnBatchFile).withConf(configuration).build()) {
+            for (int i = 0; i < records.size(); i++) {
+                Group expected = recordReader.read();
+                assertEquals(expected.toString(), batchReader.read().toString(), "row " + i);
+                assertEquals(expected.toString(), columnBatchReader.read().toString(), "row " + i);
+            }
+            assertNull(recordReader.read());
+            assertNull(batchReader.read());
+            assertNull(columnBatchReader.read());
+        }
+    }
+
+    private Path writeParquet(String directory, String transactionId, List<List<OneField>> records, WriteMode mode) throws Exception {
+        RequestContext writeContext = context.copy();
+        writeContext.setDataSource(temp + "/out/" + directory + "/");
+        writeContext.setTransactionId(transactionId);
+        writeContext.setResolver(mode != WriteMode.RECORDS ? ParquetResolver.class.getName() : null);
+        writeContext.setConfiguration(new Configuration(configuration));
+
+        Accessor writeAccessor = new ParquetFileAccessor();
+        ParquetResolver writeResolver = new ParquetResolver();
+        writeAccessor.setRequestContext(writeContext);
+        writeAccessor.afterPropertiesSet();
+        writeResolver.setRequestContext(writeContext);
+        writeResolver.afterPropertiesSet();
+
+        assertTrue(writeAccessor.openForWrite());
+        if (mode == WriteMode.BATCHES) {
+            for (int start = 0; start < records.size(); start += writeResolver.getBatchSize()) {
+                List<List<OneField>> batch = records.subList(start, Math.min(records.size(), start + writeResolver.getBatchSize()));
+                assertTrue(writeAccessor.writeNextObject(writeResolver.setFieldsForBatch(batch)));
+            }
+        } else if (mode == WriteMode.COLUMN_BATCHES) {
+            // decode the records as they are sent by Greenplum
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(serializeRecords(records)));
+            GPDBWritableDecoder decoder = new GPDBWritableDecoder(StandardCharsets.UTF_8);
+            ColumnBatch columnBatch = new ColumnBatch(columnDescriptors.size(), writeResolver.getBatchSize());
+            boolean hasMore = true;
+            while (hasMore) {
+                columnBatch.reset(columnBatch.getCapacity());
+                int size = 0;
+                while (size < columnBatch.getCapacity() && (hasMore = decoder.readRecord(in))) {
+                    if (size == 0) {
+                        decoder.resetColumns(columnBatch);
+                    }
+                    decoder.copyTo(columnBatch, size++);
+                }
+                columnBatch.setSize(size);
+                if (size > 0) {
+                    assertTrue(writeAccessor.writeNextObject(writeResolver.setFieldsForColumnBatch(columnBatch)));
+                }
+            }
+        } else {
+            for (List<OneField> record : records) {
+                // copy the fields, the resolver trims char values in place
+                List<OneField> copy = new ArrayList<>();
+                record.forEach(field -> copy.add(new OneField(field.type, field.val)));
+                assertTrue(writeAccessor.writeNextObject(writeResolver.setFields(copy)));
+            }
+        }
+        writeAccessor.closeForWrite();
+
+        Path file = new Path(HcfsType.FILE.getUriForWrite(writeContext) + ".snappy.parquet");
+        assertTrue(file.getFileSystem(configuration).exists(file));
+        return file;
+    }
+
+    private byte[] serializeRecords(List<List<OneField>> records) throws IOException {
+        int[] columnTypes = new int[columnDescriptors.size()];
+        for (int i = 0; i < columnTypes.length; i++) {
+            columnTypes[i] = columnDescriptors.get(i).columnTypeCode();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream dataOut = new DataOutputStream(out);
+        for (List<OneField> record : records) {
+            GPDBWritable writable = new GPDBWritable(columnTypes, StandardCharsets.UTF_8);
+            for (int i = 0; i < columnTypes.length; i++) {
+                Object value = record.get(i).val;
+                switch (DataType.get(columnTypes[i])) {
+                    case BOOLEAN:
+                        writable.setBoolean(i, (Boolean) value);
+                        break;
+                    case BYTEA:
+                        writable.setBytes(i, (byte[]) value);
+                        break;
+                    case BIGINT:
+                        writable.setLong(i, (Long) value);
+                        break;
+                    case SMALLINT:
+                        writable.setShort(i, (Short) value);
+                        break;
+                    case INTEGER:
+                        writable.setInt(i, (Integer) value);
+                        break;
+                    case REAL:
+                        writable.setFloat(i, (Float) value);
+                        break;
+                    case FLOAT8:
+                        writable.setDouble(i, (Double) value);
+                        break;
+                    default:
+                        writable.setString(i, (String) value);
+                }
+            }
+            writable.write(dataOut);
+        }
+        return out.toByteArray();
+    }
+
     private MessageType validateFooter(Path parquetFile) throws IOException {
         return validateFooter(parquetFile, 1, 10);
     }
@@ -1033,4 +1195,8 @@ public class ParquetWriteTest {
             return metadata.getSchema();
         }
     }
+
+    private enum WriteMode {
+        RECORDS, BATCHES, COLUMN_BATCHES
+    }
 }
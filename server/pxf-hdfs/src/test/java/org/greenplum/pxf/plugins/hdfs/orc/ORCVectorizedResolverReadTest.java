@@ -13,6 +13,7 @@ import org.apache.orc.impl.SchemaEvolution;
 import org.greenplum.pxf.api.GreenplumDateTime;
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.batch.ColumnBatch;
 import org.greenplum.pxf.api.error.UnsupportedTypeException;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.model.RequestContext;
@@ -21,16 +22,20 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -328,6 +333,62 @@ class ORCVectorizedResolverReadTest extends ORCVectorizedBaseTest {
         assertDataReturned(ORC_TYPES_DATASET, fields);
     }
 
+    @Test
+    public void testResolveColumnBatchPrimitive() throws IOException {
+        TypeDescription schema = TypeDescription.fromString(ORC_TYPES_SCHEMA);
+        assertColumnBatchMatchesFields(schema, "orc_types.orc", 25);
+    }
+
+    @Test
+    public void testResolveColumnBatchPrimitiveWithProjection() throws IOException {
+        IntStream.range(0, columnDescriptors.size()).forEach(idx ->
+                columnDescriptors
+                        .get(idx)
+                        .setProjected(idx == 1 || idx == 2 || idx == 5 || idx == 6 || idx == 7 || idx == 10 || idx == 14));
+        TypeDescription schema = TypeDescription.fromString("struct<t2:string,num1:int,tm:timestamp,tmtz: timestamp with local time zone,r:float,tn:tinyint,c1:char(3)>");
+        assertColumnBatchMatchesFields(schema, "orc_types.orc", 25);
+    }
+
+    @Test
+    public void testResolveColumnBatchPrimitiveUnorderedSubset() throws IOException {
+        TypeDescription schema = TypeDescription.fromString(ORC_TYPES_SCHEMA);
+        assertColumnBatchMatchesFields(schema, "orc_types_unordered_subset.orc", 17);
+    }
+
+    @Test
+    public void testResolveColumnBatchRepeatedPrimitive() throws IOException {
+        TypeDescription schema = TypeDescription.fromString(ORC_TYPES_SCHEMA);
+        assertColumnBatchMatchesFields(schema, "orc_types_repeated.orc", 3);
+    }
+
+    @Test
+    public void testResolveColumnBatchCompound() throws IOException {
+        context.setTupleDescription(columnDescriptorsCompound);
+        TypeDescription schema = TypeDescription.fromString(ORC_TYPES_SCHEMA_COMPOUND);
+        assertColumnBatchMatchesFields(schema, "orc_types_compound.orc", 6);
+    }
+
+    @Test
+    public void testResolveColumnBatchMultipleBatches() throws IOException {
+        TypeDescription schema = TypeDescription.fromString(ORC_TYPES_SCHEMA);
+        context.setMetadata(schema);
+
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        List<VectorizedRowBatch> batches = readBatchesFromOrcFile("orc_types.orc", 24, 2, schema);
+
+        // the column batch is reused for both batches
+        ColumnBatch columnBatch = new ColumnBatch(columnDescriptors.size(), 16);
+        for (VectorizedRowBatch batch : batches) {
+            OneRow batchOfRows = new OneRow(batch);
+            resolver.resolveColumnBatch(batchOfRows, columnBatch);
+            assertColumnBatchEquals(resolver.getFieldsForBatch(batchOfRows), columnBatch);
+        }
+        assertEquals(1, columnBatch.getSize());
+        assertEquals(24, columnBatch.getCapacity());
+    }
+
     @Test
     public void testUnsupportedFunctionality() {
         Exception e = assertThrows(UnsupportedOperationException.class, () -> resolver.getFields(new OneRow()));
@@ -337,6 +398,60 @@ class ORCVectorizedResolverReadTest extends ORCVectorizedBaseTest {
         assertEquals("Current operation is not supported", e.getMessage());
     }
 
+    private void assertColumnBatchMatchesFields(TypeDescription schema, String filename, int expectedSize) throws IOException {
+        context.setMetadata(schema);
+
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        VectorizedRowBatch batch = readOrcFile(filename, expectedSize, schema);
+
+        OneRow batchOfRows = new OneRow(batch);
+        ColumnBatch columnBatch = new ColumnBatch(context.getTupleDescription().size(), expectedSize);
+        resolver.resolveColumnBatch(batchOfRows, columnBatch);
+        assertEquals(expectedSize, columnBatch.getSize());
+
+        assertColumnBatchEquals(resolver.getFieldsForBatch(batchOfRows), columnBatch);
+    }
+
+    private void assertColumnBatchEquals(List<List<OneField>> fieldsForBatch, ColumnBatch columnBatch) {
+        assertEquals(fieldsForBatch.size(), columnBatch.getSize());
+        byte[] arena = columnBatch.getArena().getBuffer();
+        for (int row = 0; row < fieldsForBatch.size(); row++) {
+            List<OneField> fields = fieldsForBatch.get(row);
+            assertEquals(fields.size(), columnBatch.getColumnCount());
+            for (int col = 0; col < fields.size(); col++) {
+                OneField field = fields.get(col);
+                org.greenplum.pxf.api.batch.ColumnVector column = columnBatch.getColumn(col);
+                String location = "row " + row + ", column " + col;
+                assertEquals(DataType.get(field.type), column.getType(), location);
+                if (field.val == null) {
+                    assertTrue(column.isNull(row), location);
+                    continue;
+                }
+                assertFalse(column.isNull(row), location);
+                switch (column.getStorage()) {
+                    case LONG:
+                        long expectedLong = field.val instanceof Boolean
+                                ? ((Boolean) field.val ? 1 : 0)
+                                : ((Number) field.val).longValue();
+                        assertEquals(expectedLong, column.getLong(row), location);
+                        break;
+                    case DOUBLE:
+                        assertEquals(((Number) field.val).doubleValue(), column.getDouble(row), location);
+                        break;
+                    default:
+                        byte[] value = Arrays.copyOfRange(arena, column.getOffset(row), column.getOffset(row) + column.getLength(row));
+                        if (field.val instanceof byte[]) {
+                            assertArrayEquals((byte[]) field.val, value, location);
+                        } else {
+                            assertEquals(field.val.toString(), new String(value, StandardCharsets.UTF_8), location);
+                        }
+                }
+            }
+        }
+    }
+
     private void assertDataReturned(Object[][] expected, List<List<OneField>> fieldsForBatch) {
         for (int rowNum = 0; rowNum < fieldsForBatch.size(); rowNum++) {
             List<OneField> row = fieldsForBatch.get(rowNum);
@@ -28,6 +28,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.security.PrivilegedExceptionAction;
@@ -35,6 +37,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.FILE_OUTPUT_FORMAT;
 import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.META_TABLE_LOCATION;
@@ -56,6 +60,7 @@ public class HiveClientWrapper {
     private HiveClientFactory hiveClientFactory;
     private HiveUtilities hiveUtilities;
     private SecureLogin secureLogin;
+    private MetaStoreClientPool metaStoreClientPool;
 
     /**
      * Sets the {@link HiveClientFactory} object
@@ -87,13 +92,59 @@ public class HiveClientWrapper {
         this.secureLogin = secureLogin;
     }
 
+    /**
+     * Sets the {@link MetaStoreClientPool} object
+     *
+     * @param metaStoreClientPool the metastore client pool object
+     */
+    @Autowired
+    public void setMetaStoreClientPool(MetaStoreClientPool metaStoreClientPool) {
+        this.metaStoreClientPool = metaStoreClientPool;
+    }
+
     /**
      * Initializes the IMetaStoreClient
      * Uses classpath configuration files to locate the MetaStore
+     * <p>
+     * When the metastore clients are pooled, an idle client of the server and
+     * user is reused, and closing the returned holder returns its client to
+     * the pool, unless a call of the client failed, in which case the client
+     * is closed as its connection may be broken.
      *
      * @return initialized client
      */
     public MetaStoreClientHolder initHiveClient(RequestContext context, Configuration configuration) {
+        if (metaStoreClientPool == null || !metaStoreClientPool.isEnabled()) {
+            return createHiveClient(context, configuration);
+        }
+
+        String poolKey = String.format("%s:%s:%s", context.getConfig(), context.getServerName(), context.getUser());
+        IMetaStoreClient client = metaStoreClientPool.borrow(poolKey);
+        if (client == null) {
+            client = createHiveClient(context, configuration).getClient();
+        }
+        IMetaStoreClient pooledClient = client;
+        AtomicBoolean failed = new AtomicBoolean();
+        IMetaStoreClient trackedClient = (IMetaStoreClient) Proxy.newProxyInstance(IMetaStoreClient.class.getClassLoader(),
+                new Class<?>[]{IMetaStoreClient.class}, (proxy, method, args) -> {
+                    try {
+                        return method.invoke(pooledClient, args);
+                    } catch (InvocationTargetException e) {
+                        failed.set(true);
+                        throw e.getCause();
+                    }
+                });
+        return new MetaStoreClientHolder(trackedClient, c -> {
+            if (failed.get()) {
+                LOG.debug("Closing metastore client for {} after a failed call", poolKey);
+                pooledClient.close();
+            } else {
+                metaStoreClientPool.release(poolKey, pooledClient);
+            }
+        });
+    }
+
+    private MetaStoreClientHolder createHiveClient(RequestContext context, Configuration configuration) {
         HiveConf hiveConf = getHiveConf(configuration);
         try {
             if (Utilities.isSecurityEnabled(configuration)) {
@@ -404,13 +455,25 @@ public class HiveClientWrapper {
      */
     public static class MetaStoreClientHolder implements AutoCloseable {
         private final IMetaStoreClient client;
+        private final Consumer<IMetaStoreClient> releaser;
 
         /**
          * Creates a new holder of the provided Metastore client.
          * @param client a client to hold
          */
         MetaStoreClientHolder(IMetaStoreClient client) {
+            this(client, IMetaStoreClient::close);
+        }
+
+        /**
+         * Creates a new holder of the provided Metastore client, that gives the
+         * client to the releaser when closed instead of closing it.
+         * @param client   a client to hold
+         * @param releaser releases the client once it is no longer used
+         */
+        MetaStoreClientHolder(IMetaStoreClient client, Consumer<IMetaStoreClient> releaser) {
             this.client = client;
+            this.releaser = releaser;
         }
 
         /**
@@ -423,7 +486,7 @@ public class HiveClientWrapper {
 
         @Override
         public void close() {
-            client.close();
+            releaser.accept(client);
         }
     }
 }
@@ -33,6 +33,8 @@ import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputFormat;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.greenplum.pxf.api.configuration.PxfServerProperties;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.filter.FilterParser;
 import org.greenplum.pxf.api.filter.Node;
@@ -49,7 +51,12 @@ import org.greenplum.pxf.plugins.hive.utilities.HiveUtilities;
 import org.greenplum.pxf.plugins.hive.utilities.ProfileFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 
+import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -57,6 +64,12 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -78,6 +91,10 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
 
     public static final String HIVE_PARTITIONS_DELIM = "!HPAD!";
     public static final String PXF_META_TABLE_PARTITION_COLUMN_VALUES = "pxf.pcv";
+    public static final String PXF_HIVE_FRAGMENTER_THREADS = "pxf.hive.fragmenter.threads";
+    public static final int PXF_HIVE_FRAGMENTER_THREADS_DEFAULT = 1;
+    public static final String PXF_HIVE_PARTITION_PAGE_SIZE = "pxf.hive.metastore.partition-page-size";
+    public static final int PXF_HIVE_PARTITION_PAGE_SIZE_DEFAULT = 0;
 
     static final EnumSet<Operator> SUPPORTED_OPERATORS =
             EnumSet.of(
@@ -97,19 +114,38 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
     protected final HiveUtilities hiveUtilities;
 
     private final HiveClientWrapper hiveClientWrapper;
+    private final HiveMetadataCache metadataCache;
+    // threads computing the splits of the partitions, shared by all queries; each query
+    // uses at most pxf.hive.fragmenter.threads of them
+    private AsyncTaskExecutor splitExecutor;
 
     // Data structure to hold hive partition names if exist, to be used by
     // partition filtering
     private final Set<String> setPartitions = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
     private final Map<String, String> partitionKeyTypes = new HashMap<>();
 
+    private int splitThreads;
+    private int partitionPageSize;
+
     public HiveDataFragmenter() {
-        this(SpringContext.getBean(HiveUtilities.class), SpringContext.getBean(HiveClientWrapper.class));
+        this(SpringContext.getBean(HiveUtilities.class), SpringContext.getBean(HiveClientWrapper.class),
+                SpringContext.getBean(HiveMetadataCache.class));
     }
 
     HiveDataFragmenter(HiveUtilities hiveUtilities, HiveClientWrapper hiveClientWrapper) {
+        this(hiveUtilities, hiveClientWrapper, null);
+    }
+
+    HiveDataFragmenter(HiveUtilities hiveUtilities, HiveClientWrapper hiveClientWrapper, HiveMetadataCache metadataCache) {
+        this(hiveUtilities, hiveClientWrapper, metadataCache, null);
+    }
+
+    HiveDataFragmenter(HiveUtilities hiveUtilities, HiveClientWrapper hiveClientWrapper, HiveMetadataCache metadataCache,
+                       AsyncTaskExecutor splitExecutor) {
         this.hiveClientWrapper = hiveClientWrapper;
         this.hiveUtilities = hiveUtilities;
+        this.metadataCache = metadataCache;
+        this.splitExecutor = splitExecutor;
     }
 
     /**
@@ -118,6 +154,8 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
     @Override
     public void afterPropertiesSet() {
         super.afterPropertiesSet();
+        splitThreads = configuration.getInt(PXF_HIVE_FRAGMENTER_THREADS, PXF_HIVE_FRAGMENTER_THREADS_DEFAULT);
+        partitionPageSize = configuration.getInt(PXF_HIVE_PARTITION_PAGE_SIZE, PXF_HIVE_PARTITION_PAGE_SIZE_DEFAULT);
     }
 
     /**
@@ -133,13 +171,27 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
         return fragments;
     }
 
+    /**
+     * Returns null, the fragments of a Hive table depend on its metadata and
+     * partitions in the metastore, which the version of the data source of
+     * {@link HdfsDataFragmenter} does not cover.
+     */
+    @Override
+    public String getFragmentsVersion() {
+        return null;
+    }
+
     /*
      * Goes over the table partitions metadata and extracts the splits and the
      * InputFormat and Serde per split.
      */
     private void fetchTableMetaData(Metadata.Item tblDesc, IMetaStoreClient client) throws Exception {
 
-        Table tbl = hiveClientWrapper.getHiveTable(client, tblDesc);
+        // the metadata a user is allowed to see may differ from the metadata of other users
+        String cacheKey = String.format("%s:%s:%s", context.getConfig(), context.getServerName(), context.getUser());
+        Table tbl = metadataCache == null
+                ? hiveClientWrapper.getHiveTable(client, tblDesc)
+                : metadataCache.getTable(cacheKey, client, tblDesc, () -> hiveClientWrapper.getHiveTable(client, tblDesc));
 
         Metadata metadata = new Metadata(tblDesc);
         hiveClientWrapper.getSchema(tbl, metadata);
@@ -191,8 +243,9 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
             // API call to Hive MetaStore, will return a List of all the
             // partitions for this table, that matches the partition filters
             // Defined in filterStringForHive.
-            partitions = client.listPartitionsByFilter(tblDesc.getPath(),
-                    tblDesc.getName(), filterStringForHive, ALL_PARTS);
+            String filter = filterStringForHive;
+            partitions = getPartitions(cacheKey, client, tbl, filter, () -> client.listPartitionsByFilter(tblDesc.getPath(),
+                    tblDesc.getName(), filter, ALL_PARTS));
 
             // No matched partitions for the filter, no fragments to return.
             if (partitions == null || partitions.isEmpty()) {
@@ -208,8 +261,7 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
         } else {
             // API call to Hive MetaStore, will return a List of all the
             // partitions for this table (no filtering)
-            partitions = client.listPartitions(tblDesc.getPath(),
-                    tblDesc.getName(), ALL_PARTS);
+            partitions = getPartitions(cacheKey, client, tbl, "", () -> listPartitions(client, tblDesc));
         }
 
         StorageDescriptor descTable = tbl.getSd();
@@ -221,16 +273,48 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
         } else {
             List<FieldSchema> partitionKeys = tbl.getPartitionKeys();
 
+            List<HiveTablePartition> tablePartitions = new ArrayList<>(partitions.size());
             for (Partition partition : partitions) {
                 StorageDescriptor descPartition = partition.getSd();
                 props = MetaStoreUtils.getSchema(descPartition, descTable,
                         null,
                         tblDesc.getPath(), tblDesc.getName(),
                         partitionKeys);
-                fetchMetaDataForPartitionedTable(descPartition, props, partition,
-                        partitionKeys, tblDesc.getName(), hasComplexTypes);
+                tablePartitions.add(new HiveTablePartition(descPartition, props, partition,
+                        partitionKeys, tblDesc.getName()));
             }
+            fetchMetaData(tablePartitions, hasComplexTypes);
+        }
+    }
+
+    /*
+     * Returns the partitions of the table matching the filter, from the
+     * metadata cache when it holds them
+     */
+    private List<Partition> getPartitions(String cacheKey, IMetaStoreClient client, Table tbl, String filter,
+                                          Callable<List<Partition>> loader) throws Exception {
+        return metadataCache == null ? loader.call() : metadataCache.getPartitions(cacheKey, client, tbl, filter, loader);
+    }
+
+    /*
+     * Lists all the partitions of the table. When paging is enabled, the names
+     * of the partitions are listed first and the partitions are then fetched in
+     * pages, so that a single metastore call does not return all of them.
+     */
+    private List<Partition> listPartitions(IMetaStoreClient client, Metadata.Item tblDesc) throws Exception {
+        if (partitionPageSize <= 0) {
+            return client.listPartitions(tblDesc.getPath(), tblDesc.getName(), ALL_PARTS);
+        }
+
+        List<String> names = client.listPartitionNames(tblDesc.getPath(), tblDesc.getName(), ALL_PARTS);
+        List<Partition> partitions = new ArrayList<>(names.size());
+        for (int start = 0; start < names.size(); start += partitionPageSize) {
+            List<String> page = names.subList(start, Math.min(start + partitionPageSize, names.size()));
+            partitions.addAll(client.getPartitionsByNames(tblDesc.getPath(), tblDesc.getName(), page));
         }
+        LOG.debug("Table - {}.{} listed {} partitions in pages of {}",
+                tblDesc.getPath(), tblDesc.getName(), partitions.size(), partitionPageSize);
+        return partitions;
     }
 
     /**
@@ -279,21 +363,112 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
                 tableName), hasComplexTypes);
     }
 
-    private void fetchMetaDataForPartitionedTable(StorageDescriptor stdsc,
-                                                  Properties props,
-                                                  Partition partition,
-                                                  List<FieldSchema> partitionKeys,
-                                                  String tableName,
-                                                  boolean hasComplexTypes)
+    /* Fills a table partition */
+    private void fetchMetaData(HiveTablePartition tablePartition, boolean hasComplexTypes)
             throws Exception {
-        fetchMetaData(new HiveTablePartition(stdsc, props, partition, partitionKeys, tableName),
-                hasComplexTypes);
+        fragments.addAll(getPartitionFragments(tablePartition, hasComplexTypes, getJobConf()));
     }
 
-    /* Fills a table partition */
-    private void fetchMetaData(HiveTablePartition tablePartition, boolean hasComplexTypes)
+    /*
+     * Fills the partitions of a table, in the order of the partitions. The
+     * splits of up to pxf.hive.fragmenter.threads partitions are computed
+     * concurrently, as the user of the request, each thread with its own copy
+     * of the job configuration. The calling thread is one of them, and it
+     * computes the splits alone when the shared pool has no thread to spare.
+     */
+    private void fetchMetaData(List<HiveTablePartition> tablePartitions, boolean hasComplexTypes)
+            throws Exception {
+        int threads = Math.min(splitThreads, tablePartitions.size());
+        if (threads <= 1) {
+            for (HiveTablePartition tablePartition : tablePartitions) {
+                fetchMetaData(tablePartition, hasComplexTypes);
+            }
+            return;
+        }
+
+        if (splitExecutor == null) {
+            splitExecutor = SpringContext.getBean(PxfServerProperties.PLUGIN_TASK_EXECUTOR, AsyncTaskExecutor.class);
+        }
+
+        UserGroupInformation ugi = UserGroupInformation.getCurrentUser();
+        AtomicInteger nextPartition = new AtomicInteger();
+        AtomicReferenceArray<List<Fragment>> partitionFragments = new AtomicReferenceArray<>(tablePartitions.size());
+        List<Future<Void>> workers = new ArrayList<>(threads - 1);
+        for (int i = 1; i < threads; i++) {
+            JobConf jobConf = new JobConf(getJobConf());
+            try {
+                workers.add(splitExecutor.submit(() -> ugi.doAs((PrivilegedExceptionAction<Void>) () -> {
+                    fetchPartitionFragments(tablePartitions, nextPartition, partitionFragments, hasComplexTypes, jobConf);
+                    return null;
+                })));
+            } catch (TaskRejectedException e) {
+                LOG.debug("No more threads are available to compute the splits of the partitions");
+                break;
+            }
+        }
+        LOG.debug("Computing the splits of {} partitions with {} threads", tablePartitions.size(), workers.size() + 1);
+
+        try {
+            fetchPartitionFragments(tablePartitions, nextPartition, partitionFragments, hasComplexTypes, new JobConf(getJobConf()));
+            for (Future<Void> worker : workers) {
+                worker.get();
+            }
+        } catch (Exception e) {
+            // stop the other workers from picking up more partitions
+            nextPartition.set(tablePartitions.size());
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            Exception failure = cause instanceof Exception ? (Exception) cause : e;
+            // the workers access the file system as the current user, they must not outlive the request
+            awaitWorkers(workers, failure);
+            throw failure;
+        }
+
+        for (int i = 0; i < tablePartitions.size(); i++) {
+            fragments.addAll(partitionFragments.get(i));
+        }
+    }
+
+    /*
+     * Waits for the workers to finish the partitions they are working on after
+     * the given failure, cancelling them if the calling thread is interrupted.
+     * The failures of the other workers are added to the given one.
+     */
+    private void awaitWorkers(List<Future<Void>> workers, Exception failure) {
+        try {
+            if (failure instanceof InterruptedException) {
+                throw (InterruptedException) failure;
+            }
+            for (Future<Void> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() != failure) {
+                        failure.addSuppressed(e.getCause());
+                    }
+                } catch (CancellationException ignored) {
+                    // the worker was cancelled before it ran
+                }
+            }
+        } catch (InterruptedException e) {
+            LOG.debug("Interrupted while computing the splits of the partitions, cancelling the workers");
+            workers.forEach(worker -> worker.cancel(true));
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* Fills the partitions not taken by the other threads yet */
+    private void fetchPartitionFragments(List<HiveTablePartition> tablePartitions, AtomicInteger nextPartition,
+                                         AtomicReferenceArray<List<Fragment>> partitionFragments,
+                                         boolean hasComplexTypes, JobConf jobConf) throws Exception {
+        int index;
+        while ((index = nextPartition.getAndIncrement()) < tablePartitions.size()) {
+            partitionFragments.set(index, getPartitionFragments(tablePartitions.get(index), hasComplexTypes, jobConf));
+        }
+    }
+
+    /* Returns the fragments of a table partition */
+    private List<Fragment> getPartitionFragments(HiveTablePartition tablePartition, boolean hasComplexTypes, JobConf jobConf)
             throws Exception {
-        JobConf jobConf = getJobConf();
         InputFormat<?, ?> fformat = hiveUtilities.makeInputFormat(tablePartition.storageDesc.getInputFormat(), jobConf);
         String profile = null;
         String userProfile = context.getProfile();
@@ -316,7 +491,7 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
             splits = fformat.getSplits(jobConf, 1);
         } catch (org.apache.hadoop.mapred.InvalidInputException e) {
             LOG.debug("getSplits failed on " + e.getMessage());
-            return;
+            return Collections.emptyList();
         }
 
         // the same properties object will be reused by all fragments (splits) for a given partition
@@ -324,14 +499,16 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
         // when there are a lot of splits (files) backing up the Hive table (partition).
         // Care must be taken by fragment processors to not modify this object or make a clone of it, if needed.
         Properties properties = hiveClientWrapper.buildFragmentProperties(fragmenterForProfile, tablePartition);
+        List<Fragment> splitFragments = new ArrayList<>(splits.length);
         for (InputSplit split : splits) {
             FileSplit fileSplit = (FileSplit) split;
             String filepath = fileSplit.getPath().toString();
 
             HiveFragmentMetadata metadata = new HiveFragmentMetadata(fileSplit, properties);
             Fragment fragment = new Fragment(filepath, metadata, profile);
-            fragments.add(fragment);
+            splitFragments.add(fragment);
         }
+        return splitFragments;
     }
 
     /**
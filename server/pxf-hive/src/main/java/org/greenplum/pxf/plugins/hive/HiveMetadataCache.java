@@ -0,0 +1,212 @@
+package org.greenplum.pxf.plugins.hive;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.hadoop.hive.metastore.IMetaStoreClient;
+import org.apache.hadoop.hive.metastore.api.NotificationEvent;
+import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.hadoop.hive.metastore.api.Table;
+import org.apache.hadoop.hive.metastore.api.hive_metastoreConstants;
+import org.apache.thrift.TException;
+import org.greenplum.pxf.api.model.Metadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the tables and partition lists fetched from the Hive metastore
+ * across queries, so that a burst of queries on a table does not fetch the
+ * same metadata from the metastore again and again. The entries are kept
+ * per server and user, as the metastore may authorize users differently.
+ * <p>
+ * The entries expire after a configurable time and the cache is bounded by
+ * the number of tables and the total number of partitions it holds. Before
+ * a cached entry is used, it is validated with one of the following methods:
+ * <ul>
+ * <li>{@code ddl-time}: the table is fetched from the metastore for every
+ * query and the cached partitions are used while the
+ * {@code transient_lastDdlTime} of the table is unchanged. Partitions added
+ * or dropped without altering the table are seen once the entry expires.</li>
+ * <li>{@code notification}: the cached table and partitions are used while the
+ * metastore has not recorded a notification event for the table. This requires
+ * the metastore to be configured with the {@code DbNotificationListener}.</li>
+ * </ul>
+ */
+@Component
+public class HiveMetadataCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HiveMetadataCache.class);
+
+    static final String INVALIDATION_DDL_TIME = "ddl-time";
+    static final String INVALIDATION_NOTIFICATION = "notification";
+
+    // the number of notification events read to find the events of a table,
+    // the entry is considered as changed when more events have been recorded
+    static final int MAX_NOTIFICATION_EVENTS = 1000;
+
+    private final boolean enabled;
+    private final boolean notificationInvalidation;
+    private final Cache<List<String>, CachedTable> tables;
+    private final Cache<List<String>, CachedPartitions> partitions;
+
+    public HiveMetadataCache(@Value("${pxf.hive.metastore-cache.enabled:false}") boolean enabled,
+                             @Value("${pxf.hive.metastore-cache.max-tables:10000}") long maxTables,
+                             @Value("${pxf.hive.metastore-cache.max-partitions:1000000}") long maxPartitions,
+                             @Value("${pxf.hive.metastore-cache.expiration:10m}") Duration expiration,
+                             @Value("${pxf.hive.metastore-cache.invalidation:ddl-time}") String invalidation) {
+        if (!INVALIDATION_DDL_TIME.equals(invalidation) && !INVALIDATION_NOTIFICATION.equals(invalidation)) {
+            throw new IllegalArgumentException(String.format(
+                    "Property pxf.hive.metastore-cache.invalidation has incorrect value %s : must be either '%s' or '%s'",
+                    invalidation, INVALIDATION_DDL_TIME, INVALIDATION_NOTIFICATION));
+        }
+        this.enabled = enabled;
+        this.notificationInvalidation = INVALIDATION_NOTIFICATION.equals(invalidation);
+        if (enabled) {
+            LOG.info("Caching Hive metadata for up to {} tables and {} partitions with entry expiration of {} ms and {} invalidation",
+                    maxTables, maxPartitions, expiration.toMillis(), invalidation);
+        }
+
+        tables = CacheBuilder.newBuilder()
+                .maximumSize(maxTables)
+                .expireAfterWrite(expiration.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        partitions = CacheBuilder.newBuilder()
+                .maximumWeight(maxPartitions)
+                .weigher((List<String> key, CachedPartitions value) -> Math.max(1, value.partitions.size()))
+                .expireAfterWrite(expiration.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Returns the table, from the cache when it is still valid, otherwise
+     * from the given loader.
+     *
+     * @param cacheKey the key of the server, metastore and user the table is fetched for
+     * @param client   the metastore client
+     * @param item     the name of the table
+     * @param loader   fetches the table from the metastore
+     * @return the table
+     * @throws Exception when the table cannot be fetched
+     */
+    public Table getTable(String cacheKey, IMetaStoreClient client, Metadata.Item item, Callable<Table> loader) throws Exception {
+        // with ddl-time invalidation the table is the version the cached partitions are checked against
+        if (!enabled || !notificationInvalidation) {
+            return loader.call();
+        }
+
+        List<String> key = Arrays.asList(cacheKey, item.getPath(), item.getName());
+        CachedTable cached = tables.getIfPresent(key);
+        if (cached != null) {
+            long eventId = getUnchangedEventId(client, item.getPath(), item.getName(), cached.eventId);
+            if (eventId >= 0) {
+                LOG.debug("Using cached metadata of table {}", item);
+                cached.eventId = eventId;
+                return cached.table;
+            }
+        }
+
+        // events recorded while the table is loaded invalidate the entry
+        long eventId = client.getCurrentNotificationEventId().getEventId();
+        Table table = loader.call();
+        tables.put(key, new CachedTable(table, eventId));
+        return table;
+    }
+
+    /**
+     * Returns the partitions of the table that match the filter, from the
+     * cache when they are still valid, otherwise from the given loader.
+     *
+     * @param cacheKey the key of the server, metastore and user the partitions are fetched for
+     * @param client   the metastore client
+     * @param table    the table
+     * @param filter   the filter of the partitions, empty for all partitions
+     * @param loader   fetches the partitions from the metastore
+     * @return the partitions
+     * @throws Exception when the partitions cannot be fetched
+     */
+    public List<Partition> getPartitions(String cacheKey, IMetaStoreClient client, Table table, String filter,
+                                         Callable<List<Partition>> loader) throws Exception {
+        if (!enabled) {
+            return loader.call();
+        }
+
+        List<String> key = Arrays.asList(cacheKey, table.getDbName(), table.getTableName(), filter);
+        String ddlTime = getDdlTime(table);
+        CachedPartitions cached = partitions.getIfPresent(key);
+        if (cached != null) {
+            if (notificationInvalidation) {
+                long eventId = getUnchangedEventId(client, table.getDbName(), table.getTableName(), cached.eventId);
+                if (eventId >= 0) {
+                    LOG.debug("Using {} cached partitions of table {}.{}", cached.partitions.size(), table.getDbName(), table.getTableName());
+                    cached.eventId = eventId;
+                    return cached.partitions;
+                }
+            } else if (Objects.equals(ddlTime, cached.ddlTime)) {
+                LOG.debug("Using {} cached partitions of table {}.{}", cached.partitions.size(), table.getDbName(), table.getTableName());
+                return cached.partitions;
+            }
+        }
+
+        long eventId = notificationInvalidation ? client.getCurrentNotificationEventId().getEventId() : -1;
+        List<Partition> result = loader.call();
+        partitions.put(key, new CachedPartitions(result, ddlTime, eventId));
+        return result;
+    }
+
+    /*
+     * Returns the id of the latest notification event if no event has been
+     * recorded for the table since the given event, -1 otherwise
+     */
+    private long getUnchangedEventId(IMetaStoreClient client, String dbName, String tableName, long sinceEventId) throws TException {
+        long currentEventId = client.getCurrentNotificationEventId().getEventId();
+        if (currentEventId <= sinceEventId) {
+            return currentEventId;
+        }
+        if (currentEventId - sinceEventId > MAX_NOTIFICATION_EVENTS) {
+            return -1;
+        }
+
+        List<NotificationEvent> events = client.getNextNotification(sinceEventId, MAX_NOTIFICATION_EVENTS,
+                event -> dbName.equalsIgnoreCase(event.getDbName()) && tableName.equalsIgnoreCase(event.getTableName()))
+                .getEvents();
+        if (events != null && !events.isEmpty()) {
+            LOG.debug("Table {}.{} has changed since notification event {}", dbName, tableName, sinceEventId);
+            return -1;
+        }
+        return currentEventId;
+    }
+
+    private static String getDdlTime(Table table) {
+        return table.getParameters() != null ? table.getParameters().get(hive_metastoreConstants.DDL_TIME) : null;
+    }
+
+    private static class CachedTable {
+        private final Table table;
+        private volatile long eventId;
+
+        CachedTable(Table table, long eventId) {
+            this.table = table;
+            this.eventId = eventId;
+        }
+    }
+
+    private static class CachedPartitions {
+        private final List<Partition> partitions;
+        private final String ddlTime;
+        private volatile long eventId;
+
+        CachedPartitions(List<Partition> partitions, String ddlTime, long eventId) {
+            this.partitions = partitions;
+            this.ddlTime = ddlTime;
+            this.eventId = eventId;
+        }
+    }
+}
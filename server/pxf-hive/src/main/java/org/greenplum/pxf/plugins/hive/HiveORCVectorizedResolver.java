@@ -36,13 +36,16 @@ import org.apache.hadoop.hive.serde2.objectinspector.StructObjectInspector;
 import org.apache.hadoop.io.Text;
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
-import org.greenplum.pxf.api.model.ReadVectorizedResolver;
+import org.greenplum.pxf.api.batch.ColumnBatch;
+import org.greenplum.pxf.api.model.ReadColumnBatchResolver;
 import org.greenplum.pxf.api.error.UnsupportedTypeException;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 
 import java.sql.Date;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.LongUnaryOperator;
 
 import static org.greenplum.pxf.api.io.DataType.BIGINT;
 import static org.greenplum.pxf.api.io.DataType.BOOLEAN;
@@ -60,7 +63,7 @@ import static org.greenplum.pxf.api.io.DataType.VARCHAR;
 /**
  * Class which implements resolving a batch of records at once
  */
-public class HiveORCVectorizedResolver extends HiveResolver implements ReadVectorizedResolver {
+public class HiveORCVectorizedResolver extends HiveResolver implements ReadColumnBatchResolver {
 
     private static final Log LOG = LogFactory.getLog(HiveORCVectorizedResolver.class);
 
@@ -114,6 +117,37 @@ public class HiveORCVectorizedResolver extends HiveResolver implements ReadVecto
         return resolvedBatch;
     }
 
+    /**
+     * Resolves the given batch into the column batch, with the same values
+     * {@link #getFieldsForBatch(OneRow)} returns for it.
+     *
+     * @param batch       unresolved batch
+     * @param columnBatch the column batch to fill
+     */
+    @Override
+    public void resolveColumnBatch(OneRow batch, ColumnBatch columnBatch) {
+        VectorizedRowBatch vectorizedBatch = (VectorizedRowBatch) batch.getData();
+        int batchSize = vectorizedBatch.size;
+        columnBatch.reset(batchSize);
+
+        List<ColumnDescriptor> columnDescriptors = context.getTupleDescription();
+        List<? extends StructField> allStructFieldRefs = soi.getAllStructFieldRefs();
+        for (int columnIndex = 0; columnIndex < columnBatch.getColumnCount(); columnIndex++) {
+            org.greenplum.pxf.api.batch.ColumnVector target = columnBatch.getColumn(columnIndex);
+            if (columnIndex >= vectorizedBatch.numCols) {
+                target.reset(columnDescriptors.get(columnIndex).getDataType());
+                target.setAllNull(batchSize);
+                continue;
+            }
+            ObjectInspector oi = allStructFieldRefs.get(columnIndex).getFieldObjectInspector();
+            if (oi.getCategory() != Category.PRIMITIVE) {
+                throw new UnsupportedTypeException("Unable to resolve column index:" + columnIndex
+                        + ". Only primitive types are supported.");
+            }
+            fillPrimitiveColumn(oi, vectorizedBatch.cols[columnIndex], batchSize, target);
+        }
+    }
+
     /**
      * Resolves a column of a primitive type out of given batch
      *
@@ -348,4 +382,132 @@ public class HiveORCVectorizedResolver extends HiveResolver implements ReadVecto
             }
         }
     }
+
+    @SuppressWarnings("deprecation")
+    private void fillPrimitiveColumn(ObjectInspector oi, ColumnVector columnVector, int size, org.greenplum.pxf.api.batch.ColumnVector target) {
+        switch (((PrimitiveObjectInspector) oi).getPrimitiveCategory()) {
+            case BOOLEAN:
+                target.reset(BOOLEAN);
+                fillLongColumn((LongColumnVector) columnVector, size, target, value -> value == 1 ? 1 : 0);
+                break;
+            case BYTE:
+            case SHORT:
+                target.reset(SMALLINT);
+                fillLongColumn((LongColumnVector) columnVector, size, target, value -> (short) value);
+                break;
+            case INT:
+                target.reset(INTEGER);
+                fillLongColumn((LongColumnVector) columnVector, size, target, value -> (int) value);
+                break;
+            case LONG:
+                target.reset(BIGINT);
+                fillLongColumn((LongColumnVector) columnVector, size, target, value -> value);
+                break;
+            case FLOAT:
+                target.reset(REAL);
+                fillDoubleColumn((DoubleColumnVector) columnVector, size, target, true);
+                break;
+            case DOUBLE:
+                target.reset(FLOAT8);
+                fillDoubleColumn((DoubleColumnVector) columnVector, size, target, false);
+                break;
+            case DECIMAL: {
+                target.reset(NUMERIC);
+                DecimalColumnVector dcv = (DecimalColumnVector) columnVector;
+                for (int rowIndex = 0; rowIndex < size; rowIndex++) {
+                    int rowId = (dcv == null || dcv.isRepeating) ? 0 : rowIndex;
+                    if (dcv != null && !dcv.isNull[rowId]) {
+                        target.setString(rowIndex, dcv.vector[rowId].toString());
+                    } else {
+                        target.setNull(rowIndex);
+                    }
+                }
+                break;
+            }
+            case VARCHAR:
+                target.reset(VARCHAR);
+                fillBytesColumn((BytesColumnVector) columnVector, size, target, true);
+                break;
+            case CHAR:
+                target.reset(BPCHAR);
+                fillBytesColumn((BytesColumnVector) columnVector, size, target, true);
+                break;
+            case STRING:
+                target.reset(TEXT);
+                fillBytesColumn((BytesColumnVector) columnVector, size, target, true);
+                break;
+            case BINARY:
+                target.reset(BYTEA);
+                fillBytesColumn((BytesColumnVector) columnVector, size, target, false);
+                break;
+            case DATE: {
+                target.reset(DATE);
+                LongColumnVector lcv = (LongColumnVector) columnVector;
+                for (int rowIndex = 0; rowIndex < size; rowIndex++) {
+                    int rowId = (lcv == null || lcv.isRepeating) ? 0 : rowIndex;
+                    if (lcv != null && !lcv.isNull[rowId]) {
+                        target.setString(rowIndex, new Date(org.apache.hadoop.hive.serde2.io.DateWritable.daysToMillis((int) lcv.vector[rowId])).toString());
+                    } else {
+                        target.setNull(rowIndex);
+                    }
+                }
+                break;
+            }
+            default: {
+                throw new UnsupportedTypeException(oi.getTypeName()
+                        + " conversion is not supported by "
+                        + getClass().getSimpleName());
+            }
+        }
+    }
+
+    private void fillLongColumn(LongColumnVector lcv, int size, org.greenplum.pxf.api.batch.ColumnVector target, LongUnaryOperator conversion) {
+        if (lcv == null) {
+            target.setAllNull(size);
+            return;
+        }
+        for (int rowIndex = 0; rowIndex < size; rowIndex++) {
+            int rowId = lcv.isRepeating ? 0 : rowIndex;
+            if (!lcv.isNull[rowId]) {
+                target.setLong(rowIndex, conversion.applyAsLong(lcv.vector[rowId]));
+            } else {
+                target.setNull(rowIndex);
+            }
+        }
+    }
+
+    private void fillDoubleColumn(DoubleColumnVector dcv, int size, org.greenplum.pxf.api.batch.ColumnVector target, boolean isFloat) {
+        if (dcv == null) {
+            target.setAllNull(size);
+            return;
+        }
+        for (int rowIndex = 0; rowIndex < size; rowIndex++) {
+            int rowId = dcv.isRepeating ? 0 : rowIndex;
+            if (!dcv.isNull[rowId]) {
+                target.setDouble(rowIndex, isFloat ? (float) dcv.vector[rowId] : dcv.vector[rowId]);
+            } else {
+                target.setNull(rowIndex);
+            }
+        }
+    }
+
+    private void fillBytesColumn(BytesColumnVector bcv, int size, org.greenplum.pxf.api.batch.ColumnVector target, boolean isText) {
+        if (bcv == null) {
+            target.setAllNull(size);
+            return;
+        }
+        for (int rowIndex = 0; rowIndex < size; rowIndex++) {
+            int rowId = bcv.isRepeating ? 0 : rowIndex;
+            if (bcv.isNull[rowId]) {
+                target.setNull(rowIndex);
+            } else if (rowId != rowIndex) {
+                // repeating value, refer to the bytes copied for the first row
+                target.setSameBytes(rowIndex, 0);
+            } else if (isText) {
+                target.setUtf8(rowIndex, bcv.vector[rowId], bcv.start[rowId], bcv.length[rowId]);
+            } else {
+                target.setBytes(rowIndex, bcv.vector[rowId], bcv.start[rowId], bcv.length[rowId]);
+            }
+        }
+    }
 }
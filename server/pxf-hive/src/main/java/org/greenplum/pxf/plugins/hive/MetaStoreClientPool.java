@@ -0,0 +1,99 @@
+package org.greenplum.pxf.plugins.hive;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import org.apache.hadoop.hive.metastore.IMetaStoreClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the idle metastore clients of every server and user, so that a
+ * query reuses the connection of a previous query to the metastore instead
+ * of opening a new one. The clients of a server and user are closed once
+ * none of them has been used for the configured expiration time.
+ */
+@Component
+public class MetaStoreClientPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MetaStoreClientPool.class);
+
+    private final boolean enabled;
+    private final int maxIdle;
+    private final Cache<String, BlockingDeque<IMetaStoreClient>> idleClients;
+
+    public MetaStoreClientPool(@Value("${pxf.hive.metastore-client-pool.enabled:false}") boolean enabled,
+                               @Value("${pxf.hive.metastore-client-pool.max-idle:4}") int maxIdle,
+                               @Value("${pxf.hive.metastore-client-pool.expiration:5m}") Duration expiration) {
+        this.enabled = enabled;
+        this.maxIdle = maxIdle;
+        if (enabled) {
+            LOG.info("Pooling up to {} idle Hive metastore clients per server and user with expiration of {} ms",
+                    maxIdle, expiration.toMillis());
+        }
+        idleClients = CacheBuilder.newBuilder()
+                .expireAfterAccess(expiration.toMillis(), TimeUnit.MILLISECONDS)
+                .removalListener((RemovalListener<String, BlockingDeque<IMetaStoreClient>>) notification -> {
+                    LOG.debug("Closing the idle metastore clients of {} with cause {}", notification.getKey(), notification.getCause());
+                    IMetaStoreClient client;
+                    while ((client = notification.getValue().pollFirst()) != null) {
+                        client.close();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @return true if the clients are pooled, false otherwise
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes an idle client of the given server and user out of the pool.
+     *
+     * @param key the key of the server and user
+     * @return the most recently used idle client, or null if there is none
+     */
+    public IMetaStoreClient borrow(String key) {
+        BlockingDeque<IMetaStoreClient> clients = idleClients.getIfPresent(key);
+        IMetaStoreClient client = clients != null ? clients.pollFirst() : null;
+        LOG.debug("{} idle metastore client for {}", client != null ? "Reusing" : "No", key);
+        return client;
+    }
+
+    /**
+     * Returns a client to the pool, the client is closed when the server and
+     * user already have the maximum number of idle clients.
+     *
+     * @param key    the key of the server and user
+     * @param client the client that is no longer used
+     */
+    public void release(String key, IMetaStoreClient client) {
+        BlockingDeque<IMetaStoreClient> clients;
+        try {
+            clients = idleClients.get(key, () -> new LinkedBlockingDeque<>(maxIdle));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+        if (!clients.offerFirst(client)) {
+            client.close();
+        }
+    }
+
+    /**
+     * Closes all the idle clients.
+     */
+    void invalidateAll() {
+        idleClients.invalidateAll();
+    }
+}
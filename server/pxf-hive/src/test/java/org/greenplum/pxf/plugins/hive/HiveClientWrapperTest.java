@@ -1,26 +1,81 @@
 package org.greenplum.pxf.plugins.hive;
 
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hive.metastore.IMetaStoreClient;
+import org.apache.hadoop.hive.metastore.api.MetaException;
 import org.greenplum.pxf.api.model.Metadata;
+import org.greenplum.pxf.api.model.RequestContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class HiveClientWrapperTest {
 
     private Metadata.Item tblDesc;
     private HiveClientWrapper hiveClientWrapper;
+    private HiveClientWrapper.HiveClientFactory factory;
 
     @BeforeEach
     public void setup() {
-        HiveClientWrapper.HiveClientFactory factory = mock(HiveClientWrapper.HiveClientFactory.class);
+        factory = mock(HiveClientWrapper.HiveClientFactory.class);
         hiveClientWrapper = new HiveClientWrapper();
         hiveClientWrapper.setHiveClientFactory(factory);
     }
 
+    @Test
+    public void testPooledClientIsReleasedAfterUse() throws Exception {
+        IMetaStoreClient client = mock(IMetaStoreClient.class);
+        MetaStoreClientPool pool = preparePooledClient(client);
+
+        try (HiveClientWrapper.MetaStoreClientHolder holder = hiveClientWrapper.initHiveClient(createContext(), new Configuration())) {
+            holder.getClient().getAllDatabases();
+        }
+
+        verify(client, never()).close();
+        assertSame(client, pool.borrow("default:hive:alice"));
+    }
+
+    @Test
+    public void testPooledClientIsClosedAfterFailedCall() throws Exception {
+        IMetaStoreClient client = mock(IMetaStoreClient.class);
+        MetaStoreClientPool pool = preparePooledClient(client);
+        when(client.getAllDatabases()).thenThrow(new MetaException("broken pipe"));
+
+        try (HiveClientWrapper.MetaStoreClientHolder holder = hiveClientWrapper.initHiveClient(createContext(), new Configuration())) {
+            Exception e = assertThrows(MetaException.class, () -> holder.getClient().getAllDatabases());
+            assertEquals("broken pipe", e.getMessage());
+        }
+
+        verify(client).close();
+        assertNull(pool.borrow("default:hive:alice"));
+    }
+
+    private MetaStoreClientPool preparePooledClient(IMetaStoreClient client) throws Exception {
+        MetaStoreClientPool pool = new MetaStoreClientPool(true, 2, Duration.ofMinutes(1));
+        hiveClientWrapper.setMetaStoreClientPool(pool);
+        when(factory.initHiveClient(any())).thenReturn(new HiveClientWrapper.MetaStoreClientHolder(client));
+        return pool;
+    }
+
+    private RequestContext createContext() {
+        RequestContext context = new RequestContext();
+        context.setConfig("default");
+        context.setServerName("hive");
+        context.setUser("alice");
+        return context;
+    }
+
     @Test
     public void parseTableQualifiedNameNoDbName() {
         String name = "orphan";
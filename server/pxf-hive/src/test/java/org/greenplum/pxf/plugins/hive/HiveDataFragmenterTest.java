@@ -21,18 +21,54 @@ package org.greenplum.pxf.plugins.hive;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hive.metastore.IMetaStoreClient;
+import org.apache.hadoop.hive.metastore.TableType;
+import org.apache.hadoop.hive.metastore.api.CurrentNotificationEventId;
+import org.apache.hadoop.hive.metastore.api.FieldSchema;
+import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.hadoop.hive.metastore.api.SerDeInfo;
+import org.apache.hadoop.hive.metastore.api.StorageDescriptor;
+import org.apache.hadoop.hive.metastore.api.Table;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.TextInputFormat;
+import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.Metadata;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.plugins.hive.utilities.HiveUtilities;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -51,6 +87,10 @@ public class HiveDataFragmenterTest {
     private Metadata.Item mockItem;
     @Mock
     private IMetaStoreClient mockHiveClient;
+    @Mock
+    private AsyncTaskExecutor mockExecutor;
+    @TempDir
+    Path tempDir;
 
     @BeforeEach
     public void setup() {
@@ -109,4 +149,172 @@ public class HiveDataFragmenterTest {
         verify(mockHiveClient).close();
     }
 
+    @Test
+    public void testPartitionsFetchedInPagesAndSplitInParallel() throws Exception {
+        configuration.setInt("pxf.hive.fragmenter.threads", 4);
+        configuration.setInt("pxf.hive.metastore.partition-page-size", 3);
+        List<String> expectedPaths = preparePartitionedTable(7);
+
+        HiveDataFragmenter fragmenter = new HiveDataFragmenter(hiveUtilities, hiveClientWrapper, null, new SimpleAsyncTaskExecutor());
+        fragmenter.setRequestContext(context);
+        fragmenter.afterPropertiesSet();
+        List<Fragment> fragments = fragmenter.getFragments();
+
+        // the fragments are in the order of the partitions
+        assertEquals(expectedPaths, fragments.stream().map(Fragment::getSourceName).collect(Collectors.toList()));
+        verify(mockHiveClient, times(3)).getPartitionsByNames(anyString(), anyString(), anyList());
+    }
+
+    @Test
+    public void testPartitionsSplitByCallingThreadWhenNoThreadIsAvailable() throws Exception {
+        configuration.setInt("pxf.hive.fragmenter.threads", 4);
+        List<String> expectedPaths = preparePartitionedTable(5);
+        when(mockExecutor.submit(ArgumentMatchers.<Callable<Void>>any())).thenThrow(new TaskRejectedException("no thread"));
+
+        HiveDataFragmenter fragmenter = new HiveDataFragmenter(hiveUtilities, hiveClientWrapper, null, mockExecutor);
+        fragmenter.setRequestContext(context);
+        fragmenter.afterPropertiesSet();
+        List<Fragment> fragments = fragmenter.getFragments();
+
+        assertEquals(expectedPaths, fragments.stream().map(Fragment::getSourceName).collect(Collectors.toList()));
+        // the first rejection stops asking for more threads
+        verify(mockExecutor).submit(ArgumentMatchers.<Callable<Void>>any());
+    }
+
+    @Test
+    public void testFailedSplitsWaitForTheOtherWorkers() throws Exception {
+        configuration.setInt("pxf.hive.fragmenter.threads", 2);
+        preparePartitionedTable(2);
+        Thread callingThread = Thread.currentThread();
+        CountDownLatch splitting = new CountDownLatch(1);
+        CountDownLatch failed = new CountDownLatch(1);
+        AtomicBoolean workerFinished = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (Thread.currentThread() == callingThread) {
+                // the calling thread fails while the worker is still computing its splits
+                splitting.await();
+                failed.countDown();
+                throw new IOException("failed to list files");
+            }
+            splitting.countDown();
+            failed.await();
+            Thread.sleep(200);
+            workerFinished.set(true);
+            TextInputFormat inputFormat = new TextInputFormat();
+            inputFormat.configure(invocation.getArgument(1, JobConf.class));
+            return inputFormat;
+        }).when(hiveUtilities).makeInputFormat(anyString(), any());
+
+        HiveDataFragmenter fragmenter = new HiveDataFragmenter(hiveUtilities, hiveClientWrapper, null, new SimpleAsyncTaskExecutor());
+        fragmenter.setRequestContext(context);
+        fragmenter.afterPropertiesSet();
+        Exception e = assertThrows(IOException.class, fragmenter::getFragments);
+
+        assertEquals("failed to list files", e.getMessage());
+        assertTrue(workerFinished.get());
+    }
+
+    @Test
+    public void testCachedMetadataIsNotSharedAcrossUsers() throws Exception {
+        preparePartitionedTable(1);
+        when(mockHiveClient.getCurrentNotificationEventId()).thenReturn(new CurrentNotificationEventId(5));
+        HiveMetadataCache metadataCache = new HiveMetadataCache(true, 100, 1000, Duration.ofMinutes(1), "notification");
+
+        for (String user : Arrays.asList("alice", "alice", "bob")) {
+            context.setUser(user);
+            HiveDataFragmenter fragmenter = new HiveDataFragmenter(hiveUtilities, hiveClientWrapper, metadataCache);
+            fragmenter.setRequestContext(context);
+            fragmenter.afterPropertiesSet();
+            assertEquals(1, fragmenter.getFragments().size());
+        }
+
+        // the second query of alice uses the cache, the query of bob does not
+        verify(hiveClientWrapper, times(2)).getHiveTable(mockHiveClient, mockItem);
+        verify(mockHiveClient, times(2)).listPartitions("default", "sometable", (short) -1);
+    }
+
+    @Test
+    public void testPartitionsFetchedAtOnceAndSplitSequentially() throws Exception {
+        // partitions are not fetched in pages by default
+        List<String> expectedPaths = preparePartitionedTable(5);
+
+        HiveDataFragmenter fragmenter = new HiveDataFragmenter(hiveUtilities, hiveClientWrapper);
+        fragmenter.setRequestContext(context);
+        fragmenter.afterPropertiesSet();
+        List<Fragment> fragments = fragmenter.getFragments();
+
+        assertEquals(expectedPaths, fragments.stream().map(Fragment::getSourceName).collect(Collectors.toList()));
+        verify(mockHiveClient).listPartitions("default", "sometable", (short) -1);
+    }
+
+    /*
+     * Creates a table with the given number of partitions, each of them with a
+     * single file, and returns the paths of the files
+     */
+    private List<String> preparePartitionedTable(int partitionCount) throws Exception {
+        configuration.set("fs.defaultFS", "file:///");
+        configuration.set("pxf.fs.basePath", "/");
+        context.setTupleDescription(Collections.emptyList());
+        when(mockItem.getPath()).thenReturn("default");
+        when(mockItem.getName()).thenReturn("sometable");
+        when(hiveClientWrapper.extractTableFromName(context.getDataSource())).thenReturn(mockItem);
+        when(hiveClientWrapper.initHiveClient(context, configuration)).thenReturn(holder);
+
+        FieldSchema partitionKey = new FieldSchema("part", "string", null);
+        Table table = new Table();
+        table.setDbName("default");
+        table.setTableName("sometable");
+        table.setTableType(TableType.MANAGED_TABLE.name());
+        table.setSd(createStorageDescriptor(tempDir.toString()));
+        table.setPartitionKeys(Collections.singletonList(partitionKey));
+        when(hiveClientWrapper.getHiveTable(mockHiveClient, mockItem)).thenReturn(table);
+        // tests may replace the input format to control how the splits are computed
+        lenient().when(hiveUtilities.makeInputFormat(anyString(), any())).thenAnswer(invocation -> {
+            TextInputFormat inputFormat = new TextInputFormat();
+            inputFormat.configure(invocation.getArgument(1, JobConf.class));
+            return inputFormat;
+        });
+
+        List<String> names = new ArrayList<>();
+        List<Partition> partitions = new ArrayList<>();
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < partitionCount; i++) {
+            File directory = tempDir.resolve("part=" + i).toFile();
+            assertTrue(directory.mkdir());
+            paths.add(writeFile(directory, "data" + i));
+
+            Partition partition = new Partition();
+            partition.setValues(Collections.singletonList(String.valueOf(i)));
+            partition.setSd(createStorageDescriptor(directory.toURI().toString()));
+            names.add("part=" + i);
+            partitions.add(partition);
+        }
+
+        int pageSize = configuration.getInt("pxf.hive.metastore.partition-page-size", 0);
+        if (pageSize > 0) {
+            when(mockHiveClient.listPartitionNames("default", "sometable", (short) -1)).thenReturn(names);
+            when(mockHiveClient.getPartitionsByNames(anyString(), anyString(), anyList())).thenAnswer(invocation -> {
+                List<String> page = invocation.getArgument(2);
+                return page.stream().map(name -> partitions.get(names.indexOf(name))).collect(Collectors.toList());
+            });
+        } else {
+            when(mockHiveClient.listPartitions("default", "sometable", (short) -1)).thenReturn(partitions);
+        }
+        return paths;
+    }
+
+    private StorageDescriptor createStorageDescriptor(String location) {
+        StorageDescriptor sd = new StorageDescriptor();
+        sd.setCols(Collections.singletonList(new FieldSchema("col", "string", null)));
+        sd.setLocation(location);
+        sd.setInputFormat("org.apache.hadoop.mapred.TextInputFormat");
+        sd.setSerdeInfo(new SerDeInfo(null, "org.apache.hadoop.hive.serde2.lazy.LazySimpleSerDe", Collections.emptyMap()));
+        return sd;
+    }
+
+    private String writeFile(File directory, String content) throws IOException {
+        Path file = directory.toPath().resolve("000000_0");
+        Files.write(file, content.getBytes());
+        return "file:" + file;
+    }
 }
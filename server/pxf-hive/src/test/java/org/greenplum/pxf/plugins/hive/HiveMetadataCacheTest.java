@@ -0,0 +1,137 @@
+package org.greenplum.pxf.plugins.hive;
+
+import org.apache.hadoop.hive.metastore.IMetaStoreClient;
+import org.apache.hadoop.hive.metastore.api.CurrentNotificationEventId;
+import org.apache.hadoop.hive.metastore.api.NotificationEvent;
+import org.apache.hadoop.hive.metastore.api.NotificationEventResponse;
+import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.hadoop.hive.metastore.api.Table;
+import org.apache.hadoop.hive.metastore.api.hive_metastoreConstants;
+import org.greenplum.pxf.api.model.Metadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class HiveMetadataCacheTest {
+
+    private IMetaStoreClient client;
+    private Table table;
+    private Callable<List<Partition>> partitionLoader;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        client = mock(IMetaStoreClient.class);
+        table = new Table();
+        table.setDbName("db");
+        table.setTableName("tbl");
+        table.setParameters(new HashMap<>());
+        table.getParameters().put(hive_metastoreConstants.DDL_TIME, "1000");
+        partitionLoader = mock(Callable.class);
+    }
+
+    @Test
+    public void testInvalidInvalidation() {
+        Exception e = assertThrows(IllegalArgumentException.class,
+                () -> new HiveMetadataCache(true, 10, 10, Duration.ofMinutes(1), "foo"));
+        assertEquals("Property pxf.hive.metastore-cache.invalidation has incorrect value foo : must be either 'ddl-time' or 'notification'", e.getMessage());
+    }
+
+    @Test
+    public void testDisabledCacheAlwaysLoads() throws Exception {
+        HiveMetadataCache cache = new HiveMetadataCache(false, 10, 10, Duration.ofMinutes(1), "notification");
+        when(partitionLoader.call()).thenReturn(Collections.singletonList(new Partition()));
+
+        cache.getPartitions("server", client, table, "", partitionLoader);
+        cache.getPartitions("server", client, table, "", partitionLoader);
+
+        verify(partitionLoader, times(2)).call();
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    public void testDdlTimeInvalidation() throws Exception {
+        HiveMetadataCache cache = new HiveMetadataCache(true, 10, 10, Duration.ofMinutes(1), "ddl-time");
+        List<Partition> first = Collections.singletonList(new Partition());
+        List<Partition> second = Collections.singletonList(new Partition());
+        when(partitionLoader.call()).thenReturn(first).thenReturn(second);
+
+        assertSame(first, cache.getPartitions("server", client, table, "", partitionLoader));
+        assertSame(first, cache.getPartitions("server", client, table, "", partitionLoader));
+        // the cached partitions are per server and filter
+        assertSame(second, cache.getPartitions("other", client, table, "", partitionLoader));
+
+        table.getParameters().put(hive_metastoreConstants.DDL_TIME, "2000");
+        when(partitionLoader.call()).thenReturn(second);
+        assertSame(second, cache.getPartitions("server", client, table, "", partitionLoader));
+
+        verify(partitionLoader, times(3)).call();
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    public void testDdlTimeInvalidationDoesNotCacheTables() throws Exception {
+        HiveMetadataCache cache = new HiveMetadataCache(true, 10, 10, Duration.ofMinutes(1), "ddl-time");
+        Metadata.Item item = new Metadata.Item("db", "tbl");
+
+        assertSame(table, cache.getTable("server", client, item, () -> table));
+        Table other = new Table();
+        assertSame(other, cache.getTable("server", client, item, () -> other));
+    }
+
+    @Test
+    public void testNotificationInvalidation() throws Exception {
+        HiveMetadataCache cache = new HiveMetadataCache(true, 10, 10, Duration.ofMinutes(1), "notification");
+        Metadata.Item item = new Metadata.Item("db", "tbl");
+        when(client.getCurrentNotificationEventId()).thenReturn(new CurrentNotificationEventId(5));
+
+        assertSame(table, cache.getTable("server", client, item, () -> table));
+        // no new event, the table is not loaded again
+        assertSame(table, cache.getTable("server", client, item, () -> new Table()));
+
+        // events of other tables keep the entry
+        when(client.getCurrentNotificationEventId()).thenReturn(new CurrentNotificationEventId(7));
+        when(client.getNextNotification(eq(5L), anyInt(), any())).thenReturn(new NotificationEventResponse(Collections.emptyList()));
+        assertSame(table, cache.getTable("server", client, item, () -> new Table()));
+
+        // an event of the table invalidates the entry
+        NotificationEvent event = new NotificationEvent(8, 0, "ALTER_TABLE", "");
+        event.setDbName("db");
+        event.setTableName("tbl");
+        when(client.getCurrentNotificationEventId()).thenReturn(new CurrentNotificationEventId(8));
+        when(client.getNextNotification(eq(7L), anyInt(), any())).thenReturn(new NotificationEventResponse(Collections.singletonList(event)));
+        Table altered = new Table();
+        assertSame(altered, cache.getTable("server", client, item, () -> altered));
+    }
+
+    @Test
+    public void testNotificationInvalidationTooManyEvents() throws Exception {
+        HiveMetadataCache cache = new HiveMetadataCache(true, 10, 10, Duration.ofMinutes(1), "notification");
+        List<Partition> first = Collections.singletonList(new Partition());
+        List<Partition> second = Collections.singletonList(new Partition());
+        when(partitionLoader.call()).thenReturn(first).thenReturn(second);
+        when(client.getCurrentNotificationEventId()).thenReturn(new CurrentNotificationEventId(5));
+
+        assertSame(first, cache.getPartitions("server", client, table, "", partitionLoader));
+
+        when(client.getCurrentNotificationEventId()).thenReturn(new CurrentNotificationEventId(5 + HiveMetadataCache.MAX_NOTIFICATION_EVENTS + 1));
+        assertSame(second, cache.getPartitions("server", client, table, "", partitionLoader));
+    }
+}
@@ -0,0 +1,54 @@
+package org.greenplum.pxf.plugins.hive;
+
+import org.apache.hadoop.hive.metastore.IMetaStoreClient;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class MetaStoreClientPoolTest {
+
+    @Test
+    public void testReleasedClientIsReused() {
+        MetaStoreClientPool pool = new MetaStoreClientPool(true, 2, Duration.ofMinutes(1));
+        IMetaStoreClient client = mock(IMetaStoreClient.class);
+
+        assertNull(pool.borrow("server:user"));
+        pool.release("server:user", client);
+
+        assertNull(pool.borrow("server:other-user"));
+        assertSame(client, pool.borrow("server:user"));
+        assertNull(pool.borrow("server:user"));
+        verify(client, never()).close();
+    }
+
+    @Test
+    public void testClientsAboveMaxIdleAreClosed() {
+        MetaStoreClientPool pool = new MetaStoreClientPool(true, 1, Duration.ofMinutes(1));
+        IMetaStoreClient client1 = mock(IMetaStoreClient.class);
+        IMetaStoreClient client2 = mock(IMetaStoreClient.class);
+
+        pool.release("server:user", client1);
+        pool.release("server:user", client2);
+
+        verify(client1, never()).close();
+        verify(client2).close();
+    }
+
+    @Test
+    public void testInvalidateAllClosesIdleClients() {
+        MetaStoreClientPool pool = new MetaStoreClientPool(true, 2, Duration.ofMinutes(1));
+        IMetaStoreClient client = mock(IMetaStoreClient.class);
+
+        pool.release("server:user", client);
+        pool.invalidateAll();
+
+        verify(client).close();
+        assertNull(pool.borrow("server:user"));
+    }
+}
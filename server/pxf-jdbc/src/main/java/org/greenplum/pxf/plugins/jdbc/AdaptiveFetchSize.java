@@ -0,0 +1,67 @@
+package org.greenplum.pxf.plugins.jdbc;
+
+/**
+ * Picks the fetch size of a query from the fetches observed over its first
+ * batches of rows.
+ * <p>
+ * A larger fetch size makes fewer round trips to the external database, but
+ * takes more memory for wide rows. The fetch size is raised until the latency
+ * of a round trip is a small share of the time to fetch and read a batch of
+ * rows, and lowered if a batch would take more than the given number of bytes.
+ */
+class AdaptiveFetchSize {
+
+    static final int MIN_FETCH_SIZE = 100;
+    static final int MAX_FETCH_SIZE = 100000;
+
+    // the number of fetches after which the fetch size is settled
+    static final int ADAPTIVE_FETCH_COUNT = 4;
+
+    // the share of the time to fetch and read a batch of rows the round trip may take
+    private static final double ROUND_TRIP_SHARE = 0.1;
+
+    private final long maxBytes;
+    private int fetchSize;
+    private int fetchCount;
+
+    /**
+     * @param fetchSize the fetch size the query was executed with
+     * @param maxBytes  the number of bytes the rows of a fetch may take
+     */
+    AdaptiveFetchSize(int fetchSize, long maxBytes) {
+        this.fetchSize = fetchSize;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the current fetch size
+     */
+    int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Adjusts the fetch size to a fetch of rows from the external database,
+     * unless it is already settled.
+     *
+     * @param rows           the number of rows fetched
+     * @param bytes          the estimated number of bytes of the rows
+     * @param roundTripNanos the time the external database took to return the first row
+     * @param readNanos      the time taken to read the rows once they were returned
+     * @return the fetch size for the next fetches
+     */
+    int observe(int rows, long bytes, long roundTripNanos, long readNanos) {
+        if (fetchCount >= ADAPTIVE_FETCH_COUNT || rows == 0) {
+            return fetchSize;
+        }
+        fetchCount++;
+
+        double nanosPerRow = Math.max(1.0, (double) readNanos / rows);
+        double bytesPerRow = Math.max(1.0, (double) bytes / rows);
+        double rowsForLatency = roundTripNanos * (1 - ROUND_TRIP_SHARE) / ROUND_TRIP_SHARE / nanosPerRow;
+        double rowsForMemory = maxBytes / bytesPerRow;
+
+        fetchSize = (int) Math.max(MIN_FETCH_SIZE, Math.min(MAX_FETCH_SIZE, Math.min(rowsForLatency, rowsForMemory)));
+        return fetchSize;
+    }
+}
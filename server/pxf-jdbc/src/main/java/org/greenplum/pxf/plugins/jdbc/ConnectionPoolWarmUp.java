@@ -0,0 +1,92 @@
+package org.greenplum.pxf.plugins.jdbc;
+
+import org.greenplum.pxf.api.model.ConfigurationFactory;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.security.SecureLogin;
+import org.greenplum.pxf.plugins.jdbc.utils.ConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the connection pools of the servers listed in
+ * {@code pxf.jdbc.connection.warm-up-servers} once PXF has started, so that
+ * the first queries to these servers do not wait for connections to be
+ * established, and the database does not receive the logins of all the
+ * segments at once.
+ */
+@Component
+public class ConnectionPoolWarmUp implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionPoolWarmUp.class);
+
+    // data source of the requests used to initialize the plugins, no table is accessed
+    private static final String WARM_UP_DATA_SOURCE = "pxf_warm_up";
+
+    private final ConnectionManager connectionManager;
+    private final SecureLogin secureLogin;
+    private final ConfigurationFactory configurationFactory;
+    private final List<String> servers;
+
+    public ConnectionPoolWarmUp(ConnectionManager connectionManager,
+                                SecureLogin secureLogin,
+                                ConfigurationFactory configurationFactory,
+                                PxfJdbcProperties properties) {
+        this.connectionManager = connectionManager;
+        this.secureLogin = secureLogin;
+        this.configurationFactory = configurationFactory;
+        this.servers = properties.getConnection().getWarmUpServers();
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (servers.isEmpty()) {
+            return;
+        }
+        // do not delay the service start up when a database is slow to respond
+        Thread thread = new Thread(this::warmUp, "pxf-jdbc-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Creates the connection pool of every configured server, a server that
+     * cannot be reached does not prevent the others from being warmed up
+     */
+    void warmUp() {
+        for (String server : servers) {
+            try {
+                if (createPlugin(server).warmUpConnectionPool()) {
+                    LOG.info("Warmed up the connection pool for server {}", server);
+                } else {
+                    LOG.info("Connection pool of server {} is not warmed up as it is disabled or impersonation is enabled", server);
+                }
+            } catch (Exception e) {
+                LOG.warn(String.format("Failed to warm up the connection pool for server %s", server), e);
+            }
+        }
+    }
+
+    /**
+     * Creates a plugin configured the same way as for the queries of the
+     * server, the pool it obtains connections from is then shared with them
+     */
+    JdbcBasePlugin createPlugin(String server) {
+        RequestContext context = new RequestContext();
+        context.setServerName(server);
+        context.setConfig(server);
+        context.setUser(System.getProperty("user.name"));
+        context.setDataSource(WARM_UP_DATA_SOURCE);
+        context.setRequestType(RequestContext.RequestType.READ_BRIDGE);
+        context.setConfiguration(configurationFactory.initConfiguration(server, server, context.getUser(), null));
+
+        JdbcBasePlugin plugin = new JdbcBasePlugin(connectionManager, secureLogin);
+        plugin.setRequestContext(context);
+        plugin.afterPropertiesSet();
+        return plugin;
+    }
+}
@@ -22,16 +22,23 @@ package org.greenplum.pxf.plugins.jdbc;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.configuration.PxfServerProperties;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.model.Accessor;
 import org.greenplum.pxf.api.model.ConfigurationFactory;
+import org.greenplum.pxf.api.model.FetchStats;
 import org.greenplum.pxf.api.security.SecureLogin;
+import org.greenplum.pxf.api.utilities.SpringContext;
 import org.greenplum.pxf.api.utilities.Utilities;
 import org.greenplum.pxf.plugins.jdbc.utils.ConnectionManager;
+import org.greenplum.pxf.plugins.jdbc.utils.DbProduct;
+import org.greenplum.pxf.plugins.jdbc.writercallable.BulkWriteMode;
 import org.greenplum.pxf.plugins.jdbc.writercallable.WriterCallable;
 import org.greenplum.pxf.plugins.jdbc.writercallable.WriterCallableFactory;
+import org.postgresql.PGConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
 
 import java.io.File;
 import java.io.IOException;
@@ -61,9 +68,19 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor {
     private static final Logger LOG = LoggerFactory.getLogger(JdbcAccessor.class);
 
     private static final String JDBC_READ_PREPARED_STATEMENT_PROPERTY_NAME = "jdbc.read.prepared-statement";
+    private static final String JDBC_READ_AHEAD_PROPERTY_NAME = "jdbc.read.read-ahead";
+    private static final String JDBC_STATEMENT_ADAPTIVE_FETCH_PROPERTY_NAME = "jdbc.statement.adaptiveFetch";
+    private static final String JDBC_STATEMENT_ADAPTIVE_FETCH_MAX_BYTES_PROPERTY_NAME = "jdbc.statement.adaptiveFetchMaxBytes";
+    private static final long DEFAULT_ADAPTIVE_FETCH_MAX_BYTES = 16 * 1024 * 1024;
+    // the number of rows read ahead at a time when the fetch size is left to the driver
+    private static final int DEFAULT_READ_AHEAD_ROWS = 1000;
+    // a larger number of rows in the VALUES clause makes the queries slower to parse
+    private static final int MAX_MULTI_ROW_INSERT_ROWS = 1000;
 
     private Statement statementRead = null;
     private ResultSet resultSetRead = null;
+    private ResultSetCursor cursorRead = null;
+    private AsyncTaskExecutor readAheadExecutor;
 
     private PreparedStatement statementWrite = null;
     private WriterCallableFactory writerCallableFactory = null;
@@ -85,7 +102,20 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor {
      * @param secureLogin       the instance of the secure login
      */
     JdbcAccessor(ConnectionManager connectionManager, SecureLogin secureLogin) {
+        this(connectionManager, secureLogin, null);
+    }
+
+    /**
+     * Creates a new instance of accessor with provided connection manager,
+     * reading rows ahead on the given executor.
+     *
+     * @param connectionManager connection manager
+     * @param secureLogin       the instance of the secure login
+     * @param readAheadExecutor the executor, or null to use the executor shared by plugins
+     */
+    JdbcAccessor(ConnectionManager connectionManager, SecureLogin secureLogin, AsyncTaskExecutor readAheadExecutor) {
         super(connectionManager, secureLogin);
+        this.readAheadExecutor = readAheadExecutor;
     }
 
     /**
@@ -138,21 +168,25 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor {
         resultSetRead = usePreparedStatement ?
                 ((PreparedStatement) statementRead).executeQuery() :
                 statementRead.executeQuery(queryRead);
+        cursorRead = createCursor(resultSetRead);
 
         return true;
     }
 
     /**
      * readNextObject() implementation
-     * Retreive the next tuple from resultSet and return it
+     * Retreive the next tuple from resultSet and return it. The key of the
+     * row is the cursor of the result set, which the {@link JdbcResolver}
+     * uses to read the following rows of a batch.
      *
      * @return row
      * @throws SQLException if a problem in resultSet occurs
      */
     @Override
     public OneRow readNextObject() throws SQLException {
-        if (resultSetRead.next()) {
-            return new OneRow(resultSetRead);
+        if (cursorRead.next()) {
+            Object[] values = cursorRead.getValues();
+            return new OneRow(cursorRead, values != null ? values : resultSetRead);
         }
         return null;
     }
@@ -162,9 +196,25 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor {
      */
     @Override
     public void closeForRead() throws SQLException {
+        if (cursorRead != null && !cursorRead.close()) {
+            // the rows are still being read ahead, do not return the connection to the pool
+            closeStatementAndEvictConnection(statementRead);
+            return;
+        }
         closeStatementAndConnection(statementRead);
     }
 
+    /**
+     * Returns the statistics of the fetches of the rows, gathered when the
+     * rows are read ahead
+     *
+     * @return the fetch statistics, or null if they are not gathered
+     */
+    @Override
+    public FetchStats getFetchStats() {
+        return cursorRead == null ? null : cursorRead.getFetchStats();
+    }
+
     /**
      * openForWrite() implementation
      * Create query template and open JDBC connection
@@ -198,8 +248,17 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor {
 
         statementWrite = super.getPreparedStatement(connection, queryWrite);
 
-        // Process batchSize
-        if (!connection.getMetaData().supportsBatchUpdates()) {
+        BulkWriteMode bulkWriteMode = getBulkWriteMode(connection, sqlQueryBuilder.getDbProduct());
+        if (bulkWriteMode != BulkWriteMode.NONE) {
+            // a bulk load holds the given number of rows, or as many rows as fit in bulkMaxBytes
+            int maxRows = batchSizeIsSetByUser ? batchSize : Integer.MAX_VALUE;
+            if (bulkWriteMode == BulkWriteMode.MULTI_ROW_INSERT) {
+                int maxParameters = sqlQueryBuilder.getDbProduct().getMaxInsertParameters();
+                maxRows = Math.min(maxRows, Math.min(MAX_MULTI_ROW_INSERT_ROWS, maxParameters / Math.max(columns.size(), 1)));
+            }
+            batchSize = Math.max(maxRows, 2);
+            LOG.debug("Using {} bulk writes of at most {} rows", bulkWriteMode, batchSize);
+        } else if (!connection.getMetaData().supportsBatchUpdates()) {
             if ((batchSizeIsSetByUser) && (batchSize > 1)) {
                 throw new SQLException("The external database does not support batch updates");
             } else {
@@ -218,13 +277,39 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor {
         }
 
         // Setup WriterCallableFactory
-        writerCallableFactory = new WriterCallableFactory(this, queryWrite, statementWrite, batchSize, poolSize);
+        writerCallableFactory = new WriterCallableFactory(this, queryWrite, statementWrite, batchSize, poolSize,
+                bulkWriteMode, columns.size(), bulkMaxBytes);
 
         writerCallable = writerCallableFactory.get();
 
         return true;
     }
 
+    /**
+     * Pick the way rows are bulk loaded into the external database, if bulk
+     * writes are requested: COPY for PostgreSQL and Greenplum when the
+     * connection is made by the PostgreSQL driver, multi-row INSERT queries
+     * for other databases that support them.
+     *
+     * @param connection the connection to the external database
+     * @param dbProduct  the external database product
+     * @return the bulk write mode, {@link BulkWriteMode#NONE} to use JDBC batches
+     * @throws SQLException if a database access error occurs
+     */
+    private BulkWriteMode getBulkWriteMode(Connection connection, DbProduct dbProduct) throws SQLException {
+        if (!bulkWrite) {
+            return BulkWriteMode.NONE;
+        }
+        if (dbProduct == DbProduct.POSTGRES && connection.isWrapperFor(PGConnection.class)) {
+            return BulkWriteMode.COPY;
+        }
+        if (dbProduct.getMaxInsertParameters() >= columns.size() * 2) {
+            return BulkWriteMode.MULTI_ROW_INSERT;
+        }
+        LOG.info("Bulk writes are not supported by the external database {}, using JDBC batches instead", dbProduct);
+        return BulkWriteMode.NONE;
+    }
+
      /**
      * writeNextObject() implementation
      * <p>
@@ -362,6 +447,41 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor {
         return queryText;
     }
 
+    /**
+     * Creates the cursor moving over the rows of the result set, reading them
+     * ahead on a background thread if requested. Adaptive fetch sizing
+     * measures the rows as they are read ahead, so it reads them ahead too.
+     *
+     * @param resultSet the result set of the query
+     * @return the cursor
+     * @throws SQLException if a database access error occurs
+     */
+    private ResultSetCursor createCursor(ResultSet resultSet) throws SQLException {
+        boolean adaptiveFetch = Utilities.parseBooleanProperty(configuration, JDBC_STATEMENT_ADAPTIVE_FETCH_PROPERTY_NAME, false);
+        boolean readAhead = adaptiveFetch || Utilities.parseBooleanProperty(configuration, JDBC_READ_AHEAD_PROPERTY_NAME, false);
+        if (!readAhead) {
+            return new ResultSetCursor(resultSet);
+        }
+
+        AdaptiveFetchSize adaptiveFetchSize = null;
+        if (adaptiveFetch && fetchSize > 0) {
+            long maxBytes = configuration.getLong(JDBC_STATEMENT_ADAPTIVE_FETCH_MAX_BYTES_PROPERTY_NAME, DEFAULT_ADAPTIVE_FETCH_MAX_BYTES);
+            if (maxBytes <= 0) {
+                throw new IllegalArgumentException(String.format(
+                        "Property %s has incorrect value %s : must be a positive integer", JDBC_STATEMENT_ADAPTIVE_FETCH_MAX_BYTES_PROPERTY_NAME, maxBytes));
+            }
+            adaptiveFetchSize = new AdaptiveFetchSize(fetchSize, maxBytes);
+        } else if (adaptiveFetch) {
+            LOG.info("The fetch size {} is not adjusted, adaptive fetch requires a positive fetch size", fetchSize);
+        }
+        if (readAheadExecutor == null) {
+            readAheadExecutor = SpringContext.getBean(PxfServerProperties.PLUGIN_TASK_EXECUTOR, AsyncTaskExecutor.class);
+        }
+        LOG.debug("Reading rows ahead with {} fetch size", adaptiveFetchSize != null ? "an adaptive" : "a fixed");
+        return new ReadAheadCursor(resultSet, columns, fetchSize > 0 ? fetchSize : DEFAULT_READ_AHEAD_ROWS, adaptiveFetchSize,
+                readAheadExecutor);
+    }
+
     private boolean parseJdbcUsePreparedStatementProperty() {
         return Utilities.parseBooleanProperty(configuration, JDBC_READ_PREPARED_STATEMENT_PROPERTY_NAME, false);
     }
@@ -63,6 +63,7 @@ public class JdbcBasePlugin extends BasePlugin {
     // see https://dev.mysql.com/doc/connector-j/8.0/en/connector-j-reference-implementation-notes.html
     private static final int DEFAULT_MYSQL_FETCH_SIZE = Integer.MIN_VALUE;
     private static final int DEFAULT_POOL_SIZE = 1;
+    private static final int DEFAULT_BULK_MAX_BYTES = 8 * 1024 * 1024;
 
     // configuration parameter names
     private static final String JDBC_DRIVER_PROPERTY_NAME = "jdbc.driver";
@@ -79,11 +80,14 @@ public class JdbcBasePlugin extends BasePlugin {
     private static final String JDBC_STATEMENT_BATCH_SIZE_PROPERTY_NAME = "jdbc.statement.batchSize";
     private static final String JDBC_STATEMENT_FETCH_SIZE_PROPERTY_NAME = "jdbc.statement.fetchSize";
     private static final String JDBC_STATEMENT_QUERY_TIMEOUT_PROPERTY_NAME = "jdbc.statement.queryTimeout";
+    private static final String JDBC_STATEMENT_WRITE_MODE_PROPERTY_NAME = "jdbc.statement.writeMode";
+    private static final String JDBC_STATEMENT_BULK_MAX_BYTES_PROPERTY_NAME = "jdbc.statement.bulkMaxBytes";
 
     // connection pool properties
     private static final String JDBC_CONNECTION_POOL_ENABLED_PROPERTY_NAME = "jdbc.pool.enabled";
     private static final String JDBC_CONNECTION_POOL_PROPERTY_PREFIX = "jdbc.pool.property.";
     private static final String JDBC_POOL_QUALIFIER_PROPERTY_NAME = "jdbc.pool.qualifier";
+    private static final String JDBC_CONNECTION_POOL_SHARED_PROPERTY_NAME = "jdbc.pool.shared";
 
     // DDL option names
     private static final String JDBC_DRIVER_OPTION_NAME = "JDBC_DRIVER";
@@ -129,6 +133,12 @@ public class JdbcBasePlugin extends BasePlugin {
     protected int batchSize;
     protected boolean batchSizeIsSetByUser = false;
 
+    // Whether INSERT queries are replaced by bulk loads (COPY or multi-row INSERT)
+    protected boolean bulkWrite = false;
+
+    // Size of the data sent by a single bulk load
+    protected int bulkMaxBytes;
+
     // Read batch size
     protected int fetchSize;
 
@@ -160,6 +170,8 @@ public class JdbcBasePlugin extends BasePlugin {
     private boolean isConnectionPoolUsed;
     private Properties poolConfiguration;
     private String poolQualifier;
+    private boolean isConnectionPoolShared;
+    private boolean impersonationEnabled;
 
     private final ConnectionManager connectionManager;
     private final SecureLogin secureLogin;
@@ -237,6 +249,20 @@ public class JdbcBasePlugin extends BasePlugin {
                 throw new IllegalArgumentException(String.format(
                         "Property %s has incorrect value %s : must be a non-negative integer", JDBC_STATEMENT_BATCH_SIZE_PROPERTY_NAME, batchSize));
             }
+
+            String writeMode = configuration.get(JDBC_STATEMENT_WRITE_MODE_PROPERTY_NAME, "batch");
+            if ("bulk".equalsIgnoreCase(writeMode)) {
+                bulkWrite = true;
+            } else if (!"batch".equalsIgnoreCase(writeMode)) {
+                throw new IllegalArgumentException(String.format(
+                        "Property %s has incorrect value %s : must be either 'batch' or 'bulk'", JDBC_STATEMENT_WRITE_MODE_PROPERTY_NAME, writeMode));
+            }
+
+            bulkMaxBytes = configuration.getInt(JDBC_STATEMENT_BULK_MAX_BYTES_PROPERTY_NAME, DEFAULT_BULK_MAX_BYTES);
+            if (bulkMaxBytes <= 0) {
+                throw new IllegalArgumentException(String.format(
+                        "Property %s has incorrect value %s : must be a positive integer", JDBC_STATEMENT_BULK_MAX_BYTES_PROPERTY_NAME, bulkMaxBytes));
+            }
         }
 
         // determine fetchSize for read operations, with different default values for MySQL driver and all others
@@ -298,9 +324,9 @@ public class JdbcBasePlugin extends BasePlugin {
 
         // Set optional user parameter, taking into account impersonation setting for the server.
         String jdbcUser = configuration.get(JDBC_USER_PROPERTY_NAME);
-        boolean impersonationEnabledForServer = configuration.getBoolean(CONFIG_KEY_SERVICE_USER_IMPERSONATION, false);
-        LOG.debug("JDBC impersonation is {}enabled for server {}", impersonationEnabledForServer ? "" : "not ", context.getServerName());
-        if (impersonationEnabledForServer) {
+        impersonationEnabled = configuration.getBoolean(CONFIG_KEY_SERVICE_USER_IMPERSONATION, false);
+        LOG.debug("JDBC impersonation is {}enabled for server {}", impersonationEnabled ? "" : "not ", context.getServerName());
+        if (impersonationEnabled) {
             if (Utilities.isSecurityEnabled(configuration) && StringUtils.startsWith(jdbcUrl, HIVE_URL_PREFIX)) {
                 // secure impersonation for Hive JDBC driver requires setting URL fragment that cannot be overwritten by properties
                 String updatedJdbcUrl = HiveJdbcUtils.updateImpersonationPropertyInHiveJdbcUrl(jdbcUrl, context.getUser());
@@ -358,7 +384,36 @@ public class JdbcBasePlugin extends BasePlugin {
             // get the qualifier for connection pool, if configured. Might be used when connection session authorization is employed
             // to switch effective user once connection is established
             poolQualifier = configuration.get(JDBC_POOL_QUALIFIER_PROPERTY_NAME);
+
+            // a pool shared across servers is only used for non-impersonated access, where all users connect with
+            // the same credentials
+            isConnectionPoolShared = configuration.getBoolean(JDBC_CONNECTION_POOL_SHARED_PROPERTY_NAME, false);
+            if (isConnectionPoolShared && impersonationEnabled) {
+                LOG.info("Property {} is ignored for server {} as impersonation is enabled",
+                        JDBC_CONNECTION_POOL_SHARED_PROPERTY_NAME, context.getServerName());
+                isConnectionPoolShared = false;
+            }
+        }
+    }
+
+    /**
+     * Create the connection pool of the server ahead of the first query, by
+     * opening a connection and returning it to the pool. The pool then keeps
+     * its configured minimum number of idle connections open.
+     * <p>
+     * Nothing is done when the connection pool is disabled or impersonation
+     * is enabled, as the pools of the users are not known in advance.
+     *
+     * @return true if the connection pool has been created, false otherwise
+     * @throws SQLException if a database access or connection error occurs
+     */
+    public boolean warmUpConnectionPool() throws SQLException {
+        if (!isConnectionPoolUsed || impersonationEnabled) {
+            LOG.debug("Skipping connection pool warm-up for server {}", context.getServerName());
+            return false;
         }
+        closeConnection(getConnection());
+        return true;
     }
 
     /**
@@ -455,6 +510,25 @@ public class JdbcBasePlugin extends BasePlugin {
         }
     }
 
+    /**
+     * Close a JDBC statement that may still be in use by another thread, and
+     * its underlying {@link Connection}. A connection obtained from a pool is
+     * evicted from the pool rather than returned to it, as the statement may
+     * still be running on it.
+     *
+     * @param statement statement to close
+     * @throws SQLException throws when a SQLException occurs
+     */
+    protected void closeStatementAndEvictConnection(Statement statement) throws SQLException {
+        if (statement != null && isConnectionPoolUsed &&
+                connectionManager.evictConnection(statement.getConnection(), context.getServerName(), jdbcUrl,
+                        connectionConfiguration, poolConfiguration, poolQualifier, isConnectionPoolShared)) {
+            // closing the connection closes the statement, the connection is not used anymore
+            return;
+        }
+        closeStatementAndConnection(statement);
+    }
+
     /**
      * For a Kerberized Hive JDBC connection, it creates a connection as the loginUser.
      * Otherwise, it returns a new connection.
@@ -467,9 +541,9 @@ public class JdbcBasePlugin extends BasePlugin {
         Configuration configuration = context.getConfiguration();
         if (Utilities.isSecurityEnabled(configuration) && StringUtils.startsWith(jdbcUrl, HIVE_URL_PREFIX)) {
             return secureLogin.getLoginUser(context, configuration).doAs((PrivilegedExceptionAction<Connection>) () ->
-                    connectionManager.getConnection(context.getServerName(), jdbcUrl, connectionConfiguration, isConnectionPoolUsed, poolConfiguration, poolQualifier));
+                    connectionManager.getConnection(context.getServerName(), jdbcUrl, connectionConfiguration, isConnectionPoolUsed, poolConfiguration, poolQualifier, isConnectionPoolShared));
         } else {
-            return connectionManager.getConnection(context.getServerName(), jdbcUrl, connectionConfiguration, isConnectionPoolUsed, poolConfiguration, poolQualifier);
+            return connectionManager.getConnection(context.getServerName(), jdbcUrl, connectionConfiguration, isConnectionPoolUsed, poolConfiguration, poolQualifier, isConnectionPoolShared);
         }
     }
 
@@ -479,7 +553,7 @@ public class JdbcBasePlugin extends BasePlugin {
      * @param connection connection to close
      * @throws SQLException throws when a SQLException occurs
      */
-    private static void closeConnection(Connection connection) throws SQLException {
+    public static void closeConnection(Connection connection) throws SQLException {
         if (connection == null) {
             LOG.warn("Call to close connection is ignored as connection provided was null");
             return;
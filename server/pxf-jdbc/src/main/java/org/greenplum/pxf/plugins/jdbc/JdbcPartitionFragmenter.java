@@ -24,20 +24,51 @@ import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.FragmentStats;
 import org.greenplum.pxf.plugins.jdbc.partitioning.JdbcFragmentMetadata;
 import org.greenplum.pxf.plugins.jdbc.partitioning.PartitionType;
+import org.greenplum.pxf.plugins.jdbc.partitioning.StatisticsPartitioner;
 
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * JDBC fragmenter
  * <p>
- * Splits the query to allow multiple simultaneous SELECTs
+ * Splits the query to allow multiple simultaneous SELECTs. When the partition
+ * column is of a range-based type and neither RANGE nor INTERVAL is provided,
+ * the partitions are formed from the statistics of the external database.
  */
 public class JdbcPartitionFragmenter extends BaseFragmenter {
 
+    private static final String JDBC_PARTITION_ROWS_PROPERTY_NAME = "jdbc.partition.rowsPerFragment";
+    private static final long DEFAULT_PARTITION_ROWS = 1000000;
+    private static final String JDBC_PARTITION_EXACT_QUANTILES_PROPERTY_NAME = "jdbc.partition.exactQuantiles";
+
+    private final Supplier<JdbcBasePlugin> pluginFactory;
+
     private PartitionType partitionType;
     private String column;
     private String range;
     private String interval;
+    private long rowsPerPartition;
+    private boolean exactQuantiles;
+
+    /**
+     * Creates a new instance of the JdbcPartitionFragmenter
+     */
+    public JdbcPartitionFragmenter() {
+        this(JdbcBasePlugin::new);
+    }
+
+    /**
+     * Creates a new instance of fragmenter with provided factory of the
+     * plugin connecting to the external database to query its statistics.
+     *
+     * @param pluginFactory factory of the plugin
+     */
+    JdbcPartitionFragmenter(Supplier<JdbcBasePlugin> pluginFactory) {
+        this.pluginFactory = pluginFactory;
+    }
 
     @Override
     public void afterPropertiesSet() {
@@ -54,6 +85,15 @@ public class JdbcPartitionFragmenter extends BaseFragmenter {
 
         range = context.getOption("RANGE");
         interval = context.getOption("INTERVAL");
+
+        if (isPartitionedByStatistics()) {
+            rowsPerPartition = configuration.getLong(JDBC_PARTITION_ROWS_PROPERTY_NAME, DEFAULT_PARTITION_ROWS);
+            if (rowsPerPartition < 1) {
+                throw new IllegalArgumentException(String.format(
+                        "Property %s has incorrect value %s : must be a positive integer", JDBC_PARTITION_ROWS_PROPERTY_NAME, rowsPerPartition));
+            }
+            exactQuantiles = configuration.getBoolean(JDBC_PARTITION_EXACT_QUANTILES_PROPERTY_NAME, false);
+        }
     }
 
     /**
@@ -61,13 +101,20 @@ public class JdbcPartitionFragmenter extends BaseFragmenter {
      * Note that all partitionType parameters must be verified before calling this procedure.
      *
      * @return a list of getFragmentsMetadata to be passed to PXF segments
+     * @throws SQLException if the statistics of the external database cannot be queried
      */
     @Override
-    public List<Fragment> getFragments() {
-        if (partitionType == null) {
+    public List<Fragment> getFragments() throws SQLException {
+        List<JdbcFragmentMetadata> fragmentsMetadata = null;
+        if (isPartitionedByStatistics()) {
+            fragmentsMetadata = getFragmentsMetadataFromStatistics();
+        } else if (partitionType != null) {
+            fragmentsMetadata = partitionType.getFragmentsMetadata(column, range, interval);
+        }
+
+        if (fragmentsMetadata == null || fragmentsMetadata.isEmpty()) {
             fragments.add(new Fragment(context.getDataSource()));
         } else {
-            List<JdbcFragmentMetadata> fragmentsMetadata = partitionType.getFragmentsMetadata(column, range, interval);
             for (JdbcFragmentMetadata fragmentMetadata : fragmentsMetadata) {
                 fragments.add(new Fragment(context.getDataSource(), fragmentMetadata));
             }
@@ -75,6 +122,45 @@ public class JdbcPartitionFragmenter extends BaseFragmenter {
         return fragments;
     }
 
+    /**
+     * @return true if the partitions are formed from the statistics of the external database
+     */
+    private boolean isPartitionedByStatistics() {
+        return partitionType != null && partitionType.isRangeBased() && range == null && interval == null;
+    }
+
+    /**
+     * Connect to the external database and form the partitions of the table
+     * from its statistics.
+     *
+     * @return a list of getFragmentsMetadata, empty if the table is too small to be partitioned
+     * @throws SQLException if the statistics of the external database cannot be queried
+     */
+    private List<JdbcFragmentMetadata> getFragmentsMetadataFromStatistics() throws SQLException {
+        JdbcBasePlugin plugin = pluginFactory.get();
+        plugin.setRequestContext(context);
+        plugin.afterPropertiesSet();
+        if (plugin.tableName == null) {
+            throw new IllegalArgumentException(String.format(
+                    "The parameter 'RANGE' must be specified for partition of type '%s' when reading from a query", partitionType));
+        }
+
+        Connection connection = plugin.getConnection();
+        try {
+            // quote the partition column the same way the accessor does
+            SQLQueryBuilder sqlQueryBuilder = new SQLQueryBuilder(context, connection.getMetaData());
+            if (plugin.quoteColumns == null) {
+                sqlQueryBuilder.autoSetQuoteString();
+            } else if (plugin.quoteColumns) {
+                sqlQueryBuilder.forceSetQuoteString();
+            }
+            return new StatisticsPartitioner(partitionType, column, rowsPerPartition, exactQuantiles)
+                    .getFragmentsMetadata(connection, sqlQueryBuilder.getDbProduct(), sqlQueryBuilder.getQuoteString(), plugin.tableName);
+        } finally {
+            JdbcBasePlugin.closeConnection(connection);
+        }
+    }
+
     /**
      * @return fragment stats
      * @throws UnsupportedOperationException ANALYZE for Jdbc plugin is not supported
@@ -19,11 +19,19 @@ package org.greenplum.pxf.plugins.jdbc;
  * under the License.
  */
 
+import org.greenplum.pxf.api.GreenplumDateTime;
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.batch.ColumnBatch;
+import org.greenplum.pxf.api.batch.ColumnVector;
+import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.OutputFormat;
+import org.greenplum.pxf.api.model.ReadColumnBatchResolver;
 import org.greenplum.pxf.api.model.Resolver;
+import org.greenplum.pxf.api.security.SecureLogin;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.plugins.jdbc.utils.ConnectionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,15 +44,21 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
 /**
- * JDBC tables resolver
+ * JDBC tables resolver. Rows are read from the result set by the index of
+ * their columns, which are looked up once per query. When the rows are read
+ * by the {@link org.greenplum.pxf.api.model.ReadVectorizedResolver vectorized}
+ * bridge, every row returned by the {@link JdbcAccessor} is resolved together
+ * with the rows that follow it in the result set, up to the fetch size, into
+ * one batch.
  */
-public class JdbcResolver extends JdbcBasePlugin implements Resolver {
+public class JdbcResolver extends JdbcBasePlugin implements Resolver, ReadColumnBatchResolver {
     private static final Set<DataType> DATATYPES_SUPPORTED = EnumSet.of(
             DataType.VARCHAR,
             DataType.BPCHAR,
@@ -61,8 +75,36 @@ public class JdbcResolver extends JdbcBasePlugin implements Resolver {
             DataType.DATE
     );
 
+    /**
+     * The maximum number of rows resolved into one batch, used when the
+     * fetch size is larger or not set
+     */
+    static final int MAX_BATCH_SIZE = 8192;
+
     private static final Logger LOG = LoggerFactory.getLogger(JdbcResolver.class);
 
+    // the result set the column indexes were looked up in
+    private ResultSet indexedResultSet;
+    // the 1-based index of every projected column in the result set, 0 for columns that are not projected
+    private int[] columnIndexes;
+
+    /**
+     * Creates a new instance of the JdbcResolver
+     */
+    public JdbcResolver() {
+        super();
+    }
+
+    /**
+     * Creates a new instance of resolver with provided connection manager.
+     *
+     * @param connectionManager connection manager
+     * @param secureLogin       the instance of the secure login
+     */
+    JdbcResolver(ConnectionManager connectionManager, SecureLogin secureLogin) {
+        super(connectionManager, secureLogin);
+    }
+
     /**
      * getFields() implementation
      *
@@ -71,12 +113,21 @@ public class JdbcResolver extends JdbcBasePlugin implements Resolver {
      */
     @Override
     public List<OneField> getFields(OneRow row) throws SQLException {
-        ResultSet result = (ResultSet) row.getData();
+        if (row.getData() instanceof Object[]) {
+            return getFields((Object[]) row.getData());
+        }
+        return getFields((ResultSet) row.getData());
+    }
+
+    /**
+     * Resolves the row the result set is on into a list of fields
+     */
+    private List<OneField> getFields(ResultSet result) throws SQLException {
+        resolveColumnIndexes(result);
         LinkedList<OneField> fields = new LinkedList<>();
 
-        for (ColumnDescriptor column : columns) {
-            String colName = column.columnName();
-            Object value;
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnDescriptor column = columns.get(i);
 
             OneField oneField = new OneField();
             oneField.type = column.columnTypeCode();
@@ -88,52 +139,333 @@ public class JdbcResolver extends JdbcBasePlugin implements Resolver {
              */
             if (!column.isProjected()) continue;
 
-            switch (DataType.get(oneField.type)) {
-                case INTEGER:
-                    value = result.getInt(colName);
-                    break;
-                case FLOAT8:
-                    value = result.getDouble(colName);
-                    break;
-                case REAL:
-                    value = result.getFloat(colName);
-                    break;
-                case BIGINT:
-                    value = result.getLong(colName);
-                    break;
-                case SMALLINT:
-                    value = result.getShort(colName);
-                    break;
-                case BOOLEAN:
-                    value = result.getBoolean(colName);
-                    break;
-                case BYTEA:
-                    value = result.getBytes(colName);
-                    break;
-                case VARCHAR:
-                case BPCHAR:
-                case TEXT:
-                case NUMERIC:
-                    value = result.getString(colName);
-                    break;
-                case DATE:
-                    value = result.getDate(colName);
-                    break;
-                case TIMESTAMP:
-                    value = result.getTimestamp(colName);
-                    break;
-                default:
-                    throw new UnsupportedOperationException(
-                            String.format("Field type '%s' (column '%s') is not supported",
-                                    DataType.get(oneField.type),
-                                    column));
-            }
+            oneField.val = readValue(result, columnIndexes[i], column);
+        }
+        return fields;
+    }
 
-            oneField.val = result.wasNull() ? null : value;
+    /**
+     * Resolves the values of a row copied from the result set into a list of fields
+     */
+    private List<OneField> getFields(Object[] values) {
+        LinkedList<OneField> fields = new LinkedList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            fields.add(new OneField(columns.get(i).columnTypeCode(), values[i]));
         }
         return fields;
     }
 
+    /**
+     * Reads the value of a column of the current row of the result set, with
+     * the getter matching the Greenplum type of the column.
+     *
+     * @param result      the result set of the query
+     * @param columnIndex the 1-based index of the column in the result set
+     * @param column      the Greenplum column
+     * @return the value, or null if it is NULL
+     * @throws SQLException if a database access error occurs
+     */
+    static Object readValue(ResultSet result, int columnIndex, ColumnDescriptor column) throws SQLException {
+        Object value;
+        switch (column.getDataType()) {
+            case INTEGER:
+                value = result.getInt(columnIndex);
+                break;
+            case FLOAT8:
+                value = result.getDouble(columnIndex);
+                break;
+            case REAL:
+                value = result.getFloat(columnIndex);
+                break;
+            case BIGINT:
+                value = result.getLong(columnIndex);
+                break;
+            case SMALLINT:
+                value = result.getShort(columnIndex);
+                break;
+            case BOOLEAN:
+                value = result.getBoolean(columnIndex);
+                break;
+            case BYTEA:
+                value = result.getBytes(columnIndex);
+                break;
+            case VARCHAR:
+            case BPCHAR:
+            case TEXT:
+            case NUMERIC:
+                value = result.getString(columnIndex);
+                break;
+            case DATE:
+                value = result.getDate(columnIndex);
+                break;
+            case TIMESTAMP:
+                value = result.getTimestamp(columnIndex);
+                break;
+            default:
+                throw new UnsupportedOperationException(
+                        String.format("Field type '%s' (column '%s') is not supported",
+                                column.getDataType(),
+                                column));
+        }
+        return result.wasNull() ? null : value;
+    }
+
+    /**
+     * Resolves the row the cursor of the result set is on, and the rows that
+     * follow it up to the batch size, into lists of fields.
+     *
+     * @param batch the row returned by the {@link JdbcAccessor}
+     * @return list of tuples
+     */
+    @Override
+    public List<List<OneField>> getFieldsForBatch(OneRow batch) {
+        ResultSetCursor cursor = (ResultSetCursor) batch.getKey();
+        int batchSize = getBatchSize(MAX_BATCH_SIZE);
+        List<List<OneField>> resolvedBatch = new ArrayList<>(Math.min(batchSize, 1024));
+        try {
+            do {
+                Object[] values = cursor.getValues();
+                resolvedBatch.add(values != null ? getFields(values) : getFields(cursor.getResultSet()));
+            } while (resolvedBatch.size() < batchSize && cursor.next());
+        } catch (SQLException e) {
+            throw new PxfRuntimeException("Failed to read a batch of rows from the result set: " + e.getMessage(), e);
+        }
+        return resolvedBatch;
+    }
+
+    /**
+     * Resolves the row the cursor of the result set is on, and the rows that
+     * follow it up to the batch size, into the column vectors of the batch.
+     * Integer and boolean values are stored as longs, floating point values
+     * as doubles, and the values of the other types as text in the format
+     * Greenplum reads them.
+     *
+     * @param batch       the row returned by the {@link JdbcAccessor}
+     * @param columnBatch the column batch to fill, reused across calls
+     */
+    @Override
+    public void resolveColumnBatch(OneRow batch, ColumnBatch columnBatch) {
+        ResultSetCursor cursor = (ResultSetCursor) batch.getKey();
+        ResultSet result = cursor.getResultSet();
+        int batchSize = getBatchSize(columnBatch.getCapacity());
+        columnBatch.reset(batchSize);
+        for (int i = 0; i < columns.size(); i++) {
+            columnBatch.getColumn(i).reset(columns.get(i).getDataType());
+        }
+
+        int rowCount = 0;
+        try {
+            if (cursor.getValues() == null) {
+                resolveColumnIndexes(result);
+            }
+            do {
+                Object[] values = cursor.getValues();
+                for (int i = 0; i < columns.size(); i++) {
+                    ColumnVector vector = columnBatch.getColumn(i);
+                    if (values != null) {
+                        setValue(values[i], columns.get(i), vector, rowCount);
+                    } else if (columnIndexes[i] == 0) {
+                        vector.setNull(rowCount);
+                    } else {
+                        readValue(result, columnIndexes[i], columns.get(i), vector, rowCount);
+                    }
+                }
+                rowCount++;
+            } while (rowCount < batchSize && cursor.next());
+        } catch (SQLException e) {
+            throw new PxfRuntimeException("Failed to read a batch of rows from the result set: " + e.getMessage(), e);
+        }
+        columnBatch.setSize(rowCount);
+    }
+
+    /**
+     * Reads the value of a column of the current row of the result set into
+     * the given row of the column vector.
+     */
+    private void readValue(ResultSet result, int columnIndex, ColumnDescriptor column, ColumnVector vector, int row) throws SQLException {
+        switch (column.getDataType()) {
+            case INTEGER:
+            case BIGINT:
+            case SMALLINT: {
+                long value = result.getLong(columnIndex);
+                if (result.wasNull()) {
+                    vector.setNull(row);
+                } else {
+                    vector.setLong(row, value);
+                }
+                break;
+            }
+            case BOOLEAN: {
+                boolean value = result.getBoolean(columnIndex);
+                if (result.wasNull()) {
+                    vector.setNull(row);
+                } else {
+                    vector.setLong(row, value ? 1 : 0);
+                }
+                break;
+            }
+            case FLOAT8:
+            case REAL: {
+                double value = column.getDataType() == DataType.REAL
+                        ? result.getFloat(columnIndex)
+                        : result.getDouble(columnIndex);
+                if (result.wasNull()) {
+                    vector.setNull(row);
+                } else {
+                    vector.setDouble(row, value);
+                }
+                break;
+            }
+            case BYTEA: {
+                byte[] value = result.getBytes(columnIndex);
+                if (value == null) {
+                    vector.setNull(row);
+                } else {
+                    vector.setBytes(row, value, 0, value.length);
+                }
+                break;
+            }
+            case VARCHAR:
+            case BPCHAR:
+            case TEXT:
+            case NUMERIC: {
+                String value = result.getString(columnIndex);
+                if (value == null) {
+                    vector.setNull(row);
+                } else {
+                    vector.setString(row, value);
+                }
+                break;
+            }
+            case DATE: {
+                Date value = result.getDate(columnIndex);
+                if (value == null) {
+                    vector.setNull(row);
+                } else {
+                    vector.setString(row, value.toString());
+                }
+                break;
+            }
+            case TIMESTAMP: {
+                Timestamp value = result.getTimestamp(columnIndex);
+                if (value == null) {
+                    vector.setNull(row);
+                } else {
+                    vector.setString(row, formatTimestamp(value));
+                }
+                break;
+            }
+            default:
+                throw new UnsupportedOperationException(
+                        String.format("Field type '%s' (column '%s') is not supported",
+                                column.getDataType(),
+                                column));
+        }
+    }
+
+    /**
+     * Stores a value copied from the result set into the given row of the
+     * column vector, the same way {@link #readValue(ResultSet, int, ColumnDescriptor, ColumnVector, int)} does.
+     */
+    private void setValue(Object value, ColumnDescriptor column, ColumnVector vector, int row) {
+        if (value == null) {
+            vector.setNull(row);
+            return;
+        }
+        switch (column.getDataType()) {
+            case INTEGER:
+            case BIGINT:
+            case SMALLINT:
+                vector.setLong(row, ((Number) value).longValue());
+                break;
+            case BOOLEAN:
+                vector.setLong(row, (Boolean) value ? 1 : 0);
+                break;
+            case FLOAT8:
+            case REAL:
+                vector.setDouble(row, ((Number) value).doubleValue());
+                break;
+            case BYTEA: {
+                byte[] bytes = (byte[]) value;
+                vector.setBytes(row, bytes, 0, bytes.length);
+                break;
+            }
+            case VARCHAR:
+            case BPCHAR:
+            case TEXT:
+            case NUMERIC:
+            case DATE:
+                vector.setString(row, value.toString());
+                break;
+            case TIMESTAMP:
+                vector.setString(row, formatTimestamp((Timestamp) value));
+                break;
+            default:
+                throw new UnsupportedOperationException(
+                        String.format("Field type '%s' (column '%s') is not supported",
+                                column.getDataType(),
+                                column));
+        }
+    }
+
+    /**
+     * Formats a timestamp the same way the rows resolved into fields are
+     * serialized: with {@link GreenplumDateTime#DATETIME_FORMATTER} in the
+     * TEXT format, and with {@link Timestamp#toString()} in the GPDBWritable
+     * format, which keeps the nanoseconds and the calendar of old dates.
+     */
+    private String formatTimestamp(Timestamp value) {
+        return context.getOutputFormat() == OutputFormat.TEXT
+                ? value.toLocalDateTime().format(GreenplumDateTime.DATETIME_FORMATTER)
+                : value.toString();
+    }
+
+    /**
+     * Looks up the index of every projected column in the given result set,
+     * unless they were already looked up in it.
+     *
+     * @param result the result set of the query
+     * @throws SQLException if a projected column is not in the result set
+     */
+    private void resolveColumnIndexes(ResultSet result) throws SQLException {
+        if (result == indexedResultSet) {
+            return;
+        }
+        columnIndexes = findColumnIndexes(result, columns);
+        indexedResultSet = result;
+    }
+
+    /**
+     * Looks up the index of every projected column in the given result set.
+     *
+     * @param result  the result set of the query
+     * @param columns the columns of the Greenplum table
+     * @return the 1-based index of every projected column, 0 for columns that are not projected
+     * @throws SQLException if a projected column is not in the result set
+     */
+    static int[] findColumnIndexes(ResultSet result, List<ColumnDescriptor> columns) throws SQLException {
+        int[] indexes = new int[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnDescriptor column = columns.get(i);
+            if (column.isProjected()) {
+                indexes[i] = result.findColumn(column.columnName());
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Returns the number of rows to resolve into one batch, which is the
+     * fetch size, so that a batch does not wait for another round trip to
+     * the database, but no more than the given maximum.
+     *
+     * @param maxBatchSize the batch size to use when the fetch size is not set
+     * @return the number of rows of a batch
+     */
+    private int getBatchSize(int maxBatchSize) {
+        return fetchSize > 0 ? Math.min(fetchSize, MAX_BATCH_SIZE) : maxBatchSize;
+    }
+
     /**
      * setFields() implementation
      *
@@ -235,12 +567,28 @@ public class JdbcResolver extends JdbcBasePlugin implements Resolver {
      * @throws IOException  if data in a OneRow is corrupted
      * @throws SQLException if the given statement is broken
      */
-    @SuppressWarnings("unchecked")
     public static void decodeOneRowToPreparedStatement(OneRow row, PreparedStatement statement) throws IOException, SQLException {
+        decodeOneRowToPreparedStatement(row, statement, 0);
+    }
+
+    /**
+     * Decode OneRow object and pass all its contents to a PreparedStatement,
+     * starting at the parameter following the given offset. Used to bind
+     * several rows to a single multi-row INSERT statement.
+     *
+     * @param row             one row
+     * @param statement       PreparedStatement
+     * @param parameterOffset the number of parameters of the statement preceding the row
+     * @throws IOException  if data in a OneRow is corrupted
+     * @throws SQLException if the given statement is broken
+     */
+    @SuppressWarnings("unchecked")
+    public static void decodeOneRowToPreparedStatement(OneRow row, PreparedStatement statement, int parameterOffset) throws IOException, SQLException {
         // This is safe: OneRow comes from JdbcResolver
         List<OneField> tuple = (List<OneField>) row.getData();
-        for (int i = 1; i <= tuple.size(); i++) {
-            OneField field = tuple.get(i - 1);
+        for (int j = 1; j <= tuple.size(); j++) {
+            OneField field = tuple.get(j - 1);
+            int i = parameterOffset + j;
             switch (DataType.get(field.type)) {
                 case INTEGER:
                     if (field.val == null) {
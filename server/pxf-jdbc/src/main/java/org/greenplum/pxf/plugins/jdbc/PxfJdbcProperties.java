@@ -9,6 +9,8 @@ import org.springframework.validation.annotation.Validated;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 @ConfigurationProperties(prefix = PxfJdbcProperties.PROPERTY_PREFIX)
@@ -53,5 +55,11 @@ public class PxfJdbcProperties {
          */
         @DurationUnit(ChronoUnit.HOURS)
         private Duration poolExpirationTimeout = Duration.ofHours(6);
+
+        /**
+         * Defines the servers whose connection pools are created when PXF
+         * starts, instead of on the first query to the server.
+         */
+        private List<String> warmUpServers = new ArrayList<>();
     }
 }
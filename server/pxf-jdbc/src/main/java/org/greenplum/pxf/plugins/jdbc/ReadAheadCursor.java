@@ -0,0 +1,307 @@
+package org.greenplum.pxf.plugins.jdbc;
+
+import org.greenplum.pxf.api.model.FetchStats;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A cursor that reads the rows of the result set on a background thread,
+ * one fetch of rows at a time, and copies their values, so that the next
+ * fetch from the external database is made while the rows of the previous
+ * one are resolved and sent to Greenplum.
+ * <p>
+ * The thread reads as many rows as the fetch size, so that every batch it
+ * reads starts with the round trip that fetches it. It keeps one batch ready
+ * for the cursor while it reads the next one. When an {@link AdaptiveFetchSize}
+ * is given, the fetch size of the result set is adjusted from the round trips
+ * and the size of the rows of the first batches.
+ * <p>
+ * The thread is taken from the given executor. When the executor has no
+ * thread to spare, the rows are read by the caller of {@link #next()}, in
+ * the same batches, without reading ahead.
+ */
+class ReadAheadCursor extends ResultSetCursor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReadAheadCursor.class);
+
+    // marks the end of the rows, or the failure to read them
+    private static final Object[][] END = new Object[0][];
+    // the estimated size of a value of a fixed-length type
+    private static final int FIXED_VALUE_SIZE = 8;
+    private static final long QUEUE_TIMEOUT_MILLIS = 100;
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final List<ColumnDescriptor> columns;
+    private final int[] columnIndexes;
+    private final AdaptiveFetchSize adaptiveFetchSize;
+    private final BlockingQueue<Object[][]> batches = new ArrayBlockingQueue<>(1);
+    // claimed by the reading thread when it starts, or by close() if it has not
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final Future<?> reader;
+
+    private volatile boolean closed;
+    private volatile Exception failure;
+
+    // the statistics of the fetches, written by the reading thread
+    private volatile int fetchSize;
+    private volatile long fetchCount;
+    private volatile long rowCount;
+    private volatile long byteCount;
+    private volatile long fetchNanos;
+
+    // whether the result set may have more rows, only accessed by the reader of the rows
+    private boolean more = true;
+
+    // the rows the cursor moves over, only accessed by the caller of next()
+    private Object[][] batch;
+    private int position;
+    private boolean exhausted;
+
+    /**
+     * Creates the cursor and starts reading the rows of the result set.
+     *
+     * @param resultSet         the result set of the query, executed with the given fetch size
+     * @param columns           the columns of the Greenplum table
+     * @param fetchSize         the number of rows of a fetch, greater than 0
+     * @param adaptiveFetchSize the fetch size to adjust, or null to keep the given fetch size
+     * @param executor          the executor running the thread reading the rows
+     * @throws SQLException if a projected column is not in the result set
+     */
+    ReadAheadCursor(ResultSet resultSet, List<ColumnDescriptor> columns, int fetchSize, AdaptiveFetchSize adaptiveFetchSize,
+                    AsyncTaskExecutor executor) throws SQLException {
+        super(resultSet);
+        this.columns = columns;
+        this.columnIndexes = JdbcResolver.findColumnIndexes(resultSet, columns);
+        this.fetchSize = fetchSize;
+        this.adaptiveFetchSize = adaptiveFetchSize;
+
+        Future<?> future;
+        try {
+            future = executor.submit(this::readRows);
+        } catch (TaskRejectedException e) {
+            LOG.debug("No thread is available to read the rows ahead, reading them on demand");
+            future = null;
+            started.set(true);
+            stopped.countDown();
+        }
+        reader = future;
+    }
+
+    @Override
+    boolean next() throws SQLException {
+        if (exhausted) {
+            return false;
+        }
+        if (batch != null && ++position < batch.length) {
+            return true;
+        }
+
+        Object[][] next;
+        if (reader == null) {
+            next = readBatch();
+        } else {
+            try {
+                next = batches.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for rows of the result set", e);
+            }
+        }
+        if (next == END) {
+            exhausted = true;
+            batch = null;
+            Exception e = failure;
+            if (e instanceof SQLException) {
+                throw (SQLException) e;
+            } else if (e != null) {
+                throw new SQLException(e.getMessage(), e);
+            }
+            return false;
+        }
+        batch = next;
+        position = 0;
+        return true;
+    }
+
+    @Override
+    Object[] getValues() {
+        return batch[position];
+    }
+
+    @Override
+    FetchStats getFetchStats() {
+        return new FetchStats(fetchCount, rowCount, byteCount, Duration.ofNanos(fetchNanos), fetchSize);
+    }
+
+    /**
+     * Stops reading the rows. When the thread reading them is still running
+     * before the end of the rows, the statement is cancelled so that it does
+     * not wait for the external database any longer.
+     *
+     * @return true if the rows are no longer read, false if the thread is
+     * still using the connection after the statement was cancelled
+     */
+    @Override
+    boolean close() {
+        closed = true;
+        batches.clear();
+        if (started.compareAndSet(false, true) || stopped.getCount() == 0) {
+            return true;
+        }
+
+        // once the end of the rows was handed over, the thread is about to stop by itself
+        if (!exhausted) {
+            try {
+                getResultSet().getStatement().cancel();
+            } catch (SQLException e) {
+                LOG.warn("Failed to cancel the statement reading the rows of the result set", e);
+            }
+            reader.cancel(true);
+        }
+        try {
+            if (stopped.await(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOG.warn("The rows of the result set are still being read {} seconds after the statement was cancelled", CLOSE_TIMEOUT_SECONDS);
+        return false;
+    }
+
+    /**
+     * Reads the rows of the result set in batches of the fetch size, until
+     * there are no more rows or the cursor is closed.
+     */
+    private void readRows() {
+        if (!started.compareAndSet(false, true)) {
+            // the cursor was closed before the thread started
+            return;
+        }
+        try {
+            while (!closed) {
+                Object[][] rows = readBatch();
+                put(rows);
+                if (rows == END) {
+                    break;
+                }
+            }
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Reads the next batch of rows of the result set
+     *
+     * @return the rows, or {@link #END} if there are no more rows or they cannot be read
+     */
+    private Object[][] readBatch() {
+        ResultSet resultSet = getResultSet();
+        try {
+            while (more) {
+                int size = fetchSize;
+                Object[][] rows = new Object[size][];
+                int count = 0;
+                long bytes = 0;
+
+                long start = System.nanoTime();
+                more = resultSet.next();
+                long fetched = System.nanoTime();
+                while (more) {
+                    Object[] values = readRow(resultSet);
+                    bytes += estimateSize(values);
+                    rows[count++] = values;
+                    if (count == size) {
+                        break;
+                    }
+                    more = resultSet.next();
+                }
+                long end = System.nanoTime();
+
+                if (count > 0) {
+                    // the first batch was fetched when the query was executed
+                    if (adaptiveFetchSize != null && fetchCount > 0) {
+                        int newFetchSize = adaptiveFetchSize.observe(count, bytes, fetched - start, end - fetched);
+                        if (newFetchSize != size) {
+                            LOG.debug("Changing the fetch size from {} to {} rows", size, newFetchSize);
+                            resultSet.setFetchSize(newFetchSize);
+                            fetchSize = newFetchSize;
+                        }
+                    }
+                    fetchCount++;
+                    rowCount += count;
+                    byteCount += bytes;
+                    fetchNanos += fetched - start;
+                    return count < size ? Arrays.copyOf(rows, count) : rows;
+                }
+            }
+        } catch (Exception e) {
+            more = false;
+            failure = e;
+        }
+        return END;
+    }
+
+    /**
+     * Copies the values of the projected columns of the current row
+     */
+    private Object[] readRow(ResultSet resultSet) throws SQLException {
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            if (columnIndexes[i] != 0) {
+                values[i] = JdbcResolver.readValue(resultSet, columnIndexes[i], columns.get(i));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Estimates the number of bytes the values of a row take
+     */
+    private static long estimateSize(Object[] values) {
+        long size = 0;
+        for (Object value : values) {
+            if (value instanceof String) {
+                size += ((String) value).length();
+            } else if (value instanceof byte[]) {
+                size += ((byte[]) value).length;
+            } else if (value != null) {
+                size += FIXED_VALUE_SIZE;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Hands a batch of rows to the cursor, waiting while the previous one is
+     * not taken, unless the cursor is closed
+     */
+    private void put(Object[][] rows) {
+        try {
+            while (!closed) {
+                if (batches.offer(rows, QUEUE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.greenplum.pxf.plugins.jdbc;
+
+import org.greenplum.pxf.api.model.FetchStats;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Moves the cursor of the {@link ResultSet} of a query, remembering when the
+ * last row was passed. The {@link JdbcAccessor} moves to the first row of a
+ * batch, and a resolver that reads several rows at once moves to the next
+ * rows of the batch with the same cursor, so that the accessor does not call
+ * {@link ResultSet#next()} again once it returned false, which some drivers
+ * do not allow for forward-only result sets.
+ */
+class ResultSetCursor {
+
+    private final ResultSet resultSet;
+    private boolean exhausted;
+
+    ResultSetCursor(ResultSet resultSet) {
+        this.resultSet = resultSet;
+    }
+
+    /**
+     * Moves the cursor to the next row.
+     *
+     * @return true if the cursor is on a row, false if there are no more rows
+     * @throws SQLException if a database access error occurs
+     */
+    boolean next() throws SQLException {
+        if (exhausted) {
+            return false;
+        }
+        exhausted = !resultSet.next();
+        return !exhausted;
+    }
+
+    /**
+     * @return the result set of the query
+     */
+    ResultSet getResultSet() {
+        return resultSet;
+    }
+
+    /**
+     * Returns the values of the row the cursor is on when they were copied
+     * from the result set ahead of time, in the order of the tuple
+     * description, or null if they must be read from the result set.
+     *
+     * @return the values of the current row, or null
+     */
+    Object[] getValues() {
+        return null;
+    }
+
+    /**
+     * @return the statistics of the fetches of the rows, or null if they are not gathered
+     */
+    FetchStats getFetchStats() {
+        return null;
+    }
+
+    /**
+     * Stops reading the result set. The result set itself is closed with its statement.
+     *
+     * @return true if the result set is no longer read, false if it may still be in use
+     */
+    boolean close() {
+        return true;
+    }
+}
@@ -237,6 +237,24 @@ public class SQLQueryBuilder {
         }
     }
 
+    /**
+     * Returns the string used to quote column identifiers, empty if they are not quoted
+     *
+     * @return the quote string
+     */
+    public String getQuoteString() {
+        return quoteString;
+    }
+
+    /**
+     * Returns the external database product
+     *
+     * @return the database product
+     */
+    public DbProduct getDbProduct() {
+        return dbProduct;
+    }
+
     /**
      * Builds the columns queried in a SELECT query
      *
@@ -23,6 +23,9 @@ import org.apache.commons.lang.StringUtils;
 import org.greenplum.pxf.plugins.jdbc.Interval;
 import org.greenplum.pxf.plugins.jdbc.IntervalType;
 
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -61,6 +64,18 @@ public enum PartitionType {
             return new IntPartition(column, (Long) start, (Long) end);
         }
 
+        @Override
+        Object readValue(ResultSet resultSet, int columnIndex) throws SQLException {
+            long value = resultSet.getLong(columnIndex);
+            return resultSet.wasNull() ? null : value;
+        }
+
+        @Override
+        Object interpolate(Object min, Object max, double fraction) {
+            long start = (long) min;
+            return start + (long) (((double) (long) max - start) * fraction);
+        }
+
         @Override
         String getValidIntervalFormat() {
             return "Integer";
@@ -104,6 +119,18 @@ public enum PartitionType {
             return new DatePartition(column, (LocalDate) start, (LocalDate) end);
         }
 
+        @Override
+        Object readValue(ResultSet resultSet, int columnIndex) throws SQLException {
+            Date value = resultSet.getDate(columnIndex);
+            return value == null ? null : value.toLocalDate();
+        }
+
+        @Override
+        Object interpolate(Object min, Object max, double fraction) {
+            long start = ((LocalDate) min).toEpochDay();
+            return LocalDate.ofEpochDay(start + (long) ((((LocalDate) max).toEpochDay() - start) * fraction));
+        }
+
         @Override
         String getValidIntervalFormat() {
             return "yyyy-mm-dd";
@@ -160,6 +187,21 @@ public enum PartitionType {
             throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
         }
 
+        @Override
+        Object readValue(ResultSet resultSet, int columnIndex) {
+            throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
+        }
+
+        @Override
+        Object interpolate(Object min, Object max, double fraction) {
+            throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
+        }
+
+        @Override
+        public boolean isRangeBased() {
+            return false;
+        }
+
         @Override
         String getValidIntervalFormat() {
             throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
@@ -236,6 +278,64 @@ public enum PartitionType {
      */
     abstract String getValidIntervalFormat();
 
+    /**
+     * Read a value of the partition column from the result set of a query
+     *
+     * @param resultSet   the result set positioned on a row
+     * @param columnIndex the 1-based index of the column holding the value
+     * @return the value, or null if the value is SQL NULL
+     * @throws SQLException if the value cannot be read
+     */
+    abstract Object readValue(ResultSet resultSet, int columnIndex) throws SQLException;
+
+    /**
+     * Return the value at the given fraction of the distance between two values
+     *
+     * @param min      the lower value
+     * @param max      the upper value
+     * @param fraction the fraction of the distance, between 0 and 1
+     * @return the value between 'min' and 'max'
+     */
+    abstract Object interpolate(Object min, Object max, double fraction);
+
+    /**
+     * @return true if partitions of this type cover ranges of values, which can
+     * also be derived from the statistics of the external database
+     */
+    public boolean isRangeBased() {
+        return true;
+    }
+
+    /**
+     * Form a list of getFragmentsMetadata for this partition from the given
+     * ascending boundaries, instead of a user-provided RANGE and INTERVAL.
+     * The first and the last partitions are unbounded, so that the values
+     * outside of the boundaries are also covered.
+     *
+     * @param column     the partition column name
+     * @param boundaries the values starting every partition but the first one
+     * @return a list of getFragmentsMetadata (of various concrete types)
+     */
+    public List<JdbcFragmentMetadata> getFragmentsMetadata(String column, List<?> boundaries) {
+        if (StringUtils.isBlank(column)) {
+            throw new RuntimeException("The column name must be provided");
+        }
+        if (boundaries.isEmpty()) {
+            throw new IllegalArgumentException("At least one partition boundary must be provided");
+        }
+
+        List<JdbcFragmentMetadata> result = new LinkedList<>();
+        Object fragmentStart = null;
+        for (Object boundary : boundaries) {
+            result.add(createPartition(column, fragmentStart, boundary));
+            fragmentStart = boundary;
+        }
+        result.add(createPartition(column, fragmentStart, null));
+        result.add(new NullPartition(column));
+
+        return result;
+    }
+
     /**
      * Analyze the user-provided parameters (column name, RANGE and INTERVAL values) and form a list of getFragmentsMetadata for this partition according to those parameters.
      *
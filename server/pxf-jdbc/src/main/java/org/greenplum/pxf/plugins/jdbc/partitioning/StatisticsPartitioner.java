@@ -0,0 +1,242 @@
+package org.greenplum.pxf.plugins.jdbc.partitioning;
+
+import org.apache.commons.lang.StringUtils;
+import org.greenplum.pxf.plugins.jdbc.utils.DbProduct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Forms the partitions of a table from the statistics of the external
+ * database, when RANGE and INTERVAL are not provided by the user.
+ * <p>
+ * The number of partitions is the number of rows of the table divided by the
+ * requested number of rows per partition. The rows are estimated from the
+ * statistics the database keeps when possible, otherwise they are counted.
+ * The boundaries of the partitions are taken from the histogram of the
+ * partition column kept by the database, which keeps partitions about the
+ * same size when the values are skewed. Otherwise, the range between the
+ * minimum and the maximum values of the column is split into equal
+ * intervals, unless exact quantiles are requested, in which case the
+ * boundaries are the quantiles of the values of the column, computed by
+ * sorting all the rows of the table.
+ */
+public class StatisticsPartitioner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatisticsPartitioner.class);
+
+    private final PartitionType partitionType;
+    private final String column;
+    private final long rowsPerPartition;
+    private final boolean exactQuantiles;
+
+    /**
+     * @param partitionType    the type of the partition column, must be range-based
+     * @param column           the partition column name
+     * @param rowsPerPartition the target number of rows of a partition
+     */
+    public StatisticsPartitioner(PartitionType partitionType, String column, long rowsPerPartition) {
+        this(partitionType, column, rowsPerPartition, false);
+    }
+
+    /**
+     * @param partitionType    the type of the partition column, must be range-based
+     * @param column           the partition column name
+     * @param rowsPerPartition the target number of rows of a partition
+     * @param exactQuantiles   true to compute the quantiles of the column when no histogram is available
+     */
+    public StatisticsPartitioner(PartitionType partitionType, String column, long rowsPerPartition, boolean exactQuantiles) {
+        if (!partitionType.isRangeBased()) {
+            throw new IllegalArgumentException(String.format(
+                    "The parameter 'RANGE' must be specified for partition of type '%s'", partitionType));
+        }
+        if (StringUtils.isBlank(column)) {
+            throw new IllegalArgumentException("The column name must be provided");
+        }
+        if (rowsPerPartition < 1) {
+            throw new IllegalArgumentException("The number of rows per partition must be at least 1, but actual is " + rowsPerPartition);
+        }
+        this.partitionType = partitionType;
+        this.column = column;
+        this.rowsPerPartition = rowsPerPartition;
+        this.exactQuantiles = exactQuantiles;
+    }
+
+    /**
+     * Query the statistics of the table and form a list of getFragmentsMetadata
+     * for the partitions of about the requested number of rows.
+     *
+     * @param connection  connection to the external database
+     * @param dbProduct   the external database product
+     * @param quoteString string to use as quote for column identifiers
+     * @param tableName   the name of the table
+     * @return a list of getFragmentsMetadata, empty if the table is too small to be partitioned
+     * @throws SQLException if the statistics of the table cannot be queried
+     */
+    public List<JdbcFragmentMetadata> getFragmentsMetadata(Connection connection, DbProduct dbProduct, String quoteString, String tableName) throws SQLException {
+        String quotedColumn = quoteString + column + quoteString;
+
+        long rowCount = getRowCount(connection, dbProduct, tableName);
+        long partitions = (rowCount + rowsPerPartition - 1) / rowsPerPartition;
+        LOG.debug("Table {} has about {} rows, forming {} partitions of {} rows", tableName, rowCount, partitions, rowsPerPartition);
+        if (partitions < 2) {
+            return Collections.emptyList();
+        }
+        int buckets = (int) Math.min(partitions, Integer.MAX_VALUE);
+
+        List<Object> boundaries = getHistogramBoundaries(connection, dbProduct, quotedColumn, tableName, buckets);
+        if (boundaries.isEmpty() && exactQuantiles) {
+            boundaries = getQuantileBoundaries(connection, dbProduct, quotedColumn, tableName, buckets);
+        }
+        if (boundaries.isEmpty()) {
+            boundaries = getUniformBoundaries(connection, quotedColumn, tableName, buckets);
+        }
+        if (boundaries.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return partitionType.getFragmentsMetadata(column, boundaries);
+    }
+
+    /**
+     * Return the number of rows of the table, as estimated by the database
+     * if possible, or counted otherwise
+     */
+    private long getRowCount(Connection connection, DbProduct dbProduct, String tableName) throws SQLException {
+        String estimateQuery = dbProduct.buildRowCountEstimateQuery(tableName);
+        if (estimateQuery != null) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(estimateQuery)) {
+                if (resultSet.next()) {
+                    long estimate = (long) resultSet.getDouble(1);
+                    // databases report 0 or a negative number for tables that were not analyzed
+                    if (estimate > 0) {
+                        return estimate;
+                    }
+                }
+            } catch (SQLException e) {
+                LOG.debug("Failed to estimate the number of rows of {}, counting them instead: {}", tableName, e.getMessage());
+            }
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + tableName)) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Return the boundaries of the partitions from the histogram of the
+     * column, picking the bounds of the buckets of the histogram where the
+     * number of rows up to the bound reaches the size of the next partition
+     */
+    private List<Object> getHistogramBoundaries(Connection connection, DbProduct dbProduct, String quotedColumn, String tableName, int partitions) {
+        String histogramQuery = dbProduct.buildHistogramQuery(quotedColumn, tableName);
+        if (histogramQuery == null) {
+            return Collections.emptyList();
+        }
+        List<Object> bounds = new ArrayList<>();
+        List<Double> positions = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(histogramQuery)) {
+            while (resultSet.next()) {
+                String bound = resultSet.getString(1);
+                if (bound != null) {
+                    bounds.add(partitionType.parseRange(StringUtils.strip(bound.trim(), "\"")));
+                    positions.add(resultSet.getDouble(2));
+                }
+            }
+        } catch (Exception e) {
+            LOG.debug("Failed to read the histogram of column {} of {}: {}", column, tableName, e.getMessage());
+            return Collections.emptyList();
+        }
+
+        // a histogram of the minimum and the maximum values only tells nothing about their distribution
+        int lastBound = bounds.size() - 1;
+        if (lastBound < 2) {
+            return Collections.emptyList();
+        }
+        double first = positions.get(0);
+        double total = positions.get(lastBound) - first;
+        List<Object> boundaries = new ArrayList<>();
+        int bound = 0;
+        for (int i = 1; i < partitions; i++) {
+            double target = first + total * i / partitions;
+            while (bound < lastBound && positions.get(bound) < target) {
+                bound++;
+            }
+            addBoundary(boundaries, bounds.get(bound));
+        }
+        return boundaries;
+    }
+
+    /**
+     * Return the boundaries of the partitions from the quantiles of the
+     * values of the column
+     */
+    private List<Object> getQuantileBoundaries(Connection connection, DbProduct dbProduct, String quotedColumn, String tableName, int partitions) {
+        String quantilesQuery = dbProduct.buildQuantilesQuery(quotedColumn, tableName, partitions);
+        if (quantilesQuery == null) {
+            return Collections.emptyList();
+        }
+        List<Object> boundaries = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(quantilesQuery)) {
+            // the lowest value of the first bucket starts no partition
+            boolean first = true;
+            while (resultSet.next()) {
+                Object value = partitionType.readValue(resultSet, 1);
+                if (!first) {
+                    addBoundary(boundaries, value);
+                }
+                first = false;
+            }
+        } catch (SQLException e) {
+            LOG.debug("Failed to read the quantiles of column {} of {}: {}", column, tableName, e.getMessage());
+            return Collections.emptyList();
+        }
+        return boundaries;
+    }
+
+    /**
+     * Return the boundaries of the partitions splitting the range between the
+     * minimum and the maximum values of the column into equal intervals
+     */
+    private List<Object> getUniformBoundaries(Connection connection, String quotedColumn, String tableName, int partitions) throws SQLException {
+        Object min, max;
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(String.format("SELECT MIN(%1$s), MAX(%1$s) FROM %2$s", quotedColumn, tableName))) {
+            if (!resultSet.next()) {
+                return Collections.emptyList();
+            }
+            min = partitionType.readValue(resultSet, 1);
+            max = partitionType.readValue(resultSet, 2);
+        }
+        List<Object> boundaries = new ArrayList<>();
+        if (min == null || max == null) {
+            return boundaries;
+        }
+        for (int i = 1; i < partitions; i++) {
+            addBoundary(boundaries, partitionType.interpolate(min, max, (double) i / partitions));
+        }
+        return boundaries;
+    }
+
+    /**
+     * Add a boundary if it is larger than the last one, so that no partition
+     * is empty when many rows share the same value
+     */
+    private void addBoundary(List<Object> boundaries, Object boundary) {
+        if (boundary == null) {
+            return;
+        }
+        if (boundaries.isEmpty() || partitionType.isLessThan(boundaries.get(boundaries.size() - 1), boundary)) {
+            boundaries.add(boundary);
+        }
+    }
+}
@@ -10,11 +10,15 @@ import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.common.util.concurrent.Uninterruptibles;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.SneakyThrows;
 import org.apache.commons.lang.StringUtils;
 import org.greenplum.pxf.plugins.jdbc.PxfJdbcProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
@@ -27,6 +31,7 @@ import java.util.Properties;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Responsible for obtaining and maintaining JDBC connections to databases. If configured for a given server,
@@ -99,6 +104,26 @@ public class ConnectionManager {
      * @throws SQLException if connection can not be obtained
      */
     public Connection getConnection(String server, String jdbcUrl, Properties connectionConfiguration, boolean isPoolEnabled, Properties poolConfiguration, String qualifier) throws SQLException {
+        return getConnection(server, jdbcUrl, connectionConfiguration, isPoolEnabled, poolConfiguration, qualifier, false);
+    }
+
+    /**
+     * Returns a connection to the target database either directly from the
+     * DriverManagerWrapper or from a Hikari connection pool that manages
+     * connections. A shared pool is used by all servers that connect to the
+     * same database with the same credentials and pool configuration.
+     *
+     * @param server                  configuration server
+     * @param jdbcUrl                 JDBC url of the target database
+     * @param connectionConfiguration connection configuration properties
+     * @param isPoolEnabled           true if the connection pool is enabled, false otherwise
+     * @param poolConfiguration       pool configuration properties
+     * @param qualifier               pool qualifier
+     * @param isPoolShared            true if the connection pool is shared across servers, false otherwise
+     * @return connection instance
+     * @throws SQLException if connection can not be obtained
+     */
+    public Connection getConnection(String server, String jdbcUrl, Properties connectionConfiguration, boolean isPoolEnabled, Properties poolConfiguration, String qualifier, boolean isPoolShared) throws SQLException {
 
         Connection result;
         if (!isPoolEnabled) {
@@ -106,7 +131,7 @@ public class ConnectionManager {
             result = driverManagerWrapper.getConnection(jdbcUrl, connectionConfiguration);
         } else {
 
-            PoolDescriptor poolDescriptor = new PoolDescriptor(server, jdbcUrl, connectionConfiguration, poolConfiguration, qualifier);
+            PoolDescriptor poolDescriptor = new PoolDescriptor(server, jdbcUrl, connectionConfiguration, poolConfiguration, qualifier, isPoolShared);
 
             DataSource dataSource;
             try {
@@ -124,6 +149,31 @@ public class ConnectionManager {
         return result;
     }
 
+    /**
+     * Evicts a connection obtained from a Hikari connection pool, closing it
+     * instead of returning it to the pool. Used for connections that may
+     * still be in use by another thread, so that they are not reused.
+     *
+     * @param connection              the connection to evict, obtained with the same parameters
+     * @param server                  configuration server
+     * @param jdbcUrl                 JDBC url of the target database
+     * @param connectionConfiguration connection configuration properties
+     * @param poolConfiguration       pool configuration properties
+     * @param qualifier               pool qualifier
+     * @param isPoolShared            true if the connection pool is shared across servers, false otherwise
+     * @return true if the connection was evicted, false if its pool no longer exists
+     */
+    public boolean evictConnection(Connection connection, String server, String jdbcUrl, Properties connectionConfiguration, Properties poolConfiguration, String qualifier, boolean isPoolShared) {
+        PoolDescriptor poolDescriptor = new PoolDescriptor(server, jdbcUrl, connectionConfiguration, poolConfiguration, qualifier, isPoolShared);
+        HikariDataSource dataSource = dataSources.getIfPresent(poolDescriptor);
+        if (dataSource == null) {
+            return false;
+        }
+        LOG.debug("Evicting JDBC connection {} from the pool {} for server={}", connection, dataSource.getPoolName(), server);
+        dataSource.evictConnection(connection);
+        return true;
+    }
+
     /**
      * Masks all password characters with asterisks, used for logging password values
      *
@@ -154,11 +204,24 @@ public class ConnectionManager {
 
     /**
      * Factory class to create instances of datasources.
-     * Default implementation creates instances of HikariDataSource.
+     * Default implementation creates instances of HikariDataSource, reporting
+     * the pool metrics to the meter registry when one is available.
      */
     @Component
     public static class DataSourceFactory {
 
+        private final AtomicInteger poolCounter = new AtomicInteger();
+        private final MeterRegistry meterRegistry;
+
+        public DataSourceFactory() {
+            this.meterRegistry = null;
+        }
+
+        @Autowired
+        public DataSourceFactory(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+            this.meterRegistry = meterRegistryProvider.getIfAvailable();
+        }
+
         /**
          * Creates a new datasource instance based on parameters contained in PoolDescriptor.
          *
@@ -183,6 +246,15 @@ public class ConnectionManager {
                         config.addDataSourceProperty((String) key, value));
             }
 
+            // name the pool after its server, the name tags the metrics of the pool
+            if (config.getPoolName() == null) {
+                config.setPoolName(String.format("PXF-JDBC-%s-%d",
+                        poolDescriptor.isShared() ? "shared" : poolDescriptor.getServer(), poolCounter.incrementAndGet()));
+            }
+            if (meterRegistry != null) {
+                config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            }
+
             HikariDataSource result = new HikariDataSource(config);
             LOG.debug("Created new instance of HikariDataSource: {}", result);
 
@@ -36,6 +36,29 @@ public enum DbProduct {
         public String buildSessionQuery(String key, String value) {
             return String.format("SET %s %s", key, value);
         }
+
+        @Override
+        public String buildRowCountEstimateQuery(String tableName) {
+            return String.format("SELECT SUM(rows) FROM sys.partitions WHERE object_id = OBJECT_ID(%s) AND index_id IN (0, 1)",
+                    quoteLiteral(tableName));
+        }
+
+        @Override
+        public String buildHistogramQuery(String quotedColumn, String tableName) {
+            // the histogram of the first statistics object on the column, with the rows up to the end of each step
+            return String.format("SELECT CONVERT(varchar(64), h.range_high_key, 23), SUM(h.range_rows + h.equal_rows) OVER (ORDER BY h.step_number ROWS UNBOUNDED PRECEDING) " +
+                            "FROM (SELECT TOP 1 s.object_id, s.stats_id FROM sys.stats s JOIN sys.stats_columns sc ON sc.object_id = s.object_id AND sc.stats_id = s.stats_id " +
+                            "WHERE s.object_id = OBJECT_ID(%s) AND sc.stats_column_id = 1 AND COL_NAME(sc.object_id, sc.column_id) = %s ORDER BY s.stats_id) st " +
+                            "CROSS APPLY sys.dm_db_stats_histogram(st.object_id, st.stats_id) h ORDER BY h.step_number",
+                    quoteLiteral(tableName),
+                    quoteLiteral(unquote(quotedColumn)));
+        }
+
+        @Override
+        public int getMaxInsertParameters() {
+            // the limit is 2100 parameters per request, leave room for the ones the driver adds
+            return 2000;
+        }
     },
 
     MYSQL {
@@ -43,6 +66,33 @@ public enum DbProduct {
         public String wrapDate(Object val) {
             return "DATE('" + val + "')";
         }
+
+        @Override
+        public String buildRowCountEstimateQuery(String tableName) {
+            String schema = getSchemaName(tableName);
+            return String.format("SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = %s AND TABLE_NAME = %s",
+                    schema == null ? "DATABASE()" : quoteLiteral(schema),
+                    quoteLiteral(getObjectName(tableName)));
+        }
+
+        @Override
+        public String buildHistogramQuery(String quotedColumn, String tableName) {
+            // MySQL 8 histograms, singleton buckets are [value, cumulative frequency],
+            // equi-height buckets are [lower bound, upper bound, cumulative frequency, distinct values]
+            String schema = getSchemaName(tableName);
+            return String.format("SELECT JSON_UNQUOTE(JSON_EXTRACT(b.bucket, IF(JSON_LENGTH(b.bucket) = 4, '$[1]', '$[0]'))), " +
+                            "JSON_EXTRACT(b.bucket, CONCAT('$[', JSON_LENGTH(b.bucket) - 2, ']')) " +
+                            "FROM information_schema.COLUMN_STATISTICS s, JSON_TABLE(s.HISTOGRAM, '$.buckets[*]' COLUMNS (n FOR ORDINALITY, bucket JSON PATH '$')) b " +
+                            "WHERE s.SCHEMA_NAME = %s AND s.TABLE_NAME = %s AND s.COLUMN_NAME = %s ORDER BY b.n",
+                    schema == null ? "DATABASE()" : quoteLiteral(unquote(schema)),
+                    quoteLiteral(unquote(getObjectName(tableName))),
+                    quoteLiteral(unquote(quotedColumn)));
+        }
+
+        @Override
+        public int getMaxInsertParameters() {
+            return 65535;
+        }
     },
 
     ORACLE {
@@ -60,6 +110,27 @@ public enum DbProduct {
         public String buildSessionQuery(String key, String value) {
             return String.format("ALTER SESSION SET %s = %s", key, value);
         }
+
+        @Override
+        public String buildRowCountEstimateQuery(String tableName) {
+            String schema = getSchemaName(tableName);
+            return String.format("SELECT NUM_ROWS FROM ALL_TABLES WHERE OWNER = %s AND TABLE_NAME = %s",
+                    schema == null ? "SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')" : identifierLiteral(schema, "UPPER"),
+                    identifierLiteral(getObjectName(tableName), "UPPER"));
+        }
+
+        @Override
+        public String buildHistogramQuery(String quotedColumn, String tableName) {
+            // the endpoints of dates are Julian day numbers, the endpoint numbers are cumulative
+            String schema = getSchemaName(tableName);
+            return String.format("SELECT CASE WHEN c.DATA_TYPE = 'DATE' OR c.DATA_TYPE LIKE 'TIMESTAMP%%' " +
+                            "THEN TO_CHAR(TO_DATE(TO_CHAR(FLOOR(h.ENDPOINT_VALUE)), 'J'), 'YYYY-MM-DD') ELSE TO_CHAR(FLOOR(h.ENDPOINT_VALUE)) END, h.ENDPOINT_NUMBER " +
+                            "FROM ALL_TAB_HISTOGRAMS h JOIN ALL_TAB_COLUMNS c ON c.OWNER = h.OWNER AND c.TABLE_NAME = h.TABLE_NAME AND c.COLUMN_NAME = h.COLUMN_NAME " +
+                            "WHERE h.OWNER = %s AND h.TABLE_NAME = %s AND h.COLUMN_NAME = %s ORDER BY h.ENDPOINT_NUMBER",
+                    schema == null ? "SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')" : identifierLiteral(schema, "UPPER"),
+                    identifierLiteral(getObjectName(tableName), "UPPER"),
+                    identifierLiteral(quotedColumn, "UPPER"));
+        }
     },
 
     POSTGRES {
@@ -67,6 +138,27 @@ public enum DbProduct {
         public String wrapDate(Object val) {
             return "date'" + val + "'";
         }
+
+        @Override
+        public String buildRowCountEstimateQuery(String tableName) {
+            return String.format("SELECT reltuples FROM pg_class WHERE oid = to_regclass(%s)", quoteLiteral(tableName));
+        }
+
+        @Override
+        public int getMaxInsertParameters() {
+            return 32767;
+        }
+
+        @Override
+        public String buildHistogramQuery(String quotedColumn, String tableName) {
+            // the bounds of the buckets hold the same number of rows in between
+            String schema = getSchemaName(tableName);
+            return String.format("SELECT b.bound, b.position FROM pg_stats s, unnest(s.histogram_bounds::text::text[]) WITH ORDINALITY b(bound, position) " +
+                            "WHERE s.schemaname = %s AND s.tablename = %s AND s.attname = %s ORDER BY b.position",
+                    schema == null ? "current_schema()" : identifierLiteral(schema, "lower"),
+                    identifierLiteral(getObjectName(tableName), "lower"),
+                    identifierLiteral(quotedColumn, "lower"));
+        }
     },
 
     S3_SELECT {
@@ -79,6 +171,12 @@ public enum DbProduct {
         public String wrapTimestamp(Object val) {
             return "TO_TIMESTAMP('" + val + "')";
         }
+
+        @Override
+        public String buildQuantilesQuery(String quotedColumn, String source, int buckets) {
+            // window functions are not supported
+            return null;
+        }
     };
 
     /**
@@ -110,6 +208,61 @@ public enum DbProduct {
         return String.format("SET %s = %s", key, value);
     }
 
+    /**
+     * Build a query returning the number of rows of a table, as estimated by
+     * the statistics the external database keeps, in the first column of a
+     * single row
+     *
+     * @param tableName table name, optionally qualified with a schema name
+     * @return a query, or null if the estimate is not available for target database
+     */
+    public String buildRowCountEstimateQuery(String tableName) {
+        return null;
+    }
+
+    /**
+     * Build a query returning the histogram of the values of a column of a
+     * table, as collected by the statistics of the external database. The
+     * query returns the bounds of the buckets of the histogram, one per row in
+     * ascending order, with the text of the bound in the first column and the
+     * number of rows up to the bound, or a number proportional to it, in the
+     * second column.
+     *
+     * @param quotedColumn column name, quoted if the column is quoted in queries
+     * @param tableName    table name, optionally qualified with a schema name
+     * @return a query, or null if histograms are not available for target database
+     */
+    public String buildHistogramQuery(String quotedColumn, String tableName) {
+        return null;
+    }
+
+    /**
+     * Build a query splitting the non-null values of a column into the given
+     * number of buckets holding the same number of rows. The query returns
+     * the lowest value of every bucket, one per row, in ascending order. It
+     * sorts all the rows of the table, so it is only run when requested.
+     *
+     * @param quotedColumn column name (used as is, thus it should be quoted if necessary)
+     * @param source       table name or subquery to select the values from
+     * @param buckets      the number of buckets
+     * @return a query, or null if target database cannot run it
+     */
+    public String buildQuantilesQuery(String quotedColumn, String source, int buckets) {
+        // do not use AS for table aliases, Oracle does not like it
+        return String.format("SELECT MIN(%1$s) FROM (SELECT %1$s, NTILE(%3$d) OVER (ORDER BY %1$s) pxf_bucket FROM %2$s WHERE %1$s IS NOT NULL) pxf_buckets GROUP BY pxf_bucket ORDER BY 1",
+                quotedColumn, source, buckets);
+    }
+
+    /**
+     * Get the maximum number of parameters of a single INSERT statement
+     * holding several rows in its VALUES clause
+     *
+     * @return the number of parameters, or 0 if target database does not support multi-row INSERT statements
+     */
+    public int getMaxInsertParameters() {
+        return 0;
+    }
+
     /**
      * Get DbProduct for database by database name
      *
@@ -140,5 +293,46 @@ public enum DbProduct {
         return result;
     }
 
+    private static String quoteLiteral(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    /**
+     * Quoted identifiers are stored as given, unquoted ones are folded to the
+     * case of target database by the given function
+     *
+     * @param identifier   an identifier, optionally enclosed in double quotes
+     * @param foldFunction the SQL function folding the case of unquoted identifiers
+     * @return an expression of the name of the identifier in the catalog
+     */
+    private static String identifierLiteral(String identifier, String foldFunction) {
+        if (identifier.length() > 1 && identifier.startsWith("\"") && identifier.endsWith("\"")) {
+            return quoteLiteral(identifier.substring(1, identifier.length() - 1).replace("\"\"", "\""));
+        }
+        return foldFunction + "(" + quoteLiteral(identifier) + ")";
+    }
+
+    /**
+     * @param identifier an identifier, optionally enclosed in double quotes, brackets or backticks
+     * @return the identifier without the enclosing quotes
+     */
+    private static String unquote(String identifier) {
+        if (identifier.length() > 1 && ((identifier.startsWith("\"") && identifier.endsWith("\""))
+                || (identifier.startsWith("`") && identifier.endsWith("`"))
+                || (identifier.startsWith("[") && identifier.endsWith("]")))) {
+            return identifier.substring(1, identifier.length() - 1);
+        }
+        return identifier;
+    }
+
+    private static String getSchemaName(String tableName) {
+        int index = tableName.lastIndexOf('.');
+        return index < 0 ? null : tableName.substring(0, index);
+    }
+
+    private static String getObjectName(String tableName) {
+        return tableName.substring(tableName.lastIndexOf('.') + 1);
+    }
+
     private static final Logger LOG = LoggerFactory.getLogger(DbProduct.class);
 }
@@ -22,9 +22,19 @@ public class PoolDescriptor {
     private String password;
     private Properties connectionConfig, poolConfig;
     private String qualifier;
+    private boolean shared;
 
 
     public PoolDescriptor(String server, String jdbcUrl, Properties connectionConfig, Properties poolConfig, String qualifier) {
+        this(server, jdbcUrl, connectionConfig, poolConfig, qualifier, false);
+    }
+
+    /**
+     * Creates a descriptor of a pool that is either dedicated to the server, or
+     * shared by all servers connecting to the same database with the same
+     * credentials and pool configuration.
+     */
+    public PoolDescriptor(String server, String jdbcUrl, Properties connectionConfig, Properties poolConfig, String qualifier, boolean shared) {
         this.server = server;
         this.jdbcUrl = jdbcUrl;
 
@@ -37,6 +47,7 @@ public class PoolDescriptor {
 
         this.poolConfig = (Properties) poolConfig.clone();
         this.qualifier = qualifier;
+        this.shared = shared;
 
         // validate pool configuration
         PROHIBITED_PROPERTIES.forEach(p -> ensurePoolPropertyNotPresent(p));
@@ -66,13 +77,19 @@ public class PoolDescriptor {
         return poolConfig;
     }
 
+    public boolean isShared() {
+        return shared;
+    }
+
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         PoolDescriptor that = (PoolDescriptor) o;
-        return Objects.equals(server, that.server) &&
+        // a shared pool is not tied to the server that created it
+        return shared == that.shared &&
+                (shared || Objects.equals(server, that.server)) &&
                 Objects.equals(jdbcUrl, that.jdbcUrl) &&
                 Objects.equals(user, that.user) &&
                 Objects.equals(password, that.password) &&
@@ -83,7 +100,7 @@ public class PoolDescriptor {
 
     @Override
     public int hashCode() {
-        return Objects.hash(server, jdbcUrl, user, password, connectionConfig, poolConfig, qualifier);
+        return Objects.hash(shared ? null : server, jdbcUrl, user, password, connectionConfig, poolConfig, qualifier, shared);
     }
 
 
@@ -95,7 +112,8 @@ public class PoolDescriptor {
                 ", password=" + ConnectionManager.maskPassword(password) +
                 ", connectionConfig=" + connectionConfig +
                 ", poolConfig=" + poolConfig +
-                ", qualifier=" + qualifier + '}';
+                ", qualifier=" + qualifier +
+                ", shared=" + shared + '}';
     }
 
     private void ensurePoolPropertyNotPresent(String propName) {
@@ -0,0 +1,22 @@
+package org.greenplum.pxf.plugins.jdbc.writercallable;
+
+/**
+ * The native bulk load path used to write rows to the external database,
+ * chosen for the database product by the {@link org.greenplum.pxf.plugins.jdbc.JdbcAccessor}
+ */
+public enum BulkWriteMode {
+    /**
+     * Rows are written with batches of a single-row INSERT PreparedStatement
+     */
+    NONE,
+
+    /**
+     * Rows are streamed to a PostgreSQL COPY FROM STDIN command
+     */
+    COPY,
+
+    /**
+     * Rows are written with INSERT statements holding several rows in their VALUES clause
+     */
+    MULTI_ROW_INSERT
+}
@@ -0,0 +1,254 @@
+package org.greenplum.pxf.plugins.jdbc.writercallable;
+
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.plugins.jdbc.JdbcBasePlugin;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This writer loads rows with a PostgreSQL COPY FROM STDIN command.
+ * <p>
+ * Rows are encoded in the text format of COPY as they are supplied, into a
+ * buffer that is streamed to the database by call(). A call() is required
+ * when the buffer holds a certain number of rows or bytes.
+ */
+class CopyWriterCallable implements WriterCallable {
+    private static final Logger LOG = LoggerFactory.getLogger(CopyWriterCallable.class);
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes();
+    private static final byte[] NULL_VALUE = {'\\', 'N'};
+
+    @Override
+    public void supply(OneRow row) throws IllegalStateException {
+        if (isCallRequired()) {
+            throw new IllegalStateException("Trying to supply() a OneRow object to a full WriterCallable");
+        }
+        if (row == null) {
+            throw new IllegalArgumentException("Trying to supply() a null OneRow object");
+        }
+        encodeRow(row);
+        rowCount++;
+    }
+
+    @Override
+    public boolean isCallRequired() {
+        return rowCount >= maxRows || length >= maxBytes;
+    }
+
+    @Override
+    public SQLException call() throws SQLException {
+        if (rowCount == 0) {
+            return null;
+        }
+
+        Connection connection = null;
+        boolean connectionMustBeClosed = false;
+        try {
+            if (statement == null) {
+                connection = plugin.getConnection();
+                connectionMustBeClosed = true;
+            } else {
+                connection = statement.getConnection();
+            }
+
+            copyIn(connection, query, buffer, length);
+        } catch (SQLException e) {
+            return e;
+        } finally {
+            rowCount = 0;
+            length = 0;
+            if (connectionMustBeClosed) {
+                JdbcBasePlugin.closeConnection(connection);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Run the COPY command and stream the data to the database
+     *
+     * @param connection the connection made by the PostgreSQL driver
+     * @param copyQuery  the COPY FROM STDIN command
+     * @param data       the buffer holding the rows
+     * @param length     the number of bytes of the rows in the buffer
+     * @throws SQLException if the COPY command fails
+     */
+    void copyIn(Connection connection, String copyQuery, byte[] data, int length) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copyQuery);
+        try {
+            copyIn.writeToCopy(data, 0, length);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                cancelCopy(copyIn);
+            }
+        }
+    }
+
+    /**
+     * Cancel a failed COPY, keeping the exception that made it fail
+     */
+    private void cancelCopy(CopyIn copyIn) {
+        try {
+            copyIn.cancelCopy();
+        } catch (SQLException e) {
+            LOG.debug("Failed to cancel COPY: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Append a row to the buffer, as tab-separated values terminated by a newline
+     */
+    @SuppressWarnings("unchecked")
+    private void encodeRow(OneRow row) {
+        // This is safe: OneRow comes from JdbcResolver
+        List<OneField> tuple = (List<OneField>) row.getData();
+        for (int i = 0; i < tuple.size(); i++) {
+            if (i > 0) {
+                append((byte) '\t');
+            }
+            Object value = tuple.get(i).val;
+            if (value == null) {
+                append(NULL_VALUE);
+            } else if (value instanceof byte[]) {
+                encodeBytes((byte[]) value);
+            } else {
+                encodeText(value.toString());
+            }
+        }
+        append((byte) '\n');
+    }
+
+    /**
+     * Append bytes in the hex format of bytea, with the backslash escaped for COPY
+     */
+    private void encodeBytes(byte[] value) {
+        ensureCapacity(3 + 2 * value.length);
+        buffer[length++] = '\\';
+        buffer[length++] = '\\';
+        buffer[length++] = 'x';
+        for (byte b : value) {
+            buffer[length++] = HEX_DIGITS[(b >> 4) & 0xF];
+            buffer[length++] = HEX_DIGITS[b & 0xF];
+        }
+    }
+
+    /**
+     * Append text encoded in UTF-8, escaping the characters that COPY treats specially
+     */
+    private void encodeText(String value) {
+        // at most 3 bytes per char, a surrogate pair takes 4 bytes for 2 chars
+        ensureCapacity(3 * value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    buffer[length++] = '\\';
+                    buffer[length++] = '\\';
+                    break;
+                case '\t':
+                    buffer[length++] = '\\';
+                    buffer[length++] = 't';
+                    break;
+                case '\n':
+                    buffer[length++] = '\\';
+                    buffer[length++] = 'n';
+                    break;
+                case '\r':
+                    buffer[length++] = '\\';
+                    buffer[length++] = 'r';
+                    break;
+                default:
+                    if (c < 0x80) {
+                        buffer[length++] = (byte) c;
+                    } else if (c < 0x800) {
+                        buffer[length++] = (byte) (0xC0 | (c >> 6));
+                        buffer[length++] = (byte) (0x80 | (c & 0x3F));
+                    } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                        buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                        buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                        buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                        buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+                    } else if (Character.isSurrogate(c)) {
+                        // unpaired surrogate, replaced the same way String.getBytes() does
+                        buffer[length++] = '?';
+                    } else {
+                        buffer[length++] = (byte) (0xE0 | (c >> 12));
+                        buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                        buffer[length++] = (byte) (0x80 | (c & 0x3F));
+                    }
+            }
+        }
+    }
+
+    private void append(byte b) {
+        ensureCapacity(1);
+        buffer[length++] = b;
+    }
+
+    private void append(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+
+    /**
+     * Construct a new COPY writer
+     *
+     * @param plugin    the plugin providing connections for writers of a thread pool
+     * @param query     the single-row INSERT query the COPY command is derived from
+     * @param statement the statement whose connection is used, or null to open a connection per call()
+     * @param maxRows   the number of rows after which a call() is required
+     * @param maxBytes  the number of bytes after which a call() is required
+     */
+    CopyWriterCallable(JdbcBasePlugin plugin, String query, PreparedStatement statement, int maxRows, int maxBytes) {
+        if (plugin == null || query == null) {
+            throw new IllegalArgumentException("The provided JdbcBasePlugin or SQL query is null");
+        }
+
+        this.plugin = plugin;
+        this.query = toCopyQuery(query);
+        this.statement = statement;
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+
+        buffer = new byte[Math.min(maxBytes, 65536)];
+    }
+
+    /**
+     * Convert a query of the form 'INSERT INTO table(columns) VALUES (...)'
+     * to 'COPY table(columns) FROM STDIN'
+     */
+    static String toCopyQuery(String insertQuery) {
+        int valuesIndex = insertQuery.lastIndexOf(" VALUES ");
+        if (!insertQuery.startsWith("INSERT INTO ") || valuesIndex < 0) {
+            throw new IllegalArgumentException("The provided SQL query is not an INSERT query: " + insertQuery);
+        }
+        return "COPY " + insertQuery.substring("INSERT INTO ".length(), valuesIndex) + " FROM STDIN";
+    }
+
+    private final JdbcBasePlugin plugin;
+    private final String query;
+    private final PreparedStatement statement;
+    private final int maxRows;
+    private final int maxBytes;
+    private byte[] buffer;
+    private int length;
+    private int rowCount;
+}
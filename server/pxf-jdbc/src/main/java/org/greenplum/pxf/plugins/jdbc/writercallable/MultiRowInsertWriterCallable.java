@@ -0,0 +1,158 @@
+package org.greenplum.pxf.plugins.jdbc.writercallable;
+
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.plugins.jdbc.JdbcBasePlugin;
+import org.greenplum.pxf.plugins.jdbc.JdbcResolver;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This writer makes INSERTs of several rows at once, with a single
+ * 'INSERT INTO table(columns) VALUES (...), (...), ...' statement.
+ * <p>
+ * A call() is required when a certain number of rows is supplied, or when
+ * the supplied values take a certain number of bytes.
+ */
+class MultiRowInsertWriterCallable implements WriterCallable {
+    // the size of a value of a fixed-length type, used to estimate the size of the rows
+    private static final int FIXED_VALUE_SIZE = 8;
+
+    @Override
+    public void supply(OneRow row) throws IllegalStateException {
+        if (isCallRequired()) {
+            throw new IllegalStateException("Trying to supply() a OneRow object to a full WriterCallable");
+        }
+        if (row == null) {
+            throw new IllegalArgumentException("Trying to supply() a null OneRow object");
+        }
+        rows.add(row);
+        byteCount += estimateSize(row);
+    }
+
+    @Override
+    public boolean isCallRequired() {
+        return rows.size() >= maxRows || byteCount >= maxBytes;
+    }
+
+    @Override
+    public SQLException call() throws IOException, SQLException {
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        Connection connection = null;
+        boolean connectionMustBeClosed = false;
+        PreparedStatement multiRowStatement = null;
+        try {
+            if (statement == null) {
+                connection = plugin.getConnection();
+                connectionMustBeClosed = true;
+            } else {
+                connection = statement.getConnection();
+            }
+
+            multiRowStatement = plugin.getPreparedStatement(connection, buildQuery(rows.size()));
+            int parameterOffset = 0;
+            for (OneRow row : rows) {
+                JdbcResolver.decodeOneRowToPreparedStatement(row, multiRowStatement, parameterOffset);
+                parameterOffset += columnCount;
+            }
+            multiRowStatement.executeUpdate();
+        } catch (SQLException e) {
+            return e;
+        } finally {
+            rows.clear();
+            byteCount = 0;
+            if (multiRowStatement != null) {
+                multiRowStatement.close();
+            }
+            if (connectionMustBeClosed) {
+                JdbcBasePlugin.closeConnection(connection);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Build the INSERT query for the given number of rows, repeating the
+     * parameter placeholders of the single-row query
+     */
+    private String buildQuery(int rowCount) {
+        StringBuilder sb = new StringBuilder(query.length() + (rowCount - 1) * (valuesPlaceholders.length() + 2));
+        sb.append(query);
+        for (int i = 1; i < rowCount; i++) {
+            sb.append(", ").append(valuesPlaceholders);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Estimate the number of bytes the values of a row take
+     */
+    @SuppressWarnings("unchecked")
+    private static long estimateSize(OneRow row) {
+        // This is safe: OneRow comes from JdbcResolver
+        List<OneField> tuple = (List<OneField>) row.getData();
+        long size = 0;
+        for (OneField field : tuple) {
+            if (field.val == null) {
+                continue;
+            }
+            if (field.val instanceof String) {
+                size += ((String) field.val).length();
+            } else if (field.val instanceof byte[]) {
+                size += ((byte[]) field.val).length;
+            } else {
+                size += FIXED_VALUE_SIZE;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Construct a new multi-row INSERT writer
+     *
+     * @param plugin      the plugin providing connections for writers of a thread pool
+     * @param query       the single-row INSERT query with parameter placeholders
+     * @param statement   the statement whose connection is used, or null to open a connection per call()
+     * @param columnCount the number of parameters of a row
+     * @param maxRows     the number of rows after which a call() is required
+     * @param maxBytes    the estimated number of bytes after which a call() is required
+     */
+    MultiRowInsertWriterCallable(JdbcBasePlugin plugin, String query, PreparedStatement statement, int columnCount, int maxRows, int maxBytes) {
+        if (plugin == null || query == null) {
+            throw new IllegalArgumentException("The provided JdbcBasePlugin or SQL query is null");
+        }
+        int valuesIndex = query.lastIndexOf(" VALUES ");
+        if (valuesIndex < 0) {
+            throw new IllegalArgumentException("The provided SQL query is not an INSERT query: " + query);
+        }
+
+        this.plugin = plugin;
+        this.query = query;
+        this.valuesPlaceholders = query.substring(valuesIndex + " VALUES ".length());
+        this.statement = statement;
+        this.columnCount = columnCount;
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+
+        rows = new ArrayList<>();
+    }
+
+    private final JdbcBasePlugin plugin;
+    private final String query;
+    private final String valuesPlaceholders;
+    private final PreparedStatement statement;
+    private final int columnCount;
+    private final int maxRows;
+    private final int maxBytes;
+    private final List<OneRow> rows;
+    private long byteCount;
+}
@@ -33,10 +33,18 @@ public class WriterCallableFactory {
     private JdbcBasePlugin plugin;
     private String query;
     private PreparedStatement statement;
+    private BulkWriteMode bulkWriteMode = BulkWriteMode.NONE;
+    private int columnCount;
+    private int bulkMaxBytes;
 
     /**
      * Create a new instance of the factory.
      *
+     * @param plugin    JDBC plugin providing connections for writers of a thread pool
+     * @param query     INSERT query with placeholders for the values of a single row
+     * @param statement prepared statement of the INSERT query
+     * @param batchSize number of rows written at once
+     * @param poolSize  size of the pool of threads writing rows
      */
     public WriterCallableFactory(JdbcBasePlugin plugin, String query, PreparedStatement statement, int batchSize, int poolSize) {
         this.plugin = plugin;
@@ -48,6 +56,27 @@ public class WriterCallableFactory {
         }
     }
 
+    /**
+     * Create a new instance of the factory of writers using a native bulk
+     * load path of the external database.
+     *
+     * @param plugin        JDBC plugin providing connections for writers of a thread pool
+     * @param query         INSERT query with placeholders for the values of a single row
+     * @param statement     prepared statement of the INSERT query
+     * @param batchSize     number of rows written at once
+     * @param poolSize      size of the pool of threads writing rows
+     * @param bulkWriteMode the bulk load path to use
+     * @param columnCount   number of columns of a row
+     * @param bulkMaxBytes  number of bytes of rows written at once
+     */
+    public WriterCallableFactory(JdbcBasePlugin plugin, String query, PreparedStatement statement, int batchSize, int poolSize,
+                                 BulkWriteMode bulkWriteMode, int columnCount, int bulkMaxBytes) {
+        this(plugin, query, statement, batchSize, poolSize);
+        this.bulkWriteMode = bulkWriteMode;
+        this.columnCount = columnCount;
+        this.bulkMaxBytes = bulkMaxBytes;
+    }
+
     /**
      * Get an instance of WriterCallable
      *
@@ -56,7 +85,14 @@ public class WriterCallableFactory {
     public WriterCallable get() {
 
         if (batchSize > 1) {
-            return new BatchWriterCallable(plugin, query, statement, batchSize);
+            switch (bulkWriteMode) {
+                case COPY:
+                    return new CopyWriterCallable(plugin, query, statement, batchSize, bulkMaxBytes);
+                case MULTI_ROW_INSERT:
+                    return new MultiRowInsertWriterCallable(plugin, query, statement, columnCount, batchSize, bulkMaxBytes);
+                default:
+                    return new BatchWriterCallable(plugin, query, statement, batchSize);
+            }
         }
         return new SimpleWriterCallable(plugin, query, statement);
     }
@@ -0,0 +1,68 @@
+package org.greenplum.pxf.plugins.jdbc;
+
+import org.apache.hadoop.conf.Configuration;
+import org.greenplum.pxf.api.model.ConfigurationFactory;
+import org.greenplum.pxf.api.security.SecureLogin;
+import org.greenplum.pxf.plugins.jdbc.utils.ConnectionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Properties;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ConnectionPoolWarmUpTest {
+
+    @Mock
+    private ConnectionManager mockConnectionManager;
+    @Mock
+    private SecureLogin mockSecureLogin;
+    @Mock
+    private ConfigurationFactory mockConfigurationFactory;
+    @Mock
+    private Connection mockConnection;
+
+    private PxfJdbcProperties properties;
+
+    @BeforeEach
+    public void setup() {
+        properties = new PxfJdbcProperties();
+        properties.getConnection().setWarmUpServers(Arrays.asList("broken", "pg"));
+    }
+
+    @Test
+    public void testWarmUpContinuesAfterFailure() throws SQLException {
+        // the first server is not configured properly
+        when(mockConfigurationFactory.initConfiguration(eq("broken"), eq("broken"), anyString(), any())).thenReturn(new Configuration());
+        Configuration configuration = new Configuration();
+        configuration.set("jdbc.driver", "org.greenplum.pxf.plugins.jdbc.FakeJdbcDriver");
+        configuration.set("jdbc.url", "test-url");
+        when(mockConfigurationFactory.initConfiguration(eq("pg"), eq("pg"), anyString(), any())).thenReturn(configuration);
+        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean())).thenReturn(mockConnection);
+        when(mockConnection.getMetaData()).thenReturn(mock(DatabaseMetaData.class));
+
+        new ConnectionPoolWarmUp(mockConnectionManager, mockSecureLogin, mockConfigurationFactory, properties).warmUp();
+
+        Properties poolProps = new Properties();
+        poolProps.setProperty("maximumPoolSize", "15");
+        poolProps.setProperty("connectionTimeout", "30000");
+        poolProps.setProperty("idleTimeout", "30000");
+        poolProps.setProperty("minimumIdle", "0");
+        verify(mockConnectionManager).getConnection("pg", "test-url", new Properties(), true, poolProps, null, false);
+        verify(mockConnection).close();
+    }
+}
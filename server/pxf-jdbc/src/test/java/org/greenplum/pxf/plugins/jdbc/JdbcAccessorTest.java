@@ -303,7 +303,7 @@ public class JdbcAccessorTest {
     }
 
     private void wireMocksForRead() throws SQLException {
-        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any())).thenReturn(mockConnection);
+        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean())).thenReturn(mockConnection);
         when(mockConnection.getMetaData()).thenReturn(mockMetaData);
     }
 }
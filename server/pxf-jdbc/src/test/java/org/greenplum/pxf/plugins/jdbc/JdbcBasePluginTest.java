@@ -39,8 +39,10 @@ import java.util.Map;
 import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.anyInt;
@@ -235,7 +237,7 @@ public class JdbcBasePluginTest {
         configuration.set("jdbc.driver", "org.greenplum.pxf.plugins.jdbc.FakeJdbcDriver");
         configuration.set("jdbc.url", "test-url");
 
-        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any())).thenReturn(mockConnection);
+        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean())).thenReturn(mockConnection);
         when(mockConnection.getMetaData()).thenReturn(mockMetaData);
 
         JdbcBasePlugin plugin = new JdbcBasePlugin(mockConnectionManager, mockSecureLogin);
@@ -261,7 +263,7 @@ public class JdbcBasePluginTest {
         configuration.set("jdbc.url", "test-url");
         configuration.set("jdbc.connection.transactionIsolation", "READ_UNCOMMITTED");
 
-        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any())).thenReturn(mockConnection);
+        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean())).thenReturn(mockConnection);
         when(mockConnection.getMetaData()).thenReturn(mockMetaData);
         // READ_UNCOMMITTED is level 1
         when(mockMetaData.supportsTransactionIsolationLevel(1)).thenReturn(false);
@@ -277,7 +279,7 @@ public class JdbcBasePluginTest {
         configuration.set("jdbc.url", "test-url");
         configuration.set("jdbc.connection.transactionIsolation", "READ_COMMITTED");
 
-        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any())).thenReturn(mockConnection);
+        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean())).thenReturn(mockConnection);
         when(mockConnection.getMetaData()).thenReturn(mockMetaData);
         // READ_COMMITTED is level 2
         when(mockMetaData.supportsTransactionIsolationLevel(2)).thenReturn(true);
@@ -294,7 +296,7 @@ public class JdbcBasePluginTest {
         configuration.set("jdbc.driver", "org.greenplum.pxf.plugins.jdbc.FakeJdbcDriver");
         configuration.set("jdbc.url", "test-url");
 
-        when(mockConnectionManager.getConnection(anyString(), anyString(), any(), anyBoolean(), any(), anyString())).thenReturn(mockConnection);
+        when(mockConnectionManager.getConnection(anyString(), anyString(), any(), anyBoolean(), any(), anyString(), anyBoolean())).thenReturn(mockConnection);
         doThrow(new SQLException("")).when(mockConnection).getMetaData();
 
         JdbcBasePlugin plugin = new JdbcBasePlugin(mockConnectionManager, mockSecureLogin);
@@ -337,7 +339,7 @@ public class JdbcBasePluginTest {
         configuration.set("jdbc.url", "test-url");
         configuration.set("jdbc.pool.enabled", "false");
 
-        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any())).thenReturn(mockConnection);
+        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean())).thenReturn(mockConnection);
         when(mockConnection.getMetaData()).thenReturn(mockMetaData);
 
         JdbcBasePlugin plugin = getPlugin(mockConnectionManager, mockSecureLogin, context);
@@ -345,7 +347,7 @@ public class JdbcBasePluginTest {
 
         assertSame(mockConnection, conn);
 
-        verify(mockConnectionManager).getConnection("test-server", "test-url", new Properties(), false, null, null);
+        verify(mockConnectionManager).getConnection("test-server", "test-url", new Properties(), false, null, null, false);
     }
 
     @Test
@@ -356,7 +358,7 @@ public class JdbcBasePluginTest {
         connProps.setProperty("foo", "foo-val");
         connProps.setProperty("bar", "bar-val");
 
-        when(mockConnectionManager.getConnection("test-server", "test-url", connProps, false, null, null)).thenReturn(mockConnection);
+        when(mockConnectionManager.getConnection("test-server", "test-url", connProps, false, null, null, false)).thenReturn(mockConnection);
         when(mockConnection.getMetaData()).thenReturn(mockMetaData);
 
         configuration.set("jdbc.driver", "org.greenplum.pxf.plugins.jdbc.FakeJdbcDriver");
@@ -370,7 +372,7 @@ public class JdbcBasePluginTest {
 
         assertSame(mockConnection, conn);
 
-        verify(mockConnectionManager).getConnection("test-server", "test-url", connProps, false, null, null);
+        verify(mockConnectionManager).getConnection("test-server", "test-url", connProps, false, null, null, false);
     }
 
     @Test
@@ -383,7 +385,7 @@ public class JdbcBasePluginTest {
         configuration.set("jdbc.connection.property.bar", "bar-val");
 
         // pool is enabled by default
-        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any())).thenReturn(mockConnection);
+        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean())).thenReturn(mockConnection);
         when(mockConnection.getMetaData()).thenReturn(mockMetaData);
 
         JdbcBasePlugin plugin = getPlugin(mockConnectionManager, mockSecureLogin, context);
@@ -395,7 +397,7 @@ public class JdbcBasePluginTest {
         connProps.setProperty("foo", "foo-val");
         connProps.setProperty("bar", "bar-val");
 
-       verify(mockConnectionManager).getConnection("test-server", "test-url", connProps, true, poolProps, null);
+       verify(mockConnectionManager).getConnection("test-server", "test-url", connProps, true, poolProps, null, false);
     }
 
     @Test
@@ -410,7 +412,7 @@ public class JdbcBasePluginTest {
 
         configuration.set("jdbc.pool.qualifier", "qual");
 
-        when(mockConnectionManager.getConnection(anyString(), anyString(), any(), anyBoolean(), any(), anyString())).thenReturn(mockConnection);
+        when(mockConnectionManager.getConnection(anyString(), anyString(), any(), anyBoolean(), any(), anyString(), anyBoolean())).thenReturn(mockConnection);
         when(mockConnection.getMetaData()).thenReturn(mockMetaData);
 
         JdbcBasePlugin plugin = getPlugin(mockConnectionManager, mockSecureLogin, context);
@@ -422,7 +424,7 @@ public class JdbcBasePluginTest {
         connProps.setProperty("foo", "foo-val");
         connProps.setProperty("bar", "bar-val");
 
-        verify(mockConnectionManager).getConnection("test-server", "test-url", connProps, true, poolProps, "qual");
+        verify(mockConnectionManager).getConnection("test-server", "test-url", connProps, true, poolProps, "qual", false);
     }
 
     @Test
@@ -438,7 +440,7 @@ public class JdbcBasePluginTest {
         configuration.set("jdbc.pool.property.xyz", "xyz-val");
         configuration.set("jdbc.pool.property.maximumPoolSize", "99"); // overwrite default
 
-        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any())).thenReturn(mockConnection);
+        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean())).thenReturn(mockConnection);
         when(mockConnection.getMetaData()).thenReturn(mockMetaData);
 
         JdbcBasePlugin plugin = getPlugin(mockConnectionManager, mockSecureLogin, context);
@@ -454,7 +456,7 @@ public class JdbcBasePluginTest {
         poolProps.setProperty("xyz", "xyz-val");
         poolProps.setProperty("maximumPoolSize", "99");
 
-        verify(mockConnectionManager).getConnection("test-server", "test-url", connProps, true, poolProps, null);
+        verify(mockConnectionManager).getConnection("test-server", "test-url", connProps, true, poolProps, null, false);
     }
 
     @Test
@@ -469,7 +471,7 @@ public class JdbcBasePluginTest {
         configuration.set("jdbc.pool.property.abc", "abc-val");
         configuration.set("jdbc.pool.property.xyz", "xyz-val");
 
-        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any())).thenReturn(mockConnection);
+        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean())).thenReturn(mockConnection);
         when(mockConnection.getMetaData()).thenReturn(mockMetaData);
 
         JdbcBasePlugin plugin = getPlugin(mockConnectionManager, mockSecureLogin, context);
@@ -481,7 +483,92 @@ public class JdbcBasePluginTest {
         connProps.setProperty("foo", "foo-val");
         connProps.setProperty("bar", "bar-val");
 
-        verify(mockConnectionManager).getConnection("test-server", "test-url", connProps, false, null, null);
+        verify(mockConnectionManager).getConnection("test-server", "test-url", connProps, false, null, null, false);
+    }
+
+    @Test
+    public void testGetConnectionSharedPool() throws SQLException {
+        context.setServerName("test-server");
+
+        configuration.set("jdbc.driver", "org.greenplum.pxf.plugins.jdbc.FakeJdbcDriver");
+        configuration.set("jdbc.url", "test-url");
+        configuration.set("jdbc.pool.shared", "true");
+
+        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean())).thenReturn(mockConnection);
+        when(mockConnection.getMetaData()).thenReturn(mockMetaData);
+
+        JdbcBasePlugin plugin = getPlugin(mockConnectionManager, mockSecureLogin, context);
+        Connection conn = plugin.getConnection();
+
+        assertSame(mockConnection, conn);
+        verify(mockConnectionManager).getConnection("test-server", "test-url", new Properties(), true, poolProps, null, true);
+    }
+
+    @Test
+    public void testGetConnectionSharedPoolIgnoredWithImpersonation() throws SQLException {
+        context.setServerName("test-server");
+        context.setUser("gpuser");
+
+        configuration.set("jdbc.driver", "org.greenplum.pxf.plugins.jdbc.FakeJdbcDriver");
+        configuration.set("jdbc.url", "test-url");
+        configuration.set("jdbc.pool.shared", "true");
+        configuration.set("pxf.service.user.impersonation", "true");
+
+        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean())).thenReturn(mockConnection);
+        when(mockConnection.getMetaData()).thenReturn(mockMetaData);
+
+        JdbcBasePlugin plugin = getPlugin(mockConnectionManager, mockSecureLogin, context);
+        plugin.getConnection();
+
+        Properties connProps = new Properties();
+        connProps.setProperty("user", "gpuser");
+        verify(mockConnectionManager).getConnection("test-server", "test-url", connProps, true, poolProps, null, false);
+    }
+
+    @Test
+    public void testWarmUpConnectionPool() throws SQLException {
+        context.setServerName("test-server");
+
+        configuration.set("jdbc.driver", "org.greenplum.pxf.plugins.jdbc.FakeJdbcDriver");
+        configuration.set("jdbc.url", "test-url");
+
+        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean())).thenReturn(mockConnection);
+        when(mockConnection.getMetaData()).thenReturn(mockMetaData);
+
+        JdbcBasePlugin plugin = getPlugin(mockConnectionManager, mockSecureLogin, context);
+
+        assertTrue(plugin.warmUpConnectionPool());
+        verify(mockConnectionManager).getConnection("test-server", "test-url", new Properties(), true, poolProps, null, false);
+        verify(mockConnection).close();
+    }
+
+    @Test
+    public void testWarmUpConnectionPoolSkippedWhenPoolDisabled() throws SQLException {
+        context.setServerName("test-server");
+
+        configuration.set("jdbc.driver", "org.greenplum.pxf.plugins.jdbc.FakeJdbcDriver");
+        configuration.set("jdbc.url", "test-url");
+        configuration.set("jdbc.pool.enabled", "false");
+
+        JdbcBasePlugin plugin = getPlugin(mockConnectionManager, mockSecureLogin, context);
+
+        assertFalse(plugin.warmUpConnectionPool());
+        verify(mockConnectionManager, never()).getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    public void testWarmUpConnectionPoolSkippedWithImpersonation() throws SQLException {
+        context.setServerName("test-server");
+        context.setUser("gpuser");
+
+        configuration.set("jdbc.driver", "org.greenplum.pxf.plugins.jdbc.FakeJdbcDriver");
+        configuration.set("jdbc.url", "test-url");
+        configuration.set("pxf.service.user.impersonation", "true");
+
+        JdbcBasePlugin plugin = getPlugin(mockConnectionManager, mockSecureLogin, context);
+
+        assertFalse(plugin.warmUpConnectionPool());
+        verify(mockConnectionManager, never()).getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean());
     }
 
     private JdbcBasePlugin getPlugin(ConnectionManager mockConnectionManager, SecureLogin mockSecureLogin, RequestContext context) {
@@ -23,19 +23,51 @@ import org.apache.hadoop.conf.Configuration;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.Fragmenter;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.security.SecureLogin;
+import org.greenplum.pxf.plugins.jdbc.partitioning.IntPartition;
+import org.greenplum.pxf.plugins.jdbc.partitioning.JdbcFragmentMetadata;
+import org.greenplum.pxf.plugins.jdbc.utils.ConnectionManager;
+import org.greenplum.pxf.plugins.jdbc.utils.DbProduct;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+@ExtendWith(MockitoExtension.class)
 public class JdbcPartitionFragmenterTest {
 
     private Configuration configuration;
     private RequestContext context;
 
+    @Mock
+    private ConnectionManager mockConnectionManager;
+    @Mock
+    private SecureLogin mockSecureLogin;
+    @Mock
+    private Connection mockConnection;
+    @Mock
+    private DatabaseMetaData mockMetaData;
+    @Mock
+    private Statement mockStatement;
+
     @BeforeEach
     public void setUp() {
         configuration = new Configuration();
@@ -46,7 +78,7 @@ public class JdbcPartitionFragmenterTest {
     }
 
     @Test
-    public void testNoPartition() {
+    public void testNoPartition() throws Exception {
 
         JdbcPartitionFragmenter fragment = new JdbcPartitionFragmenter();
         fragment.setRequestContext(context);
@@ -71,4 +103,115 @@ public class JdbcPartitionFragmenterTest {
         fragmenter.setRequestContext(context);
         assertThrows(IllegalArgumentException.class, fragmenter::afterPropertiesSet);
     }
+
+    @Test
+    public void testPartitionByStatistics() throws Exception {
+        wireMocksForStatistics();
+        ResultSet estimate = mock(ResultSet.class);
+        when(estimate.next()).thenReturn(true);
+        when(estimate.getDouble(1)).thenReturn(250.0);
+        when(mockStatement.executeQuery(startsWith("SELECT reltuples"))).thenReturn(estimate);
+        ResultSet histogram = mock(ResultSet.class);
+        when(histogram.next()).thenReturn(true, true, true, true, false);
+        when(histogram.getString(1)).thenReturn("1", "2", "3", "4");
+        when(histogram.getDouble(2)).thenReturn(1.0, 2.0, 3.0, 4.0);
+        when(mockStatement.executeQuery(startsWith("SELECT b.bound, b.position FROM pg_stats"))).thenReturn(histogram);
+
+        context.addOption("PARTITION_BY", "id:int");
+        configuration.set("jdbc.partition.rowsPerFragment", "100");
+        List<Fragment> fragments = getFragments();
+
+        assertEquals(4, fragments.size());
+        assertEquals("id < 2", ((IntPartition) fragments.get(0).getMetadata()).toSqlConstraint("", DbProduct.POSTGRES));
+        assertEquals("id >= 2 AND id < 3", ((IntPartition) fragments.get(1).getMetadata()).toSqlConstraint("", DbProduct.POSTGRES));
+        assertEquals("id >= 3", ((IntPartition) fragments.get(2).getMetadata()).toSqlConstraint("", DbProduct.POSTGRES));
+        assertEquals("id IS NULL", ((JdbcFragmentMetadata) fragments.get(3).getMetadata()).toSqlConstraint("", DbProduct.POSTGRES));
+        verify(mockConnection).close();
+    }
+
+    @Test
+    public void testPartitionByStatisticsOfSmallTable() throws Exception {
+        wireMocksForStatistics();
+        ResultSet estimate = mock(ResultSet.class);
+        when(estimate.next()).thenReturn(true);
+        when(estimate.getDouble(1)).thenReturn(250.0);
+        when(mockStatement.executeQuery(startsWith("SELECT reltuples"))).thenReturn(estimate);
+
+        context.addOption("PARTITION_BY", "id:int");
+        List<Fragment> fragments = getFragments();
+
+        assertEquals(1, fragments.size());
+        assertEquals("table", fragments.get(0).getSourceName());
+    }
+
+    @Test
+    public void testPartitionByStatisticsConnectsWhenFragmenting() throws Exception {
+        wireMocksForStatistics();
+        ResultSet estimate = mock(ResultSet.class);
+        when(estimate.next()).thenReturn(true);
+        when(estimate.getDouble(1)).thenReturn(250.0);
+        when(mockStatement.executeQuery(startsWith("SELECT reltuples"))).thenReturn(estimate);
+
+        context.addOption("PARTITION_BY", "id:int");
+        configuration.set("jdbc.driver", "org.greenplum.pxf.plugins.jdbc.FakeJdbcDriver");
+        configuration.set("jdbc.url", "test-url");
+        context.setConfiguration(configuration);
+        Fragmenter fragmenter = new JdbcPartitionFragmenter(() -> new JdbcBasePlugin(mockConnectionManager, mockSecureLogin));
+        fragmenter.setRequestContext(context);
+        fragmenter.afterPropertiesSet();
+        verify(mockConnectionManager, never()).getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean());
+
+        // without RANGE, the statistics are read from the external database when the fragments are formed
+        fragmenter.getFragments();
+        verify(mockConnectionManager).getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean());
+        verify(mockConnection).close();
+    }
+
+    @Test
+    public void testPartitionByRangeDoesNotConnect() throws Exception {
+        context.addOption("PARTITION_BY", "id:int");
+        context.addOption("RANGE", "1:10");
+        context.addOption("INTERVAL", "5");
+        List<Fragment> fragments = getFragments();
+
+        assertEquals(5, fragments.size());
+        verify(mockConnectionManager, never()).getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    public void testPartitionByStatisticsFailsForQuery() {
+        context.setDataSource("query:foo");
+        context.addOption("PARTITION_BY", "id:int");
+        Exception e = assertThrows(IllegalArgumentException.class, this::getFragments);
+        assertEquals("The parameter 'RANGE' must be specified for partition of type 'INT' when reading from a query", e.getMessage());
+    }
+
+    @Test
+    public void testRowsPerFragmentInvalid() {
+        context.addOption("PARTITION_BY", "cdate:date");
+        configuration.set("jdbc.partition.rowsPerFragment", "0");
+        context.setConfiguration(configuration);
+        Fragmenter fragmenter = new JdbcPartitionFragmenter();
+        fragmenter.setRequestContext(context);
+        Exception e = assertThrows(IllegalArgumentException.class, fragmenter::afterPropertiesSet);
+        assertEquals("Property jdbc.partition.rowsPerFragment has incorrect value 0 : must be a positive integer", e.getMessage());
+    }
+
+    private List<Fragment> getFragments() throws Exception {
+        configuration.set("jdbc.driver", "org.greenplum.pxf.plugins.jdbc.FakeJdbcDriver");
+        configuration.set("jdbc.url", "test-url");
+        context.setConfiguration(configuration);
+        Fragmenter fragmenter = new JdbcPartitionFragmenter(() -> new JdbcBasePlugin(mockConnectionManager, mockSecureLogin));
+        fragmenter.setRequestContext(context);
+        fragmenter.afterPropertiesSet();
+        return fragmenter.getFragments();
+    }
+
+    private void wireMocksForStatistics() throws SQLException {
+        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any(), anyBoolean())).thenReturn(mockConnection);
+        when(mockConnection.getMetaData()).thenReturn(mockMetaData);
+        when(mockMetaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        when(mockMetaData.getExtraNameCharacters()).thenReturn("");
+        when(mockConnection.createStatement()).thenReturn(mockStatement);
+    }
 }
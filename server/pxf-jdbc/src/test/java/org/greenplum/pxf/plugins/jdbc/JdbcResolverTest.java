@@ -0,0 +1,215 @@
+package org.greenplum.pxf.plugins.jdbc;
+
+import org.apache.hadoop.conf.Configuration;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.batch.ColumnBatch;
+import org.greenplum.pxf.api.batch.ColumnVector;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.OutputFormat;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.security.SecureLogin;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.plugins.jdbc.utils.ConnectionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class JdbcResolverTest {
+
+    private JdbcResolver resolver;
+    private RequestContext context;
+    private Configuration configuration;
+    private List<ColumnDescriptor> columns;
+
+    @Mock
+    private ConnectionManager mockConnectionManager;
+    @Mock
+    private SecureLogin mockSecureLogin;
+    @Mock
+    private ResultSet mockResultSet;
+
+    @BeforeEach
+    public void setup() {
+        configuration = new Configuration();
+        configuration.set("jdbc.driver", "org.greenplum.pxf.plugins.jdbc.FakeJdbcDriver");
+        configuration.set("jdbc.url", "test-url");
+        configuration.set("jdbc.statement.fetchSize", "2");
+
+        columns = new ArrayList<>();
+        columns.add(new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null));
+        columns.add(new ColumnDescriptor("name", DataType.TEXT.getOID(), 1, "text", null));
+        columns.add(new ColumnDescriptor("ts", DataType.TIMESTAMP.getOID(), 2, "timestamp", null));
+        columns.add(new ColumnDescriptor("skipped", DataType.FLOAT8.getOID(), 3, "float8", null, false));
+
+        context = new RequestContext();
+        context.setDataSource("test-table");
+        context.setConfiguration(configuration);
+        context.setTupleDescription(columns);
+
+        resolver = new JdbcResolver(mockConnectionManager, mockSecureLogin);
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+    }
+
+    @Test
+    public void testResolveColumnBatchesOfFetchSize() throws SQLException {
+        wireResultSet();
+        when(mockResultSet.getLong(1)).thenReturn(1L, 0L, 3L);
+        // only primitive values are checked with wasNull
+        when(mockResultSet.wasNull()).thenReturn(false, true, false);
+        ResultSetCursor cursor = new ResultSetCursor(mockResultSet);
+        ColumnBatch batch = new ColumnBatch(4, 1024);
+
+        assertTrue(cursor.next());
+        resolver.resolveColumnBatch(new OneRow(cursor, mockResultSet), batch);
+        assertEquals(2, batch.getSize());
+        assertEquals(1, batch.getColumn(0).getLong(0));
+        assertTrue(batch.getColumn(0).isNull(1));
+        assertEquals("a", getString(batch.getColumn(1), 0));
+        assertTrue(batch.getColumn(1).isNull(1));
+        assertEquals("2021-01-01 10:11:12.5", getString(batch.getColumn(2), 0));
+        assertTrue(batch.getColumn(2).isNull(1));
+        assertEquals(DataType.FLOAT8, batch.getColumn(3).getType());
+        assertTrue(batch.getColumn(3).isNull(0));
+        assertTrue(batch.getColumn(3).isNull(1));
+
+        assertTrue(cursor.next());
+        resolver.resolveColumnBatch(new OneRow(cursor, mockResultSet), batch);
+        assertEquals(1, batch.getSize());
+        assertEquals(3, batch.getColumn(0).getLong(0));
+        assertEquals("c", getString(batch.getColumn(1), 0));
+        assertFalse(batch.getColumn(2).isNull(0));
+
+        // the exhausted result set is not moved again
+        assertFalse(cursor.next());
+        verify(mockResultSet, times(4)).next();
+        // the columns are looked up once per query
+        verify(mockResultSet).findColumn("id");
+        verify(mockResultSet).findColumn("name");
+        verify(mockResultSet).findColumn("ts");
+    }
+
+    @Test
+    public void testGetFieldsForBatch() throws SQLException {
+        wireResultSet();
+        when(mockResultSet.getInt(1)).thenReturn(1, 0, 3);
+        when(mockResultSet.wasNull()).thenReturn(false, false, false, true, true, true, false);
+        ResultSetCursor cursor = new ResultSetCursor(mockResultSet);
+
+        assertTrue(cursor.next());
+        List<List<OneField>> rows = resolver.getFieldsForBatch(new OneRow(cursor, mockResultSet));
+        assertEquals(2, rows.size());
+        assertEquals(1, rows.get(0).get(0).val);
+        assertEquals("a", rows.get(0).get(1).val);
+        assertEquals(Timestamp.valueOf("2021-01-01 10:11:12.5"), rows.get(0).get(2).val);
+        assertNull(rows.get(0).get(3).val);
+        assertNull(rows.get(1).get(0).val);
+        assertNull(rows.get(1).get(1).val);
+
+        assertTrue(cursor.next());
+        rows = resolver.getFieldsForBatch(new OneRow(cursor, mockResultSet));
+        assertEquals(1, rows.size());
+        assertEquals(3, rows.get(0).get(0).val);
+        assertFalse(cursor.next());
+        verify(mockResultSet).findColumn("id");
+    }
+
+    @Test
+    public void testResolveRowsReadAhead() throws SQLException {
+        wireResultSet();
+        when(mockResultSet.getInt(1)).thenReturn(1, 0, 3);
+        when(mockResultSet.wasNull()).thenReturn(false, false, false, true, true, true, false);
+        ResultSetCursor cursor = new ReadAheadCursor(mockResultSet, columns, 2, null, new SimpleAsyncTaskExecutor());
+        ColumnBatch batch = new ColumnBatch(4, 1024);
+
+        try {
+            assertTrue(cursor.next());
+            resolver.resolveColumnBatch(new OneRow(cursor, cursor.getValues()), batch);
+            assertEquals(2, batch.getSize());
+            assertEquals(1, batch.getColumn(0).getLong(0));
+            assertTrue(batch.getColumn(0).isNull(1));
+            assertEquals("a", getString(batch.getColumn(1), 0));
+            assertEquals("2021-01-01 10:11:12.5", getString(batch.getColumn(2), 0));
+            assertTrue(batch.getColumn(2).isNull(1));
+            assertTrue(batch.getColumn(3).isNull(0));
+
+            assertTrue(cursor.next());
+            List<OneField> fields = resolver.getFields(new OneRow(cursor, cursor.getValues()));
+            assertEquals(3, fields.get(0).val);
+            assertEquals("c", fields.get(1).val);
+            assertEquals(Timestamp.valueOf("2021-01-01 10:11:12.5"), fields.get(2).val);
+            assertNull(fields.get(3).val);
+            assertFalse(cursor.next());
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Test
+    public void testColumnBatchTimestampsInGPDBWritableFormatMatchRows() throws SQLException {
+        // the fields of the rows are serialized with Timestamp#toString
+        assertEquals("2021-01-01 10:11:12.123456789", resolveTimestamp(OutputFormat.GPDBWritable, "2021-01-01 10:11:12.123456789"));
+    }
+
+    @Test
+    public void testColumnBatchOldTimestampsInGPDBWritableFormatMatchRows() throws SQLException {
+        // Timestamp#toString uses the Julian calendar before 1582
+        assertEquals("1000-01-01 00:00:00.0", resolveTimestamp(OutputFormat.GPDBWritable, "1000-01-01 00:00:00"));
+    }
+
+    @Test
+    public void testColumnBatchTimestampsInTextFormatMatchRows() throws SQLException {
+        // the fields of the rows are serialized with GreenplumDateTime#DATETIME_FORMATTER
+        assertEquals("2021-01-01 10:11:12.123456", resolveTimestamp(OutputFormat.TEXT, "2021-01-01 10:11:12.123456789"));
+    }
+
+    private String resolveTimestamp(OutputFormat outputFormat, String timestamp) throws SQLException {
+        context.setOutputFormat(outputFormat);
+        when(mockResultSet.next()).thenReturn(true, false);
+        when(mockResultSet.findColumn("id")).thenReturn(1);
+        when(mockResultSet.findColumn("name")).thenReturn(2);
+        when(mockResultSet.findColumn("ts")).thenReturn(3);
+        when(mockResultSet.getTimestamp(3)).thenReturn(Timestamp.valueOf(timestamp));
+        ResultSetCursor cursor = new ResultSetCursor(mockResultSet);
+        ColumnBatch batch = new ColumnBatch(4, 1024);
+
+        assertTrue(cursor.next());
+        resolver.resolveColumnBatch(new OneRow(cursor, mockResultSet), batch);
+        assertEquals(1, batch.getSize());
+        return getString(batch.getColumn(2), 0);
+    }
+
+    private void wireResultSet() throws SQLException {
+        when(mockResultSet.next()).thenReturn(true, true, true, false);
+        when(mockResultSet.findColumn("id")).thenReturn(1);
+        when(mockResultSet.findColumn("name")).thenReturn(2);
+        when(mockResultSet.findColumn("ts")).thenReturn(3);
+        Timestamp timestamp = Timestamp.valueOf("2021-01-01 10:11:12.5");
+        when(mockResultSet.getString(2)).thenReturn("a", null, "c");
+        when(mockResultSet.getTimestamp(3)).thenReturn(timestamp, null, timestamp);
+    }
+
+    private String getString(ColumnVector vector, int row) {
+        return new String(vector.getArena().getBuffer(), vector.getOffset(row), vector.getLength(row), StandardCharsets.UTF_8);
+    }
+}
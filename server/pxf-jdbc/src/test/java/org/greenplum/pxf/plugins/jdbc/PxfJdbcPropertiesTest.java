@@ -24,6 +24,7 @@ class PxfJdbcPropertiesTest {
         assertThat(this.properties.getConnection().getCleanupSleepInterval()).isEqualTo(Duration.ofMinutes(5));
         assertThat(this.properties.getConnection().getCleanupTimeout()).isEqualTo(Duration.ofHours(24));
         assertThat(this.properties.getConnection().getPoolExpirationTimeout()).isEqualTo(Duration.ofHours(6));
+        assertThat(this.properties.getConnection().getWarmUpServers()).isEmpty();
     }
 
     @Test
@@ -53,6 +54,12 @@ class PxfJdbcPropertiesTest {
         assertThat(this.properties.getConnection().getPoolExpirationTimeout()).isEqualTo(Duration.ofMinutes(5));
     }
 
+    @Test
+    void testConnectionWarmUpServersBinding() {
+        bind("pxf.jdbc.connection.warm-up-servers", "pg, mysql");
+        assertThat(this.properties.getConnection().getWarmUpServers()).containsExactly("pg", "mysql");
+    }
+
     private void bind(String name, String value) {
         bind(Collections.singletonMap(name, value));
     }
@@ -0,0 +1,185 @@
+package org.greenplum.pxf.plugins.jdbc;
+
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.FetchStats;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReadAheadCursorTest {
+
+    private static final List<ColumnDescriptor> COLUMNS = Collections.singletonList(
+            new ColumnDescriptor("name", DataType.TEXT.getOID(), 0, "text", null));
+
+    @Mock
+    private ResultSet mockResultSet;
+    @Mock
+    private Statement mockStatement;
+    @Mock
+    private AsyncTaskExecutor mockExecutor;
+
+    private final AsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+
+    @Test
+    public void testRowsAreReadAheadInBatches() throws SQLException {
+        when(mockResultSet.findColumn("name")).thenReturn(1);
+        when(mockResultSet.next()).thenReturn(true, true, true, true, true, false);
+        when(mockResultSet.getString(1)).thenReturn("a", "b", "c", "d", "e");
+
+        ResultSetCursor cursor = new ReadAheadCursor(mockResultSet, COLUMNS, 2, null, executor);
+        List<Object> values = new ArrayList<>();
+        while (cursor.next()) {
+            values.add(cursor.getValues()[0]);
+        }
+        // the end of the rows is remembered
+        assertFalse(cursor.next());
+        cursor.close();
+
+        assertEquals(5, values.size());
+        assertArrayEquals(new Object[]{"a", "b", "c", "d", "e"}, values.toArray());
+        FetchStats stats = cursor.getFetchStats();
+        assertEquals(3, stats.getFetchCount());
+        assertEquals(5, stats.getRowCount());
+        assertEquals(5, stats.getByteCount());
+        assertEquals(2, stats.getFetchSize());
+        verify(mockResultSet, never()).setFetchSize(anyInt());
+    }
+
+    @Test
+    public void testFailureToReadRowsIsThrown() throws SQLException {
+        when(mockResultSet.findColumn("name")).thenReturn(1);
+        SQLException failure = new SQLException("connection reset");
+        when(mockResultSet.next()).thenReturn(true).thenThrow(failure);
+        when(mockResultSet.getString(1)).thenReturn("a");
+
+        ResultSetCursor cursor = new ReadAheadCursor(mockResultSet, COLUMNS, 1, null, executor);
+        try {
+            assertTrue(cursor.next());
+            assertEquals("a", cursor.getValues()[0]);
+            assertSame(failure, assertThrows(SQLException.class, cursor::next));
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Test
+    public void testRowsAreReadOnDemandWhenNoThreadIsAvailable() throws SQLException {
+        when(mockExecutor.submit(any(Runnable.class))).thenThrow(new TaskRejectedException("no thread"));
+        when(mockResultSet.findColumn("name")).thenReturn(1);
+        when(mockResultSet.next()).thenReturn(true, true, true, false);
+        when(mockResultSet.getString(1)).thenReturn("a", "b", "c");
+
+        ResultSetCursor cursor = new ReadAheadCursor(mockResultSet, COLUMNS, 2, null, mockExecutor);
+        List<Object> values = new ArrayList<>();
+        while (cursor.next()) {
+            values.add(cursor.getValues()[0]);
+        }
+        assertTrue(cursor.close());
+
+        assertArrayEquals(new Object[]{"a", "b", "c"}, values.toArray());
+        assertEquals(2, cursor.getFetchStats().getFetchCount());
+    }
+
+    @Test
+    public void testCloseCancelsStatementOfReadingThread() throws Exception {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(mockResultSet.findColumn("name")).thenReturn(1);
+        when(mockResultSet.getStatement()).thenReturn(mockStatement);
+        when(mockResultSet.next()).thenReturn(true).thenAnswer(invocation -> {
+            // the second fetch waits for the external database until the statement is cancelled
+            fetching.countDown();
+            cancelled.await();
+            throw new SQLException("canceling statement due to user request");
+        });
+        when(mockResultSet.getString(1)).thenReturn("a");
+        doAnswer(invocation -> {
+            cancelled.countDown();
+            return null;
+        }).when(mockStatement).cancel();
+
+        ResultSetCursor cursor = new ReadAheadCursor(mockResultSet, COLUMNS, 1, null, executor);
+        assertTrue(cursor.next());
+        assertTrue(fetching.await(10, TimeUnit.SECONDS));
+
+        assertTrue(cursor.close());
+        verify(mockStatement).cancel();
+    }
+
+    @Test
+    public void testFetchSizeIsAdjustedToRows() throws SQLException {
+        when(mockResultSet.findColumn("name")).thenReturn(1);
+        when(mockResultSet.next()).thenReturn(true, true, true, true, false);
+        when(mockResultSet.getString(1)).thenReturn("abcd");
+
+        // at most 8 bytes per fetch, that is 2 rows of 4 bytes, but no less than the minimum fetch size
+        AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize(1, 8);
+        ResultSetCursor cursor = new ReadAheadCursor(mockResultSet, COLUMNS, 1, adaptiveFetchSize, executor);
+        int rows = 0;
+        while (cursor.next()) {
+            rows++;
+        }
+        cursor.close();
+
+        assertEquals(4, rows);
+        verify(mockResultSet).setFetchSize(AdaptiveFetchSize.MIN_FETCH_SIZE);
+        assertEquals(AdaptiveFetchSize.MIN_FETCH_SIZE, cursor.getFetchStats().getFetchSize());
+    }
+
+    @Test
+    public void testAdaptiveFetchSizeAmortizesRoundTrips() {
+        AdaptiveFetchSize fetchSize = new AdaptiveFetchSize(1000, 1 << 30);
+        // a round trip of 9 ms and 1 microsecond to read a row: 81000 rows keep the round trip at a tenth of the time
+        assertEquals(81000, fetchSize.observe(1000, 100000, 9_000_000, 1_000_000), 1);
+        // a faster round trip lowers the fetch size
+        assertEquals(9000, fetchSize.observe(81000, 8100000, 1_000_000, 81_000_000), 1);
+    }
+
+    @Test
+    public void testAdaptiveFetchSizeIsBoundedByMemory() {
+        AdaptiveFetchSize fetchSize = new AdaptiveFetchSize(1000, 1024 * 1024);
+        // rows of 1 KB, no more than 1024 of them fit
+        assertEquals(1024, fetchSize.observe(1000, 1024 * 1000, 100_000_000, 1_000_000));
+        assertEquals(AdaptiveFetchSize.MAX_FETCH_SIZE, new AdaptiveFetchSize(1000, Long.MAX_VALUE)
+                .observe(1000, 1000, 100_000_000, 1_000_000));
+    }
+
+    @Test
+    public void testAdaptiveFetchSizeIsSettled() {
+        AdaptiveFetchSize fetchSize = new AdaptiveFetchSize(1000, 1 << 30);
+        for (int i = 0; i < AdaptiveFetchSize.ADAPTIVE_FETCH_COUNT; i++) {
+            fetchSize.observe(1000, 100000, 9_000_000, 1_000_000);
+        }
+        assertEquals(81000, fetchSize.getFetchSize(), 1);
+        // later fetches do not change the fetch size
+        assertEquals(81000, fetchSize.observe(1000, 100000, 100, 1_000_000), 1);
+    }
+}
@@ -0,0 +1,142 @@
+package org.greenplum.pxf.plugins.jdbc.partitioning;
+
+import org.greenplum.pxf.plugins.jdbc.utils.DbProduct;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StatisticsPartitionerTest {
+
+    @Mock
+    private Connection mockConnection;
+    @Mock
+    private Statement mockStatement;
+
+    @Test
+    public void testPartitionsFromHistogram() throws SQLException {
+        when(mockConnection.createStatement()).thenReturn(mockStatement);
+        ResultSet estimate = mock(ResultSet.class);
+        when(estimate.next()).thenReturn(true);
+        when(estimate.getDouble(1)).thenReturn(3000000.0);
+        when(mockStatement.executeQuery("SELECT reltuples FROM pg_class WHERE oid = to_regclass('public.sales')")).thenReturn(estimate);
+        ResultSet histogram = mock(ResultSet.class);
+        when(histogram.next()).thenReturn(true, true, true, true, true, true, true, false);
+        when(histogram.getString(1)).thenReturn("0", "10", "20", "30", "40", "50", "60");
+        when(histogram.getDouble(2)).thenReturn(1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0);
+        when(mockStatement.executeQuery("SELECT b.bound, b.position FROM pg_stats s, unnest(s.histogram_bounds::text::text[]) WITH ORDINALITY b(bound, position) " +
+                "WHERE s.schemaname = lower('public') AND s.tablename = lower('sales') AND s.attname = lower('id') ORDER BY b.position")).thenReturn(histogram);
+
+        List<JdbcFragmentMetadata> partitions = new StatisticsPartitioner(PartitionType.INT, "id", 1000000)
+                .getFragmentsMetadata(mockConnection, DbProduct.POSTGRES, "", "public.sales");
+
+        assertEquals("id < 20|id >= 20 AND id < 40|id >= 40|id IS NULL", toConstraints(partitions, "", DbProduct.POSTGRES));
+    }
+
+    @Test
+    public void testPartitionsFromSkewedHistogram() throws SQLException {
+        when(mockConnection.createStatement()).thenReturn(mockStatement);
+        ResultSet estimate = mock(ResultSet.class);
+        when(estimate.next()).thenReturn(true);
+        when(estimate.getDouble(1)).thenReturn(4000000.0);
+        when(mockStatement.executeQuery(startsWith("SELECT NUM_ROWS FROM ALL_TABLES"))).thenReturn(estimate);
+        // a frequency histogram with the cumulative number of rows, most of the rows have the value 5
+        ResultSet histogram = mock(ResultSet.class);
+        when(histogram.next()).thenReturn(true, true, true, true, true, false);
+        when(histogram.getString(1)).thenReturn("1", "2", "5", "8", "9");
+        when(histogram.getDouble(2)).thenReturn(100.0, 200.0, 3000.0, 3900.0, 4000.0);
+        when(mockStatement.executeQuery(startsWith("SELECT CASE WHEN c.DATA_TYPE = 'DATE'"))).thenReturn(histogram);
+
+        List<JdbcFragmentMetadata> partitions = new StatisticsPartitioner(PartitionType.INT, "id", 1000000)
+                .getFragmentsMetadata(mockConnection, DbProduct.ORACLE, "\"", "sales");
+
+        assertEquals("\"id\" < 5|\"id\" >= 5 AND \"id\" < 8|\"id\" >= 8|\"id\" IS NULL",
+                toConstraints(partitions, "\"", DbProduct.ORACLE));
+    }
+
+    @Test
+    public void testPartitionsFromQuantilesWhenRequested() throws SQLException {
+        when(mockConnection.createStatement()).thenReturn(mockStatement);
+        ResultSet estimate = mock(ResultSet.class);
+        when(estimate.next()).thenReturn(true);
+        when(estimate.getDouble(1)).thenReturn(2500000.0);
+        when(mockStatement.executeQuery(startsWith("SELECT SUM(rows) FROM sys.partitions"))).thenReturn(estimate);
+        when(mockStatement.executeQuery(startsWith("SELECT CONVERT(varchar(64), h.range_high_key, 23)"))).thenThrow(new SQLException("no histogram"));
+        // most of the rows share the first date
+        ResultSet quantiles = mock(ResultSet.class);
+        when(quantiles.next()).thenReturn(true, true, true, false);
+        when(quantiles.getDate(1)).thenReturn(Date.valueOf("2020-01-01"), Date.valueOf("2020-01-01"), Date.valueOf("2020-06-02"));
+        when(mockStatement.executeQuery("SELECT MIN(\"cdate\") FROM (SELECT \"cdate\", NTILE(3) OVER (ORDER BY \"cdate\") pxf_bucket FROM sales WHERE \"cdate\" IS NOT NULL) pxf_buckets GROUP BY pxf_bucket ORDER BY 1")).thenReturn(quantiles);
+
+        List<JdbcFragmentMetadata> partitions = new StatisticsPartitioner(PartitionType.DATE, "cdate", 1000000, true)
+                .getFragmentsMetadata(mockConnection, DbProduct.MICROSOFT, "\"", "sales");
+
+        assertEquals("\"cdate\" < '2020-01-01'|\"cdate\" >= '2020-01-01' AND \"cdate\" < '2020-06-02'|\"cdate\" >= '2020-06-02'|\"cdate\" IS NULL",
+                toConstraints(partitions, "\"", DbProduct.MICROSOFT));
+    }
+
+    @Test
+    public void testUniformPartitionsWhenStatisticsAreNotAvailable() throws SQLException {
+        when(mockConnection.createStatement()).thenReturn(mockStatement);
+        when(mockStatement.executeQuery(startsWith("SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE()"))).thenThrow(new SQLException("denied"));
+        ResultSet count = mock(ResultSet.class);
+        when(count.next()).thenReturn(true);
+        when(count.getLong(1)).thenReturn(400L);
+        when(mockStatement.executeQuery("SELECT COUNT(*) FROM sales")).thenReturn(count);
+        // the quantiles are not computed unless requested, as it sorts the whole table
+        when(mockStatement.executeQuery(startsWith("SELECT JSON_UNQUOTE"))).thenThrow(new SQLException("no such table"));
+        ResultSet minMax = mock(ResultSet.class);
+        when(minMax.next()).thenReturn(true);
+        when(minMax.getLong(1)).thenReturn(0L);
+        when(minMax.getLong(2)).thenReturn(100L);
+        when(mockStatement.executeQuery("SELECT MIN(id), MAX(id) FROM sales")).thenReturn(minMax);
+
+        List<JdbcFragmentMetadata> partitions = new StatisticsPartitioner(PartitionType.INT, "id", 100)
+                .getFragmentsMetadata(mockConnection, DbProduct.MYSQL, "", "sales");
+
+        assertEquals("id < 25|id >= 25 AND id < 50|id >= 50 AND id < 75|id >= 75|id IS NULL", toConstraints(partitions, "", DbProduct.MYSQL));
+    }
+
+    @Test
+    public void testSmallTableIsNotPartitioned() throws SQLException {
+        when(mockConnection.createStatement()).thenReturn(mockStatement);
+        ResultSet estimate = mock(ResultSet.class);
+        when(estimate.next()).thenReturn(true);
+        when(estimate.getDouble(1)).thenReturn(10.0);
+        when(mockStatement.executeQuery(startsWith("SELECT reltuples"))).thenReturn(estimate);
+
+        List<JdbcFragmentMetadata> partitions = new StatisticsPartitioner(PartitionType.INT, "id", 1000)
+                .getFragmentsMetadata(mockConnection, DbProduct.POSTGRES, "", "sales");
+
+        assertTrue(partitions.isEmpty());
+    }
+
+    @Test
+    public void testErrorForEnumPartitions() {
+        Exception ex = assertThrows(IllegalArgumentException.class,
+                () -> new StatisticsPartitioner(PartitionType.ENUM, "grade", 1000));
+        assertEquals("The parameter 'RANGE' must be specified for partition of type 'ENUM'", ex.getMessage());
+    }
+
+    private String toConstraints(List<JdbcFragmentMetadata> partitions, String quoteString, DbProduct dbProduct) {
+        return partitions.stream()
+                .map(p -> p.toSqlConstraint(quoteString, dbProduct))
+                .collect(Collectors.joining("|"));
+    }
+}
@@ -5,9 +5,13 @@ import com.google.common.util.concurrent.Uninterruptibles;
 import com.zaxxer.hikari.HikariDataSource;
 import com.zaxxer.hikari.HikariPoolMXBean;
 import com.zaxxer.hikari.pool.HikariProxyConnection;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.greenplum.pxf.plugins.jdbc.PxfJdbcProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
 
 import java.sql.Connection;
 import java.sql.Driver;
@@ -20,6 +24,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -29,6 +34,7 @@ import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -109,6 +115,54 @@ public class ConnectionManagerTest {
         DriverManager.deregisterDriver(mockDriver2);
     }
 
+    @Test
+    public void testGetConnectionSharedPool() throws SQLException {
+        Driver mockDriver = mock(Driver.class);
+        when(mockDriverManagerWrapper.getDriver("test-url")).thenReturn(mockDriver);
+        when(mockDriver.connect("test-url", connProps)).thenReturn(mockConnection);
+        when(mockDriver.acceptsURL("test-url")).thenReturn(true);
+        DriverManager.registerDriver(mockDriver);
+
+        Connection conn = manager.getConnection("test-server", "test-url", connProps, true, poolProps, null, true);
+        conn.close();
+        Connection conn2 = manager.getConnection("test-server-2", "test-url", connProps, true, poolProps, null, true);
+        assertSame(mockConnection, conn2.unwrap(Connection.class));
+        conn2.close();
+
+        // both servers use the same pool, a single connection is made
+        verify(mockDriver, times(1)).connect("test-url", connProps);
+
+        DriverManager.deregisterDriver(mockDriver);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetConnectionPoolMetrics() throws SQLException {
+        Driver mockDriver = mock(Driver.class);
+        when(mockDriverManagerWrapper.getDriver("test-url")).thenReturn(mockDriver);
+        when(mockDriver.connect("test-url", connProps)).thenReturn(mockConnection);
+        when(mockDriver.acceptsURL("test-url")).thenReturn(true);
+        DriverManager.registerDriver(mockDriver);
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> registryProvider = mock(ObjectProvider.class);
+        when(registryProvider.getIfAvailable()).thenReturn(registry);
+        manager = new ConnectionManager(new ConnectionManager.DataSourceFactory(registryProvider), Ticker.systemTicker(), properties, mockDriverManagerWrapper);
+
+        Connection conn = manager.getConnection("test-server", "test-url", connProps, true, poolProps, null);
+
+        Gauge active = registry.find("hikaricp.connections.active").gauge();
+        assertNotNull(active);
+        assertTrue(active.getId().getTag("pool").startsWith("PXF-JDBC-test-server-"));
+        assertEquals(1, active.value());
+        assertNotNull(registry.find("hikaricp.connections.idle").gauge());
+        assertNotNull(registry.find("hikaricp.connections.pending").gauge());
+        assertEquals(1, registry.find("hikaricp.connections.acquire").timer().count());
+
+        conn.close();
+        DriverManager.deregisterDriver(mockDriver);
+    }
+
     @Test
     public void testGetConnectionPoolEnabledMaxConnOne() throws SQLException {
         Driver mockDriver = mock(Driver.class);
@@ -130,6 +184,34 @@ public class ConnectionManagerTest {
         DriverManager.deregisterDriver(mockDriver);
     }
 
+    @Test
+    public void testEvictConnection() throws SQLException {
+        Driver mockDriver = mock(Driver.class);
+        when(mockDriverManagerWrapper.getDriver("test-url")).thenReturn(mockDriver);
+        Connection mockConnection2 = mock(Connection.class);
+        when(mockDriver.connect("test-url", connProps)).thenReturn(mockConnection).thenReturn(mockConnection2);
+        when(mockDriver.acceptsURL("test-url")).thenReturn(true);
+        DriverManager.registerDriver(mockDriver);
+
+        poolProps.setProperty("maximumPoolSize", "1");
+        poolProps.setProperty("connectionTimeout", "250");
+
+        // the evicted connection is closed instead of being returned to the pool
+        Connection conn = manager.getConnection("test-server", "test-url", connProps, true, poolProps, null);
+        assertTrue(manager.evictConnection(conn, "test-server", "test-url", connProps, poolProps, null, false));
+        verify(mockConnection, timeout(10000)).close();
+
+        // the pool opens a new connection in its place
+        Connection conn2 = manager.getConnection("test-server", "test-url", connProps, true, poolProps, null);
+        assertSame(mockConnection2, conn2.unwrap(Connection.class));
+        conn2.close();
+
+        // there is nothing to evict the connection from when its pool does not exist
+        assertFalse(manager.evictConnection(conn2, "test-server", "test-url-2", connProps, poolProps, null, false));
+
+        DriverManager.deregisterDriver(mockDriver);
+    }
+
     @Test
     public void testGetConnectionPoolEnabledWithPoolProps() throws SQLException {
         Driver mockDriver = mock(Driver.class);
@@ -134,4 +134,44 @@ public class DbProductTest {
             assertEquals(expected[i], dbProduct.wrapDate(DATES[i]));
         }
     }
+
+    @Test
+    public void testOracleRowCountEstimateOfUnquotedTable() {
+        assertEquals("SELECT NUM_ROWS FROM ALL_TABLES WHERE OWNER = UPPER('sales') AND TABLE_NAME = UPPER('orders')",
+                DbProduct.ORACLE.buildRowCountEstimateQuery("sales.orders"));
+        assertEquals("SELECT NUM_ROWS FROM ALL_TABLES WHERE OWNER = SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA') AND TABLE_NAME = UPPER('orders')",
+                DbProduct.ORACLE.buildRowCountEstimateQuery("orders"));
+    }
+
+    @Test
+    public void testOracleRowCountEstimateOfQuotedTable() {
+        assertEquals("SELECT NUM_ROWS FROM ALL_TABLES WHERE OWNER = 'Sales' AND TABLE_NAME = 'Orders'",
+                DbProduct.ORACLE.buildRowCountEstimateQuery("\"Sales\".\"Orders\""));
+        assertEquals("SELECT NUM_ROWS FROM ALL_TABLES WHERE OWNER = UPPER('sales') AND TABLE_NAME = 'Orders'",
+                DbProduct.ORACLE.buildRowCountEstimateQuery("sales.\"Orders\""));
+    }
+
+    @Test
+    public void testPostgresHistogramOfUnquotedColumn() {
+        assertEquals("SELECT b.bound, b.position FROM pg_stats s, unnest(s.histogram_bounds::text::text[]) WITH ORDINALITY b(bound, position) " +
+                        "WHERE s.schemaname = lower('Sales') AND s.tablename = lower('Orders') AND s.attname = lower('Id') ORDER BY b.position",
+                DbProduct.POSTGRES.buildHistogramQuery("Id", "Sales.Orders"));
+        assertEquals("SELECT b.bound, b.position FROM pg_stats s, unnest(s.histogram_bounds::text::text[]) WITH ORDINALITY b(bound, position) " +
+                        "WHERE s.schemaname = current_schema() AND s.tablename = lower('orders') AND s.attname = lower('id') ORDER BY b.position",
+                DbProduct.POSTGRES.buildHistogramQuery("id", "orders"));
+    }
+
+    @Test
+    public void testPostgresHistogramOfQuotedColumn() {
+        assertEquals("SELECT b.bound, b.position FROM pg_stats s, unnest(s.histogram_bounds::text::text[]) WITH ORDINALITY b(bound, position) " +
+                        "WHERE s.schemaname = 'Sales' AND s.tablename = 'Orders' AND s.attname = 'Id' ORDER BY b.position",
+                DbProduct.POSTGRES.buildHistogramQuery("\"Id\"", "\"Sales\".\"Orders\""));
+    }
+
+    @Test
+    public void testPostgresRowCountEstimateParsesTableName() {
+        // to_regclass parses the name, folding the unquoted parts to lower case
+        assertEquals("SELECT reltuples FROM pg_class WHERE oid = to_regclass('\"Sales\".orders')",
+                DbProduct.POSTGRES.buildRowCountEstimateQuery("\"Sales\".orders"));
+    }
 }
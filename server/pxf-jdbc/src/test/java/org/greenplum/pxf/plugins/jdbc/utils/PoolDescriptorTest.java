@@ -129,12 +129,31 @@ public class PoolDescriptorTest {
         assertEquals(poolDescriptor, diffPoolDescriptor);
     }
 
+    @Test
+    public void testSharedPoolDescriptorHashCodeAndEquals() {
+        poolDescriptor = new PoolDescriptor("test-server", "test-jdbcUrl", connConfig, poolConfig, null, true);
+        assertTrue(poolDescriptor.isShared());
+
+        // a shared pool is used by all servers
+        PoolDescriptor samePoolDescriptor = new PoolDescriptor("diff-server", "test-jdbcUrl", connConfig, poolConfig, null, true);
+        assertEquals(poolDescriptor.hashCode(), samePoolDescriptor.hashCode());
+        assertEquals(poolDescriptor, samePoolDescriptor);
+
+        PoolDescriptor diffPoolDescriptor = new PoolDescriptor("diff-server", "diff-jdbcUrl", connConfig, poolConfig, null, true);
+        assertNotEquals(poolDescriptor, diffPoolDescriptor);
+
+        // the pool of a server is not shared
+        diffPoolDescriptor = new PoolDescriptor("test-server", "test-jdbcUrl", connConfig, poolConfig, null);
+        assertFalse(diffPoolDescriptor.isShared());
+        assertNotEquals(poolDescriptor, diffPoolDescriptor);
+    }
+
     @Test
     public void testPoolDescriptorToString() {
         poolDescriptor = new PoolDescriptor("test-server", "test-jdbcUrl", connConfig, poolConfig, null);
-        assertEquals("PoolDescriptor{jdbcUrl=test-jdbcUrl, user=test-user, password=*************, connectionConfig={test-other-property=test-other-property-value}, poolConfig={test-pool-property=test-pool-property-value}, qualifier=null}", poolDescriptor.toString());
+        assertEquals("PoolDescriptor{jdbcUrl=test-jdbcUrl, user=test-user, password=*************, connectionConfig={test-other-property=test-other-property-value}, poolConfig={test-pool-property=test-pool-property-value}, qualifier=null, shared=false}", poolDescriptor.toString());
         poolDescriptor = new PoolDescriptor("test-server", "test-jdbcUrl", connConfig, poolConfig, "foo");
-        assertEquals("PoolDescriptor{jdbcUrl=test-jdbcUrl, user=test-user, password=*************, connectionConfig={test-other-property=test-other-property-value}, poolConfig={test-pool-property=test-pool-property-value}, qualifier=foo}", poolDescriptor.toString());
+        assertEquals("PoolDescriptor{jdbcUrl=test-jdbcUrl, user=test-user, password=*************, connectionConfig={test-other-property=test-other-property-value}, poolConfig={test-pool-property=test-pool-property-value}, qualifier=foo, shared=false}", poolDescriptor.toString());
     }
 
     private void testInvalidProperty(String property) {
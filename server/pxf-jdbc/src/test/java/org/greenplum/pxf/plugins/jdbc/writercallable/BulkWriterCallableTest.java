@@ -0,0 +1,154 @@
+package org.greenplum.pxf.plugins.jdbc.writercallable;
+
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.plugins.jdbc.JdbcBasePlugin;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkWriterCallableTest {
+
+    private static final String INSERT_QUERY = "INSERT INTO public.t(id, name, data) VALUES (?, ?, ?)";
+
+    @Mock
+    private JdbcBasePlugin mockPlugin;
+    @Mock
+    private PreparedStatement mockStatement;
+    @Mock
+    private Connection mockConnection;
+
+    @Test
+    public void testToCopyQuery() {
+        assertEquals("COPY public.t(id, name, data) FROM STDIN", CopyWriterCallable.toCopyQuery(INSERT_QUERY));
+
+        Exception e = assertThrows(IllegalArgumentException.class,
+                () -> CopyWriterCallable.toCopyQuery("SELECT 1"));
+        assertEquals("The provided SQL query is not an INSERT query: SELECT 1", e.getMessage());
+    }
+
+    @Test
+    public void testCopyEncodesRowsInTextFormat() throws Exception {
+        when(mockStatement.getConnection()).thenReturn(mockConnection);
+        List<String> copies = new ArrayList<>();
+        WriterCallable writer = new CopyWriterCallable(mockPlugin, INSERT_QUERY, mockStatement, 2, 1024) {
+            @Override
+            void copyIn(Connection connection, String copyQuery, byte[] data, int length) {
+                assertSame(mockConnection, connection);
+                assertEquals("COPY public.t(id, name, data) FROM STDIN", copyQuery);
+                copies.add(new String(data, 0, length, StandardCharsets.UTF_8));
+            }
+        };
+        writer.supply(row(1, "tab\there\\ ж 😀", new byte[]{0x01, (byte) 0xAB}));
+        assertFalse(writer.isCallRequired());
+        writer.supply(row(2, "line\nbreak", null));
+        assertTrue(writer.isCallRequired());
+
+        assertNull(writer.call());
+        assertEquals(Collections.singletonList("1\ttab\\there\\\\ ж 😀\t\\\\x01ab\n2\tline\\nbreak\t\\N\n"), copies);
+
+        // the writer is empty after a call
+        assertFalse(writer.isCallRequired());
+        assertNull(writer.call());
+        assertEquals(1, copies.size());
+    }
+
+    @Test
+    public void testCopyIsRequiredWhenBufferIsFull() {
+        WriterCallable writer = new CopyWriterCallable(mockPlugin, INSERT_QUERY, mockStatement, Integer.MAX_VALUE, 15);
+        writer.supply(row(1, "abcd", null));
+        assertFalse(writer.isCallRequired());
+        writer.supply(row(2, "abcd", null));
+        assertTrue(writer.isCallRequired());
+        assertThrows(IllegalStateException.class, () -> writer.supply(row(3, "abcd", null)));
+    }
+
+    @Test
+    public void testCopyFailureIsReturned() throws Exception {
+        when(mockPlugin.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.getMetaData()).thenReturn(mock(DatabaseMetaData.class));
+        SQLException failure = new SQLException("invalid input syntax");
+        WriterCallable writer = new CopyWriterCallable(mockPlugin, INSERT_QUERY, null, 10, 1024) {
+            @Override
+            void copyIn(Connection connection, String copyQuery, byte[] data, int length) throws SQLException {
+                throw failure;
+            }
+        };
+        writer.supply(row(1, "a", null));
+
+        assertSame(failure, writer.call());
+        // the connection opened for the call is closed
+        verify(mockConnection).close();
+    }
+
+    @Test
+    public void testMultiRowInsert() throws Exception {
+        when(mockPlugin.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.getMetaData()).thenReturn(mock(DatabaseMetaData.class));
+        PreparedStatement multiRowStatement = mock(PreparedStatement.class);
+        when(mockPlugin.getPreparedStatement(mockConnection,
+                "INSERT INTO public.t(id, name, data) VALUES (?, ?, ?), (?, ?, ?), (?, ?, ?)")).thenReturn(multiRowStatement);
+
+        WriterCallable writer = new MultiRowInsertWriterCallable(mockPlugin, INSERT_QUERY, null, 3, 3, 1024);
+        writer.supply(row(1, "a", null));
+        writer.supply(row(2, "b", null));
+        assertFalse(writer.isCallRequired());
+        writer.supply(row(3, "c", new byte[]{1}));
+        assertTrue(writer.isCallRequired());
+
+        assertNull(writer.call());
+        verify(multiRowStatement).setInt(1, 1);
+        verify(multiRowStatement).setString(2, "a");
+        verify(multiRowStatement).setInt(4, 2);
+        verify(multiRowStatement).setString(5, "b");
+        verify(multiRowStatement).setInt(7, 3);
+        verify(multiRowStatement).setString(8, "c");
+        verify(multiRowStatement).setBytes(eq(9), any(byte[].class));
+        verify(multiRowStatement).executeUpdate();
+        verify(multiRowStatement).close();
+        // the connection opened for the call is closed
+        verify(mockConnection).close();
+        assertFalse(writer.isCallRequired());
+    }
+
+    @Test
+    public void testMultiRowInsertIsRequiredWhenRowsAreLarge() {
+        WriterCallable writer = new MultiRowInsertWriterCallable(mockPlugin, INSERT_QUERY, mockStatement, 3, 1000, 16);
+        writer.supply(row(1, "abcd", null));
+        assertFalse(writer.isCallRequired());
+        writer.supply(row(2, "abcd", null));
+        assertTrue(writer.isCallRequired());
+    }
+
+    private OneRow row(int id, String name, byte[] data) {
+        return new OneRow(Arrays.asList(
+                new OneField(DataType.INTEGER.getOID(), id),
+                new OneField(DataType.TEXT.getOID(), name),
+                new OneField(DataType.BYTEA.getOID(), data)));
+    }
+}
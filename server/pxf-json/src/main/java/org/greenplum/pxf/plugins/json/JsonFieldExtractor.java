@@ -0,0 +1,225 @@
+package org.greenplum.pxf.plugins.json;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extracts the values of the columns of a table from a JSON record in a single pass over the record, without building
+ * a tree of the whole record.
+ * <p>
+ * The column paths (e.g. "user.name" or "tweet.hashtags[0]") are compiled into a trie of member names. While the
+ * record is pulled from a {@link JsonParser}, the members that no column refers to are skipped, and only the values of
+ * the columns are read as {@link JsonNode}s. A member that is both the value of a column and the parent of other
+ * columns is read as a tree, from which the values of these columns are taken.
+ */
+class JsonFieldExtractor {
+
+    private final ObjectMapper mapper;
+    private final PathNode root;
+    private final JsonNode[] values;
+    private final boolean[] notArray;
+
+    /**
+     * Compiles the paths of the given columns.
+     *
+     * @param mapper  the mapper used to read the values of the columns
+     * @param columns the columns of the table
+     */
+    JsonFieldExtractor(ObjectMapper mapper, ColumnDescriptorCache[] columns) {
+        this.mapper = mapper;
+        this.values = new JsonNode[columns.length];
+        this.notArray = new boolean[columns.length];
+
+        root = new PathNode();
+        for (int i = 0; i < columns.length; i++) {
+            PathNode node = root;
+            for (String name : columns[i].getNormalizedProjections()) {
+                node = node.children.computeIfAbsent(name, n -> new PathNode());
+            }
+            if (columns[i].isArray()) {
+                node.elementColumns.add(new int[]{columns[i].getArrayNodeIndex(), i});
+            } else {
+                node.valueColumns.add(i);
+            }
+        }
+        root.compile();
+    }
+
+    /**
+     * Reads the record from the parser and keeps the values of the columns, which are then returned by
+     * {@link #getValue(int)}.
+     *
+     * @param parser the parser of the record, positioned before the record
+     * @throws IOException when the record is not valid JSON
+     */
+    void extract(JsonParser parser) throws IOException {
+        Arrays.fill(values, null);
+        Arrays.fill(notArray, false);
+
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_OBJECT) {
+            readObject(parser, root);
+        } else if (token != null) {
+            // no column can be found in an array or a scalar, but the record must still be valid
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * @param column the index of the column
+     * @return the value of the column in the last record, null if the record does not have the column
+     */
+    JsonNode getValue(int column) {
+        return values[column];
+    }
+
+    /**
+     * @param column the index of the column
+     * @return true if the column refers to an array element and the record has a value that is not an array at the
+     * path of the array
+     */
+    boolean isNotArray(int column) {
+        return notArray[column];
+    }
+
+    /*
+     * Reads the members of an object, the parser being on the START_OBJECT token
+     */
+    private void readObject(JsonParser parser, PathNode node) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            PathNode child = node.children.get(parser.getCurrentName());
+            parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+            } else {
+                readValue(parser, child);
+            }
+        }
+    }
+
+    /*
+     * Reads the value of a member that is on the path of a column, the parser being on the first token of the value
+     */
+    private void readValue(JsonParser parser, PathNode node) throws IOException {
+        // a member that appears again replaces the values taken from its earlier occurrence
+        for (int column : node.columns) {
+            values[column] = null;
+            notArray[column] = false;
+        }
+
+        JsonToken token = parser.currentToken();
+        if (node.readAsTree) {
+            setValues(node, mapper.readTree(parser));
+        } else if (token == JsonToken.START_OBJECT && !node.children.isEmpty()) {
+            readObject(parser, node);
+        } else if (token == JsonToken.START_ARRAY && !node.elementColumns.isEmpty()) {
+            readArray(parser, node);
+        } else {
+            for (int[] elementColumn : node.elementColumns) {
+                notArray[elementColumn[1]] = true;
+            }
+            parser.skipChildren();
+        }
+    }
+
+    /*
+     * Reads the elements of an array that columns refer to, the parser being on the START_ARRAY token
+     */
+    private void readArray(JsonParser parser, PathNode node) throws IOException {
+        int index = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            JsonNode element = null;
+            for (int[] elementColumn : node.elementColumns) {
+                if (elementColumn[0] == index) {
+                    if (element == null) {
+                        element = mapper.readTree(parser);
+                    }
+                    values[elementColumn[1]] = element;
+                }
+            }
+            if (element == null) {
+                parser.skipChildren();
+            }
+            index++;
+        }
+    }
+
+    /*
+     * Takes the values of the columns of the node and of its descendants from the given tree
+     */
+    private void setValues(PathNode node, JsonNode value) {
+        for (int column : node.valueColumns) {
+            values[column] = value;
+        }
+        for (int[] elementColumn : node.elementColumns) {
+            if (value.isArray()) {
+                values[elementColumn[1]] = value.get(elementColumn[0]);
+            } else {
+                notArray[elementColumn[1]] = true;
+            }
+        }
+        for (Map.Entry<String, PathNode> child : node.children.entrySet()) {
+            JsonNode childValue = value.path(child.getKey());
+            if (!childValue.isMissingNode()) {
+                setValues(child.getValue(), childValue);
+            }
+        }
+    }
+
+    /**
+     * A member on the path of one or more columns.
+     */
+    private static class PathNode {
+        private final Map<String, PathNode> children = new HashMap<>();
+        // the columns whose value is the member
+        private final List<Integer> valueColumns = new ArrayList<>();
+        // the pairs of array index and column whose value is an element of the member
+        private final List<int[]> elementColumns = new ArrayList<>();
+        // the columns of the member and of its descendants
+        private int[] columns;
+        private boolean readAsTree;
+
+        private void compile() {
+            List<Integer> all = new ArrayList<>(valueColumns);
+            for (int[] elementColumn : elementColumns) {
+                all.add(elementColumn[1]);
+            }
+            for (PathNode child : children.values()) {
+                child.compile();
+                for (int column : child.columns) {
+                    all.add(column);
+                }
+            }
+            columns = all.stream().mapToInt(Integer::intValue).toArray();
+            readAsTree = !valueColumns.isEmpty() || (!elementColumns.isEmpty() && !children.isEmpty());
+        }
+    }
+}
@@ -35,7 +35,6 @@ import org.greenplum.pxf.plugins.json.parser.PartitionedJsonParser;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 
 /**
  * Multi-line json object reader. JsonRecordReader uses a member name (set by the <b>IDENTIFIER</b> PXF parameter) to
@@ -102,24 +101,28 @@ public class JsonRecordReader implements RecordReader<LongWritable, Text> {
 
         while (pos < end) {
 
-            String json = parser.nextObjectContainingMember(jsonMemberName);
+            boolean found = parser.nextObjectContainingMember(jsonMemberName, value);
             pos = start + parser.getBytesRead();
-            if (json == null) {
+            if (!found) {
                 return false;
             }
 
-            long jsonStart = pos - json.getBytes(StandardCharsets.UTF_8).length;
+            long jsonStart = start + parser.getObjectStart();
 
             // if the "begin-object" position is after the end of our split, we should ignore it
             if (jsonStart >= end) {
                 return false;
             }
 
-            if (json.length() > maxObjectLength) {
-                LOG.warn("Skipped JSON object of size " + json.length() + " at pos " + jsonStart);
+            // the max length is in characters, which can only exceed it if the number of bytes does
+            int jsonLength = value.getLength();
+            if (jsonLength > maxObjectLength) {
+                jsonLength = countChars(value.getBytes(), value.getLength());
+            }
+            if (jsonLength > maxObjectLength) {
+                LOG.warn("Skipped JSON object of size " + jsonLength + " at pos " + jsonStart);
             } else {
                 key.set(jsonStart);
-                value.set(json);
                 return true;
             }
         }
@@ -127,6 +130,21 @@ public class JsonRecordReader implements RecordReader<LongWritable, Text> {
         return false;
     }
 
+    /**
+     * Counts the UTF-16 characters of the given UTF-8 bytes, i.e. the length of the decoded String
+     */
+    private static int countChars(byte[] bytes, int length) {
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            int b = bytes[i] & 0xFF;
+            if ((b & 0xC0) != 0x80) {
+                // the first byte of a character, a 4-byte sequence is a surrogate pair
+                count += b >= 0xF0 ? 2 : 1;
+            }
+        }
+        return count;
+    }
+
     /*
      * {@inheritDoc}
      */
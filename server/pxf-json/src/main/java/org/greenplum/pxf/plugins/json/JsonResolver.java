@@ -19,9 +19,12 @@ package org.greenplum.pxf.plugins.json;
  * under the License.
  */
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hadoop.io.Text;
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.error.BadRecordException;
@@ -40,17 +43,19 @@ import java.util.StringJoiner;
 
 /**
  * This JSON resolver for PXF will decode a given object from the {@link JsonAccessor} into a row for GPDB. It will
- * decode this data into a JsonNode and walk the tree for each column. It supports normal value mapping via projections
- * and JSON array indexing.
+ * stream through the data with a {@link JsonFieldExtractor} and only decode the values of the columns into JsonNodes.
+ * It supports normal value mapping via projections and JSON array indexing.
  */
 public class JsonResolver extends BasePlugin implements Resolver {
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonFactory FACTORY = MAPPER.getFactory();
 
     private PgUtilities pgUtilities;
 
     private ArrayList<OneField> oneFieldList;
     private ColumnDescriptorCache[] columnDescriptorCache;
+    private JsonFieldExtractor fieldExtractor;
 
     public JsonResolver() {
         this(SpringContext.getBean(PgUtilities.class));
@@ -70,6 +75,7 @@ public class JsonResolver extends BasePlugin implements Resolver {
             ColumnDescriptor cd = context.getColumn(i);
             columnDescriptorCache[i] = new ColumnDescriptorCache(cd);
         }
+        fieldExtractor = new JsonFieldExtractor(MAPPER, columnDescriptorCache);
     }
 
     @Override
@@ -79,32 +85,32 @@ public class JsonResolver extends BasePlugin implements Resolver {
         if (row == null || row.getData() == null) {
             throw new BadRecordException("json record is null");
         }
-        String jsonRecordAsText = row.getData().toString();
+        Object data = row.getData();
 
-        JsonNode root;
-        try {
-            root = MAPPER.readTree(jsonRecordAsText);
+        // parse the bytes of the record read by the accessor, without decoding them to a String first
+        try (JsonParser parser = data instanceof Text
+                ? FACTORY.createParser(((Text) data).getBytes(), 0, ((Text) data).getLength())
+                : FACTORY.createParser(data.toString())) {
+            fieldExtractor.extract(parser);
         } catch (IOException e) {
             throw new BadRecordException(
-                    String.format("error while parsing json record '%s'. invalid JSON record\n%s", e.getMessage(), jsonRecordAsText), e);
+                    String.format("error while parsing json record '%s'. invalid JSON record\n%s", e.getMessage(), data), e);
         }
 
         // Iterate through the column definition and fetch our JSON data
-        for (ColumnDescriptorCache columnMetadata : columnDescriptorCache) {
+        for (int i = 0; i < columnDescriptorCache.length; i++) {
+            ColumnDescriptorCache columnMetadata = columnDescriptorCache[i];
 
-            JsonNode node = getChildJsonNode(root, columnMetadata.getNormalizedProjections());
+            // If this column name is an array index, ex. "tweet.hashtags[0]", the value must be an array
+            if (fieldExtractor.isNotArray(i)) {
+                throw new IllegalStateException(columnMetadata.getColumnName() + " is not an array node");
+            }
+
+            JsonNode node = fieldExtractor.getValue(i);
 
-            // If this node is null or missing, add a null value here
+            // If this node is null or missing (or the array has no such element), add a null value here
             if (node == null || node.isMissingNode()) {
                 addNullField(columnMetadata.getColumnType());
-            } else if (columnMetadata.isArray()) {
-                // If this column name is an array index, ex. "tweet.hashtags[0]"
-                if (node.isArray()) {
-                    // If the JSON node is an array, then add it to our list
-                    addFieldFromJsonArray(columnMetadata, node, columnMetadata.getArrayNodeIndex());
-                } else {
-                    throw new IllegalStateException(columnMetadata.getColumnName() + " is not an array node");
-                }
             } else {
                 // Add the value to the record
                 addFieldFromJsonNode(columnMetadata, node);
@@ -126,54 +132,6 @@ public class JsonResolver extends BasePlugin implements Resolver {
         throw new UnsupportedOperationException("JSON resolver does not support write operation.");
     }
 
-    /**
-     * Iterates down the root node to the child JSON node defined by the projs path.
-     *
-     * @param root  node to to start the traversal from.
-     * @param projs defines the path from the root to the desired child node.
-     * @return Returns the child node defined by the root and projs path.
-     */
-    private JsonNode getChildJsonNode(JsonNode root, String[] projs) {
-
-        // Iterate through all the tokens to the desired JSON node
-        JsonNode node = root;
-        for (String proj : projs) {
-            node = node.path(proj);
-        }
-
-        return node;
-    }
-
-    /**
-     * Iterates through the given JSON node to the proper index and adds the field of corresponding type
-     *
-     * @param columnMetadata  The {@link ColumnDescriptorCache} for the current column
-     * @param node  The JSON array node
-     * @param index The array index to iterate to
-     * @throws IOException, BadRecordException
-     */
-    private void addFieldFromJsonArray(ColumnDescriptorCache columnMetadata, JsonNode node, int index) throws IOException, BadRecordException {
-
-        int count = 0;
-        boolean added = false;
-        for (Iterator<JsonNode> arrayNodes = node.elements(); arrayNodes.hasNext(); ) {
-            JsonNode arrayNode = arrayNodes.next();
-
-            if (count == index) {
-                added = true;
-                addFieldFromJsonNode(columnMetadata, arrayNode);
-                break;
-            }
-
-            ++count;
-        }
-
-        // if we reached the end of the array without adding a field, add null
-        if (!added) {
-            addNullField(columnMetadata.getColumnType());
-        }
-    }
-
     /**
      * Adds a field from a given {@link JsonNode} value based on the {@link DataType} type.
      *
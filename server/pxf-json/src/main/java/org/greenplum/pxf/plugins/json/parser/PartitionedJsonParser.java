@@ -19,15 +19,12 @@ package org.greenplum.pxf.plugins.json.parser;
  * under the License.
  */
 
+import org.apache.hadoop.io.Text;
+
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.EnumSet;
-import java.util.List;
-
-import org.greenplum.pxf.plugins.json.parser.JsonLexer.JsonLexerState;
+import java.util.Arrays;
 
 /**
  * A simple parser that can support reading JSON objects from a random point in JSON text. It reads from the supplied
@@ -35,56 +32,58 @@ import org.greenplum.pxf.plugins.json.parser.JsonLexer.JsonLexerState;
  * JSON begin-object "{". From this point on it will keep reading JSON objects until it finds one containing a member
  * string that the user supplies.
  * &lt;p/&gt;
+ * The text is scanned in two phases. The first phase reads the stream in large blocks of bytes and finds the positions
+ * of the structural characters (quotes, backslashes, braces and colons) of every block in a tight loop. The second
+ * phase only visits these positions to follow the strings and objects and find the matching members. Since these
+ * characters are ASCII, they never appear inside a multi-byte UTF-8 sequence, so the bytes do not need to be decoded,
+ * and the positions are exact byte offsets in the stream.
+ * &lt;p/&gt;
  * It is not recommended to use this with JSON text where individual JSON objects that can be large (MB's or larger).
  */
 public class PartitionedJsonParser {
 
-	private static final char BACKSLASH = '\\';
-	private static final char START_BRACE = '{';
-	private static final int EOF = -1;
-	private static final int CHARS_READ_LIMIT = 8192;
-	private final InputStreamReader inputStreamReader;
-	private final JsonLexer lexer;
-	private long bytesRead = 0;
-	private boolean endOfStream = false;
-	private final StringBuilder uncountedCharsReadFromStream;
-
-	public PartitionedJsonParser(InputStream is) {
-		this.lexer = new JsonLexer();
-
-		// You need to wrap the InputStream with an InputStreamReader, so that it can encode the incoming byte stream as
-		// UTF-8 characters
-		this.inputStreamReader = new InputStreamReader(is, StandardCharsets.UTF_8);
+	private static final int BLOCK_SIZE = 64 * 1024;
+	private static final byte BACKSLASH = '\\';
+	private static final byte QUOTE = '"';
+	private static final byte START_BRACE = '{';
+	private static final byte END_BRACE = '}';
+	private static final byte COLON = ':';
+	private static final boolean[] STRUCTURAL = new boolean[256];
 
-		this.uncountedCharsReadFromStream = new StringBuilder(CHARS_READ_LIMIT);
-	}
-
-	private boolean scanToFirstBeginObject() throws IOException {
-		// seek until we hit the first begin-object
-		char prev = ' ';
-		int i;
-		while ((i = readNextChar()) != EOF) {
-			char c = (char) i;
-			if (c == START_BRACE && prev != BACKSLASH) {
-				lexer.setState(JsonLexer.JsonLexerState.BEGIN_OBJECT);
-				return true;
-			}
-			prev = c;
+	static {
+		for (byte b : new byte[]{BACKSLASH, QUOTE, START_BRACE, END_BRACE, COLON}) {
+			STRUCTURAL[b] = true;
 		}
-		endOfStream = true;
-		return false;
 	}
 
-	private enum MemberSearchState {
-		FOUND_STRING_NAME,
+	private final InputStream inputStream;
+	private boolean endOfStream = false;
 
-		SEARCHING,
+	// the bytes read from the stream that are still needed, buffer[0] being at bufferOffset in the stream
+	private byte[] buffer = new byte[BLOCK_SIZE];
+	private int length;
+	private long bufferOffset;
 
-		IN_MATCHING_OBJECT
-	}
+	// the positions in the buffer of the structural characters that are not processed yet
+	private int[] positions = new int[BLOCK_SIZE];
+	private int positionCount;
+	private int positionIndex;
 
-	private static final EnumSet<JsonLexerState> inStringStates = EnumSet.of(JsonLexerState.INSIDE_STRING,
-			JsonLexerState.STRING_ESCAPE);
+	// the stream offsets of the state of the second phase
+	private long bytesRead = 0;
+	private long objectStart = -1;
+	private long scanStart;
+	private boolean scanning;
+	private long stringStart = -1;
+	private long escaped = -1;
+	private long memberNameEnd = -1;
+	private long[] objectStarts = new long[16];
+	private int depth;
+	private int matchDepth = -1;
+
+	public PartitionedJsonParser(InputStream is) {
+		this.inputStream = is;
+	}
 
 	/**
 	 * @param memberName
@@ -94,106 +93,99 @@ public class PartitionedJsonParser {
 	 * @throws IOException IOException when stream reading
 	 */
 	public String nextObjectContainingMember(String memberName) throws IOException {
+		Text object = new Text();
+		return nextObjectContainingMember(memberName, object) ? object.toString() : null;
+	}
+
+	/**
+	 * Finds the next json object that contains a member attribute with name: memberName, and sets its UTF-8 bytes
+	 * into the given text, without decoding them.
+	 *
+	 * @param memberName
+	 *            Indicates the member name used to determine the encapsulating object to return.
+	 * @param object
+	 *            the text the object is copied to
+	 * @return Returns true if an object was found, false if the end of the stream is reached.
+	 * @throws IOException IOException when stream reading
+	 */
+	public boolean nextObjectContainingMember(String memberName, Text object) throws IOException {
 
 		if (endOfStream) {
-			return null;
+			return false;
 		}
 
-		int i;
-		int objectCount = 0;
-		StringBuilder currentObject = new StringBuilder();
-		StringBuilder currentString = new StringBuilder();
-		MemberSearchState memberState = MemberSearchState.SEARCHING;
+		byte[] name = memberName.getBytes(StandardCharsets.UTF_8);
+		resetState();
 
-		List<Integer> objectStack = new ArrayList<Integer>();
+		int p;
+		while ((p = nextPosition()) >= 0) {
+			long offset = bufferOffset + p;
+			byte c = buffer[p];
+			bytesRead = offset + 1;
 
-		if (!scanToFirstBeginObject()) {
-			return null;
-		}
-		currentObject.append(START_BRACE);
-		objectStack.add(0);
-
-		while ((i = readNextChar()) != EOF) {
-			char c = (char) i;
-
-			lexer.lex(c);
-
-			currentObject.append(c);
-
-			switch (memberState) {
-			case SEARCHING:
-				if (lexer.getState() == JsonLexerState.BEGIN_STRING) {
-					// we found the start of a string, so reset our string buffer
-					currentString.setLength(0);
-				} else if (inStringStates.contains(lexer.getState())) {
-					// we're still inside a string, so keep appending to our buffer
-					currentString.append(c);
-				} else if (lexer.getState() == JsonLexerState.END_STRING && memberName.equals(currentString.toString())) {
-
-					if (objectStack.size() > 0) {
-						// we hit the end of the string and it matched the member name (yay)
-						memberState = MemberSearchState.FOUND_STRING_NAME;
-						currentString.setLength(0);
-					}
-				} else if (lexer.getState() == JsonLexerState.BEGIN_OBJECT) {
-					// we are searching and found a '{', so we reset the current object string
-					if (objectStack.size() == 0) {
-						currentObject.setLength(0);
-						currentObject.append(START_BRACE);
-					}
-					objectStack.add(currentObject.length() - 1);
-				} else if (lexer.getState() == JsonLexerState.END_OBJECT) {
-					if (objectStack.size() > 0) {
-						objectStack.remove(objectStack.size() - 1);
-					}
-					if (objectStack.size() == 0) {
-						currentObject.setLength(0);
+			if (scanning) {
+				// seek until we hit the first begin-object
+				if (c == START_BRACE && (offset == scanStart || buffer[p - 1] != BACKSLASH)) {
+					scanning = false;
+					pushObject(offset);
+				}
+			} else if (stringStart >= 0) {
+				if (offset == escaped) {
+					continue;
+				}
+				if (c == BACKSLASH) {
+					escaped = offset + 1;
+				} else if (c == QUOTE) {
+					if (depth > 0 && matchDepth < 0 && offset - stringStart == name.length && matches(name, p - name.length)) {
+						memberNameEnd = offset;
 					}
+					stringStart = -1;
 				}
-				break;
-			case FOUND_STRING_NAME:
-				// keep popping whitespaces until we hit a different token
-				if (lexer.getState() != JsonLexerState.WHITESPACE) {
-					if (lexer.getState() == JsonLexerState.NAME_SEPARATOR) {
+			} else {
+				if (memberNameEnd >= 0) {
+					boolean isMember = c == COLON && isWhitespace(memberNameEnd + 1, offset);
+					memberNameEnd = -1;
+					if (isMember) {
 						// found our member!
-						memberState = MemberSearchState.IN_MATCHING_OBJECT;
-						objectCount = 0;
-
-						if (objectStack.size() > 1) {
-							currentObject.delete(0, objectStack.get(objectStack.size() - 1));
-						}
-						objectStack.clear();
-					} else {
-						// we didn't find a value-separator (:), so our string wasn't a member string. keep searching
-						memberState = MemberSearchState.SEARCHING;
+						matchDepth = depth;
+						continue;
 					}
 				}
-				break;
-			case IN_MATCHING_OBJECT:
-				if (lexer.getState() == JsonLexerState.BEGIN_OBJECT) {
-					objectCount++;
-				} else if (lexer.getState() == JsonLexerState.END_OBJECT) {
-					objectCount--;
-					if (objectCount < 0) {
+
+				if (c == QUOTE) {
+					stringStart = offset + 1;
+				} else if (c == START_BRACE) {
+					pushObject(offset);
+				} else if (c == END_BRACE && depth > 0) {
+					if (depth == matchDepth) {
 						// we're done! we reached an "}" which is at the same level as the member we found
-						return currentObject.toString();
+						objectStart = objectStarts[depth - 1];
+						object.set(buffer, (int) (objectStart - bufferOffset), (int) (offset - objectStart + 1));
+						return true;
 					}
+					depth--;
 				}
-				break;
 			}
 		}
 		endOfStream = true;
-		return null;
+		bytesRead = bufferOffset + length;
+		return false;
 	}
 
 	/**
 	 * @return Returns the number of bytes read from the stream.
 	 */
 	public long getBytesRead() {
-		bytesRead += countBytesInReadChars();
 		return bytesRead;
 	}
 
+	/**
+	 * @return Returns the offset in the stream of the last object returned, or -1 if no object was returned.
+	 */
+	public long getObjectStart() {
+		return objectStart;
+	}
+
 	/**
 	 * @return Returns true if the end of the stream has been reached and false otherwise.
 	 */
@@ -201,23 +193,103 @@ public class PartitionedJsonParser {
 		return endOfStream;
 	}
 
-	private int readNextChar() throws IOException {
-		int i = inputStreamReader.read();
+	private void resetState() {
+		scanStart = bytesRead;
+		scanning = true;
+		stringStart = -1;
+		escaped = -1;
+		memberNameEnd = -1;
+		depth = 0;
+		matchDepth = -1;
+	}
+
+	private void pushObject(long offset) {
+		if (depth == objectStarts.length) {
+			objectStarts = Arrays.copyOf(objectStarts, depth * 2);
+		}
+		objectStarts[depth++] = offset;
+	}
+
+	private boolean matches(byte[] name, int from) {
+		for (int i = 0; i < name.length; i++) {
+			if (buffer[from + i] != name[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
 
-		if (i != EOF) {
-			uncountedCharsReadFromStream.append((char) i);
-			if (uncountedCharsReadFromStream.length() == CHARS_READ_LIMIT) {
-				bytesRead += countBytesInReadChars();
+	private boolean isWhitespace(long from, long to) {
+		for (int i = (int) (from - bufferOffset); i < to - bufferOffset; i++) {
+			byte b = buffer[i];
+			if (b != ' ' && b != '\t' && b != '\n' && b != '\r' && b != '\f' && b != 0x0B && (b < 0x1C || b > 0x1F)) {
+				return false;
 			}
 		}
+		return true;
+	}
 
-		return i;
+	/**
+	 * Returns the position in the buffer of the next structural character, reading the next block of the stream
+	 * when all the positions of the buffer have been processed
+	 *
+	 * @return the position in the buffer, or -1 when the end of the stream is reached
+	 */
+	private int nextPosition() throws IOException {
+		while (positionIndex == positionCount) {
+			if (!readBlock()) {
+				return -1;
+			}
+		}
+		return positions[positionIndex++];
 	}
 
-	private int countBytesInReadChars() {
-		int length = uncountedCharsReadFromStream.toString().getBytes(StandardCharsets.UTF_8).length;
-		uncountedCharsReadFromStream.setLength(0);
+	/**
+	 * Reads the next block of the stream into the buffer and finds the positions of its structural characters. The
+	 * bytes that are no longer needed by the second phase are discarded from the buffer first: only the bytes of the
+	 * objects being read, or the last byte when seeking the first begin-object, are kept.
+	 *
+	 * @return false when the end of the stream is reached
+	 */
+	private boolean readBlock() throws IOException {
+		long end = bufferOffset + length;
+		long keepFrom;
+		if (depth > 0) {
+			keepFrom = objectStarts[0];
+		} else if (scanning) {
+			// a begin-object at the start of the next block must not be preceded by a backslash
+			keepFrom = Math.max(scanStart, end - 1);
+		} else {
+			keepFrom = end;
+		}
+		int discard = (int) (Math.min(keepFrom, end) - bufferOffset);
+		if (discard > 0) {
+			System.arraycopy(buffer, discard, buffer, 0, length - discard);
+			length -= discard;
+			bufferOffset += discard;
+		}
+		if (buffer.length - length < BLOCK_SIZE) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + BLOCK_SIZE));
+		}
+
+		int read = inputStream.read(buffer, length, BLOCK_SIZE);
+		if (read < 0) {
+			return false;
+		}
 
-		return length;
+		// first phase: find the structural characters of the block
+		if (positions.length < read) {
+			positions = new int[read];
+		}
+		int count = 0;
+		for (int i = length, last = length + read; i < last; i++) {
+			if (STRUCTURAL[buffer[i] & 0xFF]) {
+				positions[count++] = i;
+			}
+		}
+		positionCount = count;
+		positionIndex = 0;
+		length += read;
+		return true;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package org.greenplum.pxf.plugins.json;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonFieldExtractorTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void testNestedPathsAndSkippedMembers() throws IOException {
+        JsonFieldExtractor extractor = extractor("id", "user.name", "user.address.city");
+
+        extract(extractor, "{\"skipped\":{\"user\":{\"name\":\"x\"},\"list\":[1,{\"a\":2}]}," +
+                "\"user\":{\"name\":\"alice\",\"age\":30,\"address\":{\"city\":\"SF\",\"zip\":\"94105\"}}," +
+                "\"id\":7}");
+
+        assertEquals(7, extractor.getValue(0).asInt());
+        assertEquals("alice", extractor.getValue(1).asText());
+        assertEquals("SF", extractor.getValue(2).asText());
+    }
+
+    @Test
+    public void testMissingMembers() throws IOException {
+        JsonFieldExtractor extractor = extractor("id", "user.name");
+
+        extract(extractor, "{\"user\":[{\"name\":\"alice\"}]}");
+
+        assertNull(extractor.getValue(0));
+        assertNull(extractor.getValue(1));
+    }
+
+    @Test
+    public void testArrayElements() throws IOException {
+        JsonFieldExtractor extractor = extractor("tags[0]", "tags[2]", "tags[5]");
+
+        extract(extractor, "{\"tags\":[\"a\",{\"b\":1},[\"c\"]]}");
+
+        assertEquals("a", extractor.getValue(0).asText());
+        assertEquals("[\"c\"]", extractor.getValue(1).toString());
+        assertNull(extractor.getValue(2));
+        assertFalse(extractor.isNotArray(0));
+    }
+
+    @Test
+    public void testArrayElementOfNonArray() throws IOException {
+        JsonFieldExtractor extractor = extractor("tags[0]");
+
+        extract(extractor, "{\"tags\":{\"a\":1}}");
+        assertTrue(extractor.isNotArray(0));
+
+        extract(extractor, "{\"tags\":null}");
+        assertTrue(extractor.isNotArray(0));
+
+        extract(extractor, "{}");
+        assertFalse(extractor.isNotArray(0));
+        assertNull(extractor.getValue(0));
+    }
+
+    @Test
+    public void testMemberThatIsAlsoParentIsReadAsTree() throws IOException {
+        JsonFieldExtractor extractor = extractor("user", "user.name", "tags", "tags[1]");
+
+        extract(extractor, "{\"user\":{\"name\":\"alice\"},\"tags\":[\"a\",\"b\"]}");
+
+        assertEquals("{\"name\":\"alice\"}", extractor.getValue(0).toString());
+        assertEquals("alice", extractor.getValue(1).asText());
+        assertEquals("[\"a\",\"b\"]", extractor.getValue(2).toString());
+        assertEquals("b", extractor.getValue(3).asText());
+    }
+
+    @Test
+    public void testRepeatedMemberReplacesEarlierValues() throws IOException {
+        JsonFieldExtractor extractor = extractor("user.name", "user.age");
+
+        extract(extractor, "{\"user\":{\"name\":\"alice\",\"age\":30},\"user\":{\"name\":\"bob\"}}");
+
+        assertEquals("bob", extractor.getValue(0).asText());
+        assertNull(extractor.getValue(1));
+    }
+
+    @Test
+    public void testValuesAreResetBetweenRecords() throws IOException {
+        JsonFieldExtractor extractor = extractor("id");
+
+        extract(extractor, "{\"id\":1}");
+        assertEquals(1, extractor.getValue(0).asInt());
+
+        extract(extractor, "[{\"id\":1}]");
+        assertNull(extractor.getValue(0));
+    }
+
+    @Test
+    public void testInvalidRecordInSkippedMember() {
+        JsonFieldExtractor extractor = extractor("id");
+
+        assertThrows(JsonParseException.class, () -> extract(extractor, "{\"id\":1,\"skipped\":{\"a\":}}"));
+    }
+
+    private JsonFieldExtractor extractor(String... columnNames) {
+        ColumnDescriptorCache[] columns = new ColumnDescriptorCache[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            columns[i] = new ColumnDescriptorCache(new ColumnDescriptor(columnNames[i], DataType.TEXT.getOID(), i, "text", null, true));
+        }
+        return new JsonFieldExtractor(MAPPER, columns);
+    }
+
+    private void extract(JsonFieldExtractor extractor, String json) throws IOException {
+        extractor.extract(MAPPER.getFactory().createParser(json));
+    }
+}
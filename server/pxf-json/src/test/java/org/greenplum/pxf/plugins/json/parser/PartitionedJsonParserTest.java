@@ -20,8 +20,10 @@ package org.greenplum.pxf.plugins.json.parser;
  */
 
 
+import org.apache.hadoop.io.Text;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -30,8 +32,10 @@ import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 public class PartitionedJsonParserTest {
 
     @Test
@@ -82,4 +86,42 @@ public class PartitionedJsonParserTest {
 
         jsonInputStream.close();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEscapesAndBracesInStrings() throws IOException {
+        String json = "[{\"a\":\"}{\\\"name\\\":\"},{\"name\":\"x\\\\\",\"b\":\"{\"}, \"name\"]";
+        PartitionedJsonParser parser = new PartitionedJsonParser(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("{\"name\":\"x\\\\\",\"b\":\"{\"}", parser.nextObjectContainingMember("name"));
+        assertNull(parser.nextObjectContainingMember("name"));
+        assertEquals(json.length(), parser.getBytesRead());
+    }
+
+    @Test
+    public void testObjectsSpanningBlocks() throws IOException {
+        StringBuilder sb = new StringBuilder("[");
+        StringBuilder padding = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            padding.append("ä");
+        }
+        for (int i = 0; i < 3; i++) {
+            sb.append("{\"pad\":\"").append(padding).append("\",\"name\":").append(i).append("},");
+        }
+        sb.append("{\"other\":1}]");
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+        PartitionedJsonParser parser = new PartitionedJsonParser(new ByteArrayInputStream(bytes));
+
+        Text object = new Text();
+        long expectedStart = 1;
+        for (int i = 0; i < 3; i++) {
+            assertTrue(parser.nextObjectContainingMember("name", object));
+            String expected = "{\"pad\":\"" + padding + "\",\"name\":" + i + "}";
+            assertEquals(expected, object.toString());
+            assertEquals(expectedStart, parser.getObjectStart());
+            assertEquals(expectedStart + object.getLength(), parser.getBytesRead());
+            expectedStart += object.getLength() + 1;
+        }
+        assertFalse(parser.nextObjectContainingMember("name", object));
+        assertEquals(bytes.length, parser.getBytesRead());
+    }
+}
@@ -22,22 +22,31 @@ package org.greenplum.pxf.service;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.greenplum.pxf.api.GPDBWritableMapper;
 import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.batch.ColumnBatch;
 import org.greenplum.pxf.api.io.DataType;
-import org.greenplum.pxf.api.io.GPDBWritable;
+import org.greenplum.pxf.api.io.GPDBWritableDecoder;
 import org.greenplum.pxf.api.model.OutputFormat;
 
 import java.io.DataInput;
+import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+/**
+ * Builds the records written by a write bridge from the data sent by
+ * Greenplum. Records in the GPDBWritable format are read with a
+ * {@link GPDBWritableDecoder} that is reused for all the records of the
+ * request, so an instance must not be shared between requests.
+ */
 public class BridgeInputBuilder {
 
     private static final Log LOG = LogFactory.getLog(BridgeInputBuilder.class);
 
+    private GPDBWritableDecoder decoder;
+
     public List<OneField> makeInput(Charset databaseEncoding, OutputFormat outputFormat, DataInput inputStream) throws Exception {
         if (outputFormat == OutputFormat.TEXT) {
             // Avoid copying the bytes from the inputStream directly. This
@@ -52,21 +61,55 @@ public class BridgeInputBuilder {
             return Collections.singletonList(new OneField(DataType.BYTEA.getOID(), inputStream));
         }
 
-        GPDBWritable gpdbWritable = new GPDBWritable(databaseEncoding);
-        gpdbWritable.readFields(inputStream);
-
-        if (gpdbWritable.isEmpty()) {
+        GPDBWritableDecoder decoder = getDecoder(databaseEncoding);
+        if (!decoder.readRecord(inputStream)) {
             LOG.debug("Reached end of stream");
             return null;
         }
 
-        GPDBWritableMapper mapper = new GPDBWritableMapper(gpdbWritable);
-        int[] colTypes = gpdbWritable.getColType();
-        List<OneField> record = new ArrayList<>(colTypes.length);
-        for (int i = 0; i < colTypes.length; i++) {
-            mapper.setDataType(colTypes[i]);
-            record.add(new OneField(colTypes[i], mapper.getData(i)));
+        int columnCount = decoder.getColumnCount();
+        List<OneField> record = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            record.add(new OneField(decoder.getColumnType(i), decoder.getObject(i)));
         }
         return record;
     }
+
+    /**
+     * Reads up to the capacity of the given batch of GPDBWritable records
+     * into the column vectors of the batch, without creating an object per
+     * value. The column vectors are reset to the types of the columns as they
+     * are serialized by Greenplum, see {@link GPDBWritableDecoder#getColumnType(int)}.
+     *
+     * @param databaseEncoding the encoding of the database
+     * @param inputStream      the stream to read the records from
+     * @param batch            the batch to fill, with one column per column of the table
+     * @return the number of records read, 0 when the end of the stream was reached
+     * @throws Exception if reading or decoding the records failed
+     */
+    public int makeInputBatch(Charset databaseEncoding, DataInput inputStream, ColumnBatch batch) throws Exception {
+        GPDBWritableDecoder decoder = getDecoder(databaseEncoding);
+        int capacity = batch.getCapacity();
+        int recordCount = 0;
+        batch.reset(capacity);
+        while (recordCount < capacity && decoder.readRecord(inputStream)) {
+            if (decoder.getColumnCount() != batch.getColumnCount()) {
+                throw new IOException(String.format("Record has %d columns, expected %d",
+                        decoder.getColumnCount(), batch.getColumnCount()));
+            }
+            if (recordCount == 0) {
+                decoder.resetColumns(batch);
+            }
+            decoder.copyTo(batch, recordCount++);
+        }
+        batch.setSize(recordCount);
+        return recordCount;
+    }
+
+    private GPDBWritableDecoder getDecoder(Charset databaseEncoding) {
+        if (decoder == null) {
+            decoder = new GPDBWritableDecoder(databaseEncoding);
+        }
+        return decoder;
+    }
 }
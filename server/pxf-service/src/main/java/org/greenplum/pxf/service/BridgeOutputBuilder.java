@@ -29,6 +29,7 @@ import org.greenplum.pxf.api.error.BadRecordException;
 import org.greenplum.pxf.api.io.BufferWritable;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.io.GPDBWritable;
+import org.greenplum.pxf.api.io.GPDBWritableEncoder;
 import org.greenplum.pxf.api.io.Text;
 import org.greenplum.pxf.api.io.Writable;
 import org.greenplum.pxf.api.model.GreenplumCSV;
@@ -66,6 +67,7 @@ public class BridgeOutputBuilder {
     private final String newLine;
     private final byte[] newLineBytes;
     private Writable output = null;
+    private GPDBWritableEncoder gpdbEncoder = null;
     private final LinkedList<Writable> outputList;
     private Writable partialLine = null;
     private GPDBWritable errorRecord = null;
@@ -149,8 +151,11 @@ public class BridgeOutputBuilder {
      */
     public LinkedList<Writable> makeOutput(List<OneField> recFields)
             throws BadRecordException {
-        if (output == null && outputFormat == OutputFormat.GPDBWritable) {
-            makeGPDBWritableOutput();
+        if (outputFormat == OutputFormat.GPDBWritable) {
+            if (gpdbEncoder == null) {
+                makeGPDBWritableOutput();
+            }
+            gpdbEncoder.reset();
         }
 
         outputList.clear();
@@ -162,11 +167,15 @@ public class BridgeOutputBuilder {
 
     public LinkedList<Writable> makeVectorizedOutput(List<List<OneField>> recordsBatch) throws BadRecordException {
         outputList.clear();
+        if (outputFormat == OutputFormat.GPDBWritable) {
+            if (gpdbEncoder == null) {
+                makeGPDBWritableOutput();
+            }
+            // all records of the batch are encoded into the buffer of the encoder
+            gpdbEncoder.reset();
+        }
         if (recordsBatch != null) {
             for (List<OneField> record : recordsBatch) {
-                if (outputFormat == OutputFormat.GPDBWritable) {
-                    makeGPDBWritableOutput();
-                }
                 fillOutputRecord(record);
             }
         }
@@ -183,12 +192,12 @@ public class BridgeOutputBuilder {
     }
 
     /**
-     * Creates the GPDBWritable object. The object is created one time and is
-     * refilled from recFields for each record sent
+     * Creates the encoder of GPDBWritable records. The encoder is created one
+     * time and its buffer is refilled from recFields for each record sent
      *
-     * @return empty GPDBWritable object with set columns
+     * @return the encoder for the columns of the schema
      */
-    GPDBWritable makeGPDBWritableOutput() {
+    GPDBWritableEncoder makeGPDBWritableOutput() {
         int num_actual_fields = columnDescriptors.size();
         schema = new int[num_actual_fields];
         colNames = new String[num_actual_fields];
@@ -198,9 +207,9 @@ public class BridgeOutputBuilder {
             colNames[i] = columnDescriptors.get(i).columnName();
         }
 
-        output = new GPDBWritable(schema, databaseEncoding);
+        gpdbEncoder = new GPDBWritableEncoder(schema, databaseEncoding);
 
-        return (GPDBWritable) output;
+        return gpdbEncoder;
     }
 
     /**
@@ -218,7 +227,7 @@ public class BridgeOutputBuilder {
     }
 
     /**
-     * Fills a GPDBWritable object based on recFields. The input record
+     * Encodes a GPDBWritable record based on recFields. The input record
      * recFields must correspond to schema. If the record has more or less
      * fields than the schema we throw an exception. We require that the type of
      * field[i] in recFields corresponds to the type of field[i] in the schema.
@@ -236,6 +245,7 @@ public class BridgeOutputBuilder {
                     + " fields but the schema size is " + schema.length);
         }
 
+        gpdbEncoder.beginRecord();
         for (int i = 0; i < size; i++) {
             OneField current = recFields.get(i);
             if (!isTypeInSchema(current.type, schema[i])) {
@@ -249,7 +259,7 @@ public class BridgeOutputBuilder {
             fillOneGPDBWritableField(current, i);
         }
 
-        outputList.add(output);
+        outputList.add(gpdbEncoder.endRecord());
     }
 
     /**
@@ -380,7 +390,7 @@ public class BridgeOutputBuilder {
     }
 
     /**
-     * Fills one GPDBWritable field.
+     * Encodes one GPDBWritable field. Fields must be encoded in column order.
      *
      * @param oneField field
      * @param colIdx   column index
@@ -391,37 +401,21 @@ public class BridgeOutputBuilder {
             throws BadRecordException {
         int type = oneField.type;
         Object val = oneField.val;
-        GPDBWritable gpdbOutput = (GPDBWritable) output;
+        DataType dataType = DataType.get(type);
         try {
-            switch (DataType.get(type)) {
+            switch (dataType) {
                 case INTEGER:
-                    gpdbOutput.setInt(colIdx, (Integer) val);
-                    break;
                 case FLOAT8:
-                    gpdbOutput.setDouble(colIdx, (Double) val);
-                    break;
                 case REAL:
-                    gpdbOutput.setFloat(colIdx, (Float) val);
-                    break;
                 case BIGINT:
-                    gpdbOutput.setLong(colIdx, (Long) val);
-                    break;
                 case SMALLINT:
-                    gpdbOutput.setShort(colIdx, (Short) val);
-                    break;
                 case BOOLEAN:
-                    gpdbOutput.setBoolean(colIdx, (Boolean) val);
-                    break;
                 case BYTEA:
-                    byte[] bts = null;
-                    if (val != null) {
-                        int length = Array.getLength(val);
-                        bts = new byte[length];
-                        for (int j = 0; j < length; j++) {
-                            bts[j] = Array.getByte(val, j);
-                        }
+                    if (val == null) {
+                        gpdbEncoder.writeNull(colIdx, dataType);
+                        break;
                     }
-                    gpdbOutput.setBytes(colIdx, bts);
+                    fillOneGPDBWritablePrimitive(dataType, val, colIdx);
                     break;
                 case VARCHAR:
                 case BPCHAR:
@@ -453,8 +447,9 @@ public class BridgeOutputBuilder {
                      * array external text representation.
                      * see https://www.postgresql.org/docs/9.4/arrays.html for details of this format.
                      */
-                    gpdbOutput.setString(colIdx,
-                            ObjectUtils.toString(val, null));
+                    gpdbEncoder.writeString(colIdx, val instanceof CharSequence
+                            ? (CharSequence) val
+                            : ObjectUtils.toString(val, null));
                     break;
                 default:
                     LOG.debug("Data type OID is {}", type);
@@ -468,6 +463,45 @@ public class BridgeOutputBuilder {
         }
     }
 
+    /**
+     * Encodes a non-null value of a type that is not serialized as text.
+     */
+    private void fillOneGPDBWritablePrimitive(DataType dataType, Object val, int colIdx)
+            throws GPDBWritable.TypeMismatchException {
+        switch (dataType) {
+            case INTEGER:
+                gpdbEncoder.writeInt(colIdx, (Integer) val);
+                break;
+            case FLOAT8:
+                gpdbEncoder.writeDouble(colIdx, (Double) val);
+                break;
+            case REAL:
+                gpdbEncoder.writeFloat(colIdx, (Float) val);
+                break;
+            case BIGINT:
+                gpdbEncoder.writeLong(colIdx, (Long) val);
+                break;
+            case SMALLINT:
+                gpdbEncoder.writeShort(colIdx, (Short) val);
+                break;
+            case BOOLEAN:
+                gpdbEncoder.writeBoolean(colIdx, (Boolean) val);
+                break;
+            default:
+                if (val instanceof byte[]) {
+                    byte[] bytes = (byte[]) val;
+                    gpdbEncoder.writeBytes(colIdx, bytes, 0, bytes.length);
+                } else {
+                    int length = Array.getLength(val);
+                    byte[] bts = new byte[length];
+                    for (int j = 0; j < length; j++) {
+                        bts[j] = Array.getByte(val, j);
+                    }
+                    gpdbEncoder.writeBytes(colIdx, bts, 0, length);
+                }
+        }
+    }
+
     /**
      * Serialize a list of OneFields to a CSV line
      *
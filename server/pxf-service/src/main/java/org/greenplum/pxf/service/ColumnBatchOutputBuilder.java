@@ -0,0 +1,209 @@
+package org.greenplum.pxf.service;
+
+import org.apache.commons.codec.binary.Hex;
+import org.greenplum.pxf.api.batch.ByteArena;
+import org.greenplum.pxf.api.batch.ColumnBatch;
+import org.greenplum.pxf.api.batch.ColumnVector;
+import org.greenplum.pxf.api.error.BadRecordException;
+import org.greenplum.pxf.api.io.BufferWritable;
+import org.greenplum.pxf.api.io.ColumnBatchGPDBWritable;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.io.Text;
+import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.api.model.GreenplumCSV;
+import org.greenplum.pxf.api.model.OutputFormat;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Creates the output records piped to the GPDB backend from a
+ * {@link ColumnBatch} filled by a
+ * {@link org.greenplum.pxf.api.model.ReadColumnBatchResolver}. It produces
+ * the same output as {@link BridgeOutputBuilder} produces for the equivalent
+ * list of {@link org.greenplum.pxf.api.OneField} objects, but serializes the
+ * values directly from the column vectors. In the GPDBWritable format, the
+ * same {@link Writable} is returned for every row of the batch and must be
+ * written before the next row is requested.
+ */
+public class ColumnBatchOutputBuilder {
+
+    static final int DEFAULT_BATCH_CAPACITY = 1024;
+
+    private final List<ColumnDescriptor> columnDescriptors;
+    private final int[] schema;
+    private final OutputFormat outputFormat;
+    private final GreenplumCSV greenplumCSV;
+    private final String newLine;
+    private final String hexPrepend;
+    private final ColumnBatch batch;
+    private final ColumnBatchGPDBWritable gpdbOutput;
+    private final StringBuilder line = new StringBuilder();
+    private int row;
+
+    /**
+     * Constructs a ColumnBatchOutputBuilder.
+     *
+     * @param context input data, like requested output format and schema
+     *                information
+     */
+    public ColumnBatchOutputBuilder(RequestContext context) {
+        columnDescriptors = context.getTupleDescription();
+        schema = new int[columnDescriptors.size()];
+        for (int i = 0; i < schema.length; i++) {
+            schema[i] = columnDescriptors.get(i).columnTypeCode();
+        }
+        outputFormat = context.getOutputFormat();
+        greenplumCSV = context.getGreenplumCSV();
+        newLine = greenplumCSV.getNewline();
+        // if the Format Type is CSV, we should escape using single \, for Text or Custom Format types, it should \\
+        hexPrepend = "csv".equalsIgnoreCase(context.getFormat()) ? "\\x" : "\\\\x";
+        batch = new ColumnBatch(schema.length, DEFAULT_BATCH_CAPACITY);
+        gpdbOutput = outputFormat == OutputFormat.GPDBWritable
+                ? new ColumnBatchGPDBWritable(schema, context.getDatabaseEncoding())
+                : null;
+    }
+
+    /**
+     * Returns the column batch to be filled by the resolver. The same batch is
+     * returned for every call.
+     *
+     * @return the column batch
+     */
+    public ColumnBatch getBatch() {
+        return batch;
+    }
+
+    /**
+     * Starts returning the rows of the batch once the resolver has filled it.
+     * We require that the type of every column of the batch corresponds to
+     * the type of the column in the schema, the same way
+     * {@link BridgeOutputBuilder} does for every record.
+     *
+     * @throws BadRecordException if the batch does not match the schema, in
+     *                            which case none of its rows are returned
+     */
+    public void beginBatch() throws BadRecordException {
+        row = batch.getSize();
+        if (outputFormat == OutputFormat.GPDBWritable) {
+            for (int i = 0; i < schema.length; i++) {
+                validateColumn(i, batch.getColumn(i).getType());
+            }
+        }
+        row = 0;
+    }
+
+    /**
+     * Returns the next row of the batch, or null when all of the rows have
+     * been returned.
+     *
+     * @return the next output record
+     */
+    public Writable next() {
+        if (row >= batch.getSize()) {
+            return null;
+        }
+        int current = row++;
+        if (outputFormat == OutputFormat.GPDBWritable) {
+            gpdbOutput.setRow(batch, current);
+            return gpdbOutput;
+        }
+        return makeTextOutput(current);
+    }
+
+    private void validateColumn(int index, DataType recordType) throws BadRecordException {
+        DataType schemaType = DataType.get(schema[index]);
+        boolean matches = schemaType == DataType.UNSUPPORTED_TYPE
+                // unsupported types are serialized as text, so the record must have a text value
+                ? ColumnVector.Storage.of(recordType) == ColumnVector.Storage.BYTES && recordType != DataType.BYTEA
+                : (recordType == schemaType || (isStringType(recordType) && isStringType(schemaType)));
+        if (!matches) {
+            throw new BadRecordException(
+                    String.format("For field %s schema requires type %s but input record has type %s",
+                            columnDescriptors.get(index).columnName(), schemaType, recordType));
+        }
+    }
+
+    private boolean isStringType(DataType type) {
+        if (type.isArrayType()) {
+            return DataType.isTextForm(type.getTypeElem().getOID());
+        } else {
+            return DataType.isTextForm(type.getOID());
+        }
+    }
+
+    /**
+     * Serializes a row of the batch the same way {@link BridgeOutputBuilder}
+     * serializes a list of fields in the TEXT format.
+     */
+    private Writable makeTextOutput(int current) {
+        if (batch.getColumnCount() == 1) {
+            ColumnVector column = batch.getColumn(0);
+            DataType type = column.getType();
+            if (!column.isNull(current) && column.getStorage() == ColumnVector.Storage.BYTES) {
+                ByteArena arena = batch.getArena();
+                int offset = column.getOffset(current);
+                int length = column.getLength(current);
+                if (type == DataType.BYTEA) {
+                    return new BufferWritable(Arrays.copyOfRange(arena.getBuffer(), offset, offset + length));
+                } else if (type != DataType.DATE && type != DataType.NUMERIC) {
+                    // a single text value is sent as is
+                    return new Text(new String(arena.getBuffer(), offset, length, StandardCharsets.UTF_8) + newLine);
+                }
+            }
+        }
+
+        line.setLength(0);
+        for (int i = 0; i < batch.getColumnCount(); i++) {
+            if (i > 0) {
+                line.append(greenplumCSV.getDelimiter());
+            }
+            appendCsvField(batch.getColumn(i), current);
+        }
+        line.append(newLine);
+        return new Text(line.toString());
+    }
+
+    private void appendCsvField(ColumnVector column, int current) {
+        if (column.isNull(current)) {
+            line.append(greenplumCSV.getValueOfNull());
+            return;
+        }
+        DataType type = column.getType();
+        switch (column.getStorage()) {
+            case LONG:
+                if (type == DataType.BOOLEAN) {
+                    line.append(column.getLong(current) != 0);
+                } else {
+                    line.append(column.getLong(current));
+                }
+                break;
+            case DOUBLE:
+                if (type == DataType.REAL) {
+                    line.append((float) column.getDouble(current));
+                } else {
+                    line.append(column.getDouble(current));
+                }
+                break;
+            default: {
+                byte[] buffer = batch.getArena().getBuffer();
+                int offset = column.getOffset(current);
+                int length = column.getLength(current);
+                if (type == DataType.BYTEA) {
+                    line.append(hexPrepend).append(Hex.encodeHex(Arrays.copyOfRange(buffer, offset, offset + length)));
+                    break;
+                }
+                String value = new String(buffer, offset, length, StandardCharsets.UTF_8);
+                if (type == DataType.NUMERIC || type == DataType.TIMESTAMP || type == DataType.DATE
+                        || !DataType.isTextForm(type.getOID())) {
+                    line.append(value);
+                } else {
+                    line.append(greenplumCSV.toCsvField(value, true, true, true));
+                }
+            }
+        }
+    }
+}
@@ -19,11 +19,14 @@ package org.greenplum.pxf.service;
  * under the License.
  */
 
+import com.google.common.cache.Cache;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.Fragmenter;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.model.VersionedFragmenter;
 import org.greenplum.pxf.api.utilities.FragmenterCacheFactory;
+import org.greenplum.pxf.api.utilities.FragmenterCacheFactory.VersionedFragments;
 import org.greenplum.pxf.service.utilities.AnalyzeUtils;
 import org.greenplum.pxf.service.utilities.BasePluginFactory;
 import org.greenplum.pxf.service.utilities.GSSFailureHandler;
@@ -43,6 +46,11 @@ import java.util.concurrent.ExecutionException;
  * performs caching of Fragment for a unique query. The first segment to
  * request the list of fragments will populate it, while the rest of the
  * segments will wait until the list of fragments is populated.
+ * <p>
+ * When the shared fragmenter cache is enabled, the fragments returned by a
+ * {@link VersionedFragmenter} are also kept across queries, and reused as
+ * long as the version of the data source they were computed for has not
+ * changed.
  */
 @Component
 public class FragmenterService {
@@ -71,6 +79,10 @@ public class FragmenterService {
             LOG.debug("fragmentCache size={}, stats={}",
                     fragmenterCacheFactory.getCache().size(),
                     fragmenterCacheFactory.getCache().stats().toString());
+            Cache<String, VersionedFragments> sharedCache = fragmenterCacheFactory.getSharedCache();
+            if (sharedCache != null) {
+                LOG.debug("sharedFragmentCache size={}, stats={}", sharedCache.size(), sharedCache.stats().toString());
+            }
         }
 
         LOG.debug("FRAGMENTER started for path \"{}\"", path);
@@ -116,11 +128,7 @@ public class FragmenterService {
                                 context.getSegmentId(), fragmenterCacheKey);
 
                         List<Fragment> fragmentList = failureHandler.execute(context.getConfiguration(),
-                                "get fragments", () -> getFragmenter(context).getFragments());
-
-                        /* Create a fragmenter instance with API level parameters */
-                        fragmentList = AnalyzeUtils.getSampleFragments(fragmentList, context);
-                        updateFragmentIndex(fragmentList);
+                                "get fragments", () -> getFragments(context));
 
                         int numberOfFragments = fragmentList.size();
                         long elapsedMillis = Duration.between(startTime, Instant.now()).toMillis();
@@ -148,6 +156,54 @@ public class FragmenterService {
         }
     }
 
+    /**
+     * Returns the list of fragments for the request, with the indexes of the
+     * fragments updated. When the fragmenter is a {@link VersionedFragmenter}
+     * and the shared cache is enabled, the fragments computed for an earlier
+     * query are returned if the version of the data source has not changed
+     * since. The shared cache is not used when sampling fragments for ANALYZE.
+     *
+     * @param context the request context
+     * @return the list of fragments for the request
+     * @throws Exception when an exception occurs
+     */
+    private List<Fragment> getFragments(RequestContext context) throws Exception {
+        Fragmenter fragmenter = getFragmenter(context);
+        Cache<String, VersionedFragments> sharedCache = fragmenterCacheFactory.getSharedCache();
+
+        if (sharedCache == null || context.getStatsMaxFragments() > 0 || !(fragmenter instanceof VersionedFragmenter)) {
+            /* Create a fragmenter instance with API level parameters */
+            List<Fragment> fragmentList = AnalyzeUtils.getSampleFragments(fragmenter.getFragments(), context);
+            updateFragmentIndex(fragmentList);
+            return fragmentList;
+        }
+
+        final String sharedCacheKey = getSharedFragmenterCacheKey(context);
+        // the version is computed before the fragments, so that a change in
+        // between is detected by the next query
+        String version = ((VersionedFragmenter) fragmenter).getFragmentsVersion();
+        VersionedFragments cached = sharedCache.getIfPresent(sharedCacheKey);
+        if (version != null && cached != null && version.equals(cached.getVersion())) {
+            LOG.debug("Reusing {} fragments with version {} from the shared cache with key={}",
+                    cached.getFragments().size(), version, sharedCacheKey);
+            return cached.getFragments();
+        }
+
+        List<Fragment> fragmentList = fragmenter.getFragments();
+        updateFragmentIndex(fragmentList);
+        if (version != null) {
+            LOG.debug("Caching {} fragments with version {} in the shared cache with key={}",
+                    fragmentList.size(), version, sharedCacheKey);
+            VersionedFragments versionedFragments = new VersionedFragments(version, fragmentList);
+            sharedCache.put(sharedCacheKey, versionedFragments);
+            return versionedFragments.getFragments();
+        }
+        if (cached != null) {
+            sharedCache.invalidate(sharedCacheKey);
+        }
+        return fragmentList;
+    }
+
     /**
      * Filters the {@code fragments} for the given segment. To determine which
      * segment S should process an element at a given index i, use a randomized
@@ -220,6 +276,26 @@ public class FragmenterService {
                 context.getFilterString());
     }
 
+    /**
+     * Returns a key for the shared fragmenter cache. The key identifies the
+     * fragments of a data source independently of the transaction. It
+     * includes the server and the user, since they determine which data is
+     * visible, and the options, since they can change how the data source is
+     * fragmented.
+     *
+     * @param context the request context
+     * @return the key for the shared fragmenter cache
+     */
+    private String getSharedFragmenterCacheKey(RequestContext context) {
+        return String.format("%s:%s:%s:%s:%s:%s",
+                context.getServerName(),
+                context.getUser(),
+                context.getFragmenter(),
+                context.getDataSource(),
+                context.getFilterString(),
+                context.getOptions());
+    }
+
     /**
      * Updates the fragments' indexes so that it is incremented by sourceName.
      * (E.g.: {"a", 0}, {"a", 1}, {"b", 0} ... )
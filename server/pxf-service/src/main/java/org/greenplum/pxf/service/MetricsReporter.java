@@ -1,11 +1,13 @@
 package org.greenplum.pxf.service;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.StringUtils;
+import org.greenplum.pxf.api.model.FetchStats;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
@@ -63,14 +65,14 @@ public class MetricsReporter {
 
     /**
      * Reports timer metric with a given name, duration and additional tags to the registry.
-     * Applies custom tags before reporting and adds a success outcome tag.
+     * Applies custom tags before reporting and adds the provided extra tags, if any.
      *
-     * @param metric
-     * @param duration
-     * @param context
-     * @param extraTags
+     * @param metric    metric to apply
+     * @param duration  duration measured by the metric
+     * @param context   request context
+     * @param extraTags additional tags to apply, can be null
      */
-    private void reportTimer(PxfMetric metric, Duration duration, RequestContext context, Tags extraTags) {
+    public void reportTimer(PxfMetric metric, Duration duration, RequestContext context, Tags extraTags) {
         String metricName = metric.getMetricName();
         long durationMs = duration.toMillis();
         if (!env.getProperty(metric.getEnabledPropertyName(), Boolean.class, Boolean.FALSE)) {
@@ -117,6 +119,50 @@ public class MetricsReporter {
         }
     }
 
+    /**
+     * Reports distribution summary metric with a given name and the sampled value to the registry.
+     * Applies custom tags before reporting and adds the provided extra tags, if any.
+     *
+     * @param metric    metric to apply
+     * @param value     value sampled for the metric
+     * @param context   request context
+     * @param extraTags additional tags to apply, can be null
+     */
+    public void reportSummary(PxfMetric metric, double value, RequestContext context, Tags extraTags) {
+        String metricName = metric.getMetricName();
+        if (!env.getProperty(metric.getEnabledPropertyName(), Boolean.class, Boolean.FALSE)) {
+            log.trace("Skipping reporting metric {} with value={}", metricName, value);
+            return;
+        }
+        Tags tags = (extraTags == null) ? getTags(context) : getTags(context).and(extraTags);
+        try {
+            DistributionSummary summary = DistributionSummary.builder(metricName).tags(tags).register(registry);
+            summary.record(value);
+            if (log.isTraceEnabled()) {
+                log.trace("Reported summary {}{} with value={}", metricName, tags, value);
+            }
+        } catch (Exception e) {
+            log.warn(String.format("Unable to report summary %s%s with value=%s.", metricName, tags, value), e);
+        }
+    }
+
+    /**
+     * Reports the statistics of the rows an accessor fetched for a fragment: the number of round trips
+     * to the external system, the time spent waiting for them, the number of rows requested per round trip
+     * and the average size of a row.
+     *
+     * @param stats   fetch statistics of the fragment
+     * @param context request context
+     */
+    public void reportFetchStats(FetchStats stats, RequestContext context) {
+        reportCounter(PxfMetric.FETCH_ROUND_TRIPS, stats.getFetchCount(), context);
+        reportTimer(PxfMetric.FETCH_TIME, stats.getFetchTime(), context);
+        reportSummary(PxfMetric.FETCH_SIZE, stats.getFetchSize(), context, null);
+        if (stats.getRowCount() > 0) {
+            reportSummary(PxfMetric.FETCH_ROW_BYTES, (double) stats.getByteCount() / stats.getRowCount(), context, null);
+        }
+    }
+
     /**
      * Pulls the value for reporting frequency for the given metric from the environment.
      * If no value found, the default reporting frequency is 1000.
@@ -152,7 +198,15 @@ public class MetricsReporter {
         RECORDS_SENT("pxf.records.sent", "pxf.metrics.records.enabled"),
         RECORDS_RECEIVED("pxf.records.received", "pxf.metrics.records.enabled"),
         BYTES_SENT("pxf.bytes.sent", "pxf.metrics.bytes.enabled"),
-        BYTES_RECEIVED("pxf.bytes.received", "pxf.metrics.bytes.enabled");
+        BYTES_RECEIVED("pxf.bytes.received", "pxf.metrics.bytes.enabled"),
+        BYTES_SENT_COMPRESSED("pxf.bytes.sent.compressed", "pxf.metrics.bytes.enabled"),
+        COMPRESSION_RATIO("pxf.bytes.sent.compression.ratio", "pxf.metrics.bytes.enabled"),
+        PIPELINE_STALL("pxf.read.pipeline.stall", "pxf.metrics.pipeline.enabled"),
+        PIPELINE_QUEUE_DEPTH("pxf.read.pipeline.queue.depth", "pxf.metrics.pipeline.enabled"),
+        FETCH_ROUND_TRIPS("pxf.fetch.round.trips", "pxf.metrics.fetch.enabled"),
+        FETCH_TIME("pxf.fetch.time", "pxf.metrics.fetch.enabled"),
+        FETCH_SIZE("pxf.fetch.size", "pxf.metrics.fetch.enabled"),
+        FETCH_ROW_BYTES("pxf.fetch.row.bytes", "pxf.metrics.fetch.enabled");
 
         private final String metricName;
         private final String enabledPropertyName;
@@ -1,6 +1,7 @@
 package org.greenplum.pxf.service.bridge;
 
 import org.greenplum.pxf.api.model.Accessor;
+import org.greenplum.pxf.api.model.FetchStats;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.model.Resolver;
 import org.greenplum.pxf.service.utilities.BasePluginFactory;
@@ -42,6 +43,11 @@ public abstract class BaseBridge implements Bridge {
         this.resolver = pluginFactory.getPlugin(context, resolverClassName);
     }
 
+    @Override
+    public FetchStats getFetchStats() {
+        return accessor.getFetchStats();
+    }
+
     /**
      * A function that is called by the failure handler before a new retry attempt after a failure.
      * It re-creates the accessor from the factory in case the accessor implementation is not idempotent.
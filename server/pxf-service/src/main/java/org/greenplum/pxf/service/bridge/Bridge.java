@@ -22,6 +22,7 @@ package org.greenplum.pxf.service.bridge;
 
 import org.greenplum.pxf.api.io.Writable;
 import org.greenplum.pxf.api.model.Accessor;
+import org.greenplum.pxf.api.model.FetchStats;
 import org.greenplum.pxf.api.model.Plugin;
 import org.greenplum.pxf.api.model.Resolver;
 
@@ -47,4 +48,14 @@ public interface Bridge {
     boolean setNext(DataInputStream inputStream) throws Exception;
 
     void endIteration() throws Exception;
+
+    /**
+     * Returns statistics about the rows the accessor fetched, available once
+     * the iteration has ended.
+     *
+     * @return the fetch statistics, or null if the accessor does not gather them
+     */
+    default FetchStats getFetchStats() {
+        return null;
+    }
 }
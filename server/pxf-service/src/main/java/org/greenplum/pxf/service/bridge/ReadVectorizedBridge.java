@@ -21,21 +21,76 @@ package org.greenplum.pxf.service.bridge;
 
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.error.BadRecordException;
+import org.greenplum.pxf.api.model.ReadColumnBatchResolver;
 import org.greenplum.pxf.api.model.ReadVectorizedResolver;
 import org.greenplum.pxf.api.io.Writable;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.service.ColumnBatchOutputBuilder;
 import org.greenplum.pxf.service.utilities.BasePluginFactory;
 import org.greenplum.pxf.service.utilities.GSSFailureHandler;
 
+import java.io.IOException;
 import java.util.Deque;
 import java.util.List;
 
+/**
+ * ReadVectorizedBridge class reads batches of records from the accessor and
+ * lets the resolver deserialize a whole batch at once. When the resolver
+ * implements {@link ReadColumnBatchResolver}, the batch is resolved into
+ * column vectors and the output records are serialized directly from them,
+ * otherwise the batch is resolved into lists of fields.
+ */
 public class ReadVectorizedBridge extends ReadBridge {
 
+    private ColumnBatchOutputBuilder batchOutputBuilder;
+
     public ReadVectorizedBridge(BasePluginFactory pluginFactory, RequestContext context, GSSFailureHandler failureHandler) {
         super(pluginFactory, context, failureHandler);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Writable getNext() throws Exception {
+        if (!(resolver instanceof ReadColumnBatchResolver)) {
+            return super.getNext();
+        }
+        if (batchOutputBuilder == null) {
+            batchOutputBuilder = new ColumnBatchOutputBuilder(context);
+        }
+
+        Writable output = batchOutputBuilder.next();
+        if (output != null) {
+            return output;
+        }
+
+        OneRow onerow = null;
+        try {
+            while (output == null) {
+                onerow = accessor.readNextObject();
+                if (onerow == null) {
+                    return null;
+                }
+                ((ReadColumnBatchResolver) resolver).resolveColumnBatch(onerow, batchOutputBuilder.getBatch());
+                batchOutputBuilder.beginBatch();
+                output = batchOutputBuilder.next();
+            }
+        } catch (IOException ex) {
+            if (!isDataException(ex)) {
+                throw ex;
+            }
+            output = outputBuilder.getErrorOutput(ex);
+        } catch (BadRecordException ex) {
+            String rowInfo = (onerow != null) ? onerow.toString() : "[record was not created]";
+            LOG.debug("BadRecordException {}: {}", (ex.getCause() != null) ? ex.getCause() : ex, rowInfo);
+            output = outputBuilder.getErrorOutput(ex);
+        }
+
+        return output;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -2,8 +2,11 @@ package org.greenplum.pxf.service.bridge;
 
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.batch.ColumnBatch;
 import org.greenplum.pxf.api.error.BadRecordException;
+import org.greenplum.pxf.api.model.OutputFormat;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.model.WriteColumnBatchResolver;
 import org.greenplum.pxf.api.model.WriteVectorizedResolver;
 import org.greenplum.pxf.service.utilities.BasePluginFactory;
 import org.greenplum.pxf.service.utilities.GSSFailureHandler;
@@ -14,10 +17,13 @@ import java.util.List;
 
 /**
  * A WriteBridge that reads multiple records from the InputStream into a batch and then uses a vectorized resolver and
- * accessor to write it to the remote system.
+ * accessor to write it to the remote system. When the resolver implements {@link WriteColumnBatchResolver}, the
+ * records are decoded straight into a {@link ColumnBatch} that is reused for all the batches of the request.
  */
 public class WriteVectorizedBridge extends WriteBridge {
 
+    private ColumnBatch columnBatch;
+
     /**
      * Creates a new instance of the bridge.
      * @param pluginFactory plugin factory
@@ -37,6 +43,9 @@ public class WriteVectorizedBridge extends WriteBridge {
         // so need to accumulate a set of records before passing them to the resolver
         WriteVectorizedResolver vectorizedResolver = getVectorizedResolver();
         int batchSize = vectorizedResolver.getBatchSize();
+        if (vectorizedResolver instanceof WriteColumnBatchResolver && outputFormat == OutputFormat.GPDBWritable) {
+            return setNextColumnBatch((WriteColumnBatchResolver) vectorizedResolver, batchSize, inputStream);
+        }
 
         // TODO: should we re-use / reset a list ? what if the batch size ends up being different between iterations ?
         List<List<OneField>> batch = new ArrayList<>(batchSize);
@@ -66,6 +75,36 @@ public class WriteVectorizedBridge extends WriteBridge {
         return recordCount == batchSize;
     }
 
+    /**
+     * Decodes up to batchSize records into the column batch and writes them
+     * with the column batch resolver.
+     *
+     * @param columnBatchResolver the resolver
+     * @param batchSize           the maximum number of records of the batch
+     * @param inputStream         the stream to read the records from
+     * @return true if there might be more records to read, false otherwise
+     * @throws Exception if reading, resolving or writing the batch failed
+     */
+    private boolean setNextColumnBatch(WriteColumnBatchResolver columnBatchResolver, int batchSize,
+                                       DataInputStream inputStream) throws Exception {
+        if (columnBatch == null) {
+            columnBatch = new ColumnBatch(context.getColumns(), batchSize);
+        }
+        int recordCount = inputBuilder.makeInputBatch(databaseEncoding, inputStream, columnBatch);
+        if (recordCount == 0) {
+            return false; // no more records to read
+        }
+
+        OneRow resolvedBatch = columnBatchResolver.setFieldsForColumnBatch(columnBatch);
+        if (resolvedBatch == null) {
+            return false;
+        }
+        if (!accessor.writeNextObject(resolvedBatch)) {
+            throw new BadRecordException();
+        }
+        return recordCount == batchSize;
+    }
+
     /**
      * A resolver can potentially be changed between iterations by the failureHandler, check the type and cast it
      * @return an instance of the WriteVectorizedResolver to use for processing
@@ -0,0 +1,166 @@
+package org.greenplum.pxf.service.controller;
+
+import io.micrometer.core.instrument.Tags;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.service.MetricsReporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * An output stream that compresses the data sent to the client with the
+ * content coding negotiated for the response. The compressed data is only
+ * complete once {@link #finish()} has been called; a response that failed is
+ * not finished, so that the client does not mistake the truncated data for
+ * the whole response.
+ * <p>
+ * The number of compressed bytes and the compression ratio are reported to
+ * the {@link MetricsReporter} when the stream is finished. Closing the stream
+ * releases the compressor, but does not close the underlying stream.
+ */
+class CompressedOutputStream extends DeflaterOutputStream {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] GZIP_HEADER = {
+            0x1f, (byte) 0x8b, // magic number
+            Deflater.DEFLATED, // compression method
+            0,                 // flags
+            0, 0, 0, 0,        // modification time
+            0,                 // extra flags
+            (byte) 0xff        // operating system: unknown
+    };
+
+    private final ResponseCompression compression;
+    private final RequestContext context;
+    private final MetricsReporter metricsReporter;
+    private final CRC32 crc;
+
+    private long uncompressedBytes;
+    private long compressedBytes;
+    private boolean headerWritten;
+    private boolean finished;
+    private boolean closed;
+
+    /**
+     * Creates a new instance of the stream.
+     *
+     * @param out             the stream to write the compressed data to
+     * @param compression     the content coding of the compressed data
+     * @param level           the compression level, from 1 (fastest) to 9 (smallest output)
+     * @param context         the context of the request
+     * @param metricsReporter the reporter for the compression statistics
+     */
+    CompressedOutputStream(OutputStream out, ResponseCompression compression, int level,
+                           RequestContext context, MetricsReporter metricsReporter) {
+        // the gzip format wraps raw deflate data, the deflate coding is the zlib format
+        super(out, new Deflater(level, compression == ResponseCompression.GZIP), BUFFER_SIZE);
+        this.compression = compression;
+        this.context = context;
+        this.metricsReporter = metricsReporter;
+        this.crc = compression == ResponseCompression.GZIP ? new CRC32() : null;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        writeHeader();
+        super.write(b, off, len);
+        if (crc != null) {
+            crc.update(b, off, len);
+        }
+        uncompressedBytes += len;
+    }
+
+    /**
+     * Writes the remaining compressed data to the underlying stream, then
+     * reports the compression statistics.
+     *
+     * @throws IOException if writing to the underlying stream fails
+     */
+    @Override
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        writeHeader();
+        super.finish();
+        if (crc != null) {
+            writeTrailer();
+        }
+        finished = true;
+        reportStats();
+    }
+
+    /**
+     * Releases the compressor without finishing the compressed data.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            def.end();
+        }
+    }
+
+    /**
+     * @return the number of bytes written to the stream
+     */
+    long getUncompressedByteCount() {
+        return uncompressedBytes;
+    }
+
+    /**
+     * @return the number of compressed bytes written to the underlying stream
+     */
+    long getCompressedByteCount() {
+        return compressedBytes;
+    }
+
+    @Override
+    protected void deflate() throws IOException {
+        int length = def.deflate(buf, 0, buf.length);
+        if (length > 0) {
+            writeCompressed(buf, 0, length);
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        if (!headerWritten) {
+            headerWritten = true;
+            if (compression == ResponseCompression.GZIP) {
+                writeCompressed(GZIP_HEADER, 0, GZIP_HEADER.length);
+            }
+        }
+    }
+
+    private void writeTrailer() throws IOException {
+        byte[] trailer = new byte[8];
+        writeInt((int) crc.getValue(), trailer, 0);
+        writeInt((int) uncompressedBytes, trailer, 4);
+        writeCompressed(trailer, 0, trailer.length);
+    }
+
+    private void writeCompressed(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        compressedBytes += len;
+    }
+
+    private static void writeInt(int value, byte[] b, int off) {
+        // the gzip format is little-endian
+        b[off] = (byte) value;
+        b[off + 1] = (byte) (value >> 8);
+        b[off + 2] = (byte) (value >> 16);
+        b[off + 3] = (byte) (value >> 24);
+    }
+
+    private void reportStats() {
+        Tags tags = Tags.of("encoding", compression.getContentCoding());
+        metricsReporter.reportCounter(MetricsReporter.PxfMetric.BYTES_SENT_COMPRESSED, compressedBytes, context);
+        if (compressedBytes > 0) {
+            metricsReporter.reportSummary(MetricsReporter.PxfMetric.COMPRESSION_RATIO,
+                    (double) uncompressedBytes / compressedBytes, context, tags);
+        }
+    }
+}
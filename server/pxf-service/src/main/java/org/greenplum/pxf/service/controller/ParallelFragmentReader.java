@@ -0,0 +1,338 @@
+package org.greenplum.pxf.service.controller;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.api.model.FetchStats;
+import org.greenplum.pxf.api.model.Fragment;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.service.MetricsReporter;
+import org.greenplum.pxf.service.bridge.Bridge;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.security.PrivilegedAction;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Reads the fragments of a request with several tasks in parallel and merges
+ * their output into a single stream. Each task repeatedly claims the next
+ * fragment that has not been read yet, encodes its records and hands them off
+ * in chunks that always end at a record boundary. The chunks are written to
+ * the client in the order they are handed off, so records of different
+ * fragments are interleaved; Greenplum does not rely on the order of the rows
+ * returned by an external scan.
+ */
+@Slf4j
+class ParallelFragmentReader {
+
+    private static final byte[] WORKER_DONE = new byte[0];
+    private static final long PUT_TIMEOUT_MILLIS = 100;
+    private static final long ABANDON_TIMEOUT_SECONDS = 10;
+
+    private final List<Fragment> fragments;
+    private final Function<Fragment, RequestContext> contextFactory;
+    private final Function<RequestContext, Bridge> bridgeFactory;
+    private final MetricsReporter metricsReporter;
+    private final OperationStats queryStats;
+    private final int chunkSize;
+    private final AtomicInteger nextFragment = new AtomicInteger();
+    private final List<Future<?>> workers = new ArrayList<>();
+    // guards runningWorkers and the transition to abandoned
+    private final Object workerLock = new Object();
+    private int runningWorkers;
+
+    @Getter
+    private int threadCount;
+
+    private BlockingQueue<byte[]> chunks;
+    private volatile boolean cancelled;
+    private volatile boolean abandoned;
+    private volatile Exception failure;
+    @Getter
+    private volatile String failedSourceName;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param fragments       the fragments to read
+     * @param contextFactory  function producing the request context for a fragment
+     * @param bridgeFactory   function producing the bridge for a fragment's context
+     * @param metricsReporter metrics reporter service
+     * @param queryStats      statistics of the request, updated as fragments complete
+     * @param chunkSize       minimum number of bytes a task collects before handing them off
+     */
+    ParallelFragmentReader(List<Fragment> fragments,
+                           Function<Fragment, RequestContext> contextFactory,
+                           Function<RequestContext, Bridge> bridgeFactory,
+                           MetricsReporter metricsReporter,
+                           OperationStats queryStats,
+                           int chunkSize) {
+        this.fragments = fragments;
+        this.contextFactory = contextFactory;
+        this.bridgeFactory = bridgeFactory;
+        this.metricsReporter = metricsReporter;
+        this.queryStats = queryStats;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Submits up to the given number of reading tasks to the executor. The
+     * tasks access the external system with the identity of the given user.
+     *
+     * @param executor executor to run the reading tasks
+     * @param ugi      identity to access the external system with
+     * @param threads  maximum number of tasks to submit, reported by {@link #getThreadCount()}
+     * @return the number of tasks that were accepted by the executor
+     */
+    int start(AsyncTaskExecutor executor, UserGroupInformation ugi, int threads) {
+        threadCount = threads;
+        // leave room for a few chunks per task so that the tasks rarely wait for the client
+        chunks = new ArrayBlockingQueue<>(3 * threads);
+        for (int i = 0; i < threads; i++) {
+            try {
+                workers.add(executor.submit(() -> work(ugi)));
+            } catch (TaskRejectedException e) {
+                log.debug("Started {} out of {} fragment reading tasks: {}", i, threads, e.getMessage());
+                break;
+            }
+        }
+        return workers.size();
+    }
+
+    /**
+     * Writes the data produced by the reading tasks to the given stream until
+     * all of the tasks have completed. If a task fails or the data cannot be
+     * written, the remaining tasks are stopped and the error is re-thrown once
+     * all of them have completed.
+     *
+     * @param out the stream to write the data to
+     * @throws Exception if reading any of the fragments or writing the data fails
+     */
+    void writeTo(OutputStream out) throws Exception {
+        int completed = 0;
+        try {
+            while (completed < workers.size()) {
+                byte[] chunk = chunks.take();
+                if (chunk == WORKER_DONE) {
+                    completed++;
+                } else if (!cancelled) {
+                    out.write(chunk);
+                }
+            }
+        } catch (Exception e) {
+            cancelled = true;
+            awaitWorkers(completed);
+            throw e;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Discards the data of the stopped tasks until all of them have completed,
+     * so that none of them is left blocked on a full queue. If interrupted,
+     * the tasks are cancelled and waited for, up to
+     * {@value #ABANDON_TIMEOUT_SECONDS} seconds, so that they do not keep
+     * accessing the external system after the request has completed.
+     */
+    private void awaitWorkers(int completed) throws InterruptedIOException {
+        try {
+            while (completed < workers.size()) {
+                if (chunks.take() == WORKER_DONE) {
+                    completed++;
+                }
+            }
+        } catch (InterruptedException e) {
+            synchronized (workerLock) {
+                abandoned = true;
+            }
+            workers.forEach(worker -> worker.cancel(true));
+            awaitRunningWorkers();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the fragment reading tasks to finish");
+        }
+    }
+
+    /**
+     * Waits for the tasks that have started running to complete after the
+     * queue has been abandoned. The tasks that have not started yet never run.
+     */
+    private void awaitRunningWorkers() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(ABANDON_TIMEOUT_SECONDS);
+        synchronized (workerLock) {
+            while (runningWorkers > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    log.warn("{} fragment reading tasks are still running {} seconds after they were cancelled",
+                            runningWorkers, ABANDON_TIMEOUT_SECONDS);
+                    return;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(workerLock, remaining);
+                } catch (InterruptedException ignored) {
+                    // keep waiting for the bounded time, the interrupt status is restored by the caller
+                }
+            }
+        }
+    }
+
+    private void work(UserGroupInformation ugi) {
+        synchronized (workerLock) {
+            if (abandoned) {
+                return;
+            }
+            runningWorkers++;
+        }
+        try {
+            ugi.doAs((PrivilegedAction<Void>) () -> {
+                try {
+                    readFragments();
+                } catch (Exception e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                    cancelled = true;
+                }
+                return null;
+            });
+        } finally {
+            putCompletionMarker();
+            synchronized (workerLock) {
+                runningWorkers--;
+                workerLock.notifyAll();
+            }
+        }
+    }
+
+    private void readFragments() throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(chunkSize);
+        DataOutputStream dos = new DataOutputStream(buffer);
+        int index;
+        while (!cancelled && (index = nextFragment.getAndIncrement()) < fragments.size()) {
+            Fragment fragment = fragments.get(index);
+            // release the fragment reference as soon as possible, see ReadServiceImpl
+            fragments.set(index, null);
+            readFragment(contextFactory.apply(fragment), buffer, dos);
+        }
+        if (buffer.size() > 0) {
+            handoff(buffer);
+        }
+    }
+
+    /**
+     * Reads the records of a single fragment and updates query statistics.
+     */
+    private void readFragment(RequestContext context, ByteArrayOutputStream buffer, DataOutputStream dos) throws Exception {
+        OperationStats fragmentStats = new OperationStats(OperationStats.Operation.READ, metricsReporter, context);
+        long fragmentByteCount = 0;
+        boolean success = false;
+        Instant startTime = Instant.now();
+        Bridge bridge = null;
+        try {
+            bridge = bridgeFactory.apply(context);
+            if (!bridge.beginIteration()) {
+                log.debug("Skipping streaming fragment {} of resource {}",
+                        context.getFragmentIndex(), context.getDataSource());
+            } else {
+                log.debug("Starting streaming fragment {} of resource {}",
+                        context.getFragmentIndex(), context.getDataSource());
+                Writable record;
+                while (!cancelled && (record = bridge.getNext()) != null) {
+                    int previousBufferSize = buffer.size();
+                    record.write(dos);
+                    fragmentByteCount += buffer.size() - previousBufferSize;
+                    fragmentStats.reportCompletedRecord(fragmentByteCount);
+                    if (buffer.size() >= chunkSize) {
+                        handoff(buffer);
+                    }
+                }
+            }
+            success = !cancelled;
+        } catch (Exception e) {
+            failedSourceName = context.getDataSource();
+            throw e;
+        } finally {
+            if (bridge != null) {
+                try {
+                    bridge.endIteration();
+                } catch (Exception e) {
+                    log.warn("Ignoring error encountered during bridge.endIteration()", e);
+                }
+                FetchStats fetchStats = bridge.getFetchStats();
+                if (fetchStats != null) {
+                    metricsReporter.reportFetchStats(fetchStats, context);
+                }
+            }
+            Duration duration = Duration.between(startTime, Instant.now());
+
+            fragmentStats.setByteCount(fragmentByteCount);
+            fragmentStats.flushStats();
+            synchronized (queryStats) {
+                queryStats.update(fragmentStats);
+            }
+
+            log.debug("Finished processing fragment {} of resource {} in {} ms, wrote {} records and {} bytes.",
+                    context.getFragmentIndex(), context.getDataSource(), duration.toMillis(), fragmentStats.getRecordCount(), fragmentStats.getByteCount());
+            metricsReporter.reportTimer(MetricsReporter.PxfMetric.FRAGMENTS_SENT, duration, context, success);
+        }
+    }
+
+    private void handoff(ByteArrayOutputStream buffer) throws IOException {
+        try {
+            if (!put(buffer.toByteArray())) {
+                throw new InterruptedIOException("Fragment data is no longer consumed");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while handing off fragment data");
+        }
+        buffer.reset();
+    }
+
+    private void putCompletionMarker() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                put(WORKER_DONE);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Puts the element into the queue, waiting for space to become available
+     * unless the consumer has abandoned the queue.
+     *
+     * @return true if the element was queued, false if the queue was abandoned
+     */
+    private boolean put(byte[] element) throws InterruptedException {
+        while (!chunks.offer(element, PUT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (abandoned) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,281 @@
+package org.greenplum.pxf.service.controller;
+
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.service.MetricsReporter;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * An output stream that decouples producing the response data from writing it
+ * to the client. Bytes written to this stream are collected into fixed-size
+ * chunks that are handed off through a bounded ring of buffers to a writer task
+ * running on a separate thread, which writes them to the underlying stream in
+ * the same order. The thread that produces the data (reading from the external
+ * system, resolving and encoding the records) therefore only blocks when all
+ * buffers are waiting to be sent to the client.
+ * <p>
+ * The time each stage spends waiting for the other one and the depth of the
+ * queue are reported to the {@link MetricsReporter} when the stream is closed.
+ * Closing the stream does not close the underlying stream.
+ */
+@Slf4j
+class PipelinedOutputStream extends OutputStream {
+
+    private static final Tags ENCODE_STAGE_TAG = Tags.of("stage", "encode");
+    private static final Tags WRITE_STAGE_TAG = Tags.of("stage", "write");
+    private static final Chunk END_OF_STREAM = new Chunk(0);
+
+    private final OutputStream out;
+    private final RequestContext context;
+    private final MetricsReporter metricsReporter;
+    private final BlockingQueue<Chunk> freeChunks;
+    private final BlockingQueue<Chunk> filledChunks;
+
+    private Chunk current;
+    private Future<?> writerTask;
+    private volatile Exception writerException;
+    private boolean closed;
+
+    // producer side statistics
+    private long encodeStallNanos;
+    private long queueDepthSum;
+    private long handoffCount;
+
+    // writer side statistics, only read after the writer task has completed
+    private long writeStallNanos;
+
+    /**
+     * Creates a new instance of the stream.
+     *
+     * @param out             the stream to write the data to
+     * @param chunkSize       the size of a single chunk in bytes
+     * @param queueDepth      the number of chunks that can be in flight between the stages
+     * @param context         request context
+     * @param metricsReporter metrics reporter service
+     */
+    PipelinedOutputStream(OutputStream out, int chunkSize, int queueDepth,
+                          RequestContext context, MetricsReporter metricsReporter) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunk size must be positive");
+        }
+        if (queueDepth <= 0) {
+            throw new IllegalArgumentException("queue depth must be positive");
+        }
+        this.out = out;
+        this.context = context;
+        this.metricsReporter = metricsReporter;
+        // the filled queue can hold every buffer and the end of stream marker, so putting into it never blocks
+        this.freeChunks = new ArrayBlockingQueue<>(queueDepth);
+        this.filledChunks = new ArrayBlockingQueue<>(queueDepth + 1);
+        for (int i = 0; i < queueDepth; i++) {
+            freeChunks.add(new Chunk(chunkSize));
+        }
+    }
+
+    /**
+     * Submits the writer task to the given executor.
+     *
+     * @param executor executor to run the writer task
+     * @throws org.springframework.core.task.TaskRejectedException if the executor did not accept the task
+     */
+    void start(AsyncTaskExecutor executor) {
+        writerTask = executor.submit(this::drain);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        Chunk chunk = currentChunk();
+        chunk.bytes[chunk.length++] = (byte) b;
+        if (chunk.isFull()) {
+            handoff();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            Chunk chunk = currentChunk();
+            int count = Math.min(len, chunk.bytes.length - chunk.length);
+            System.arraycopy(b, off, chunk.bytes, chunk.length, count);
+            chunk.length += count;
+            off += count;
+            len -= count;
+            if (chunk.isFull()) {
+                handoff();
+            }
+        }
+    }
+
+    /**
+     * Hands off the partially filled chunk, if any, to the writer task. Does not
+     * wait for the data to reach the client.
+     *
+     * @throws IOException if the writer task has failed
+     */
+    @Override
+    public void flush() throws IOException {
+        if (current != null && current.length > 0) {
+            handoff();
+        }
+    }
+
+    /**
+     * Sends all remaining data to the client and waits for the writer task to
+     * finish, then reports the pipeline statistics. The underlying stream is
+     * flushed, but not closed.
+     *
+     * @throws IOException if the writer task has failed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (current != null && current.length > 0 && writerException == null) {
+                filledChunks.add(current);
+            }
+            current = null;
+            filledChunks.add(END_OF_STREAM);
+            awaitWriter();
+            checkWriter();
+            out.flush();
+        } finally {
+            reportStats();
+        }
+    }
+
+    private Chunk currentChunk() throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed");
+        }
+        if (current == null) {
+            checkWriter();
+            long start = System.nanoTime();
+            try {
+                current = freeChunks.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a free buffer");
+            }
+            encodeStallNanos += System.nanoTime() - start;
+        }
+        return current;
+    }
+
+    private void handoff() throws IOException {
+        checkWriter();
+        queueDepthSum += filledChunks.size();
+        handoffCount++;
+        filledChunks.add(current);
+        current = null;
+    }
+
+    /**
+     * Writes the filled chunks to the underlying stream until the end of
+     * stream marker is received. Once a write fails, or the task is
+     * interrupted, the remaining chunks are discarded, so that the producer
+     * never waits for a buffer that will not be returned.
+     */
+    private void drain() {
+        try {
+            while (true) {
+                long start = System.nanoTime();
+                Chunk chunk = filledChunks.take();
+                writeStallNanos += System.nanoTime() - start;
+                if (chunk == END_OF_STREAM) {
+                    return;
+                }
+                try {
+                    if (writerException == null) {
+                        out.write(chunk.bytes, 0, chunk.length);
+                    }
+                } catch (Exception e) {
+                    log.debug("Failed to write pipelined data to the client", e);
+                    writerException = e;
+                } finally {
+                    chunk.length = 0;
+                    freeChunks.add(chunk);
+                }
+            }
+        } catch (InterruptedException e) {
+            writerException = new InterruptedIOException("Interrupted while waiting for data to write");
+            // give the queued buffers back, so that a producer waiting for a free buffer wakes up and sees the failure
+            Chunk chunk;
+            while ((chunk = filledChunks.poll()) != null) {
+                if (chunk != END_OF_STREAM) {
+                    chunk.length = 0;
+                    freeChunks.add(chunk);
+                }
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitWriter() throws IOException {
+        try {
+            writerTask.get();
+        } catch (InterruptedException e) {
+            writerTask.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the writer task to finish");
+        } catch (ExecutionException e) {
+            throw new IOException("Writer task failed", e.getCause());
+        }
+    }
+
+    /**
+     * Re-throws the failure of the writer task in the producer thread,
+     * preserving the original exception type (e.g. a client abort) if possible.
+     */
+    private void checkWriter() throws IOException {
+        Exception e = writerException;
+        if (e == null) {
+            return;
+        }
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        }
+        throw new IOException(e.getMessage(), e);
+    }
+
+    private void reportStats() {
+        metricsReporter.reportTimer(MetricsReporter.PxfMetric.PIPELINE_STALL,
+                Duration.ofNanos(encodeStallNanos), context, ENCODE_STAGE_TAG);
+        metricsReporter.reportTimer(MetricsReporter.PxfMetric.PIPELINE_STALL,
+                Duration.ofNanos(writeStallNanos), context, WRITE_STAGE_TAG);
+        if (handoffCount > 0) {
+            metricsReporter.reportSummary(MetricsReporter.PxfMetric.PIPELINE_QUEUE_DEPTH,
+                    (double) queueDepthSum / handoffCount, context, null);
+        }
+        log.debug("Pipelined {} chunks, encoding stalled for {} ms, writing stalled for {} ms",
+                handoffCount, encodeStallNanos / 1_000_000, writeStallNanos / 1_000_000);
+    }
+
+    /**
+     * A buffer holding a portion of the response data.
+     */
+    private static class Chunk {
+        private final byte[] bytes;
+        private int length;
+
+        Chunk(int size) {
+            this.bytes = new byte[size];
+        }
+
+        boolean isFull() {
+            return length == bytes.length;
+        }
+    }
+}
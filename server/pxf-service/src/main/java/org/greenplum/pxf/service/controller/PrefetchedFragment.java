@@ -0,0 +1,209 @@
+package org.greenplum.pxf.service.controller;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.service.bridge.Bridge;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.PrivilegedAction;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A fragment that is opened on a helper thread while the fragments before it
+ * are still being streamed to the client. The helper task creates the bridge,
+ * begins the iteration and encodes records into a bounded buffer, so that the
+ * latency of opening the fragment (reading file footers, establishing
+ * connections to the external system, etc.) overlaps with streaming. Once the
+ * fragment's turn comes, the buffered data is written out and the remaining
+ * records are read from the same bridge on the request thread.
+ * <p>
+ * A fragment that is discarded while the helper task is running is closed by
+ * the helper task itself once it stops reading, so that the bridge is never
+ * used by two threads at the same time. The discarding thread waits for the
+ * helper task to finish, so that the task does not outlive the request.
+ */
+@Slf4j
+class PrefetchedFragment {
+
+    private static final long DISCARD_TIMEOUT_SECONDS = 10;
+
+    @Getter
+    private final RequestContext context;
+    private final long bufferSize;
+
+    private ByteArrayOutputStream buffer;
+    private Future<?> task;
+
+    // the fields below are written by the helper task and read only after the task has completed
+    @Getter
+    private Bridge bridge;
+    @Getter
+    private boolean iterating;
+    @Getter
+    private boolean exhausted;
+    @Getter
+    private long recordCount;
+    private Exception failure;
+
+    // guarded by this, decide which thread ends the iteration of a discarded fragment
+    private volatile boolean discarded;
+    private boolean started;
+    private boolean completed;
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    /**
+     * Creates a new instance.
+     *
+     * @param context    request context for the fragment
+     * @param bufferSize maximum number of bytes to buffer before the fragment's turn comes
+     */
+    PrefetchedFragment(RequestContext context, long bufferSize) {
+        this.context = context;
+        this.bufferSize = bufferSize;
+        this.buffer = new ByteArrayOutputStream();
+    }
+
+    /**
+     * Submits the prefetch task to the given executor. The task runs with the
+     * identity of the given user, as it accesses the external system.
+     *
+     * @param executor      executor to run the prefetch task
+     * @param ugi           identity to access the external system with
+     * @param bridgeFactory function producing the bridge for the fragment's context
+     * @throws org.springframework.core.task.TaskRejectedException if the executor did not accept the task
+     */
+    void start(AsyncTaskExecutor executor, UserGroupInformation ugi, Function<RequestContext, Bridge> bridgeFactory) {
+        task = executor.submit(() -> ugi.doAs((PrivilegedAction<Void>) () -> prefetch(bridgeFactory)));
+    }
+
+    /**
+     * Waits for the prefetch task to complete.
+     *
+     * @throws Exception the exception raised by the prefetch task, if any
+     */
+    void await() throws Exception {
+        try {
+            task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw (cause instanceof Exception) ? (Exception) cause : e;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes the data buffered by the prefetch task to the given stream and
+     * releases the buffer.
+     *
+     * @param out stream to write the data to
+     * @throws IOException if writing fails
+     */
+    void writeBufferTo(OutputStream out) throws IOException {
+        buffer.writeTo(out);
+        buffer = null;
+    }
+
+    /**
+     * Releases the resources held by the fragment when it will not be streamed,
+     * e.g. because an earlier fragment failed. A running prefetch task stops
+     * reading and releases the resources itself, this method waits for it to
+     * finish for up to {@value #DISCARD_TIMEOUT_SECONDS} seconds.
+     */
+    void discard() {
+        if (task == null) {
+            return;
+        }
+        boolean end;
+        synchronized (this) {
+            discarded = true;
+            if (!started) {
+                // the task never reads the fragment
+                task.cancel(false);
+                return;
+            }
+            end = completed;
+        }
+        if (end) {
+            endIteration();
+            return;
+        }
+        // the task ends the iteration when it stops reading
+        try {
+            if (finished.await(DISCARD_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.warn("Fragment {} of resource {} is still being prefetched after it was discarded",
+                context.getFragmentIndex(), context.getDataSource());
+    }
+
+    private Void prefetch(Function<RequestContext, Bridge> bridgeFactory) {
+        synchronized (this) {
+            if (discarded) {
+                return null;
+            }
+            started = true;
+        }
+        try {
+            log.debug("Prefetching fragment {} of resource {}", context.getFragmentIndex(), context.getDataSource());
+            bridge = bridgeFactory.apply(context);
+            iterating = bridge.beginIteration();
+            if (!iterating) {
+                return null;
+            }
+            DataOutputStream dos = new DataOutputStream(buffer);
+            while (!discarded && buffer.size() < bufferSize) {
+                Writable record = bridge.getNext();
+                if (record == null) {
+                    exhausted = true;
+                    break;
+                }
+                record.write(dos);
+                recordCount++;
+            }
+            log.debug("Prefetched {} records and {} bytes of fragment {} of resource {}",
+                    recordCount, buffer.size(), context.getFragmentIndex(), context.getDataSource());
+        } catch (Exception e) {
+            failure = e;
+        } finally {
+            boolean end;
+            synchronized (this) {
+                completed = true;
+                end = discarded;
+            }
+            if (end) {
+                log.debug("Fragment {} of resource {} was discarded while prefetching",
+                        context.getFragmentIndex(), context.getDataSource());
+                endIteration();
+            }
+            finished.countDown();
+        }
+        return null;
+    }
+
+    private void endIteration() {
+        if (bridge != null) {
+            try {
+                bridge.endIteration();
+            } catch (Exception e) {
+                log.warn("Ignoring error encountered during bridge.endIteration()", e);
+            }
+        }
+        buffer = null;
+    }
+}
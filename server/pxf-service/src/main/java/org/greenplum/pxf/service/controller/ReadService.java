@@ -16,5 +16,18 @@ public interface ReadService {
      * @param context      request context
      * @param outputStream output stream to write data to
      */
-    void readData(RequestContext context, OutputStream outputStream);
+    default void readData(RequestContext context, OutputStream outputStream) {
+        readData(context, outputStream, null);
+    }
+
+    /**
+     * Reads data from the external system specified by the RequestContext.
+     * The data is then compressed with the given content coding, if any, and
+     * written to the provided OutputStream.
+     *
+     * @param context      request context
+     * @param outputStream output stream to write data to
+     * @param compression  content coding to compress the data with, or null to send it uncompressed
+     */
+    void readData(RequestContext context, OutputStream outputStream, ResponseCompression compression);
 }
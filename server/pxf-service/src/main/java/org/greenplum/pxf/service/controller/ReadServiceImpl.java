@@ -3,8 +3,11 @@ package org.greenplum.pxf.service.controller;
 import com.google.common.io.CountingOutputStream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.StringUtils;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.greenplum.pxf.api.configuration.PxfServerProperties;
 import org.greenplum.pxf.api.io.Writable;
 import org.greenplum.pxf.api.model.ConfigurationFactory;
+import org.greenplum.pxf.api.model.FetchStats;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.PluginConf;
 import org.greenplum.pxf.api.model.RequestContext;
@@ -14,15 +17,23 @@ import org.greenplum.pxf.service.MetricsReporter;
 import org.greenplum.pxf.service.bridge.Bridge;
 import org.greenplum.pxf.service.bridge.BridgeFactory;
 import org.greenplum.pxf.service.security.SecurityService;
+import org.greenplum.pxf.service.spring.PxfThreadPoolTaskExecutor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 
 import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.greenplum.pxf.service.spring.PxfConfiguration.PXF_READ_TASK_EXECUTOR;
+
 /**
  * Implementation of the ReadService.
  */
@@ -31,6 +42,8 @@ import java.util.Map;
 public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements ReadService {
 
     private final FragmenterService fragmenterService;
+    private final PxfServerProperties.Read readProperties;
+    private final AsyncTaskExecutor readTaskExecutor;
 
     /**
      * Creates a new instance.
@@ -40,22 +53,28 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
      * @param securityService      security service
      * @param fragmenterService    fragmenter service
      * @param metricsReporter      metrics reporter service
+     * @param serverProperties     PXF server properties
+     * @param readTaskExecutor     executor for the helper tasks of read requests
      */
     public ReadServiceImpl(ConfigurationFactory configurationFactory,
                            BridgeFactory bridgeFactory,
                            SecurityService securityService,
                            FragmenterService fragmenterService,
-                           MetricsReporter metricsReporter) {
+                           MetricsReporter metricsReporter,
+                           PxfServerProperties serverProperties,
+                           @Qualifier(PXF_READ_TASK_EXECUTOR) AsyncTaskExecutor readTaskExecutor) {
         super("Read", configurationFactory, bridgeFactory, securityService, metricsReporter);
         this.fragmenterService = fragmenterService;
+        this.readProperties = serverProperties.getRead();
+        this.readTaskExecutor = readTaskExecutor;
     }
 
     @Override
-    public void readData(RequestContext context, OutputStream outputStream) {
+    public void readData(RequestContext context, OutputStream outputStream, ResponseCompression compression) {
         // wrapping the invocation of processData(..) with the error reporting logic
         // since any exception thrown from it must be logged, as this method is called asynchronously
         // and is the last opportunity to log the exception while having MDC logging context defined
-        invokeWithErrorHandling(() -> processData(context, () -> writeStream(context, outputStream)));
+        invokeWithErrorHandling(() -> processData(context, () -> writeStream(context, outputStream, compression)));
     }
 
     /**
@@ -65,9 +84,10 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
      *
      * @param context      request context
      * @param outputStream output stream
+     * @param compression  content coding to compress the data with, or null
      * @return operation statistics
      */
-    private OperationResult writeStream(RequestContext context, OutputStream outputStream) {
+    private OperationResult writeStream(RequestContext context, OutputStream outputStream, ResponseCompression compression) {
         boolean restoreOriginalValues;
 
         String originalProfile = context.getProfile();
@@ -78,66 +98,242 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
         OperationStats queryStats = new OperationStats(OperationStats.Operation.READ, metricsReporter, context);
         OperationResult queryResult = new OperationResult();
 
-        // dataStream (and outputStream as the result) will close automatically at the end of the try block
-        CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+        // the data is compressed right before it is written to the client, by the writer task when pipelining
+        CompressedOutputStream compressedOutputStream = compression != null
+                ? new CompressedOutputStream(outputStream, compression, readProperties.getCompression().getLevel(), context, metricsReporter)
+                : null;
+        OutputStream responseStream = compressedOutputStream != null ? compressedOutputStream : outputStream;
+        // when pipelining is enabled, records are encoded on this thread and written to the client by a separate task
+        PipelinedOutputStream pipelinedOutputStream = startPipeline(context, responseStream);
+        CountingOutputStream countingOutputStream = new CountingOutputStream(
+                pipelinedOutputStream != null ? pipelinedOutputStream : responseStream);
+        FragmentPrefetcher prefetcher = null;
+        ParallelFragmentReader parallelReader = null;
         String sourceName = null;
         try {
+            prefetcher = createPrefetcher(context);
             List<Fragment> fragments = fragmenterService.getFragmentsForSegment(context);
-            for (int i = 0; i < fragments.size(); i++) {
-                Fragment fragment = fragments.get(i);
-                sourceName = fragment.getSourceName();
-                String profile = fragment.getProfile();
-                restoreOriginalValues = false;
-                if (StringUtils.isNotBlank(profile) &&
-                        !StringUtils.equalsIgnoreCase(profile, context.getProfile())) {
-                    restoreOriginalValues = true;
-                    log.debug("Fragment {} of resource {} will be using profile: {}",
-                            fragment.getIndex(), fragment.getSourceName(), profile);
-                    updateProfile(context, profile);
+            parallelReader = startParallelRead(context, fragments, queryStats);
+            if (parallelReader != null) {
+                // the fragments are read by several tasks, their output is merged into the response
+                try {
+                    parallelReader.writeTo(countingOutputStream);
+                } finally {
+                    sourceName = parallelReader.getFailedSourceName();
                 }
-                context.setDataSource(fragment.getSourceName());
-                context.setFragmentIndex(fragment.getIndex());
-                context.setFragmentMetadata(fragment.getMetadata());
-                processFragment(countingOutputStream, context, queryStats);
-
-                // In cases where we have hundreds of thousands of fragments,
-                // we want to release the fragment reference as soon as we are
-                // done processing the fragment. This allows the GC to reclaim
-                // any memory, under memory stress situations, if needed.
-                fragments.set(i, null);
-
-                if (restoreOriginalValues) {
-                    // Restore the original values so that the next
-                    // fragment will use the default profile settings
-                    context.setProfile(originalProfile);
-                    context.setAccessor(originalAccessor);
-                    context.setResolver(originalResolver);
-                    context.setProfileScheme(originalProfileScheme);
+            } else {
+                for (int i = 0; i < fragments.size(); i++) {
+                    Fragment fragment = fragments.get(i);
+                    sourceName = fragment.getSourceName();
+                    if (prefetcher != null) {
+                        PrefetchedFragment prefetched = prefetcher.take(i);
+                        RequestContext fragmentContext = prefetched != null
+                                ? prefetched.getContext()
+                                : createFragmentContext(context, fragment);
+                        // open the upcoming fragments on helper threads while this one is being streamed
+                        prefetcher.schedule(fragments, i + 1);
+                        processFragment(countingOutputStream, fragmentContext, queryStats, prefetched);
+                        fragments.set(i, null);
+                        continue;
+                    }
+                    String profile = fragment.getProfile();
+                    restoreOriginalValues = false;
+                    if (StringUtils.isNotBlank(profile) &&
+                            !StringUtils.equalsIgnoreCase(profile, context.getProfile())) {
+                        restoreOriginalValues = true;
+                        log.debug("Fragment {} of resource {} will be using profile: {}",
+                                fragment.getIndex(), fragment.getSourceName(), profile);
+                        updateProfile(context, profile);
+                    }
+                    context.setDataSource(fragment.getSourceName());
+                    context.setFragmentIndex(fragment.getIndex());
+                    context.setFragmentMetadata(fragment.getMetadata());
+                    processFragment(countingOutputStream, context, queryStats, null);
+
+                    // In cases where we have hundreds of thousands of fragments,
+                    // we want to release the fragment reference as soon as we are
+                    // done processing the fragment. This allows the GC to reclaim
+                    // any memory, under memory stress situations, if needed.
+                    fragments.set(i, null);
+
+                    if (restoreOriginalValues) {
+                        // Restore the original values so that the next
+                        // fragment will use the default profile settings
+                        context.setProfile(originalProfile);
+                        context.setAccessor(originalAccessor);
+                        context.setResolver(originalResolver);
+                        context.setProfileScheme(originalProfileScheme);
+                    }
                 }
             }
+            if (pipelinedOutputStream != null) {
+                // send the remaining data and surface any error encountered while writing to the client
+                pipelinedOutputStream.close();
+            }
+            if (compressedOutputStream != null) {
+                // complete the compressed data only when all the data has been sent
+                compressedOutputStream.finish();
+            }
         } catch (Exception e) {
             // the exception is not re-thrown but passed to the caller in the queryResult so that
             // the caller has a chance to inspect / report query stats before re-throwing the exception
             queryResult.setException(e);
             queryResult.setSourceName(sourceName);
         } finally {
+            if (parallelReader != null) {
+                releaseReadThreads(parallelReader.getThreadCount());
+            }
+            if (prefetcher != null) {
+                // the helper tasks access the external system as the current user, they must not outlive the request
+                prefetcher.discardAll();
+            }
+            if (pipelinedOutputStream != null) {
+                try {
+                    pipelinedOutputStream.close();
+                } catch (Exception e) {
+                    log.warn("Ignoring error encountered while closing the pipelined output stream", e);
+                }
+            }
+            if (compressedOutputStream != null) {
+                compressedOutputStream.close();
+            }
             queryResult.setStats(queryStats);
         }
 
         return queryResult;
     }
 
+    /**
+     * Starts the writer stage of the pipelined read mode, if the mode is enabled.
+     *
+     * @param context      request context
+     * @param outputStream output stream to the client
+     * @return the stream to write encoded records to, or null if the pipeline is not used
+     */
+    private PipelinedOutputStream startPipeline(RequestContext context, OutputStream outputStream) {
+        PxfServerProperties.Read.Pipeline pipeline = readProperties.getPipeline();
+        if (!pipeline.isEnabled()) {
+            return null;
+        }
+        PipelinedOutputStream pipelinedOutputStream = new PipelinedOutputStream(outputStream,
+                (int) pipeline.getChunkSize().toBytes(), pipeline.getQueueDepth(), context, metricsReporter);
+        try {
+            pipelinedOutputStream.start(readTaskExecutor);
+        } catch (TaskRejectedException e) {
+            log.warn("Unable to start the pipelined writer, streaming the response directly: {}", e.getMessage());
+            return null;
+        }
+        return pipelinedOutputStream;
+    }
+
+    /**
+     * Starts reading the fragments in parallel, if parallel reading is enabled
+     * and enough threads are available for the request.
+     *
+     * @param context    request context
+     * @param fragments  the fragments of the request
+     * @param queryStats query statistics
+     * @return the reader merging the output of the reading tasks, or null if the fragments are read serially
+     * @throws IOException if the current user cannot be determined
+     */
+    private ParallelFragmentReader startParallelRead(RequestContext context, List<Fragment> fragments,
+                                                     OperationStats queryStats) throws IOException {
+        PxfServerProperties.Read.Parallel parallel = readProperties.getParallel();
+        int requested = Math.min(parallel.getMaxThreadsPerQuery(), fragments.size());
+        if (!parallel.isEnabled() || requested < 2) {
+            return null;
+        }
+        int reserved = reserveReadThreads(requested);
+        if (reserved < 2) {
+            log.debug("Only {} threads available to read {} fragments, reading them serially", reserved, fragments.size());
+            releaseReadThreads(reserved);
+            return null;
+        }
+        ParallelFragmentReader parallelReader = new ParallelFragmentReader(fragments,
+                fragment -> createFragmentContext(context, fragment), this::getBridge,
+                metricsReporter, queryStats, (int) parallel.getChunkSize().toBytes());
+        int started = parallelReader.start(readTaskExecutor, UserGroupInformation.getCurrentUser(), reserved);
+        if (started == 0) {
+            log.warn("Unable to start fragment reading tasks, reading the fragments serially");
+            releaseReadThreads(reserved);
+            return null;
+        }
+        log.debug("Reading {} fragments with {} tasks", fragments.size(), started);
+        // the reserved threads are returned once the reading tasks have completed
+        return parallelReader;
+    }
+
+    /**
+     * Reserves threads of the read task executor for the tasks of a single
+     * request, so that the tasks of all requests together stay within the
+     * maximum pool size.
+     *
+     * @param requested the number of threads to reserve
+     * @return the number of threads granted
+     */
+    private int reserveReadThreads(int requested) {
+        if (readTaskExecutor instanceof PxfThreadPoolTaskExecutor) {
+            return ((PxfThreadPoolTaskExecutor) readTaskExecutor).reserveThreads(requested);
+        }
+        return requested;
+    }
+
+    private void releaseReadThreads(int count) {
+        if (readTaskExecutor instanceof PxfThreadPoolTaskExecutor) {
+            ((PxfThreadPoolTaskExecutor) readTaskExecutor).releaseThreads(count);
+        }
+    }
+
+    /**
+     * Creates the prefetcher of upcoming fragments, if fragment prefetching is enabled.
+     *
+     * @param context request context
+     * @return the prefetcher, or null if fragments are not prefetched
+     * @throws IOException if the current user cannot be determined
+     */
+    private FragmentPrefetcher createPrefetcher(RequestContext context) throws IOException {
+        if (readProperties.getFragmentPrefetch() <= 0) {
+            return null;
+        }
+        return new FragmentPrefetcher(context, UserGroupInformation.getCurrentUser());
+    }
+
+    /**
+     * Creates a copy of the request context for processing the given fragment,
+     * leaving the original context intact.
+     *
+     * @param context  request context
+     * @param fragment the fragment to process
+     * @return request context for the fragment
+     */
+    private RequestContext createFragmentContext(RequestContext context, Fragment fragment) {
+        RequestContext fragmentContext = context.copy();
+        String profile = fragment.getProfile();
+        if (StringUtils.isNotBlank(profile) &&
+                !StringUtils.equalsIgnoreCase(profile, context.getProfile())) {
+            log.debug("Fragment {} of resource {} will be using profile: {}",
+                    fragment.getIndex(), fragment.getSourceName(), profile);
+            updateProfile(fragmentContext, profile);
+        }
+        fragmentContext.setDataSource(fragment.getSourceName());
+        fragmentContext.setFragmentIndex(fragment.getIndex());
+        fragmentContext.setFragmentMetadata(fragment.getMetadata());
+        return fragmentContext;
+    }
+
     /**
      * Processes a single fragment identified in the RequestContext and updates query statistics.
      *
      * @param countingOutputStream output stream to write data to
      * @param context              request context
      * @param queryStats           query statistics
+     * @param prefetched           the fragment opened ahead of time, or null if it has to be opened now
      * @throws Exception if operation fails
      */
     private void processFragment(CountingOutputStream countingOutputStream,
                                  RequestContext context,
-                                 OperationStats queryStats) throws Exception {
+                                 OperationStats queryStats,
+                                 PrefetchedFragment prefetched) throws Exception {
         Writable record;
         DataOutputStream dos = new DataOutputStream(countingOutputStream);
 
@@ -147,14 +343,36 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
         Instant startTime = Instant.now();
         Bridge bridge = null;
         try {
-            bridge = getBridge(context);
-            if (!bridge.beginIteration()) {
+            boolean iterating;
+            boolean exhausted = false;
+            if (prefetched != null) {
+                try {
+                    prefetched.await();
+                } finally {
+                    // the bridge might have been created even if the prefetch failed
+                    bridge = prefetched.getBridge();
+                }
+                iterating = prefetched.isIterating();
+                exhausted = prefetched.isExhausted();
+            } else {
+                bridge = getBridge(context);
+                iterating = bridge.beginIteration();
+            }
+            if (!iterating) {
                 log.debug("Skipping streaming fragment {} of resource {}",
                         context.getFragmentIndex(), context.getDataSource());
             } else {
                 log.debug("Starting streaming fragment {} of resource {}",
                         context.getFragmentIndex(), context.getDataSource());
-                while ((record = bridge.getNext()) != null) {
+                if (prefetched != null) {
+                    // the prefetched records have been encoded already, report them once they have been written
+                    prefetched.writeBufferTo(dos);
+                    long prefetchedByteCount = countingOutputStream.getCount() - previousStreamByteCount;
+                    for (long r = 0; r < prefetched.getRecordCount(); r++) {
+                        fragmentStats.reportCompletedRecord(prefetchedByteCount);
+                    }
+                }
+                while (!exhausted && (record = bridge.getNext()) != null) {
                     record.write(dos);
                     // fragment's current byte count is relative to the previous stream's byte count
                     fragmentStats.reportCompletedRecord(countingOutputStream.getCount() - previousStreamByteCount);
@@ -168,6 +386,10 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
                 } catch (Exception e) {
                     log.warn("Ignoring error encountered during bridge.endIteration()", e);
                 }
+                FetchStats fetchStats = bridge.getFetchStats();
+                if (fetchStats != null) {
+                    metricsReporter.reportFetchStats(fetchStats, context);
+                }
             }
             Duration duration = Duration.between(startTime, Instant.now());
 
@@ -187,6 +409,64 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
         }
     }
 
+    /**
+     * Keeps track of the fragments of a request that are opened ahead of their turn.
+     */
+    private class FragmentPrefetcher {
+        private final RequestContext context;
+        private final UserGroupInformation ugi;
+        private final Map<Integer, PrefetchedFragment> prefetchedFragments = new HashMap<>();
+        private int nextIndex = 1;
+
+        FragmentPrefetcher(RequestContext context, UserGroupInformation ugi) {
+            this.context = context;
+            this.ugi = ugi;
+        }
+
+        /**
+         * Starts prefetching the fragments within the look-ahead window that
+         * starts at the given position and have not been scheduled yet.
+         *
+         * @param fragments the fragments of the request
+         * @param from      position of the first fragment in the window
+         */
+        void schedule(List<Fragment> fragments, int from) {
+            int end = Math.min(fragments.size(), from + readProperties.getFragmentPrefetch());
+            long bufferSize = readProperties.getFragmentPrefetchBufferSize().toBytes();
+            for (; nextIndex < end; nextIndex++) {
+                PrefetchedFragment prefetched = new PrefetchedFragment(
+                        createFragmentContext(context, fragments.get(nextIndex)), bufferSize);
+                try {
+                    prefetched.start(readTaskExecutor, ugi, ReadServiceImpl.this::getBridge);
+                } catch (TaskRejectedException e) {
+                    // the fragment will be opened when its turn comes
+                    log.debug("Unable to prefetch fragment {} of resource {}: {}",
+                            prefetched.getContext().getFragmentIndex(), prefetched.getContext().getDataSource(), e.getMessage());
+                    continue;
+                }
+                prefetchedFragments.put(nextIndex, prefetched);
+            }
+        }
+
+        /**
+         * Returns the prefetched fragment at the given position and stops tracking it.
+         *
+         * @param index position of the fragment
+         * @return the prefetched fragment, or null if it was not prefetched
+         */
+        PrefetchedFragment take(int index) {
+            return prefetchedFragments.remove(index);
+        }
+
+        /**
+         * Stops the outstanding prefetch tasks, waits for them to finish and releases their resources.
+         */
+        void discardAll() {
+            prefetchedFragments.values().forEach(PrefetchedFragment::discard);
+            prefetchedFragments.clear();
+        }
+    }
+
     private void updateProfile(RequestContext context, String profile) {
         context.setProfile(profile);
         PluginConf pluginConf = context.getPluginConf();
@@ -0,0 +1,72 @@
+package org.greenplum.pxf.service.controller;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HTTP content codings that the data sent to the client can be compressed
+ * with, listed in the order the server prefers them.
+ */
+public enum ResponseCompression {
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private final String contentCoding;
+
+    ResponseCompression(String contentCoding) {
+        this.contentCoding = contentCoding;
+    }
+
+    /**
+     * @return the name of the content coding, as used in the Content-Encoding header
+     */
+    public String getContentCoding() {
+        return contentCoding;
+    }
+
+    /**
+     * Chooses the content coding of the response from the value of the
+     * Accept-Encoding header of the request. The coding with the highest
+     * quality value is chosen; on a tie, the server preference wins.
+     *
+     * @param acceptEncoding the value of the Accept-Encoding header, can be null
+     * @return the chosen content coding, or null if the response must not be compressed
+     */
+    public static ResponseCompression negotiate(String acceptEncoding) {
+        if (StringUtils.isBlank(acceptEncoding)) {
+            return null;
+        }
+        Map<String, Double> qualities = new HashMap<>();
+        for (String element : acceptEncoding.split(",")) {
+            String[] parameters = element.split(";");
+            qualities.put(parameters[0].trim().toLowerCase(), getQuality(parameters));
+        }
+        Double anyQuality = qualities.getOrDefault("*", 0d);
+        ResponseCompression chosen = null;
+        double chosenQuality = 0;
+        for (ResponseCompression compression : values()) {
+            double quality = qualities.getOrDefault(compression.contentCoding, anyQuality);
+            if (quality > chosenQuality) {
+                chosen = compression;
+                chosenQuality = quality;
+            }
+        }
+        return chosen;
+    }
+
+    private static double getQuality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
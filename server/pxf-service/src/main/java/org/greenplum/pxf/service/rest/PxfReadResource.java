@@ -1,8 +1,11 @@
 package org.greenplum.pxf.service.rest;
 
+import org.greenplum.pxf.api.configuration.PxfServerProperties;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.service.RequestParser;
 import org.greenplum.pxf.service.controller.ReadService;
+import org.greenplum.pxf.service.controller.ResponseCompression;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.MultiValueMap;
@@ -22,34 +25,53 @@ import javax.servlet.http.HttpServletRequest;
 public class PxfReadResource extends PxfBaseResource<StreamingResponseBody> {
 
     private final ReadService readService;
+    private final boolean compressionEnabled;
 
     /**
      * Creates a new instance of the resource with Request parser and read service implementation.
      *
-     * @param parser      http request parser
-     * @param readService read service implementation
+     * @param parser           http request parser
+     * @param readService      read service implementation
+     * @param serverProperties PXF server properties
      */
     public PxfReadResource(RequestParser<MultiValueMap<String, String>> parser,
-                           ReadService readService) {
+                           ReadService readService,
+                           PxfServerProperties serverProperties) {
         super(RequestContext.RequestType.READ_BRIDGE, parser);
         this.readService = readService;
+        this.compressionEnabled = serverProperties.getRead().getCompression().isEnabled();
     }
 
     /**
      * REST endpoint for read data requests.
      *
+     * The records are compressed when the client accepts a content coding
+     * supported by the server in the Accept-Encoding header.
+     *
      * @param headers http headers from request that carry all parameters
      * @return response object containing stream that will output records
      */
     @GetMapping(value = "/read", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
     public ResponseEntity<StreamingResponseBody> read(@RequestHeader MultiValueMap<String, String> headers,
                                                       HttpServletRequest request) {
-        return processRequest(headers, request);
+        ResponseEntity<StreamingResponseBody> response = processRequest(headers, request);
+        ResponseCompression compression = getCompression(request);
+        if (compression == null) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.CONTENT_ENCODING, compression.getContentCoding())
+                .body(response.getBody());
     }
 
     @Override
     protected StreamingResponseBody produceResponse(RequestContext context, HttpServletRequest request) {
+        ResponseCompression compression = getCompression(request);
         // return a lambda that will be executed asynchronously
-        return os -> readService.readData(context, os);
+        return os -> readService.readData(context, os, compression);
+    }
+
+    private ResponseCompression getCompression(HttpServletRequest request) {
+        return compressionEnabled ? ResponseCompression.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING)) : null;
     }
 }
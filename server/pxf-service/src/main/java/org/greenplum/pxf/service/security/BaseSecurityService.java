@@ -8,9 +8,11 @@ import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.model.ConfigurationFactory;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.security.SecureLogin;
+import org.greenplum.pxf.api.utilities.ReferenceCountingCache.Entry;
 import org.greenplum.pxf.api.utilities.Utilities;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -29,14 +31,17 @@ public class BaseSecurityService implements SecurityService {
 
     private final SecureLogin secureLogin;
     private final UGIProvider ugiProvider;
+    private final UGICache ugiCache;
 
     /* feature flag to expand Kerberos User Principal name when impersonating */
     private boolean isExpandUserPrincipal;
 
-    public BaseSecurityService(SecureLogin secureLogin, UGIProvider ugiProvider,
+    @Autowired
+    public BaseSecurityService(SecureLogin secureLogin, UGIProvider ugiProvider, UGICache ugiCache,
                                @Value("${" + EXPAND_PRINCIPAL_PROPERTY + "}") boolean isExpandUserPrincipal) {
         this.secureLogin = secureLogin;
         this.ugiProvider = ugiProvider;
+        this.ugiCache = ugiCache;
         this.isExpandUserPrincipal = isExpandUserPrincipal;
     }
 
@@ -66,7 +71,7 @@ public class BaseSecurityService implements SecurityService {
 
         // Establish the UGI for the login user or the Kerberos principal for the given server, if applicable
         boolean exceptionDetected = false;
-        UserGroupInformation userGroupInformation = null;
+        Entry<UserGroupInformation> ugiEntry = null;
         try {
             /*
                get a login user that is either of:
@@ -106,14 +111,19 @@ public class BaseSecurityService implements SecurityService {
             // validate and set properties required for enabling Kerberos constrained delegation, if necessary
             processConstrainedDelegation(configuration, isSecurityEnabled, isConstrainedDelegationEnabled, remoteUser, loginUser.getUserName());
 
-            // Retrieve proxy user UGI from the UGI of the logged in user
-            if (isUserImpersonationEnabled || isConstrainedDelegationEnabled) {
-                LOG.debug("Creating proxy user = {}", remoteUser);
-                userGroupInformation = ugiProvider.createProxyUser(remoteUser, loginUser);
-            } else {
-                LOG.debug("Creating remote user = {}", remoteUser);
-                userGroupInformation = ugiProvider.createRemoteUser(remoteUser, loginUser, isSecurityEnabled);
-            }
+            // Retrieve proxy user UGI from the UGI of the logged in user, reusing the UGI of an earlier request if cached
+            final String remoteUserName = remoteUser;
+            final boolean isProxyUser = isUserImpersonationEnabled || isConstrainedDelegationEnabled;
+            UGICache.Key key = new UGICache.Key(configDirectory, serverName, remoteUserName, isProxyUser, isSecurityEnabled, loginUser);
+            ugiEntry = ugiCache.acquire(key, () -> {
+                if (isProxyUser) {
+                    LOG.debug("Creating proxy user = {}", remoteUserName);
+                    return ugiProvider.createProxyUser(remoteUserName, loginUser);
+                }
+                LOG.debug("Creating remote user = {}", remoteUserName);
+                return ugiProvider.createRemoteUser(remoteUserName, loginUser, isSecurityEnabled);
+            });
+            UserGroupInformation userGroupInformation = ugiEntry.getValue();
 
             LOG.debug("Retrieved proxy user {} for server {}", userGroupInformation, serverName);
             LOG.debug("Performing request for gpdb_user = {} as [remote_user={}, service_user={}, login_user={}] with{} impersonation",
@@ -124,13 +134,9 @@ public class BaseSecurityService implements SecurityService {
             exceptionDetected = true;
             throw e;
         } finally {
-            LOG.debug("Releasing UGI resources. {}", exceptionDetected ? " Exception while processing." : "");
-            try {
-                if (userGroupInformation != null) {
-                    ugiProvider.destroy(userGroupInformation);
-                }
-            } catch (Throwable t) {
-                LOG.warn("Error releasing UGI resources, ignored.", t);
+            LOG.debug("Releasing UGI. {}", exceptionDetected ? " Exception while processing." : "");
+            if (ugiEntry != null) {
+                ugiCache.release(ugiEntry);
             }
         }
     }
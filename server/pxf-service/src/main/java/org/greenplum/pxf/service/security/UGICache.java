@@ -0,0 +1,150 @@
+package org.greenplum.pxf.service.security;
+
+import org.apache.hadoop.security.UserGroupInformation;
+import org.greenplum.pxf.api.utilities.ReferenceCountingCache;
+import org.greenplum.pxf.api.utilities.ReferenceCountingCache.Entry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the {@link UserGroupInformation} created for a request, so that
+ * later requests for the same server and users reuse it, along with the
+ * Hadoop {@link org.apache.hadoop.fs.FileSystem} instances and connections
+ * cached for it. A UGI is shared by all the concurrent requests that acquire
+ * it, and its filesystem resources are only released once it has not been
+ * used for the expiration time, or when it is evicted because the cache is
+ * full. Expired entries are also removed periodically, so that idle UGIs do
+ * not keep their credentials and filesystems when no request comes in.
+ * <p>
+ * Since filesystems are cached for a UGI, requests that reuse a UGI also
+ * reuse the filesystems created with the configuration of the first request,
+ * so the cache is disabled by default.
+ */
+@Component
+class UGICache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UGICache.class);
+
+    private final ReferenceCountingCache<Key, UserGroupInformation> cache;
+
+    @Autowired
+    UGICache(UGIProvider ugiProvider,
+             @Value("${pxf.ugi-cache.enabled:false}") boolean enabled,
+             @Value("${pxf.ugi-cache.max-size:1000}") int maxSize,
+             @Value("${pxf.ugi-cache.expiration:5m}") Duration expiration) {
+        this(ugiProvider, enabled, maxSize, expiration, System::nanoTime);
+    }
+
+    UGICache(UGIProvider ugiProvider, boolean enabled, int maxSize, Duration expiration, LongSupplier nanoTime) {
+        this.cache = new ReferenceCountingCache<>("UGI", enabled, maxSize, expiration,
+                ugi -> true, ugiProvider::destroy, nanoTime);
+        if (enabled) {
+            LOG.info("Caching up to {} UGIs with entry expiration of {} ms", maxSize, expiration.toMillis());
+        }
+    }
+
+    /**
+     * Returns the UGI for the given key, creating it when no UGI is cached
+     * for the key. Every call must be followed by a call to
+     * {@link #release(Entry)} once the UGI is no longer used by the request.
+     *
+     * @param key     the key of the UGI
+     * @param creator creates the UGI when it is not cached
+     * @return the cache entry holding the UGI
+     */
+    Entry<UserGroupInformation> acquire(Key key, Supplier<UserGroupInformation> creator) {
+        Entry<UserGroupInformation> entry = cache.acquire(key);
+        if (entry != null) {
+            return entry;
+        }
+        // created without holding the lock, as creating a UGI can take a while (e.g. looking up groups or logging in),
+        // a UGI created concurrently by another request for the same key is used instead
+        return cache.add(key, creator.get());
+    }
+
+    /**
+     * Releases a UGI acquired with {@link #acquire(Key, Supplier)}. The
+     * filesystem resources of the UGI are released right away when the UGI
+     * is not cached.
+     *
+     * @param entry the cache entry holding the UGI
+     */
+    void release(Entry<UserGroupInformation> entry) {
+        cache.release(entry);
+    }
+
+    /**
+     * Removes the cached UGIs that have not been used for the expiration
+     * time and releases their resources.
+     */
+    @Scheduled(fixedDelayString = "${pxf.ugi-cache.cleanup-interval:PT1M}")
+    void evictExpiredEntries() {
+        cache.evictExpiredEntries();
+    }
+
+    /**
+     * @return the number of cached UGIs
+     */
+    int size() {
+        return cache.size();
+    }
+
+    /**
+     * Identifies a UGI by the server, the user presented to the server, and
+     * the login user the UGI is created from. The login UGI is compared by
+     * identity, so that UGIs created from an earlier login are not reused
+     * after a new login.
+     */
+    static class Key {
+
+        private final String configDirectory;
+        private final String serverName;
+        private final String remoteUser;
+        private final boolean proxy;
+        private final boolean securityEnabled;
+        private final UserGroupInformation loginUser;
+
+        Key(String configDirectory, String serverName, String remoteUser, boolean proxy,
+            boolean securityEnabled, UserGroupInformation loginUser) {
+            this.configDirectory = configDirectory;
+            this.serverName = serverName;
+            this.remoteUser = remoteUser;
+            this.proxy = proxy;
+            this.securityEnabled = securityEnabled;
+            this.loginUser = loginUser;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key that = (Key) o;
+            return proxy == that.proxy &&
+                    securityEnabled == that.securityEnabled &&
+                    Objects.equals(configDirectory, that.configDirectory) &&
+                    Objects.equals(serverName, that.serverName) &&
+                    Objects.equals(remoteUser, that.remoteUser) &&
+                    loginUser == that.loginUser;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(configDirectory, serverName, remoteUser, proxy, securityEnabled, System.identityHashCode(loginUser));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("server=%s, config=%s, remote_user=%s, login_user=%s",
+                    serverName, configDirectory, remoteUser, loginUser != null ? loginUser.getUserName() : null);
+        }
+    }
+}
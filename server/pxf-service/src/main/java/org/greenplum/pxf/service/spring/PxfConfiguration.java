@@ -15,22 +15,34 @@ import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.TaskDecorator;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
  * Configures the {@link AsyncTaskExecutor} for tasks that will stream data to
- * clients
+ * clients, and enables the scheduled maintenance tasks of PXF's caches
  */
 @Configuration
 @EnableConfigurationProperties(PxfServerProperties.class)
+@EnableScheduling
 public class PxfConfiguration implements WebMvcConfigurer {
 
     /**
      * Bean name of PXF's {@link TaskExecutor}.
      */
     public static final String PXF_RESPONSE_STREAM_TASK_EXECUTOR = "pxfResponseStreamTaskExecutor";
+
+    /**
+     * Bean name of PXF's {@link TaskExecutor} for helper tasks of read requests.
+     */
+    public static final String PXF_READ_TASK_EXECUTOR = "pxfReadTaskExecutor";
+
+    /**
+     * Bean name of PXF's {@link TaskExecutor} for helper tasks of plugins.
+     */
+    public static final String PXF_PLUGIN_TASK_EXECUTOR = PxfServerProperties.PLUGIN_TASK_EXECUTOR;
     private static final Logger LOG = LoggerFactory.getLogger(PxfConfiguration.class);
 
     private final ListableBeanFactory beanFactory;
@@ -67,7 +79,40 @@ public class PxfConfiguration implements WebMvcConfigurer {
                                                              ObjectProvider<TaskExecutorCustomizer> taskExecutorCustomizers,
                                                              ObjectProvider<TaskDecorator> taskDecorator) {
 
-        TaskExecutionProperties properties = pxfServerProperties.getTask();
+        return buildTaskExecutor(pxfServerProperties.getTask(), taskExecutorCustomizers, taskDecorator);
+    }
+
+    /**
+     * Configures and builds the {@link ThreadPoolTaskExecutor} that runs
+     * helper tasks on behalf of read requests, such as writing the pipelined
+     * response stream.
+     *
+     * @return the {@link ThreadPoolTaskExecutor}
+     */
+    @Bean(name = PXF_READ_TASK_EXECUTOR)
+    public ThreadPoolTaskExecutor pxfReadTaskExecutor(PxfServerProperties pxfServerProperties,
+                                                      ObjectProvider<TaskExecutorCustomizer> taskExecutorCustomizers,
+                                                      ObjectProvider<TaskDecorator> taskDecorator) {
+        return buildTaskExecutor(pxfServerProperties.getRead().getTask(), taskExecutorCustomizers, taskDecorator);
+    }
+
+    /**
+     * Configures and builds the {@link ThreadPoolTaskExecutor} shared by the
+     * helper tasks of plugins, such as compressing written data in parallel,
+     * so that the threads used by all requests together are bounded.
+     *
+     * @return the {@link ThreadPoolTaskExecutor}
+     */
+    @Bean(name = PXF_PLUGIN_TASK_EXECUTOR)
+    public ThreadPoolTaskExecutor pxfPluginTaskExecutor(PxfServerProperties pxfServerProperties,
+                                                        ObjectProvider<TaskExecutorCustomizer> taskExecutorCustomizers,
+                                                        ObjectProvider<TaskDecorator> taskDecorator) {
+        return buildTaskExecutor(pxfServerProperties.getPluginTask(), taskExecutorCustomizers, taskDecorator);
+    }
+
+    private ThreadPoolTaskExecutor buildTaskExecutor(TaskExecutionProperties properties,
+                                                     ObjectProvider<TaskExecutorCustomizer> taskExecutorCustomizers,
+                                                     ObjectProvider<TaskDecorator> taskDecorator) {
         TaskExecutionProperties.Pool pool = properties.getPool();
         TaskExecutorBuilder builder = new TaskExecutorBuilder();
         builder = builder.queueCapacity(pool.getQueueCapacity());
@@ -6,6 +6,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.greenplum.pxf.api.configuration.PxfServerProperties.PXF_BASE_PROPERTY;
 
@@ -14,12 +15,55 @@ import static org.greenplum.pxf.api.configuration.PxfServerProperties.PXF_BASE_P
  * {@link TaskRejectedException} occurs. The error messages provide hints on
  * how to overcome {@link TaskRejectedException} errors, by suggesting tuning
  * parameters for PXF.
+ * <p>
+ * Requests that run several long-lived tasks at once can reserve threads of
+ * the pool up front, so that the total number of such tasks stays within the
+ * maximum pool size regardless of how many requests are being served.
  */
 public class PxfThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
 
     private static final String PXF_SERVER_PROCESSING_CAPACITY_EXCEEDED_MESSAGE = "PXF Server processing capacity exceeded.";
     private static final String PXF_SERVER_PROCESSING_CAPACITY_EXCEEDED_HINT = "Consider increasing the values of 'pxf.task.pool.max-size' and/or 'pxf.task.pool.queue-capacity' in '%s/conf/pxf-application.properties'";
 
+    private final AtomicInteger reservedThreads = new AtomicInteger();
+
+    /**
+     * Reserves up to the requested number of threads of the pool. Fewer
+     * threads, possibly none, are granted when other reservations already
+     * take up most of the maximum pool size. The granted threads must be
+     * returned with {@link #releaseThreads(int)}.
+     *
+     * @param requested the number of threads to reserve
+     * @return the number of threads granted
+     */
+    public int reserveThreads(int requested) {
+        while (true) {
+            int reserved = reservedThreads.get();
+            int granted = Math.max(0, Math.min(requested, getMaxPoolSize() - reserved));
+            if (granted == 0 || reservedThreads.compareAndSet(reserved, reserved + granted)) {
+                return granted;
+            }
+        }
+    }
+
+    /**
+     * Returns threads previously granted by {@link #reserveThreads(int)}.
+     *
+     * @param count the number of threads to return
+     */
+    public void releaseThreads(int count) {
+        reservedThreads.addAndGet(-count);
+    }
+
+    /**
+     * Returns the number of threads currently reserved.
+     *
+     * @return the number of reserved threads
+     */
+    public int getReservedThreads() {
+        return reservedThreads.get();
+    }
+
     /**
      * Submits a {@link Runnable} to the executor. Handles
      * {@link TaskRejectedException} errors by enhancing error reporting.
@@ -22,13 +22,18 @@ package org.greenplum.pxf.service;
 
 import org.apache.commons.io.IOUtils;
 import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.batch.ColumnBatch;
+import org.greenplum.pxf.api.batch.ColumnVector;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.io.GPDBWritable;
 import org.greenplum.pxf.api.model.OutputFormat;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
@@ -37,6 +42,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class BridgeInputBuilderTest {
@@ -119,10 +125,61 @@ public class BridgeInputBuilderTest {
         verifyRecord(record, empty);
     }
 
+    @Test
+    public void makeInputGPDBWritable() throws Exception {
+        prepareInput(serializeRecords(3));
+
+        for (int i = 0; i < 3; i++) {
+            List<OneField> record = inputBuilder.makeInput(StandardCharsets.UTF_8, OutputFormat.GPDBWritable, inputStream);
+            assertEquals(3, record.size());
+            assertEquals(DataType.INTEGER.getOID(), record.get(0).type);
+            assertEquals(i, record.get(0).val);
+            assertEquals(DataType.TEXT.getOID(), record.get(1).type);
+            assertEquals("row " + i, record.get(1).val);
+            assertEquals(DataType.FLOAT8.getOID(), record.get(2).type);
+            assertNull(record.get(2).val);
+        }
+        assertNull(inputBuilder.makeInput(StandardCharsets.UTF_8, OutputFormat.GPDBWritable, inputStream));
+    }
+
+    @Test
+    public void makeInputBatch() throws Exception {
+        prepareInput(serializeRecords(5));
+        ColumnBatch batch = new ColumnBatch(3, 2);
+
+        assertEquals(2, inputBuilder.makeInputBatch(StandardCharsets.UTF_8, inputStream, batch));
+        assertEquals(2, batch.getSize());
+        assertEquals(DataType.INTEGER, batch.getColumn(0).getType());
+        assertEquals(1, batch.getColumn(0).getLong(1));
+        assertEquals(2, inputBuilder.makeInputBatch(StandardCharsets.UTF_8, inputStream, batch));
+        assertEquals(3, batch.getColumn(0).getLong(1));
+        ColumnVector text = batch.getColumn(1);
+        assertEquals("row 3", new String(text.getArena().getBuffer(), text.getOffset(1), text.getLength(1), StandardCharsets.UTF_8));
+        assertTrue(batch.getColumn(2).isNull(0));
+
+        assertEquals(1, inputBuilder.makeInputBatch(StandardCharsets.UTF_8, inputStream, batch));
+        assertEquals(1, batch.getSize());
+        assertEquals(4, batch.getColumn(0).getLong(0));
+        assertEquals(0, inputBuilder.makeInputBatch(StandardCharsets.UTF_8, inputStream, batch));
+        assertEquals(0, batch.getSize());
+    }
+
     /*
      * helpers functions
      */
 
+    private byte[] serializeRecords(int count) throws IOException {
+        int[] schema = {DataType.INTEGER.getOID(), DataType.TEXT.getOID(), DataType.FLOAT8.getOID()};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < count; i++) {
+            GPDBWritable writable = new GPDBWritable(schema, StandardCharsets.UTF_8);
+            writable.setInt(0, i);
+            writable.setString(1, "row " + i);
+            writable.write(new DataOutputStream(out));
+        }
+        return out.toByteArray();
+    }
+
     @AfterEach
     public void cleanUp() throws IOException {
         if (inputStream != null) {
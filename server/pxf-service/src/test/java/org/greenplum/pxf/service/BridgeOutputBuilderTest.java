@@ -32,7 +32,9 @@ import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -79,8 +81,7 @@ public class BridgeOutputBuilderTest {
         addColumn(context, 14, DataType.NUMERIC                 , "col14");
         addColumn(context, 15, DataType.UUID                    , "col15");
 
-        BridgeOutputBuilder builder = makeBuilder(context);
-        output = builder.makeGPDBWritableOutput();
+        BridgeOutputBuilder builder = makeBuilder(context, OutputFormat.GPDBWritable);
 
         List<OneField> recFields = Arrays.asList(
                 new OneField(DataType.BOOLEAN.getOID()                 , true),
@@ -99,24 +100,24 @@ public class BridgeOutputBuilderTest {
                 new OneField(DataType.TIMESTAMP_WITH_TIME_ZONE.getOID(), Timestamp.valueOf("2022-06-10 11:44:55.123456")),
                 new OneField(DataType.NUMERIC.getOID()                 , "9876.54321"),
                 new OneField(DataType.UUID.getOID()                    , "667b97ba-38d0-4b91-9c7d-1f8b30a75c6e"));
-        builder.fillGPDBWritable(recFields);
+        output = readGPDBWritable(builder.makeOutput(recFields));
 
         assertTrue(output.getBoolean(0));
         assertArrayEquals(new byte[]{0, 1}, output.getBytes(1));
         assertEquals(1L, output.getLong(2));
         assertEquals((short) 2, output.getShort(3));
         assertEquals(3, output.getInt(4));
-        assertEquals("text-value\0", output.getString(5));
+        assertEquals("text-value", output.getString(5));
         assertEquals(4.5f, output.getFloat(6));
         assertEquals(6.7d, output.getDouble(7));
-        assertEquals("char-value\0", output.getString(8));
-        assertEquals("varchar-value\0", output.getString(9));
-        assertEquals("1994-08-03\0", output.getString(10));
-        assertEquals("10:11:12\0", output.getString(11));
-        assertEquals("2022-06-10 11:44:33.123456\0", output.getString(12));
-        assertEquals("2022-06-10 11:44:55.123456\0", output.getString(13));
-        assertEquals("9876.54321\0", output.getString(14));
-        assertEquals("667b97ba-38d0-4b91-9c7d-1f8b30a75c6e\0", output.getString(15));
+        assertEquals("char-value", output.getString(8));
+        assertEquals("varchar-value", output.getString(9));
+        assertEquals("1994-08-03", output.getString(10));
+        assertEquals("10:11:12", output.getString(11));
+        assertEquals("2022-06-10 11:44:33.123456", output.getString(12));
+        assertEquals("2022-06-10 11:44:55.123456", output.getString(13));
+        assertEquals("9876.54321", output.getString(14));
+        assertEquals("667b97ba-38d0-4b91-9c7d-1f8b30a75c6e", output.getString(15));
     }
 
     @Test
@@ -141,8 +142,7 @@ public class BridgeOutputBuilderTest {
         addColumn(context, 14, DataType.NUMERIC                 , "col14");
         addColumn(context, 15, DataType.UUID                    , "col15");
 
-        BridgeOutputBuilder builder = makeBuilder(context);
-        output = builder.makeGPDBWritableOutput();
+        BridgeOutputBuilder builder = makeBuilder(context, OutputFormat.GPDBWritable);
 
         // in OneField objects use DataType.TEXT and String values for primitive types that are serialized as strings
         List<OneField> recFields = Arrays.asList(
@@ -162,24 +162,24 @@ public class BridgeOutputBuilderTest {
                 new OneField(DataType.TEXT.getOID()     , "2022-06-10 11:44:55.123456"),
                 new OneField(DataType.TEXT.getOID()     , "9876.54321"),
                 new OneField(DataType.TEXT.getOID()     , "667b97ba-38d0-4b91-9c7d-1f8b30a75c6e"));
-        builder.fillGPDBWritable(recFields);
+        output = readGPDBWritable(builder.makeOutput(recFields));
 
         assertTrue(output.getBoolean(0));
         assertArrayEquals(new byte[]{0, 1}, output.getBytes(1));
         assertEquals(1L, output.getLong(2));
         assertEquals((short) 2, output.getShort(3));
         assertEquals(3, output.getInt(4));
-        assertEquals("text-value\0", output.getString(5));
+        assertEquals("text-value", output.getString(5));
         assertEquals(4.5f, output.getFloat(6));
         assertEquals(6.7d, output.getDouble(7));
-        assertEquals("char-value\0", output.getString(8));
-        assertEquals("varchar-value\0", output.getString(9));
-        assertEquals("1994-08-03\0", output.getString(10));
-        assertEquals("10:11:12\0", output.getString(11));
-        assertEquals("2022-06-10 11:44:33.123456\0", output.getString(12));
-        assertEquals("2022-06-10 11:44:55.123456\0", output.getString(13));
-        assertEquals("9876.54321\0", output.getString(14));
-        assertEquals("667b97ba-38d0-4b91-9c7d-1f8b30a75c6e\0", output.getString(15));
+        assertEquals("char-value", output.getString(8));
+        assertEquals("varchar-value", output.getString(9));
+        assertEquals("1994-08-03", output.getString(10));
+        assertEquals("10:11:12", output.getString(11));
+        assertEquals("2022-06-10 11:44:33.123456", output.getString(12));
+        assertEquals("2022-06-10 11:44:55.123456", output.getString(13));
+        assertEquals("9876.54321", output.getString(14));
+        assertEquals("667b97ba-38d0-4b91-9c7d-1f8b30a75c6e", output.getString(15));
     }
 
     @Test
@@ -240,7 +240,7 @@ public class BridgeOutputBuilderTest {
         RequestContext context = new RequestContext();
         addColumn(context, 0, DataType.INTEGER, "col0");
         BridgeOutputBuilder builder = makeBuilder(context);
-        output = builder.makeGPDBWritableOutput();
+        builder.makeGPDBWritableOutput();
 
         OneField unSupportedField = new OneField(UN_SUPPORTED_TYPE, (byte) 0);
 
@@ -259,8 +259,7 @@ public class BridgeOutputBuilderTest {
         addColumn(context, 2, DataType.INTEGER, "col2");
         addColumn(context, 3, DataType.INTEGER, "col3");
 
-        BridgeOutputBuilder builder = makeBuilder(context);
-        output = builder.makeGPDBWritableOutput();
+        BridgeOutputBuilder builder = makeBuilder(context, OutputFormat.GPDBWritable);
 
         /* all four fields */
         List<OneField> complete = Arrays.asList(
@@ -268,7 +267,7 @@ public class BridgeOutputBuilderTest {
                         DataType.INTEGER.getOID(), 20), new OneField(
                         DataType.INTEGER.getOID(), 30), new OneField(
                         DataType.INTEGER.getOID(), 40));
-        builder.fillGPDBWritable(complete);
+        output = readGPDBWritable(builder.makeOutput(complete));
         assertEquals(output.getColType().length, 4);
         assertEquals(output.getInt(0), Integer.valueOf(10));
         assertEquals(output.getInt(1), Integer.valueOf(20));
@@ -280,7 +279,7 @@ public class BridgeOutputBuilderTest {
                 new OneField(DataType.INTEGER.getOID(), 10), new OneField(
                         DataType.INTEGER.getOID(), 20));
         Exception e = assertThrows(BadRecordException.class,
-                () -> builder.fillGPDBWritable(incomplete),
+                () -> builder.makeOutput(incomplete),
                 "testRecordBiggerThanSchema should have failed on - Record has 2 fields but the schema size is 4");
         assertEquals("Record has 2 fields but the schema size is 4", e.getMessage());
     }
@@ -294,8 +293,7 @@ public class BridgeOutputBuilderTest {
         addColumn(context, 2, DataType.INTEGER, "col2");
         addColumn(context, 3, DataType.INTEGER, "col3");
 
-        BridgeOutputBuilder builder = makeBuilder(context);
-        output = builder.makeGPDBWritableOutput();
+        BridgeOutputBuilder builder = makeBuilder(context, OutputFormat.GPDBWritable);
 
         /* five fields instead of four */
         List<OneField> complete = Arrays.asList(
@@ -305,7 +303,7 @@ public class BridgeOutputBuilderTest {
                         DataType.INTEGER.getOID(), 40), new OneField(
                         DataType.INTEGER.getOID(), 50));
         Exception e = assertThrows(BadRecordException.class,
-                () -> builder.fillGPDBWritable(complete),
+                () -> builder.makeOutput(complete),
                 "testRecordBiggerThanSchema should have failed on - Record has 5 fields but the schema size is 4");
         assertEquals("Record has 5 fields but the schema size is 4", e.getMessage());
     }
@@ -374,8 +372,7 @@ public class BridgeOutputBuilderTest {
         addColumn(context, 2, DataType.INTEGER, "col2");
         addColumn(context, 3, DataType.INTEGER, "col3");
 
-        BridgeOutputBuilder builder = makeBuilder(context);
-        output = builder.makeGPDBWritableOutput();
+        BridgeOutputBuilder builder = makeBuilder(context, OutputFormat.GPDBWritable);
 
         /* last field is REAL while schema requires INT */
         List<OneField> complete = Arrays.asList(
@@ -384,11 +381,37 @@ public class BridgeOutputBuilderTest {
                         DataType.INTEGER.getOID(), 30), new OneField(
                         DataType.REAL.getOID(), 40.0));
         Exception e = assertThrows(BadRecordException.class,
-                () -> builder.fillGPDBWritable(complete),
+                () -> builder.makeOutput(complete),
                 "testFieldTypeMismatch should have failed on - For field 3 schema requires type INTEGER but input record has type REAL");
         assertEquals("For field col3 schema requires type INTEGER but input record has type REAL", e.getMessage());
     }
 
+    @Test
+    public void testVectorizedGPDBWritableOutput() throws Exception {
+        RequestContext context = new RequestContext();
+        addColumn(context, 0, DataType.BIGINT, "col0");
+        addColumn(context, 1, DataType.TEXT, "col1");
+
+        BridgeOutputBuilder builder = makeBuilder(context, OutputFormat.GPDBWritable);
+        List<List<OneField>> batch = Arrays.asList(
+                Arrays.asList(new OneField(DataType.BIGINT.getOID(), 1L), new OneField(DataType.TEXT.getOID(), "one")),
+                Arrays.asList(new OneField(DataType.BIGINT.getOID(), null), new OneField(DataType.TEXT.getOID(), "two")),
+                Arrays.asList(new OneField(DataType.BIGINT.getOID(), 3L), new OneField(DataType.TEXT.getOID(), null)));
+
+        // every record of the batch has its own output, even though they share the buffer of the encoder
+        List<Writable> outputQueue = builder.makeVectorizedOutput(batch);
+        assertEquals(3, outputQueue.size());
+        output = readGPDBWritable(outputQueue.subList(0, 1));
+        assertEquals(1L, output.getLong(0));
+        assertEquals("one", output.getString(1));
+        output = readGPDBWritable(outputQueue.subList(1, 2));
+        assertNull(output.getLong(0));
+        assertEquals("two", output.getString(1));
+        output = readGPDBWritable(outputQueue.subList(2, 3));
+        assertEquals(3L, output.getLong(0));
+        assertNull(output.getString(1));
+    }
+
     @Test
     public void convertTextDataToLines() throws Exception {
 
@@ -534,12 +557,24 @@ public class BridgeOutputBuilderTest {
         context.getTupleDescription().add(column);
     }
 
+    private GPDBWritable readGPDBWritable(List<Writable> outputQueue) throws IOException {
+        assertEquals(1, outputQueue.size());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        outputQueue.get(0).write(new DataOutputStream(bytes));
+        return new GPDBWritable(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
     private BridgeOutputBuilder makeBuilder(RequestContext context) {
+        return makeBuilder(context, OutputFormat.TEXT);
+    }
+
+    private BridgeOutputBuilder makeBuilder(RequestContext context, OutputFormat outputFormat) {
         System.setProperty("greenplum.alignment", "8");
 
         context.setSegmentId(-44);
         context.setTotalSegments(2);
-        context.setOutputFormat(OutputFormat.TEXT);
+        context.setOutputFormat(outputFormat);
+        context.setDatabaseEncoding(StandardCharsets.UTF_8);
         context.setHost("my://bags");
         context.setPort(-8020);
         context.setAccessor("are");
@@ -0,0 +1,228 @@
+package org.greenplum.pxf.service;
+
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.batch.ColumnBatch;
+import org.greenplum.pxf.api.error.BadRecordException;
+import org.greenplum.pxf.api.io.BufferWritable;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.api.model.OutputFormat;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ColumnBatchOutputBuilderTest {
+
+    private static final DataType[] TYPES = {
+            DataType.INTEGER, DataType.FLOAT8, DataType.REAL, DataType.BIGINT, DataType.SMALLINT,
+            DataType.BOOLEAN, DataType.BYTEA, DataType.VARCHAR, DataType.BPCHAR, DataType.TEXT,
+            DataType.NUMERIC, DataType.DATE, DataType.VARCHAR
+    };
+
+    private RequestContext context;
+
+    @BeforeEach
+    public void setup() {
+        System.setProperty("greenplum.alignment", "8");
+
+        context = new RequestContext();
+        context.setOutputFormat(OutputFormat.GPDBWritable);
+        context.setDatabaseEncoding(StandardCharsets.UTF_8);
+        context.setFormat("CSV");
+        for (int i = 0; i < TYPES.length; i++) {
+            context.getTupleDescription().add(new ColumnDescriptor("col" + i, TYPES[i].getOID(), i, TYPES[i].toString(), null));
+        }
+    }
+
+    @Test
+    public void testGPDBWritableMatchesBridgeOutputBuilder() throws Exception {
+        assertMatchesBridgeOutputBuilder();
+    }
+
+    @Test
+    public void testGPDBWritableMatchesBridgeOutputBuilderWithDatabaseEncoding() throws Exception {
+        context.setDatabaseEncoding(StandardCharsets.ISO_8859_1);
+        assertMatchesBridgeOutputBuilder();
+    }
+
+    @Test
+    public void testCSVMatchesBridgeOutputBuilder() throws Exception {
+        context.setOutputFormat(OutputFormat.TEXT);
+        assertMatchesBridgeOutputBuilder();
+    }
+
+    @Test
+    public void testTextSingleColumn() throws Exception {
+        context.setOutputFormat(OutputFormat.TEXT);
+        context.getTupleDescription().clear();
+        context.getTupleDescription().add(new ColumnDescriptor("col0", DataType.TEXT.getOID(), 0, "text", null));
+
+        ColumnBatchOutputBuilder builder = new ColumnBatchOutputBuilder(context);
+        ColumnBatch batch = builder.getBatch();
+        batch.reset(2);
+        batch.getColumn(0).reset(DataType.TEXT);
+        batch.getColumn(0).setString(0, "a,\"b\"");
+        batch.getColumn(0).setNull(1);
+        builder.beginBatch();
+
+        // a single text value is sent as is, the same way BridgeOutputBuilder does
+        assertEquals("a,\"b\"\n", new String(serialize(builder.next()), StandardCharsets.UTF_8));
+        assertEquals("\n", new String(serialize(builder.next()), StandardCharsets.UTF_8));
+        assertNull(builder.next());
+
+        context.getTupleDescription().set(0, new ColumnDescriptor("col0", DataType.BYTEA.getOID(), 0, "bytea", null));
+        builder = new ColumnBatchOutputBuilder(context);
+        batch = builder.getBatch();
+        batch.reset(1);
+        batch.getColumn(0).reset(DataType.BYTEA);
+        batch.getColumn(0).setBytes(0, new byte[]{1, 2}, 0, 2);
+        builder.beginBatch();
+
+        Writable output = builder.next();
+        assertTrue(output instanceof BufferWritable);
+        assertArrayEquals(new byte[]{1, 2}, serialize(output));
+    }
+
+    @Test
+    public void testTypeMismatch() throws Exception {
+        ColumnBatchOutputBuilder builder = new ColumnBatchOutputBuilder(context);
+        fillBatch(builder.getBatch());
+        builder.getBatch().getColumn(3).reset(DataType.INTEGER);
+
+        BadRecordException e = assertThrows(BadRecordException.class, builder::beginBatch);
+        assertEquals("For field col3 schema requires type BIGINT but input record has type INTEGER", e.getMessage());
+        // none of the rows of the batch are returned
+        assertNull(builder.next());
+    }
+
+    @Test
+    public void testStringTypesMatch() throws Exception {
+        ColumnBatchOutputBuilder builder = new ColumnBatchOutputBuilder(context);
+        fillBatch(builder.getBatch());
+        // a numeric value can be sent into a text column
+        builder.getBatch().getColumn(9).reset(DataType.NUMERIC);
+        builder.beginBatch();
+        assertEquals(2, countRows(builder));
+    }
+
+    @Test
+    public void testUnsupportedSchemaTypeRequiresText() throws Exception {
+        context.getTupleDescription().set(0, new ColumnDescriptor("col0", -1, 0, "unknown", null));
+        ColumnBatchOutputBuilder builder = new ColumnBatchOutputBuilder(context);
+        fillBatch(builder.getBatch());
+
+        BadRecordException e = assertThrows(BadRecordException.class, builder::beginBatch);
+        assertEquals("For field col0 schema requires type UNSUPPORTED_TYPE but input record has type INTEGER", e.getMessage());
+
+        builder.getBatch().getColumn(0).reset(DataType.TEXT);
+        builder.getBatch().getColumn(0).setString(0, "1");
+        builder.getBatch().getColumn(0).setString(1, "2");
+        builder.beginBatch();
+        assertEquals(2, countRows(builder));
+    }
+
+    private void assertMatchesBridgeOutputBuilder() throws Exception {
+        ColumnBatchOutputBuilder builder = new ColumnBatchOutputBuilder(context);
+        fillBatch(builder.getBatch());
+        builder.beginBatch();
+
+        BridgeOutputBuilder bridgeOutputBuilder = new BridgeOutputBuilder(context);
+        List<List<OneField>> records = Arrays.asList(
+                Arrays.asList(
+                        new OneField(DataType.INTEGER.getOID(), 7),
+                        new OneField(DataType.FLOAT8.getOID(), 1.5d),
+                        new OneField(DataType.REAL.getOID(), 0.1f),
+                        new OneField(DataType.BIGINT.getOID(), -9L),
+                        new OneField(DataType.SMALLINT.getOID(), (short) 3),
+                        new OneField(DataType.BOOLEAN.getOID(), true),
+                        new OneField(DataType.BYTEA.getOID(), new byte[]{0, -1}),
+                        new OneField(DataType.VARCHAR.getOID(), "välue"),
+                        new OneField(DataType.BPCHAR.getOID(), "value"),
+                        new OneField(DataType.TEXT.getOID(), "va\"lue"),
+                        new OneField(DataType.NUMERIC.getOID(), "12.50"),
+                        new OneField(DataType.DATE.getOID(), Date.valueOf("1994-08-03")),
+                        new OneField(DataType.VARCHAR.getOID(), null)),
+                Arrays.asList(
+                        new OneField(DataType.INTEGER.getOID(), null),
+                        new OneField(DataType.FLOAT8.getOID(), null),
+                        new OneField(DataType.REAL.getOID(), 3f),
+                        new OneField(DataType.BIGINT.getOID(), null),
+                        new OneField(DataType.SMALLINT.getOID(), null),
+                        new OneField(DataType.BOOLEAN.getOID(), false),
+                        new OneField(DataType.BYTEA.getOID(), null),
+                        new OneField(DataType.VARCHAR.getOID(), ""),
+                        new OneField(DataType.BPCHAR.getOID(), null),
+                        new OneField(DataType.TEXT.getOID(), null),
+                        new OneField(DataType.NUMERIC.getOID(), null),
+                        new OneField(DataType.DATE.getOID(), null),
+                        new OneField(DataType.VARCHAR.getOID(), "x")));
+
+        for (Writable expected : bridgeOutputBuilder.makeVectorizedOutput(records)) {
+            assertArrayEquals(serialize(expected), serialize(builder.next()));
+        }
+        assertNull(builder.next());
+    }
+
+    private void fillBatch(ColumnBatch batch) {
+        batch.reset(2);
+        for (int i = 0; i < TYPES.length; i++) {
+            batch.getColumn(i).reset(TYPES[i]);
+        }
+        batch.getColumn(0).setLong(0, 7);
+        batch.getColumn(1).setDouble(0, 1.5d);
+        batch.getColumn(2).setDouble(0, 0.1f);
+        batch.getColumn(3).setLong(0, -9L);
+        batch.getColumn(4).setLong(0, 3);
+        batch.getColumn(5).setLong(0, 1);
+        batch.getColumn(6).setBytes(0, new byte[]{0, -1}, 0, 2);
+        batch.getColumn(7).setString(0, "välue");
+        batch.getColumn(8).setString(0, "value");
+        batch.getColumn(9).setString(0, "va\"lue");
+        batch.getColumn(10).setString(0, "12.50");
+        batch.getColumn(11).setString(0, "1994-08-03");
+        batch.getColumn(12).setNull(0);
+
+        batch.getColumn(0).setNull(1);
+        batch.getColumn(1).setNull(1);
+        batch.getColumn(2).setDouble(1, 3f);
+        batch.getColumn(3).setNull(1);
+        batch.getColumn(4).setNull(1);
+        batch.getColumn(5).setLong(1, 0);
+        batch.getColumn(6).setNull(1);
+        batch.getColumn(7).setString(1, "");
+        batch.getColumn(8).setNull(1);
+        batch.getColumn(9).setNull(1);
+        batch.getColumn(10).setNull(1);
+        batch.getColumn(11).setNull(1);
+        batch.getColumn(12).setString(1, "x");
+    }
+
+    private int countRows(ColumnBatchOutputBuilder builder) {
+        int count = 0;
+        while (builder.next() != null) {
+            count++;
+        }
+        return count;
+    }
+
+    private byte[] serialize(Writable writable) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writable.write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+}
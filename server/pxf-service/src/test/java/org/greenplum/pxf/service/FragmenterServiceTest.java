@@ -8,7 +8,9 @@ import org.greenplum.pxf.api.examples.DemoFragmentMetadata;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.Fragmenter;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.model.VersionedFragmenter;
 import org.greenplum.pxf.api.utilities.FragmenterCacheFactory;
+import org.greenplum.pxf.api.utilities.FragmenterCacheFactory.VersionedFragments;
 import org.greenplum.pxf.service.utilities.BasePluginFactory;
 import org.greenplum.pxf.service.utilities.GSSFailureHandler;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,6 +23,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -34,6 +37,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -46,7 +50,11 @@ class FragmenterServiceTest {
     @Mock private Fragmenter fragmenter1;
     @Mock private Fragmenter fragmenter2;
     @Mock private Fragmenter fragmenter3;
+    @Mock private VersionedFragmenter versionedFragmenter1;
+    @Mock private VersionedFragmenter versionedFragmenter2;
+    private FragmenterCacheFactory fragmenterCacheFactory;
     private Cache<String, List<Fragment>> fragmentCache;
+    private Cache<String, VersionedFragments> sharedFragmentCache;
     private FakeTicker fakeTicker;
     private FragmenterService fragmenterService;
     private Configuration configuration;
@@ -77,7 +85,7 @@ class FragmenterServiceTest {
         context2.setDataSource("path.A");
         context2.setConfiguration(configuration);
 
-        FragmenterCacheFactory fragmenterCacheFactory = mock(FragmenterCacheFactory.class);
+        fragmenterCacheFactory = mock(FragmenterCacheFactory.class);
 
         fakeTicker = new FakeTicker();
         fragmentCache = CacheBuilder.newBuilder()
@@ -292,6 +300,107 @@ class FragmenterServiceTest {
         assertEquals(0, fragmentCache.size());
     }
 
+    @Test
+    public void testSharedCacheReusesFragmentsAcrossTransactions() throws Throwable {
+        enableSharedCache();
+        List<Fragment> fragmentList = Arrays.asList(
+                new Fragment("foo.bar", new DemoFragmentMetadata()),
+                new Fragment("foo.bar", new DemoFragmentMetadata()));
+        context2.setFragmenter(context1.getFragmenter());
+
+        when(mockPluginFactory.getPlugin(context1, context1.getFragmenter())).thenReturn(versionedFragmenter1);
+        when(mockPluginFactory.getPlugin(context2, context2.getFragmenter())).thenReturn(versionedFragmenter2);
+        when(versionedFragmenter1.getFragmentsVersion()).thenReturn("v1");
+        when(versionedFragmenter1.getFragments()).thenReturn(fragmentList);
+        when(versionedFragmenter2.getFragmentsVersion()).thenReturn("v1");
+
+        List<Fragment> response1 = fragmenterService.getFragmentsForSegment(context1);
+        List<Fragment> response2 = fragmenterService.getFragmentsForSegment(context2);
+
+        verify(versionedFragmenter1, times(1)).getFragments();
+        verify(versionedFragmenter2, never()).getFragments();
+        assertEquals(fragmentList, response1);
+        assertEquals(fragmentList, response2);
+        assertEquals(1, response2.get(1).getIndex());
+        assertEquals(1, sharedFragmentCache.size());
+    }
+
+    @Test
+    public void testSharedCacheIsRefreshedWhenVersionChanges() throws Throwable {
+        enableSharedCache();
+        List<Fragment> fragmentList1 = Collections.singletonList(new Fragment("foo.bar", new DemoFragmentMetadata()));
+        List<Fragment> fragmentList2 = Arrays.asList(
+                new Fragment("foo.bar", new DemoFragmentMetadata()),
+                new Fragment("bar.foo", new DemoFragmentMetadata()));
+        context2.setFragmenter(context1.getFragmenter());
+
+        when(mockPluginFactory.getPlugin(context1, context1.getFragmenter())).thenReturn(versionedFragmenter1);
+        when(mockPluginFactory.getPlugin(context2, context2.getFragmenter())).thenReturn(versionedFragmenter2);
+        when(versionedFragmenter1.getFragmentsVersion()).thenReturn("v1");
+        when(versionedFragmenter1.getFragments()).thenReturn(fragmentList1);
+        when(versionedFragmenter2.getFragmentsVersion()).thenReturn("v2");
+        when(versionedFragmenter2.getFragments()).thenReturn(fragmentList2);
+
+        assertEquals(fragmentList1, fragmenterService.getFragmentsForSegment(context1));
+        assertEquals(fragmentList2, fragmenterService.getFragmentsForSegment(context2));
+        assertEquals("v2", sharedFragmentCache.asMap().values().iterator().next().getVersion());
+    }
+
+    @Test
+    public void testSharedCacheIsNotUsedWithoutVersion() throws Throwable {
+        enableSharedCache();
+        context2.setFragmenter(context1.getFragmenter());
+
+        when(mockPluginFactory.getPlugin(context1, context1.getFragmenter())).thenReturn(versionedFragmenter1);
+        when(mockPluginFactory.getPlugin(context2, context2.getFragmenter())).thenReturn(versionedFragmenter2);
+
+        fragmenterService.getFragmentsForSegment(context1);
+        fragmenterService.getFragmentsForSegment(context2);
+
+        verify(versionedFragmenter1, times(1)).getFragments();
+        verify(versionedFragmenter2, times(1)).getFragments();
+        assertEquals(0, sharedFragmentCache.size());
+    }
+
+    @Test
+    public void testSharedCacheIsNotUsedForDifferentUsers() throws Throwable {
+        enableSharedCache();
+        context1.setUser("alice");
+        context2.setUser("bob");
+        context2.setFragmenter(context1.getFragmenter());
+
+        when(mockPluginFactory.getPlugin(context1, context1.getFragmenter())).thenReturn(versionedFragmenter1);
+        when(mockPluginFactory.getPlugin(context2, context2.getFragmenter())).thenReturn(versionedFragmenter2);
+        when(versionedFragmenter1.getFragmentsVersion()).thenReturn("v1");
+        when(versionedFragmenter2.getFragmentsVersion()).thenReturn("v1");
+
+        fragmenterService.getFragmentsForSegment(context1);
+        fragmenterService.getFragmentsForSegment(context2);
+
+        verify(versionedFragmenter1, times(1)).getFragments();
+        verify(versionedFragmenter2, times(1)).getFragments();
+        assertEquals(2, sharedFragmentCache.size());
+    }
+
+    @Test
+    public void testSharedCacheIsNotUsedForAnalyze() throws Throwable {
+        enableSharedCache();
+        context1.setStatsMaxFragments(10);
+
+        when(mockPluginFactory.getPlugin(context1, context1.getFragmenter())).thenReturn(versionedFragmenter1);
+
+        fragmenterService.getFragmentsForSegment(context1);
+
+        verify(versionedFragmenter1, times(1)).getFragments();
+        verify(versionedFragmenter1, never()).getFragmentsVersion();
+        assertEquals(0, sharedFragmentCache.size());
+    }
+
+    private void enableSharedCache() {
+        sharedFragmentCache = CacheBuilder.newBuilder().build();
+        when(fragmenterCacheFactory.getSharedCache()).thenReturn(sharedFragmentCache);
+    }
+
     private void testContextsAreNotCached(RequestContext context1, RequestContext context2)
             throws Throwable {
 
@@ -1,10 +1,12 @@
 package org.greenplum.pxf.service;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.greenplum.pxf.api.model.FetchStats;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -199,6 +201,45 @@ public class MetricsReporterTest {
         assertEquals(1051, counter.count());
     }
 
+    @Test
+    public void testPipelineStallMetricDisabled() {
+        disablePipelineMetrics();
+
+        reporter.reportTimer(MetricsReporter.PxfMetric.PIPELINE_STALL, Duration.ofMillis(100), mockContext, Tags.of("stage", "encode"));
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    @Test
+    public void testPipelineStallMetricEnabled() {
+        enablePipelineMetrics();
+        setContext();
+
+        reporter.reportTimer(MetricsReporter.PxfMetric.PIPELINE_STALL, Duration.ofMillis(100), mockContext, Tags.of("stage", "encode"));
+        reporter.reportTimer(MetricsReporter.PxfMetric.PIPELINE_STALL, Duration.ofMillis(20), mockContext, Tags.of("stage", "write"));
+        Timer timer = registry.get("pxf.read.pipeline.stall").tags(expectedTags.and("stage", "encode")).timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertEquals(100, timer.totalTime(TimeUnit.MILLISECONDS));
+        timer = registry.get("pxf.read.pipeline.stall").tags(expectedTags.and("stage", "write")).timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertEquals(20, timer.totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testPipelineQueueDepthMetricEnabled() {
+        enablePipelineMetrics();
+        setContext();
+
+        reporter.reportSummary(MetricsReporter.PxfMetric.PIPELINE_QUEUE_DEPTH, 3, mockContext, null);
+        reporter.reportSummary(MetricsReporter.PxfMetric.PIPELINE_QUEUE_DEPTH, 1, mockContext, null);
+        DistributionSummary summary = registry.get("pxf.read.pipeline.queue.depth").tags(expectedTags).summary();
+        assertNotNull(summary);
+        assertEquals(2, summary.count());
+        assertEquals(4, summary.totalAmount());
+        assertEquals(3, summary.max());
+    }
+
     @Test
     public void testGetReportFrequency() {
         when(mockEnvironment.getProperty("pxf.metrics.report-frequency", Long.class, 1000L)).thenReturn(5L);
@@ -211,6 +252,30 @@ public class MetricsReporterTest {
         assertEquals(0L, reporter.getReportFrequency());
     }
 
+    @Test
+    public void testFetchStatsMetricsEnabled() {
+        when(mockEnvironment.getProperty("pxf.metrics.fetch.enabled", Boolean.class, Boolean.FALSE)).thenReturn(true);
+        setContext();
+
+        reporter.reportFetchStats(new FetchStats(4, 4000, 200000, Duration.ofMillis(30), 2500), mockContext);
+        Counter roundTrips = registry.get("pxf.fetch.round.trips").tags(expectedTags).counter();
+        assertEquals(4, roundTrips.count());
+        Timer fetchTime = registry.get("pxf.fetch.time").tags(expectedTags).timer();
+        assertEquals(30, fetchTime.totalTime(TimeUnit.MILLISECONDS));
+        DistributionSummary fetchSize = registry.get("pxf.fetch.size").tags(expectedTags).summary();
+        assertEquals(2500, fetchSize.totalAmount());
+        DistributionSummary rowBytes = registry.get("pxf.fetch.row.bytes").tags(expectedTags).summary();
+        assertEquals(50, rowBytes.totalAmount());
+    }
+
+    @Test
+    public void testFetchStatsMetricsDisabled() {
+        when(mockEnvironment.getProperty("pxf.metrics.fetch.enabled", Boolean.class, Boolean.FALSE)).thenReturn(false);
+
+        reporter.reportFetchStats(new FetchStats(4, 4000, 200000, Duration.ofMillis(30), 2500), mockContext);
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
     private void setContext() {
         when(mockContext.getUser()).thenReturn("Alex");
         when(mockContext.getSegmentId()).thenReturn(5);
@@ -242,4 +307,12 @@ public class MetricsReporterTest {
         when(mockEnvironment.getProperty("pxf.metrics.bytes.enabled", Boolean.class, Boolean.FALSE)).thenReturn(false);
     }
 
+    private void enablePipelineMetrics() {
+        when(mockEnvironment.getProperty("pxf.metrics.pipeline.enabled", Boolean.class, Boolean.FALSE)).thenReturn(true);
+    }
+
+    private void disablePipelineMetrics() {
+        when(mockEnvironment.getProperty("pxf.metrics.pipeline.enabled", Boolean.class, Boolean.FALSE)).thenReturn(false);
+    }
+
 }
@@ -61,6 +61,8 @@ public class PxfMetricsIT {
                 .header("X-GP-SEGMENT-ID", "77")
                 .header("X-GP-OPTIONS-PROFILE", "profile%3Atest")
                 .header("X-GP-OPTIONS-SERVER", "speedy")
+                // the mocked read service does not compress the data it writes
+                .header("Accept-Encoding", "identity")
                 .exchange().expectStatus().isOk()
                 .expectBody(String.class).isEqualTo("Hello from read!");
 
@@ -129,7 +131,7 @@ public class PxfMetricsIT {
             invocation.getArgument(1, OutputStream.class).write("Hello from read!".getBytes(Charsets.UTF_8));
             return null;
         };
-        doAnswer(readAnswer).when(readService).readData(any(), any());
+        doAnswer(readAnswer).when(readService).readData(any(), any(), any());
 
         // mock WriteService
         when(mockParser.parseRequest(any(), eq(RequestContext.RequestType.WRITE_BRIDGE))).thenReturn(mockContext);
@@ -0,0 +1,103 @@
+package org.greenplum.pxf.service.controller;
+
+import io.micrometer.core.instrument.Tags;
+import org.apache.commons.io.IOUtils;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.service.MetricsReporter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class CompressedOutputStreamTest {
+
+    private static final byte[] DATA = makeData();
+
+    @Mock
+    private MetricsReporter mockMetricsReporter;
+    @Mock
+    private RequestContext mockContext;
+
+    @Test
+    public void testGzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompressedOutputStream stream = new CompressedOutputStream(out, ResponseCompression.GZIP, 1, mockContext, mockMetricsReporter);
+        stream.write(DATA, 0, 1000);
+        stream.write(DATA[1000]);
+        stream.write(DATA, 1001, DATA.length - 1001);
+        stream.finish();
+        stream.close();
+
+        assertArrayEquals(DATA, IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))));
+        assertEquals(DATA.length, stream.getUncompressedByteCount());
+        assertEquals(out.size(), stream.getCompressedByteCount());
+        assertTrue(out.size() < DATA.length / 4);
+        verify(mockMetricsReporter).reportCounter(MetricsReporter.PxfMetric.BYTES_SENT_COMPRESSED, out.size(), mockContext);
+        verify(mockMetricsReporter).reportSummary(same(MetricsReporter.PxfMetric.COMPRESSION_RATIO),
+                eq((double) DATA.length / out.size()), same(mockContext), eq(Tags.of("encoding", "gzip")));
+    }
+
+    @Test
+    public void testDeflate() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompressedOutputStream stream = new CompressedOutputStream(out, ResponseCompression.DEFLATE, 9, mockContext, mockMetricsReporter);
+        stream.write(DATA);
+        stream.finish();
+        stream.close();
+
+        assertArrayEquals(DATA, IOUtils.toByteArray(new InflaterInputStream(new ByteArrayInputStream(out.toByteArray()))));
+        verify(mockMetricsReporter).reportSummary(same(MetricsReporter.PxfMetric.COMPRESSION_RATIO),
+                anyDouble(), same(mockContext), eq(Tags.of("encoding", "deflate")));
+    }
+
+    @Test
+    public void testGzipEmpty() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompressedOutputStream stream = new CompressedOutputStream(out, ResponseCompression.GZIP, 1, mockContext, mockMetricsReporter);
+        stream.finish();
+        stream.close();
+
+        assertEquals(0, IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))).length);
+    }
+
+    @Test
+    public void testUnfinishedDataIsIncomplete() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompressedOutputStream stream = new CompressedOutputStream(out, ResponseCompression.GZIP, 1, mockContext, mockMetricsReporter);
+        stream.write(DATA);
+        stream.flush();
+        stream.close();
+
+        InputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()));
+        assertThrows(EOFException.class, () -> IOUtils.toByteArray(in));
+        verifyNoInteractions(mockMetricsReporter);
+    }
+
+    private static byte[] makeData() {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            data.append(i).append(",row ").append(i % 17).append(",2021-03-04\n");
+        }
+        return data.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
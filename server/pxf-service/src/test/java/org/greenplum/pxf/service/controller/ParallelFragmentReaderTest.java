@@ -0,0 +1,123 @@
+package org.greenplum.pxf.service.controller;
+
+import org.apache.hadoop.security.UserGroupInformation;
+import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.api.model.Fragment;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.service.MetricsReporter;
+import org.greenplum.pxf.service.bridge.Bridge;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ParallelFragmentReaderTest {
+
+    @Mock
+    private Fragment mockFragment;
+    @Mock
+    private RequestContext mockContext;
+    @Mock
+    private Bridge mockBridge;
+    @Mock
+    private Writable mockRecord;
+    @Mock
+    private MetricsReporter mockMetricsReporter;
+    @Mock
+    private OutputStream mockOutputStream;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final UserGroupInformation ugi = UserGroupInformation.createRemoteUser("gpadmin");
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testInterruptedWriterWaitsForRunningWorkers() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writeFailed = new CountDownLatch(1);
+        when(mockBridge.beginIteration()).thenReturn(true);
+        when(mockBridge.getNext()).thenReturn(mockRecord).thenAnswer(invocation -> {
+            reading.countDown();
+            // the read does not respond to interrupts, e.g. a blocking socket read
+            while (true) {
+                try {
+                    release.await();
+                    return null;
+                } catch (InterruptedException ignored) {
+                }
+            }
+        });
+        doAnswer(invocation -> {
+            invocation.<DataOutput>getArgument(0).write(1);
+            return null;
+        }).when(mockRecord).write(any(DataOutput.class));
+        // writing to the client fails while the worker is reading the next record
+        doAnswer(invocation -> {
+            reading.await();
+            writeFailed.countDown();
+            throw new IOException("client went away");
+        }).when(mockOutputStream).write(any(byte[].class));
+
+        List<Fragment> fragments = new ArrayList<>(Collections.singletonList(mockFragment));
+        ParallelFragmentReader reader = new ParallelFragmentReader(fragments, fragment -> mockContext,
+                context -> mockBridge, mockMetricsReporter, new OperationStats(OperationStats.Operation.READ, mockMetricsReporter, mockContext), 1);
+        assertEquals(1, reader.start(new TaskExecutorAdapter(executor), ugi, 1));
+
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                reader.writeTo(mockOutputStream);
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        });
+        writer.start();
+        assertTrue(writeFailed.await(10, TimeUnit.SECONDS));
+        // wait for the writer to discard the data of the stopped worker
+        while (writer.getState() != Thread.State.WAITING) {
+            Thread.sleep(10);
+        }
+
+        // the interrupted writer does not return while the worker is still reading
+        writer.interrupt();
+        writer.join(200);
+        assertTrue(writer.isAlive());
+        verify(mockBridge, never()).endIteration();
+
+        // the worker ends the iteration before the writer returns
+        release.countDown();
+        writer.join(10000);
+        assertFalse(writer.isAlive());
+        assertTrue(failure.get() instanceof InterruptedIOException, String.valueOf(failure.get()));
+        verify(mockBridge).endIteration();
+    }
+}
@@ -0,0 +1,101 @@
+package org.greenplum.pxf.service.controller;
+
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.service.MetricsReporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+public class PipelinedOutputStreamTest {
+
+    @Mock
+    private MetricsReporter mockMetricsReporter;
+    @Mock
+    private RequestContext mockContext;
+
+    private final ExecutorService writerExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService producerExecutor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    public void tearDown() {
+        writerExecutor.shutdownNow();
+        producerExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testWritesInOrder() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PipelinedOutputStream stream = new PipelinedOutputStream(out, 4, 2, mockContext, mockMetricsReporter);
+        stream.start(new TaskExecutorAdapter(writerExecutor));
+
+        stream.write("hello".getBytes(StandardCharsets.UTF_8));
+        stream.write(' ');
+        stream.write("world!".getBytes(StandardCharsets.UTF_8));
+        stream.close();
+
+        assertEquals("hello world!", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testProducerWaitingForBufferWakesUpWhenWriterIsInterrupted() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // a client write that does not respond to interrupts, like a blocked socket write
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writing.countDown();
+                boolean interrupted = false;
+                while (release.getCount() > 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        PipelinedOutputStream stream = new PipelinedOutputStream(out, 4, 2, mockContext, mockMetricsReporter);
+        stream.start(new TaskExecutorAdapter(writerExecutor));
+
+        // the writer blocks on the first chunk, the second one is queued and the producer waits for a free buffer
+        Future<?> producer = producerExecutor.submit(() -> {
+            stream.write(new byte[64]);
+            return null;
+        });
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+        writerExecutor.shutdownNow();
+        release.countDown();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> producer.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof InterruptedIOException);
+    }
+}
@@ -0,0 +1,113 @@
+package org.greenplum.pxf.service.controller;
+
+import org.apache.hadoop.security.UserGroupInformation;
+import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.service.bridge.Bridge;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.io.DataOutput;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PrefetchedFragmentTest {
+
+    @Mock
+    private RequestContext mockContext;
+    @Mock
+    private Bridge mockBridge;
+    @Mock
+    private Writable mockRecord;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService discardExecutor = Executors.newSingleThreadExecutor();
+    private final UserGroupInformation ugi = UserGroupInformation.createRemoteUser("gpadmin");
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+        discardExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testDiscardWaitsWhileGetNextIsBlocked() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mockBridge.beginIteration()).thenReturn(true);
+        when(mockBridge.getNext()).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await();
+            return mockRecord;
+        });
+        doAnswer(invocation -> {
+            invocation.<DataOutput>getArgument(0).write(1);
+            return null;
+        }).when(mockRecord).write(any(DataOutput.class));
+
+        PrefetchedFragment fragment = new PrefetchedFragment(mockContext, 1024);
+        fragment.start(new TaskExecutorAdapter(executor), ugi, context -> mockBridge);
+        assertTrue(reading.await(10, TimeUnit.SECONDS));
+
+        // the bridge is still in use by the prefetch task, the discarding thread waits for the task
+        Future<?> discard = discardExecutor.submit(fragment::discard);
+        assertThrows(TimeoutException.class, () -> discard.get(200, TimeUnit.MILLISECONDS));
+        verify(mockBridge, never()).endIteration();
+
+        // the prefetch task stops reading and closes the bridge before the discarding thread returns
+        release.countDown();
+        discard.get(10, TimeUnit.SECONDS);
+        verify(mockBridge).endIteration();
+        verify(mockBridge, times(1)).getNext();
+    }
+
+    @Test
+    public void testDiscardAfterPrefetchCompleted() throws Exception {
+        when(mockBridge.beginIteration()).thenReturn(true);
+        when(mockBridge.getNext()).thenReturn(null);
+
+        PrefetchedFragment fragment = new PrefetchedFragment(mockContext, 1024);
+        fragment.start(new TaskExecutorAdapter(executor), ugi, context -> mockBridge);
+        fragment.await();
+
+        fragment.discard();
+        verify(mockBridge).endIteration();
+    }
+
+    @Test
+    public void testDiscardBeforePrefetchStarted() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> {
+            release.await();
+            return null;
+        });
+
+        PrefetchedFragment fragment = new PrefetchedFragment(mockContext, 1024);
+        fragment.start(new TaskExecutorAdapter(executor), ugi, context -> mockBridge);
+        fragment.discard();
+        release.countDown();
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        verify(mockBridge, never()).beginIteration();
+        verify(mockBridge, never()).endIteration();
+    }
+}
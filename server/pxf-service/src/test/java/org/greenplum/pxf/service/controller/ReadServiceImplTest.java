@@ -1,6 +1,10 @@
 package org.greenplum.pxf.service.controller;
 
+import io.micrometer.core.instrument.Tags;
+import org.apache.catalina.connector.ClientAbortException;
+import org.apache.commons.io.IOUtils;
 import org.apache.hadoop.conf.Configuration;
+import org.greenplum.pxf.api.configuration.PxfServerProperties;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.io.Writable;
 import org.greenplum.pxf.api.model.ConfigurationFactory;
@@ -18,20 +22,38 @@ import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.util.unit.DataSize;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.PrivilegedAction;
 import java.time.Duration;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 
@@ -62,7 +84,10 @@ public class ReadServiceImplTest {
     private Writable mockRecord1, mockRecord2, mockRecord3;
     @Mock
     private RequestContext mockContext;
+    @Mock
+    private RequestContext mockFragmentContext1, mockFragmentContext2;
 
+    private PxfServerProperties serverProperties;
     private ReadServiceImpl readService;
 
     @BeforeEach
@@ -75,7 +100,9 @@ public class ReadServiceImplTest {
             return result;
         });
 
-        readService = new ReadServiceImpl(mockConfigurationFactory, mockBridgeFactory, mockSecurityService, mockFragmenterService, mockMetricReporter);
+        serverProperties = new PxfServerProperties();
+        readService = new ReadServiceImpl(mockConfigurationFactory, mockBridgeFactory, mockSecurityService,
+                mockFragmenterService, mockMetricReporter, serverProperties, new SimpleAsyncTaskExecutor());
     }
 
     @Test
@@ -255,6 +282,194 @@ public class ReadServiceImplTest {
         inOrder.verifyNoMoreInteractions();
     }
 
+    @Test
+    public void testReadDataPipelinedMultiFragmentMultiRecord() throws Exception {
+        serverProperties.getRead().getPipeline().setEnabled(true);
+        serverProperties.getRead().getPipeline().setChunkSize(DataSize.ofBytes(4));
+        serverProperties.getRead().getPipeline().setQueueDepth(2);
+        when(mockMetricReporter.getReportFrequency()).thenReturn(2L);
+        when(mockFragmentList.size()).thenReturn(2);
+        when(mockBridgeFactory.getBridge(mockContext)).thenReturn(mockBridge1, mockBridge2);
+        when(mockFragmentList.get(0)).thenReturn(mockFragment1);
+        when(mockBridge1.beginIteration()).thenReturn(true);
+        when(mockBridge1.getNext()).thenReturn(mockRecord1).thenReturn(null);
+        doAnswer(writeTestData("hello")).when(mockRecord1).write(any(DataOutputStream.class));
+        when(mockFragmentList.get(1)).thenReturn(mockFragment2);
+        when(mockBridge2.beginIteration()).thenReturn(true);
+        when(mockBridge2.getNext()).thenReturn(mockRecord2, mockRecord3, null);
+        doAnswer(writeTestData("world!")).when(mockRecord2).write(any(DataOutputStream.class));
+        doAnswer(writeTestData("Boo!")).when(mockRecord3).write(any(DataOutputStream.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        readService.readData(mockContext, out);
+
+        assertEquals("helloworld!Boo!", new String(out.toByteArray(), StandardCharsets.UTF_8));
+        InOrder inOrder = inOrder(mockMetricReporter);
+        inOrder.verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.RECORDS_SENT, 1, mockContext);
+        inOrder.verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.BYTES_SENT, 5, mockContext);
+        inOrder.verify(mockMetricReporter).reportTimer(same(MetricsReporter.PxfMetric.FRAGMENTS_SENT), any(Duration.class), same(mockContext), eq(true));
+        inOrder.verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.RECORDS_SENT, 2, mockContext);
+        inOrder.verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.BYTES_SENT, 10, mockContext);
+        inOrder.verify(mockMetricReporter).reportTimer(same(MetricsReporter.PxfMetric.FRAGMENTS_SENT), any(Duration.class), same(mockContext), eq(true));
+        inOrder.verify(mockMetricReporter, times(2)).reportTimer(same(MetricsReporter.PxfMetric.PIPELINE_STALL), any(Duration.class), same(mockContext), any(Tags.class));
+        inOrder.verify(mockMetricReporter).reportSummary(same(MetricsReporter.PxfMetric.PIPELINE_QUEUE_DEPTH), anyDouble(), same(mockContext), isNull());
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void testReadDataPipelinedClientAbort() throws Exception {
+        serverProperties.getRead().getPipeline().setEnabled(true);
+        serverProperties.getRead().getPipeline().setChunkSize(DataSize.ofBytes(4));
+        serverProperties.getRead().getPipeline().setQueueDepth(1);
+        when(mockMetricReporter.getReportFrequency()).thenReturn(0L);
+        when(mockFragmentList.size()).thenReturn(1);
+        when(mockFragmentList.get(0)).thenReturn(mockFragment1);
+        when(mockBridgeFactory.getBridge(mockContext)).thenReturn(mockBridge1);
+        when(mockBridge1.beginIteration()).thenReturn(true);
+        // the fragment never ends, so the producer keeps encoding records until it sees the failure of the writer task
+        when(mockBridge1.getNext()).thenReturn(mockRecord1);
+        doAnswer(writeTestData("hello")).when(mockRecord1).write(any(DataOutputStream.class));
+        doThrow(new ClientAbortException("client went away")).when(mockOutputStream).write(any(byte[].class), anyInt(), anyInt());
+
+        PxfRuntimeException e = assertThrows(PxfRuntimeException.class, () -> readService.readData(mockContext, mockOutputStream));
+        assertTrue(e.getCause() instanceof ClientAbortException);
+    }
+
+    @Test
+    public void testReadDataPipelinedCompressed() throws Exception {
+        serverProperties.getRead().getPipeline().setEnabled(true);
+        serverProperties.getRead().getPipeline().setChunkSize(DataSize.ofBytes(4));
+        when(mockMetricReporter.getReportFrequency()).thenReturn(0L);
+        when(mockFragmentList.size()).thenReturn(2);
+        when(mockBridgeFactory.getBridge(mockContext)).thenReturn(mockBridge1, mockBridge2);
+        when(mockFragmentList.get(0)).thenReturn(mockFragment1);
+        when(mockBridge1.beginIteration()).thenReturn(true);
+        when(mockBridge1.getNext()).thenReturn(mockRecord1).thenReturn(null);
+        doAnswer(writeTestData("hello")).when(mockRecord1).write(any(DataOutputStream.class));
+        when(mockFragmentList.get(1)).thenReturn(mockFragment2);
+        when(mockBridge2.beginIteration()).thenReturn(true);
+        when(mockBridge2.getNext()).thenReturn(mockRecord2, mockRecord3, null);
+        doAnswer(writeTestData("world!")).when(mockRecord2).write(any(DataOutputStream.class));
+        doAnswer(writeTestData("Boo!")).when(mockRecord3).write(any(DataOutputStream.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        readService.readData(mockContext, out, ResponseCompression.GZIP);
+
+        byte[] data = IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())));
+        assertEquals("helloworld!Boo!", new String(data, StandardCharsets.UTF_8));
+        verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.BYTES_SENT_COMPRESSED, out.size(), mockContext);
+        verify(mockMetricReporter).reportSummary(same(MetricsReporter.PxfMetric.COMPRESSION_RATIO),
+                eq(15d / out.size()), same(mockContext), eq(Tags.of("encoding", "gzip")));
+    }
+
+    @Test
+    public void testReadDataCompressedFailureIsNotFinished() throws Exception {
+        when(mockFragmentList.size()).thenReturn(1);
+        when(mockFragmentList.get(0)).thenReturn(mockFragment1);
+        when(mockBridgeFactory.getBridge(mockContext)).thenReturn(mockBridge1);
+        when(mockBridge1.beginIteration()).thenReturn(true);
+        when(mockBridge1.getNext()).thenReturn(mockRecord1).thenThrow(new RuntimeException("read failed"));
+        doAnswer(writeTestData("hello")).when(mockRecord1).write(any(DataOutputStream.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThrows(PxfRuntimeException.class, () -> readService.readData(mockContext, out, ResponseCompression.DEFLATE));
+        verify(mockMetricReporter, never()).reportCounter(same(MetricsReporter.PxfMetric.BYTES_SENT_COMPRESSED), anyLong(), any());
+    }
+
+    @Test
+    public void testReadDataPrefetchMultiFragmentMultiRecord() throws Exception {
+        serverProperties.getRead().setFragmentPrefetch(1);
+        serverProperties.getRead().setFragmentPrefetchBufferSize(DataSize.ofBytes(1));
+        when(mockMetricReporter.getReportFrequency()).thenReturn(2L);
+        when(mockFragmentList.size()).thenReturn(2);
+        when(mockContext.copy()).thenReturn(mockFragmentContext1, mockFragmentContext2);
+
+        // 1st frag is streamed on the request thread
+        when(mockFragmentList.get(0)).thenReturn(mockFragment1);
+        when(mockBridgeFactory.getBridge(mockFragmentContext1)).thenReturn(mockBridge1);
+        when(mockBridge1.beginIteration()).thenReturn(true);
+        when(mockBridge1.getNext()).thenReturn(mockRecord1).thenReturn(null);
+        doAnswer(writeTestData("hello")).when(mockRecord1).write(any(DataOutputStream.class));
+
+        // 2nd frag is opened ahead of time, its first record fills up the prefetch buffer
+        when(mockFragmentList.get(1)).thenReturn(mockFragment2);
+        when(mockBridgeFactory.getBridge(mockFragmentContext2)).thenReturn(mockBridge2);
+        when(mockBridge2.beginIteration()).thenReturn(true);
+        when(mockBridge2.getNext()).thenReturn(mockRecord2, mockRecord3, null);
+        doAnswer(writeTestData("world!")).when(mockRecord2).write(any(DataOutputStream.class));
+        doAnswer(writeTestData("Boo!")).when(mockRecord3).write(any(DataOutputStream.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        readService.readData(mockContext, out);
+
+        assertEquals("helloworld!Boo!", new String(out.toByteArray(), StandardCharsets.UTF_8));
+        InOrder inOrder = inOrder(mockMetricReporter, mockBridge1, mockBridge2);
+        inOrder.verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.RECORDS_SENT, 1, mockFragmentContext1);
+        inOrder.verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.BYTES_SENT, 5, mockFragmentContext1);
+        inOrder.verify(mockMetricReporter).reportTimer(same(MetricsReporter.PxfMetric.FRAGMENTS_SENT), any(Duration.class), same(mockFragmentContext1), eq(true));
+        inOrder.verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.RECORDS_SENT, 2, mockFragmentContext2);
+        inOrder.verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.BYTES_SENT, 10, mockFragmentContext2);
+        inOrder.verify(mockBridge2).endIteration();
+        inOrder.verify(mockMetricReporter).reportTimer(same(MetricsReporter.PxfMetric.FRAGMENTS_SENT), any(Duration.class), same(mockFragmentContext2), eq(true));
+        inOrder.verifyNoMoreInteractions();
+        verify(mockFragmentContext2).setFragmentIndex(anyInt());
+    }
+
+    @Test
+    public void testReadDataParallelMultiFragmentMultiRecord() throws Exception {
+        serverProperties.getRead().getParallel().setEnabled(true);
+        serverProperties.getRead().getParallel().setMaxThreadsPerQuery(2);
+        when(mockMetricReporter.getReportFrequency()).thenReturn(2L);
+        when(mockFragmentList.size()).thenReturn(2);
+        when(mockFragmentList.get(0)).thenReturn(mockFragment1);
+        when(mockFragmentList.get(1)).thenReturn(mockFragment2);
+        // the fragments are claimed by the reading tasks in no particular order
+        when(mockContext.copy()).thenReturn(mockFragmentContext1, mockFragmentContext2);
+        when(mockBridgeFactory.getBridge(mockFragmentContext1)).thenReturn(mockBridge1);
+        when(mockBridgeFactory.getBridge(mockFragmentContext2)).thenReturn(mockBridge2);
+        when(mockBridge1.beginIteration()).thenReturn(true);
+        when(mockBridge1.getNext()).thenReturn(mockRecord1).thenReturn(null);
+        doAnswer(writeTestData("hello")).when(mockRecord1).write(any(DataOutputStream.class));
+        when(mockBridge2.beginIteration()).thenReturn(true);
+        when(mockBridge2.getNext()).thenReturn(mockRecord2, mockRecord3, null);
+        doAnswer(writeTestData("world!")).when(mockRecord2).write(any(DataOutputStream.class));
+        doAnswer(writeTestData("Boo!")).when(mockRecord3).write(any(DataOutputStream.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        readService.readData(mockContext, out);
+
+        // the records of a fragment are handed off together, the fragments can arrive in any order
+        String result = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(result.equals("helloworld!Boo!") || result.equals("world!Boo!hello"), result);
+        verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.RECORDS_SENT, 1, mockFragmentContext1);
+        verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.BYTES_SENT, 5, mockFragmentContext1);
+        verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.RECORDS_SENT, 2, mockFragmentContext2);
+        verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.BYTES_SENT, 10, mockFragmentContext2);
+        verify(mockMetricReporter).reportTimer(same(MetricsReporter.PxfMetric.FRAGMENTS_SENT), any(Duration.class), same(mockFragmentContext1), eq(true));
+        verify(mockMetricReporter).reportTimer(same(MetricsReporter.PxfMetric.FRAGMENTS_SENT), any(Duration.class), same(mockFragmentContext2), eq(true));
+        verify(mockBridge1).endIteration();
+        verify(mockBridge2).endIteration();
+    }
+
+    @Test
+    public void testReadDataParallelFragmentException() throws Exception {
+        serverProperties.getRead().getParallel().setEnabled(true);
+        serverProperties.getRead().getParallel().setMaxThreadsPerQuery(2);
+        when(mockMetricReporter.getReportFrequency()).thenReturn(0L);
+        when(mockFragmentList.size()).thenReturn(2);
+        // once a fragment fails, the other one might not be read at all
+        lenient().when(mockFragmentList.get(anyInt())).thenReturn(mockFragment1);
+        lenient().when(mockContext.copy()).thenReturn(mockFragmentContext1);
+        lenient().when(mockBridgeFactory.getBridge(mockFragmentContext1)).thenReturn(mockBridge1);
+        lenient().when(mockBridge1.beginIteration()).thenReturn(true);
+        lenient().when(mockBridge1.getNext()).thenThrow(new Exception("failed to read"));
+
+        PxfRuntimeException e = assertThrows(PxfRuntimeException.class, () -> readService.readData(mockContext, mockOutputStream));
+        assertEquals("failed to read", e.getCause().getMessage());
+        verifyNoInteractions(mockOutputStream);
+        verify(mockBridge1, atLeastOnce()).endIteration();
+    }
+
     // helper for writing mock record to a mock output stream
     // mockOutputStream -> CountingOutputStream -> DataOutputStream
     // in order for the us to see the side-effect of CountingOutputStream,
@@ -0,0 +1,41 @@
+package org.greenplum.pxf.service.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ResponseCompressionTest {
+
+    @Test
+    public void testNegotiateNoAcceptedEncoding() {
+        assertNull(ResponseCompression.negotiate(null));
+        assertNull(ResponseCompression.negotiate(""));
+        assertNull(ResponseCompression.negotiate("identity"));
+        assertNull(ResponseCompression.negotiate("br, zstd"));
+    }
+
+    @Test
+    public void testNegotiateSingleEncoding() {
+        assertEquals(ResponseCompression.GZIP, ResponseCompression.negotiate("gzip"));
+        assertEquals(ResponseCompression.GZIP, ResponseCompression.negotiate("GZIP"));
+        assertEquals(ResponseCompression.DEFLATE, ResponseCompression.negotiate("deflate"));
+        assertEquals(ResponseCompression.DEFLATE, ResponseCompression.negotiate("br, deflate"));
+    }
+
+    @Test
+    public void testNegotiatePrefersServerOrderOnTie() {
+        assertEquals(ResponseCompression.GZIP, ResponseCompression.negotiate("deflate, gzip"));
+        assertEquals(ResponseCompression.GZIP, ResponseCompression.negotiate("*"));
+    }
+
+    @Test
+    public void testNegotiateQualityValues() {
+        assertEquals(ResponseCompression.DEFLATE, ResponseCompression.negotiate("gzip;q=0.5, deflate"));
+        assertEquals(ResponseCompression.DEFLATE, ResponseCompression.negotiate("gzip;q=0, *"));
+        assertEquals(ResponseCompression.GZIP, ResponseCompression.negotiate("gzip ; q=0.8, deflate;q=0.2"));
+        assertNull(ResponseCompression.negotiate("gzip;q=0, deflate;q=0"));
+        assertNull(ResponseCompression.negotiate("*;q=0"));
+        assertNull(ResponseCompression.negotiate("gzip;q=bad"));
+    }
+}
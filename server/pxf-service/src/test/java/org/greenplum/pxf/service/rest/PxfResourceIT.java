@@ -14,6 +14,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -30,6 +31,7 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest({PxfReadResource.class, PxfWriteResource.class, PxfLegacyResource.class})
@@ -59,6 +61,28 @@ public class PxfResourceIT {
         result.andExpect(content().string("Hello from read!"));
     }
 
+    @Test
+    public void testReadEndpointCompressed() throws Exception {
+        when(mockParser.parseRequest(any(), eq(RequestContext.RequestType.READ_BRIDGE))).thenReturn(mockContext);
+
+        ResultActions result = mvc.perform(get("/pxf/read").header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        Thread.sleep(200);
+        result.andExpect(content().string("Hello from GZIP read!"));
+    }
+
+    @Test
+    public void testReadEndpointUnsupportedEncoding() throws Exception {
+        when(mockParser.parseRequest(any(), eq(RequestContext.RequestType.READ_BRIDGE))).thenReturn(mockContext);
+
+        ResultActions result = mvc.perform(get("/pxf/read").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        Thread.sleep(200);
+        result.andExpect(content().string("Hello from read!"));
+    }
+
     @Test
     public void testWriteEndpoint() throws Exception {
         when(mockParser.parseRequest(any(), eq(RequestContext.RequestType.WRITE_BRIDGE))).thenReturn(mockContext);
@@ -110,9 +134,10 @@ public class PxfResourceIT {
     static class PxfResourceTestConfiguration {
         @Bean
         ReadService createReadService() {
-            return (ctx, out) -> {
+            return (ctx, out, compression) -> {
                 try {
-                    out.write("Hello from read!".getBytes(Charsets.UTF_8));
+                    String message = compression == null ? "Hello from read!" : "Hello from " + compression + " read!";
+                    out.write(message.getBytes(Charsets.UTF_8));
                 } catch (IOException e) {
                     e.printStackTrace();
                 }
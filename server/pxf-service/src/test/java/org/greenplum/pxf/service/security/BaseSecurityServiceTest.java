@@ -33,6 +33,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
 import java.security.PrivilegedAction;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -51,6 +52,7 @@ public class BaseSecurityServiceTest {
     private Configuration configuration;
     private RequestContext context;
     private SecurityService service;
+    private UGICache ugiCache;
 
     @Mock
     private SecureLogin mockSecureLogin;
@@ -65,8 +67,9 @@ public class BaseSecurityServiceTest {
     public void setup() {
         context = new RequestContext();
         configuration = new Configuration();
+        ugiCache = new UGICache(mockUGIProvider, false, 0, Duration.ZERO);
 
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, true);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, true);
 
         context.setUser("gpdb-user");
         context.setTransactionId("xid");
@@ -124,7 +127,7 @@ public class BaseSecurityServiceTest {
     @Test
     public void determineRemoteUser_IsGpdbUser_NoKerberos_Impersonation_ServiceUser_NoExpansion() throws Exception {
         // no kerberos should cause no expansion anyways
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, false);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
         expectScenario("gpdb-user", false, true, true, false);
         service.doAs(context, EMPTY_ACTION);
         verifyScenario("gpdb-user", false, true, false);
@@ -159,7 +162,7 @@ public class BaseSecurityServiceTest {
     public void determineRemoteUser_IsLoginUser_Kerberos_NoImpersonation_NoServiceUser_NoExpansion() throws Exception {
         // no impersonation should not attempt expansion and just take the login name which is already expanded
         // since this is kerberos use case and the login user (unlike gpdb user) should always have realm part
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, false);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
         expectScenario("login-user@REALM", true, false, false, false);
         service.doAs(context, EMPTY_ACTION);
         verifyScenario("login-user@REALM", true, false, false);
@@ -168,7 +171,7 @@ public class BaseSecurityServiceTest {
     @Test
     public void determineRemoteUser_IsLoginUser_Kerberos_NoImpersonation_NoServiceUser_NoExpansion_ConstrainedDelegation() throws Exception {
         // this is a useless case as constrained delegation is enabled for no reason, but it is a possible config combo
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, false);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
         expectScenario("login-user@REALM", true, false, false, true);
         service.doAs(context, EMPTY_ACTION);
         verifyScenario("login-user@REALM", true, false, true, false);
@@ -191,7 +194,7 @@ public class BaseSecurityServiceTest {
     @Test
     public void determineRemoteUser_IsServiceUser_Kerberos_NoImpersonation_ServiceUser_NoExpansion() throws Exception {
         // no impersonation should not attempt expansion and just take the service name which will is not expanded
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, false);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
         expectScenario("service-user", true, false, true, false);
         service.doAs(context, EMPTY_ACTION);
         verifyScenario("service-user", true, false, false);
@@ -200,7 +203,7 @@ public class BaseSecurityServiceTest {
     @Test
     public void determineRemoteUser_IsServiceUser_Kerberos_NoImpersonation_ServiceUser_NoExpansion_ConstrainedDelegation() throws Exception {
         // constrained delegation will overrule and perform expansion
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, false);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
         expectScenario("service-user@REALM", true, false, true, true);
         service.doAs(context, EMPTY_ACTION);
         verifyScenario("service-user@REALM", true, false, true);
@@ -228,7 +231,7 @@ public class BaseSecurityServiceTest {
     @Test
     public void determineRemoteUser_IsGpdbUser_Kerberos_Impersonation_NoServiceUser_NoExpansion() throws Exception {
         // no expansion will still use short name
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, false);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
         expectScenario("gpdb-user", true, true, false, false);
         service.doAs(context, EMPTY_ACTION);
         verifyScenario("gpdb-user", true, true, false);
@@ -244,7 +247,7 @@ public class BaseSecurityServiceTest {
     @Test
     public void determineRemoteUser_IsGpdbUser_Kerberos_Impersonation_ServiceUser_NoExpansion() throws Exception {
         // no expansion will still use short name
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, false);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
         expectScenario("gpdb-user", true, true, true, false);
         service.doAs(context, EMPTY_ACTION);
         verifyScenario("gpdb-user", true, true, false);
@@ -267,7 +270,7 @@ public class BaseSecurityServiceTest {
 
     @Test
     public void determineRemoteUser_IsGpdbUser_Kerberos_Impersonation_ServiceUser_NoExpansion_ConstrainedDelegation() throws Exception {
-        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, false);
+        service = new BaseSecurityService(mockSecureLogin, mockUGIProvider, ugiCache, false);
         // service user is irrelevant for kerberos with impersonation
         expectScenario("gpdb-user@REALM", true, true, true, true);
         service.doAs(context, EMPTY_ACTION);
@@ -0,0 +1,195 @@
+package org.greenplum.pxf.service.security;
+
+import org.apache.hadoop.security.UserGroupInformation;
+import org.greenplum.pxf.api.utilities.ReferenceCountingCache.Entry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class UGICacheTest {
+
+    @Mock
+    private UGIProvider mockUGIProvider;
+    @Mock
+    private UserGroupInformation mockLoginUGI;
+
+    private long nanos;
+    private UGICache cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new UGICache(mockUGIProvider, true, 2, Duration.ofMinutes(5), () -> nanos);
+    }
+
+    @Test
+    public void testUGIIsReusedForTheSameKey() throws IOException {
+        UserGroupInformation ugi = mock(UserGroupInformation.class);
+        Entry<UserGroupInformation> first = cache.acquire(key("server", "alice"), () -> ugi);
+        Entry<UserGroupInformation> second = cache.acquire(key("server", "alice"), () -> mock(UserGroupInformation.class));
+
+        assertSame(ugi, first.getValue());
+        assertSame(ugi, second.getValue());
+        cache.release(first);
+        cache.release(second);
+        assertEquals(1, cache.size());
+        verify(mockUGIProvider, never()).destroy(ugi);
+    }
+
+    @Test
+    public void testUGIIsNotReusedForDifferentKeys() {
+        Entry<UserGroupInformation> alice = cache.acquire(key("server", "alice"), () -> mock(UserGroupInformation.class));
+        Entry<UserGroupInformation> bob = cache.acquire(key("server", "bob"), () -> mock(UserGroupInformation.class));
+        Entry<UserGroupInformation> otherLogin = cache.acquire(
+                new UGICache.Key("config", "server", "alice", true, false, mock(UserGroupInformation.class)),
+                () -> mock(UserGroupInformation.class));
+
+        assertNotSame(alice.getValue(), bob.getValue());
+        assertNotSame(alice.getValue(), otherLogin.getValue());
+    }
+
+    @Test
+    public void testIdleUGIIsDestroyedAfterExpiration() throws IOException {
+        Entry<UserGroupInformation> entry = cache.acquire(key("server", "alice"), () -> mock(UserGroupInformation.class));
+        cache.release(entry);
+
+        nanos += TimeUnit.MINUTES.toNanos(4);
+        cache.release(cache.acquire(key("server", "bob"), () -> mock(UserGroupInformation.class)));
+        verify(mockUGIProvider, never()).destroy(entry.getValue());
+
+        nanos += TimeUnit.MINUTES.toNanos(1);
+        cache.release(cache.acquire(key("server", "bob"), () -> mock(UserGroupInformation.class)));
+        verify(mockUGIProvider).destroy(entry.getValue());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testExpiredUGIIsDestroyedWithoutFurtherRequests() throws IOException {
+        Entry<UserGroupInformation> entry = cache.acquire(key("server", "alice"), () -> mock(UserGroupInformation.class));
+        cache.release(entry);
+
+        nanos += TimeUnit.MINUTES.toNanos(4);
+        cache.evictExpiredEntries();
+        verify(mockUGIProvider, never()).destroy(entry.getValue());
+
+        nanos += TimeUnit.MINUTES.toNanos(1);
+        cache.evictExpiredEntries();
+        verify(mockUGIProvider).destroy(entry.getValue());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testUGIIsCreatedWithoutHoldingTheLock() throws Exception {
+        UserGroupInformation bob = mock(UserGroupInformation.class);
+        Entry<UserGroupInformation> alice = cache.acquire(key("server", "alice"), () -> {
+            // another request gets its UGI while this one is being created
+            Entry<UserGroupInformation> entry = CompletableFuture.supplyAsync(() -> cache.acquire(key("server", "bob"), () -> bob)).join();
+            assertSame(bob, entry.getValue());
+            return mock(UserGroupInformation.class);
+        });
+
+        assertNotSame(bob, alice.getValue());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testUGICreatedConcurrentlyForTheSameKeyIsDestroyed() throws IOException {
+        UserGroupInformation cached = mock(UserGroupInformation.class);
+        UserGroupInformation duplicate = mock(UserGroupInformation.class);
+        Entry<UserGroupInformation> entry = cache.acquire(key("server", "alice"), () -> {
+            // another request caches a UGI for the same key while this one is being created
+            cache.acquire(key("server", "alice"), () -> cached);
+            return duplicate;
+        });
+
+        assertSame(cached, entry.getValue());
+        assertEquals(1, cache.size());
+        verify(mockUGIProvider).destroy(duplicate);
+        verify(mockUGIProvider, never()).destroy(cached);
+    }
+
+    @Test
+    public void testUGIInUseIsNotDestroyed() throws IOException {
+        Entry<UserGroupInformation> first = cache.acquire(key("server", "alice"), () -> mock(UserGroupInformation.class));
+        Entry<UserGroupInformation> second = cache.acquire(key("server", "alice"), () -> mock(UserGroupInformation.class));
+        cache.release(first);
+
+        nanos += TimeUnit.MINUTES.toNanos(10);
+        cache.release(cache.acquire(key("server", "bob"), () -> mock(UserGroupInformation.class)));
+        verify(mockUGIProvider, never()).destroy(second.getValue());
+
+        cache.release(second);
+        nanos += TimeUnit.MINUTES.toNanos(5);
+        cache.release(cache.acquire(key("server", "bob"), () -> mock(UserGroupInformation.class)));
+        verify(mockUGIProvider).destroy(second.getValue());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIdleUGIIsEvictedWhenFull() throws IOException {
+        Entry<UserGroupInformation> alice = cache.acquire(key("server", "alice"), () -> mock(UserGroupInformation.class));
+        Entry<UserGroupInformation> bob = cache.acquire(key("server", "bob"), () -> mock(UserGroupInformation.class));
+        cache.release(alice);
+        cache.release(bob);
+        cache.release(cache.acquire(key("server", "alice"), () -> mock(UserGroupInformation.class)));
+
+        Entry<UserGroupInformation> carol = cache.acquire(key("server", "carol"), () -> mock(UserGroupInformation.class));
+        verify(mockUGIProvider).destroy(bob.getValue());
+        verify(mockUGIProvider, never()).destroy(alice.getValue());
+        assertEquals(2, cache.size());
+        cache.release(carol);
+    }
+
+    @Test
+    public void testUGIIsNotCachedWhenFullAndAllInUse() throws IOException {
+        cache.acquire(key("server", "alice"), () -> mock(UserGroupInformation.class));
+        cache.acquire(key("server", "bob"), () -> mock(UserGroupInformation.class));
+
+        Entry<UserGroupInformation> carol = cache.acquire(key("server", "carol"), () -> mock(UserGroupInformation.class));
+        assertEquals(2, cache.size());
+        verify(mockUGIProvider, never()).destroy(carol.getValue());
+
+        cache.release(carol);
+        verify(mockUGIProvider).destroy(carol.getValue());
+    }
+
+    @Test
+    public void testDisabledCacheDestroysUGIOnRelease() throws IOException {
+        cache = new UGICache(mockUGIProvider, false, 2, Duration.ofMinutes(5), () -> nanos);
+        Entry<UserGroupInformation> first = cache.acquire(key("server", "alice"), () -> mock(UserGroupInformation.class));
+        Entry<UserGroupInformation> second = cache.acquire(key("server", "alice"), () -> mock(UserGroupInformation.class));
+
+        assertNotSame(first.getValue(), second.getValue());
+        assertEquals(0, cache.size());
+        cache.release(first);
+        verify(mockUGIProvider).destroy(first.getValue());
+    }
+
+    @Test
+    public void testErrorDestroyingUGIIsIgnored() throws IOException {
+        cache = new UGICache(mockUGIProvider, false, 2, Duration.ofMinutes(5), () -> nanos);
+        Entry<UserGroupInformation> entry = cache.acquire(key("server", "alice"), () -> mock(UserGroupInformation.class));
+        doThrow(new IOException("close failed")).when(mockUGIProvider).destroy(entry.getValue());
+
+        cache.release(entry);
+        verify(mockUGIProvider).destroy(entry.getValue());
+    }
+
+    private UGICache.Key key(String server, String user) {
+        return new UGICache.Key("config", server, user, true, false, mockLoginUGI);
+    }
+}
@@ -0,0 +1,33 @@
+package org.greenplum.pxf.service.spring;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PxfThreadPoolTaskExecutorTest {
+
+    private PxfThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    public void setup() {
+        executor = new PxfThreadPoolTaskExecutor();
+        executor.setMaxPoolSize(5);
+    }
+
+    @Test
+    public void testReserveThreads() {
+        assertEquals(3, executor.reserveThreads(3));
+        assertEquals(2, executor.reserveThreads(3));
+        assertEquals(0, executor.reserveThreads(1));
+        assertEquals(5, executor.getReservedThreads());
+    }
+
+    @Test
+    public void testReleaseThreads() {
+        assertEquals(4, executor.reserveThreads(4));
+        executor.releaseThreads(4);
+        assertEquals(0, executor.getReservedThreads());
+        assertEquals(5, executor.reserveThreads(8));
+    }
+}